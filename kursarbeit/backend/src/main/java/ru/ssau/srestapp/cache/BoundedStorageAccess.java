@@ -0,0 +1,134 @@
+package ru.ssau.srestapp.cache;
+
+import org.hibernate.cache.spi.support.DomainDataStorageAccess;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import ru.ssau.srestapp.dto.admin.CacheStatisticsDto;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+//хранилище одного региона кэша Hibernate: ограничено по числу записей и времени жизни,
+//при переполнении вытесняется самая старая, просроченная считается промахом и удаляется при чтении
+final class BoundedStorageAccess implements DomainDataStorageAccess {
+
+    private final String name;
+    private final int maxSize;
+    //0 — без ограничения по времени
+    private final long ttlNanos;
+    private final LinkedHashMap<Object, Entry> entries;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    private record Entry(Object value, long expiresAt) {
+    }
+
+    BoundedStorageAccess(String name, int maxSize, Duration ttl) {
+        this.name = name;
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+        this.entries = new LinkedHashMap<>(16, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Object, Entry> eldest) {
+                if (size() > BoundedStorageAccess.this.maxSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    @Override
+    public Object getFromCache(Object key, SharedSessionContractImplementor session) {
+        Entry entry = find(key);
+        if (entry != null) {
+            hits.increment();
+            return entry.value();
+        }
+        misses.increment();
+        return null;
+    }
+
+    @Override
+    public void putIntoCache(Object key, Object value, SharedSessionContractImplementor session) {
+        lock.writeLock().lock();
+        try {
+            //удаление перед вставкой переносит обновлённую запись в конец очереди вытеснения
+            entries.remove(key);
+            entries.put(key, new Entry(value, ttlNanos > 0 ? System.nanoTime() + ttlNanos : 0));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean contains(Object key) {
+        return find(key) != null;
+    }
+
+    @Override
+    public void evictData() {
+        lock.writeLock().lock();
+        try {
+            entries.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void evictData(Object key) {
+        lock.writeLock().lock();
+        try {
+            entries.remove(key);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void release() {
+        evictData();
+    }
+
+    private Entry find(Object key) {
+        Entry entry;
+        lock.readLock().lock();
+        try {
+            entry = entries.get(key);
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (entry == null || ttlNanos <= 0 || entry.expiresAt() - System.nanoTime() > 0) {
+            return entry;
+        }
+        lock.writeLock().lock();
+        try {
+            //запись могли уже заменить свежей, пока не было блокировки записи
+            if (entries.remove(key, entry)) {
+                evictions.increment();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return null;
+    }
+
+    CacheStatisticsDto statistics() {
+        int size;
+        lock.readLock().lock();
+        try {
+            size = entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+        return new CacheStatisticsDto(name, size, hits.sum(), misses.sum(), evictions.sum());
+    }
+}
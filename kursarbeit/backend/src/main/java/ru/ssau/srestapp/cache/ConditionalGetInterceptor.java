@@ -0,0 +1,67 @@
+package ru.ssau.srestapp.cache;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import ru.ssau.srestapp.datasource.PrimaryRouting;
+
+import java.util.Set;
+
+//условный GET: ETag и Last-Modified берутся из версии семейства до вызова контроллера,
+//поэтому при совпадении If-None-Match ответ 304 уходит без обращения к сервисам и репозиториям
+@RequiredArgsConstructor
+public class ConditionalGetInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String CACHE_CONTROL = CacheControl.noCache().cachePublic().getHeaderValue();
+
+    private final ResourceVersions resourceVersions;
+    private final ResourceFamily family;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!HttpMethod.GET.matches(request.getMethod()) && !HttpMethod.HEAD.matches(request.getMethod())) {
+            return true;
+        }
+        //версия читается до формирования ответа: если запись произойдёт в это время,
+        //ответ получит старый ETag и следующий запрос просто загрузит его заново
+        ResourceVersions.Version version = resourceVersions.current(family);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        //один URL отдаёт JSON и NDJSON в зависимости от Accept: кэши должны хранить их раздельно
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        if (new ServletWebRequest(request, response).checkNotModified(etag(request, version), version.lastModified())) {
+            return false;
+        }
+        //тело под новым ETag читается с основной БД: отстающая реплика отдала бы под ним старые данные,
+        //и последующие 304 подтверждали бы их клиентам до следующей записи
+        PrimaryRouting.force();
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        PrimaryRouting.release();
+    }
+
+    //поток контейнера освобождается до записи асинхронного тела, afterCompletion на нём уже не вызовется
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        PrimaryRouting.release();
+    }
+
+    //тип из produces выбранного обработчика входит в ETag, иначе 304 на JSON-версию подтвердил бы кэшированный NDJSON
+    private static String etag(HttpServletRequest request, ResourceVersions.Version version) {
+        @SuppressWarnings("unchecked")
+        Set<MediaType> producible = (Set<MediaType>) request.getAttribute(HandlerMapping.PRODUCIBLE_MEDIA_TYPES_ATTRIBUTE);
+        if (producible == null || producible.isEmpty()) {
+            return version.etag();
+        }
+        return version.etag() + "-" + producible.iterator().next().getSubtype();
+    }
+}
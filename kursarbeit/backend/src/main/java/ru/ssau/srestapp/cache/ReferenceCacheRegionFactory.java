@@ -0,0 +1,75 @@
+package ru.ssau.srestapp.cache;
+
+import org.hibernate.boot.spi.SessionFactoryOptions;
+import org.hibernate.cache.cfg.spi.DomainDataRegionBuildingContext;
+import org.hibernate.cache.cfg.spi.DomainDataRegionConfig;
+import org.hibernate.cache.spi.support.DomainDataStorageAccess;
+import org.hibernate.cache.spi.support.RegionFactoryTemplate;
+import org.hibernate.cache.spi.support.StorageAccess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import ru.ssau.srestapp.dto.admin.CacheStatisticsDto;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+//кэш второго уровня Hibernate в памяти процесса для справочников (категории, роли, места, аватары).
+//Экземпляр создаётся Spring и передаётся в Hibernate через HibernateCacheConfig, чтобы статистика была доступна администратору.
+//Кэш локален для экземпляра: изменения, сделанные другим экземпляром приложения, сюда не доходят,
+//поэтому записи сущностей и запросов живут не дольше ttl — это и есть предел устаревания между экземплярами
+public class ReferenceCacheRegionFactory extends RegionFactoryTemplate {
+
+    private static final String REGION_PREFIX = "ru.ssau.srestapp.entity.";
+
+    private final int maxEntitiesPerRegion;
+    private final int maxQueryResults;
+    private final Duration ttl;
+    private final Map<String, BoundedStorageAccess> regions = new ConcurrentHashMap<>();
+
+    public ReferenceCacheRegionFactory(int maxEntitiesPerRegion, int maxQueryResults, Duration ttl) {
+        this.maxEntitiesPerRegion = maxEntitiesPerRegion;
+        this.maxQueryResults = maxQueryResults;
+        this.ttl = ttl;
+    }
+
+    @Override
+    protected void prepareForUse(SessionFactoryOptions settings, Map<String, Object> configValues) {
+    }
+
+    @Override
+    protected void releaseFromUse() {
+        regions.values().forEach(BoundedStorageAccess::release);
+        regions.clear();
+    }
+
+    @Override
+    protected DomainDataStorageAccess createDomainDataStorageAccess(DomainDataRegionConfig regionConfig,
+                                                                    DomainDataRegionBuildingContext buildingContext) {
+        return register(regionConfig.getRegionName(), maxEntitiesPerRegion, ttl);
+    }
+
+    @Override
+    protected StorageAccess createQueryResultsRegionStorageAccess(String regionName, SessionFactoryImplementor sessionFactory) {
+        return register(regionName, maxQueryResults, ttl);
+    }
+
+    //метки времени изменения таблиц не вытесняются и не истекают: без них кэш запросов вернул бы устаревший результат
+    @Override
+    protected StorageAccess createTimestampsRegionStorageAccess(String regionName, SessionFactoryImplementor sessionFactory) {
+        return register(regionName, Integer.MAX_VALUE, Duration.ZERO);
+    }
+
+    public List<CacheStatisticsDto> statistics() {
+        return regions.values().stream()
+                .map(BoundedStorageAccess::statistics)
+                .sorted(Comparator.comparing(CacheStatisticsDto::getName))
+                .toList();
+    }
+
+    private BoundedStorageAccess register(String regionName, int maxSize, Duration ttl) {
+        String name = regionName.startsWith(REGION_PREFIX) ? regionName.substring(REGION_PREFIX.length()) : regionName;
+        return regions.computeIfAbsent(regionName, r -> new BoundedStorageAccess(name, maxSize, ttl));
+    }
+}
@@ -0,0 +1,30 @@
+package ru.ssau.srestapp.cache;
+
+import java.util.Set;
+
+//семейства публичных ресурсов с общей версией для ETag. Изменение семейства меняет и версии зависимых:
+//названия категорий и мест входят в ответы по мероприятиям
+public enum ResourceFamily {
+
+    EVENTS(true),
+    CATEGORIES(false, EVENTS),
+    PLACES(false, EVENTS),
+    AVATARS(false);
+
+    //списки вроде /api/events/active зависят от текущей даты и меняются в полночь без записи в БД
+    private final boolean dateDependent;
+    private final Set<ResourceFamily> dependents;
+
+    ResourceFamily(boolean dateDependent, ResourceFamily... dependents) {
+        this.dateDependent = dateDependent;
+        this.dependents = Set.of(dependents);
+    }
+
+    public boolean isDateDependent() {
+        return dateDependent;
+    }
+
+    public Set<ResourceFamily> dependents() {
+        return dependents;
+    }
+}
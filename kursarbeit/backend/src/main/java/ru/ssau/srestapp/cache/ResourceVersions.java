@@ -0,0 +1,74 @@
+package ru.ssau.srestapp.cache;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.ssau.srestapp.event.CatalogChangedEvent;
+import ru.ssau.srestapp.event.EventChangedEvent;
+import ru.ssau.srestapp.event.UserChangedEvent;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+//счётчики версий семейств ресурсов для условных GET. Увеличиваются после коммита записи,
+//поэтому клиент не может получить новый ETag вместе со старыми данными
+@Component
+public class ResourceVersions {
+
+    //после перезапуска счётчики начинаются заново, метка экземпляра не даёт совпасть старым ETag
+    private final String instance = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+    private final Map<ResourceFamily, AtomicLong> versions = new EnumMap<>(ResourceFamily.class);
+    private final Map<ResourceFamily, AtomicLong> modifiedAt = new EnumMap<>(ResourceFamily.class);
+
+    public record Version(String etag, long lastModified) {
+    }
+
+    public ResourceVersions() {
+        long now = System.currentTimeMillis();
+        for (ResourceFamily family : ResourceFamily.values()) {
+            versions.put(family, new AtomicLong());
+            modifiedAt.put(family, new AtomicLong(now));
+        }
+    }
+
+    public Version current(ResourceFamily family) {
+        long version = versions.get(family).get();
+        long lastModified = modifiedAt.get(family).get();
+        String etag = family.name().toLowerCase() + "-" + instance + "-" + version;
+        if (family.isDateDependent()) {
+            LocalDate today = LocalDate.now();
+            etag += "-" + today.toEpochDay();
+            lastModified = Math.max(lastModified, today.atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        }
+        return new Version(etag, lastModified);
+    }
+
+    public void bump(ResourceFamily family) {
+        increment(family);
+        family.dependents().forEach(this::increment);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent change) {
+        bump(change.family());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEventChanged(EventChangedEvent change) {
+        bump(ResourceFamily.EVENTS);
+    }
+
+    //ФИО организатора и администратора входят в ответы по мероприятиям
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent change) {
+        bump(ResourceFamily.EVENTS);
+    }
+
+    //время обновляется раньше версии: увидевший новую версию увидит и новое время
+    private void increment(ResourceFamily family) {
+        modifiedAt.get(family).set(System.currentTimeMillis());
+        versions.get(family).incrementAndGet();
+    }
+}
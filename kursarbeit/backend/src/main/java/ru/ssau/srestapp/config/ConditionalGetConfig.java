@@ -0,0 +1,29 @@
+package ru.ssau.srestapp.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import ru.ssau.srestapp.cache.ConditionalGetInterceptor;
+import ru.ssau.srestapp.cache.ResourceFamily;
+import ru.ssau.srestapp.cache.ResourceVersions;
+
+//публичные каталоги из SecurityConfig.configurePublicEndpoints, ответы которых не зависят от пользователя
+@Configuration
+@RequiredArgsConstructor
+public class ConditionalGetConfig implements WebMvcConfigurer {
+
+    private final ResourceVersions resourceVersions;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        register(registry, ResourceFamily.EVENTS, "/api/events/**");
+        register(registry, ResourceFamily.CATEGORIES, "/api/categories/**");
+        register(registry, ResourceFamily.PLACES, "/api/places/**", "/api/online-places/**", "/api/physical-places/**");
+        register(registry, ResourceFamily.AVATARS, "/api/avatars/**");
+    }
+
+    private void register(InterceptorRegistry registry, ResourceFamily family, String... pathPatterns) {
+        registry.addInterceptor(new ConditionalGetInterceptor(resourceVersions, family)).addPathPatterns(pathPatterns);
+    }
+}
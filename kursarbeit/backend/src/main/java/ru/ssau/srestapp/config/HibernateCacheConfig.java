@@ -0,0 +1,34 @@
+package ru.ssau.srestapp.config;
+
+import jakarta.persistence.SharedCacheMode;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.hibernate.autoconfigure.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import ru.ssau.srestapp.cache.ReferenceCacheRegionFactory;
+
+import java.time.Duration;
+
+//кэшируются только сущности с @Cacheable, а запросы — только с подсказкой org.hibernate.cacheable в репозитории
+@Configuration
+public class HibernateCacheConfig {
+
+    @Bean
+    public ReferenceCacheRegionFactory referenceCacheRegionFactory(
+            @Value("${reference-cache.max-size:1000}") int maxEntitiesPerRegion,
+            @Value("${reference-cache.query-max-size:256}") int maxQueryResults,
+            @Value("${reference-cache.ttl:PT5M}") Duration ttl) {
+        return new ReferenceCacheRegionFactory(maxEntitiesPerRegion, maxQueryResults, ttl);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(ReferenceCacheRegionFactory regionFactory) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.USE_QUERY_CACHE, true);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, regionFactory);
+            properties.put(AvailableSettings.JAKARTA_SHARED_CACHE_MODE, SharedCacheMode.ENABLE_SELECTIVE);
+        };
+    }
+}
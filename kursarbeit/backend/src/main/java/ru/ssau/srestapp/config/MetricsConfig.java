@@ -0,0 +1,41 @@
+package ru.ssau.srestapp.config;
+
+import io.micrometer.observation.ObservationRegistry;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.hibernate.autoconfigure.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import ru.ssau.srestapp.metrics.MetricsRegistry;
+import ru.ssau.srestapp.metrics.RequestMetricsInterceptor;
+import ru.ssau.srestapp.metrics.ScheduledTaskMetrics;
+import ru.ssau.srestapp.metrics.SqlStatementCounter;
+
+//источники метрик; снимаются через GET /api/admin/metrics, доступный только ADMIN
+@Configuration
+@RequiredArgsConstructor
+public class MetricsConfig implements WebMvcConfigurer, SchedulingConfigurer {
+
+    private final MetricsRegistry metrics;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new RequestMetricsInterceptor(metrics)).addPathPatterns("/**");
+    }
+
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar taskRegistrar) {
+        ObservationRegistry observationRegistry = ObservationRegistry.create();
+        observationRegistry.observationConfig().observationHandler(new ScheduledTaskMetrics(metrics));
+        taskRegistrar.setObservationRegistry(observationRegistry);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer sqlStatementCounterCustomizer() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new SqlStatementCounter());
+    }
+}
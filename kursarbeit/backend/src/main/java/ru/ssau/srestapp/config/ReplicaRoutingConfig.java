@@ -0,0 +1,95 @@
+package ru.ssau.srestapp.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import ru.ssau.srestapp.datasource.ConnectionLimitingDataSource;
+import ru.ssau.srestapp.datasource.ReadWriteRoutingDataSource;
+import ru.ssau.srestapp.datasource.RecentWriters;
+import ru.ssau.srestapp.datasource.ReplicaPool;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+//включается списком datasource.replica.urls через запятую; без него все запросы идут в spring.datasource
+@Configuration
+@ConditionalOnProperty("datasource.replica.urls")
+public class ReplicaRoutingConfig {
+
+    @Bean(destroyMethod = "close")
+    public ReplicaPool replicaPool(@Value("${datasource.replica.urls}") String[] urls,
+                                   @Value("${datasource.replica.username:${spring.datasource.username:}}") String username,
+                                   @Value("${datasource.replica.password:${spring.datasource.password:}}") String password,
+                                   @Value("${datasource.replica.pool-size:10}") int poolSize,
+                                   @Value("${datasource.replica.connection-timeout:PT1S}") Duration connectionTimeout,
+                                   Environment environment) {
+        boolean virtualThreads = Threading.VIRTUAL.isActive(environment);
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (int i = 0; i < urls.length; i++) {
+            HikariDataSource pool = new HikariDataSource();
+            pool.setPoolName("replica-" + (i + 1));
+            pool.setJdbcUrl(urls[i].trim());
+            pool.setUsername(username);
+            pool.setPassword(password);
+            pool.setMaximumPoolSize(poolSize);
+            pool.setReadOnly(true);
+            //короткое ожидание, чтобы при отказе реплики чтение быстро ушло на другой источник
+            pool.setConnectionTimeout(connectionTimeout.toMillis());
+            //недоступная при старте реплика не мешает запуску, её подхватит проверка здоровья
+            pool.setInitializationFailTimeout(-1);
+            replicas.put(pool.getPoolName(), virtualThreads ? ConnectionLimitingDataSource.of(pool) : pool);
+        }
+        return new ReplicaPool(replicas);
+    }
+
+    @Bean
+    public RecentWriters recentWriters(@Value("${datasource.replica.read-your-writes-window:PT5S}") Duration window) {
+        return new RecentWriters(window);
+    }
+
+    @Bean
+    static BeanPostProcessor readWriteRoutingPostProcessor(ObjectProvider<ReplicaPool> replicaPool,
+                                                           ObjectProvider<RecentWriters> recentWriters) {
+        return new ReadWriteRoutingPostProcessor(replicaPool, recentWriters);
+    }
+
+    //последним из обёрток DataSource: основной пул к этому моменту уже обёрнут, если это нужно
+    private static final class ReadWriteRoutingPostProcessor implements BeanPostProcessor, Ordered {
+
+        private final ObjectProvider<ReplicaPool> replicaPool;
+        private final ObjectProvider<RecentWriters> recentWriters;
+
+        private ReadWriteRoutingPostProcessor(ObjectProvider<ReplicaPool> replicaPool, ObjectProvider<RecentWriters> recentWriters) {
+            this.replicaPool = replicaPool;
+            this.recentWriters = recentWriters;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!"dataSource".equals(beanName) || !(bean instanceof DataSource primary)) {
+                return bean;
+            }
+            ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(
+                    primary, replicaPool.getObject(), recentWriters.getObject());
+            LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(routing);
+            //autocommit и уровень изоляции по умолчанию читаются при старте с основной БД, а не при первом запросе
+            proxy.checkDefaultConnectionProperties();
+            return proxy;
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.LOWEST_PRECEDENCE;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package ru.ssau.srestapp.config;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -10,14 +11,16 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AuthorizeHttpRequestsConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfigurationSource;
+import ru.ssau.srestapp.security.BoundedPasswordEncoder;
 import ru.ssau.srestapp.security.JwtFilter;
 import ru.ssau.srestapp.service.CustomUserDetailsService;
 
+import java.time.Duration;
+
 import static org.springframework.http.HttpMethod.*;
 
 @Configuration
@@ -31,15 +34,22 @@ public class SecurityConfig {
     private final JwtFilter jwtFilter;
     private final CorsConfigurationSource corsConfigurationSource;
 
+    //по умолчанию хэширование занимает не больше половины ядер, 0 — выбрать автоматически
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public BoundedPasswordEncoder passwordEncoder(@Value("${security.password.bcrypt-strength:10}") int strength,
+                                                  @Value("${security.password.hashing-threads:0}") int threads,
+                                                  @Value("${security.password.queue-capacity:100}") int queueCapacity,
+                                                  @Value("${security.password.max-wait:PT3S}") Duration maxWait) {
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        return new BoundedPasswordEncoder(strength, poolSize, queueCapacity, maxWait);
     }
 
+    //после успешного входа хэш с устаревшей стоимостью пересчитывается и сохраняется через CustomUserDetailsService
     @Bean
     public DaoAuthenticationProvider authenticationProvider(PasswordEncoder passwordEncoder, CustomUserDetailsService customUserDetailsService) {
         DaoAuthenticationProvider provider = new DaoAuthenticationProvider(customUserDetailsService);
         provider.setPasswordEncoder(passwordEncoder);
+        provider.setUserDetailsPasswordService(customUserDetailsService);
         return provider;
     }
 
@@ -0,0 +1,57 @@
+package ru.ssau.srestapp.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import ru.ssau.srestapp.datasource.ConnectionLimitingDataSource;
+
+//режим потоков включается стандартным spring.threads.virtual.enabled: Boot переводит на виртуальные потоки
+//Tomcat, @Async и @Scheduled, но только на Java 21+, на более старой JVM флаг молча игнорируется
+@Configuration
+@Slf4j
+public class ThreadingConfig {
+
+    //с виртуальными потоками число одновременных запросов больше не ограничено пулом Tomcat,
+    //поэтому доступ к пулу соединений ограничивается семафором размером с сам пул
+    @Bean
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    static BeanPostProcessor connectionLimitingPostProcessor() {
+        return new ConnectionLimitingPostProcessor();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void logThreadingMode(ApplicationReadyEvent event) {
+        Environment environment = event.getApplicationContext().getEnvironment();
+        boolean requested = environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false);
+        if (Threading.VIRTUAL.isActive(environment)) {
+            log.info("Запросы, @Async и @Scheduled выполняются на виртуальных потоках");
+        } else if (requested) {
+            log.warn("Виртуальные потоки запрошены, но требуют Java 21+ (текущая {}), используются пулы платформенных потоков",
+                    Runtime.version().feature());
+        } else {
+            log.info("Запросы, @Async и @Scheduled выполняются на пулах платформенных потоков");
+        }
+    }
+
+    //раньше остальных обёрток DataSource, чтобы ограничивать именно пул Hikari
+    private static final class ConnectionLimitingPostProcessor implements BeanPostProcessor, Ordered {
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            return bean instanceof HikariDataSource hikari ? ConnectionLimitingDataSource.of(hikari) : bean;
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+    }
+}
@@ -1,12 +1,17 @@
 package ru.ssau.srestapp.controller;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import ru.ssau.srestapp.dto.admin.AdminStatisticsDto;
+import ru.ssau.srestapp.dto.admin.CacheStatisticsDto;
 import ru.ssau.srestapp.service.AdminService;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/admin")
 @RequiredArgsConstructor
@@ -18,4 +23,21 @@ public class AdminController {
     public AdminStatisticsDto getStatistics() {
         return adminService.getStatistics();
     }
+
+    //снимок при подключении, затем новый снимок после каждого изменения счётчиков
+    @GetMapping(value = "/statistics/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamStatistics() {
+        return adminService.subscribeToStatistics();
+    }
+
+    @GetMapping("/caches")
+    public List<CacheStatisticsDto> getCacheStatistics() {
+        return adminService.getCacheStatistics();
+    }
+
+    //текстовый формат Prometheus
+    @GetMapping(value = "/metrics", produces = "text/plain; version=0.0.4; charset=utf-8")
+    public String getMetrics() {
+        return adminService.scrapeMetrics();
+    }
 }
@@ -2,6 +2,7 @@ package ru.ssau.srestapp.controller;
 
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
@@ -45,13 +46,26 @@ public class AuthController {
     @PostMapping("/refresh")
     @ResponseStatus(HttpStatus.OK)
     public TokenResponseDto refresh(@Valid @RequestBody RefreshTokenRequestDto request) {
-        Long userId = jwtTokenService.getUserIdFromToken(request.getRefreshToken());
+        Long userId = jwtTokenService.useRefreshToken(request.getRefreshToken());
         CustomUserDetails userDetails = customUserDetailsService.loadUserById(userId);
         String newAccessToken = jwtTokenService.generateAccessToken(userDetails);
         String newRefreshToken = jwtTokenService.generateRefreshToken(userDetails);
         return new TokenResponseDto(newAccessToken, newRefreshToken, userDetails.getUserId(), userDetails.getEmail());
     }
 
+    //отзывает текущий access-токен и, если передан, refresh-токен
+    @PostMapping("/logout")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void logout(@RequestHeader(HttpHeaders.AUTHORIZATION) String authorization,
+                       @RequestBody(required = false) RefreshTokenRequestDto request) {
+        if (authorization.startsWith("Bearer ")) {
+            jwtTokenService.revokeToken(authorization.substring(7));
+        }
+        if (request != null && request.getRefreshToken() != null) {
+            jwtTokenService.revokeToken(request.getRefreshToken());
+        }
+    }
+
     @GetMapping("/me")
     @ResponseStatus(HttpStatus.OK)
     public Map<String, Object> getCurrentUser(Authentication authentication) {
@@ -4,11 +4,16 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.ssau.srestapp.dto.admin.BulkModerationResultDto;
 import ru.ssau.srestapp.dto.event.*;
 import ru.ssau.srestapp.entity.EventStatus;
 import ru.ssau.srestapp.exception.*;
 import ru.ssau.srestapp.service.EventService;
+import ru.ssau.srestapp.streaming.NdjsonResponses;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -20,12 +25,18 @@ import java.util.Map;
 public class EventController {
 
     private final EventService eventService;
+    private final NdjsonResponses ndjsonResponses;
 
     @GetMapping
     public List<EventShortDto> getAll() {
         return eventService.getAll();
     }
 
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAll() {
+        return ndjsonResponses.stream(eventService::streamAll);
+    }
+
     @GetMapping("/verified")
     public List<EventShortDto> getAllVerified() {
         return eventService.getAllVerified();
@@ -36,6 +47,13 @@ public class EventController {
         return eventService.getActiveAndVerified();
     }
 
+    @GetMapping("/page")
+    public EventPageDto getPage(@ModelAttribute EventFilterDto filter,
+                                @RequestParam(required = false) String cursor,
+                                @RequestParam(required = false) Integer size) {
+        return eventService.getPage(filter, cursor, size);
+    }
+
     @GetMapping("/{id}")
     public EventResponseDto getById(@PathVariable Long id) throws EntityNotFoundException {
         return eventService.getById(id);
@@ -70,8 +88,8 @@ public class EventController {
     }
 
     @GetMapping("/search")
-    public List<EventShortDto> search(@RequestParam String keyword) {
-        return eventService.search(keyword);
+    public List<EventShortDto> search(@RequestParam String keyword, @RequestParam(required = false) Integer limit) {
+        return eventService.search(keyword, limit);
     }
 
     @GetMapping("/status/{status}")
@@ -113,4 +131,9 @@ public class EventController {
         String comment = body != null ? body.get("comment") : null;
         eventService.rejectChanges(id, comment);
     }
+
+    @PostMapping("/admin/bulk-moderation")
+    public BulkModerationResultDto moderateBulk(@Valid @RequestBody EventBulkModerationDto dto) {
+        return eventService.moderateBulk(dto);
+    }
 }
@@ -3,11 +3,15 @@ package ru.ssau.srestapp.controller;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.ssau.srestapp.dto.eventParticipant.*;
 import ru.ssau.srestapp.entity.ParticipationStatus;
 import ru.ssau.srestapp.exception.*;
 import ru.ssau.srestapp.service.EventParticipantService;
+import ru.ssau.srestapp.streaming.NdjsonResponses;
 
 import java.util.List;
 
@@ -17,6 +21,7 @@ import java.util.List;
 public class EventParticipantController {
 
     private final EventParticipantService eventParticipantService;
+    private final NdjsonResponses ndjsonResponses;
 
     @PostMapping("/register")
     @ResponseStatus(HttpStatus.CREATED)
@@ -47,6 +52,11 @@ public class EventParticipantController {
         return eventParticipantService.getParticipantsByEvent(eventId);
     }
 
+    @GetMapping(value = "/events/{eventId}", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamParticipantsByEvent(@PathVariable Long eventId) {
+        return ndjsonResponses.<EventParticipantShortDto>stream(sink -> eventParticipantService.streamParticipantsByEvent(eventId, sink));
+    }
+
     @GetMapping("/events/{eventId}/registered")
     public List<EventParticipantShortDto> getRegisteredParticipants(@PathVariable Long eventId) {
         return eventParticipantService.getRegisteredParticipants(eventId);
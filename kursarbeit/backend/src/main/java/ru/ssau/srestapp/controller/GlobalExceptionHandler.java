@@ -1,7 +1,9 @@
 package ru.ssau.srestapp.controller;
 
 import io.jsonwebtoken.JwtException;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.security.authentication.BadCredentialsException;
@@ -84,6 +86,7 @@ public class GlobalExceptionHandler {
 
     @ExceptionHandler({
             IllegalArgumentException.class,
+            InvalidCursorException.class,
             InvalidDateTimeException.class,
             EventMaxParticipantsReachedException.class,
             ModerationException.class,
@@ -98,6 +101,14 @@ public class GlobalExceptionHandler {
         return buildBody(HttpStatus.BAD_REQUEST, ex.getMessage());
     }
 
+    @ExceptionHandler(PasswordHashingUnavailableException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public Map<String, Object> handlePasswordHashingUnavailable(PasswordHashingUnavailableException ex, HttpServletResponse response) {
+        log.warn("Очередь хэширования паролей переполнена");
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        return buildBody(HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage());
+    }
+
     @ExceptionHandler(UtilException.class)
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
     public Map<String, Object> handleUtilException(UtilException ex) {
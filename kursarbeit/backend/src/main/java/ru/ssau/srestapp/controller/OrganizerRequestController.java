@@ -4,6 +4,7 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
+import ru.ssau.srestapp.dto.admin.BulkModerationResultDto;
 import ru.ssau.srestapp.dto.organizerRequest.*;
 import ru.ssau.srestapp.exception.EntityNotFoundException;
 import ru.ssau.srestapp.exception.DuplicateEntityException;
@@ -49,6 +50,11 @@ public class OrganizerRequestController {
         return organizerRequestService.reviewRequest(id, approved, reviewComment, sendEmail);
     }
 
+    @PostMapping("/bulk-review")
+    public BulkModerationResultDto reviewBulk(@Valid @RequestBody OrganizerRequestBulkReviewDto dto) throws EntityNotFoundException {
+        return organizerRequestService.reviewBulk(dto);
+    }
+
     @DeleteMapping("/{id}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
     public void deleteRequest(@PathVariable Long id) throws EntityNotFoundException {
@@ -3,10 +3,14 @@ package ru.ssau.srestapp.controller;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.ssau.srestapp.dto.user.*;
 import ru.ssau.srestapp.exception.*;
 import ru.ssau.srestapp.service.UserService;
+import ru.ssau.srestapp.streaming.NdjsonResponses;
 import ru.ssau.srestapp.util.SecurityUtils;
 
 import java.util.List;
@@ -17,12 +21,18 @@ import java.util.List;
 public class UserController {
 
     private final UserService userService;
+    private final NdjsonResponses ndjsonResponses;
 
     @GetMapping
     public List<UserResponseDto> getAll() {
         return userService.getAll();
     }
 
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAll() {
+        return ndjsonResponses.stream(userService::streamAll);
+    }
+
     @GetMapping("/{id}")
     public UserResponseDto getById(@PathVariable Long id) throws EntityNotFoundException {
         return userService.getById(id);
@@ -0,0 +1,45 @@
+package ru.ssau.srestapp.datasource;
+
+import java.util.function.Supplier;
+
+//явное чтение с основной БД даже в readOnly-транзакции: перезагрузка кэшей (принципалы) и ответы с ETag
+//не должны получить из отстающей реплики данные старее версии, которую уже увидели после коммита
+public final class PrimaryRouting {
+
+    private static final ThreadLocal<Boolean> FORCED = new ThreadLocal<>();
+
+    private PrimaryRouting() {
+    }
+
+    public static boolean isForced() {
+        return Boolean.TRUE.equals(FORCED.get());
+    }
+
+    public static <T> T call(Supplier<T> action) {
+        boolean wasForced = isForced();
+        force();
+        try {
+            return action.get();
+        } finally {
+            if (!wasForced) {
+                release();
+            }
+        }
+    }
+
+    public static void run(Runnable action) {
+        call(() -> {
+            action.run();
+            return null;
+        });
+    }
+
+    //для перехватчиков, где вызов не оборачивается: force в начале запроса, release по его завершении
+    public static void force() {
+        FORCED.set(Boolean.TRUE);
+    }
+
+    public static void release() {
+        FORCED.remove();
+    }
+}
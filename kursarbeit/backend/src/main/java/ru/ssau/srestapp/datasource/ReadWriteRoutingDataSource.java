@@ -0,0 +1,55 @@
+package ru.ssau.srestapp.datasource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+
+//транзакции readOnly читают с реплик, остальные работают с основной БД. Ставится за LazyConnectionDataSourceProxy:
+//физическое соединение берётся при первом запросе, когда признак readOnly транзакции уже выставлен.
+//Целевой источник DelegatingDataSource — основная БД: через него DataSourceUnwrapper и датчики находят HikariDataSource
+public class ReadWriteRoutingDataSource extends DelegatingDataSource {
+
+    private final DataSource primary;
+    private final ReplicaPool replicas;
+    private final RecentWriters recentWriters;
+
+    public ReadWriteRoutingDataSource(DataSource primary, ReplicaPool replicas, RecentWriters recentWriters) {
+        super(primary);
+        this.primary = primary;
+        this.replicas = replicas;
+        this.recentWriters = recentWriters;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (!PrimaryRouting.isForced() && !recentWriters.isCurrentUserRecent()) {
+                Connection replica = replicas.getConnection();
+                if (replica != null) {
+                    return replica;
+                }
+            }
+            return primary.getConnection();
+        }
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                && TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    recentWriters.recordCurrentUser();
+                }
+            });
+        }
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Маршрутизация не поддерживает соединения с отдельными учётными данными");
+    }
+}
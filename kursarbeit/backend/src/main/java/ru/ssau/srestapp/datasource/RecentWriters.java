@@ -0,0 +1,55 @@
+package ru.ssau.srestapp.datasource;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import ru.ssau.srestapp.security.CustomUserDetails;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+//пользователи, недавно изменившие данные: их чтения в течение окна идут на основную БД,
+//чтобы не получить из отстающей реплики состояние до собственной записи
+public class RecentWriters {
+
+    private final long windowNanos;
+    private final Map<Long, Long> lastWriteAt = new ConcurrentHashMap<>();
+
+    public RecentWriters(Duration window) {
+        this.windowNanos = window.toNanos();
+    }
+
+    public void recordCurrentUser() {
+        Long userId = currentUserId();
+        if (userId != null) {
+            lastWriteAt.put(userId, System.nanoTime());
+        }
+    }
+
+    public boolean isCurrentUserRecent() {
+        Long userId = currentUserId();
+        Long writtenAt = userId != null ? lastWriteAt.get(userId) : null;
+        if (writtenAt == null) {
+            return false;
+        }
+        if (System.nanoTime() - writtenAt < windowNanos) {
+            return true;
+        }
+        lastWriteAt.remove(userId, writtenAt);
+        return false;
+    }
+
+    @Scheduled(fixedRate = 60_000)
+    public void purgeExpired() {
+        long now = System.nanoTime();
+        lastWriteAt.values().removeIf(writtenAt -> now - writtenAt >= windowNanos);
+    }
+
+    private static Long currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.getPrincipal() instanceof CustomUserDetails user
+                ? user.getUserId()
+                : null;
+    }
+}
@@ -10,4 +10,7 @@ public class AdminStatisticsDto {
     private long totalOrganizers;
     private long pendingEvents;
     private long pendingOrganizerRequests;
+    private long registrationsToday;
+    private long pendingModeration;
+    private long activeEvents;
 }
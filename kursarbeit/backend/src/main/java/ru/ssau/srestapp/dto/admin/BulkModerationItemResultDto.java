@@ -0,0 +1,21 @@
+package ru.ssau.srestapp.dto.admin;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+//итог по одному элементу пакетной модерации; error заполнен, только если элемент не применён
+@Data
+@AllArgsConstructor
+public class BulkModerationItemResultDto {
+    private Long id;
+    private boolean success;
+    private String error;
+
+    public static BulkModerationItemResultDto success(Long id) {
+        return new BulkModerationItemResultDto(id, true, null);
+    }
+
+    public static BulkModerationItemResultDto failure(Long id, String error) {
+        return new BulkModerationItemResultDto(id, false, error);
+    }
+}
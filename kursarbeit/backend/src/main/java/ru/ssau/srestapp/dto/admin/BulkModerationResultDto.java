@@ -0,0 +1,21 @@
+package ru.ssau.srestapp.dto.admin;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+//отчёт пакетной модерации: элементы в порядке запроса
+@Data
+@AllArgsConstructor
+public class BulkModerationResultDto {
+    private int succeeded;
+    private int failed;
+    private int emailsQueued;
+    private List<BulkModerationItemResultDto> items;
+
+    public static BulkModerationResultDto of(List<BulkModerationItemResultDto> items, int emailsQueued) {
+        int succeeded = (int) items.stream().filter(BulkModerationItemResultDto::isSuccess).count();
+        return new BulkModerationResultDto(succeeded, items.size() - succeeded, emailsQueued, items);
+    }
+}
@@ -0,0 +1,14 @@
+package ru.ssau.srestapp.dto.admin;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class CacheStatisticsDto {
+    private String name;
+    private long size;
+    private long hits;
+    private long misses;
+    private long evictions;
+}
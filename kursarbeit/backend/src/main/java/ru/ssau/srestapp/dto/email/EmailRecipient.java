@@ -0,0 +1,11 @@
+package ru.ssau.srestapp.dto.email;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class EmailRecipient {
+    private String email;
+    private String userName;
+}
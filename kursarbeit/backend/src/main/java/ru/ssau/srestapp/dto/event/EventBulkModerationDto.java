@@ -0,0 +1,18 @@
+package ru.ssau.srestapp.dto.event;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class EventBulkModerationDto {
+    @NotEmpty(message = "Список мероприятий не должен быть пустым")
+    @Size(max = 500, message = "За один запрос можно обработать не более 500 мероприятий")
+    private List<@Valid EventBulkModerationItemDto> items;
+
+    //письма о подтверждении/отклонении (VERIFY/UNVERIFY); о черновиках организатор уведомляется всегда
+    private Boolean sendEmail;
+}
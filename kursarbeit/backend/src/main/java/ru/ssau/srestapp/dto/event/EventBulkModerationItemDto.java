@@ -0,0 +1,20 @@
+package ru.ssau.srestapp.dto.event;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.util.List;
+
+//fields и applyAll учитываются только для APPROVE_CHANGES, как в ApproveChangesDto
+@Data
+public class EventBulkModerationItemDto {
+    @NotNull(message = "id мероприятия обязателен")
+    private Long idEvent;
+
+    @NotNull(message = "Решение обязательно")
+    private EventModerationDecision decision;
+
+    private String comment;
+    private List<String> fields;
+    private Boolean applyAll;
+}
@@ -0,0 +1,28 @@
+package ru.ssau.srestapp.dto.event;
+
+import lombok.Data;
+import org.springframework.format.annotation.DateTimeFormat;
+import ru.ssau.srestapp.entity.EventFormat;
+import ru.ssau.srestapp.entity.EventStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+//фильтры постраничного списка мероприятий, все поля необязательные
+@Data
+public class EventFilterDto {
+    private Long categoryId;
+    private EventStatus status;
+    private EventFormat format;
+    private Boolean verified;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime from;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime to;
+
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
+    private String keyword;
+}
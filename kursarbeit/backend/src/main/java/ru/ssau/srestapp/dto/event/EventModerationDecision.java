@@ -0,0 +1,9 @@
+package ru.ssau.srestapp.dto.event;
+
+//решение администратора по мероприятию в пакетной модерации
+public enum EventModerationDecision {
+    VERIFY,
+    UNVERIFY,
+    APPROVE_CHANGES,
+    REJECT_CHANGES
+}
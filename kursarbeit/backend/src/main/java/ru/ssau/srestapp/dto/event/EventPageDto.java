@@ -0,0 +1,14 @@
+package ru.ssau.srestapp.dto.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class EventPageDto {
+    private List<EventShortDto> items;
+    private String nextCursor;
+    private boolean hasNext;
+}
@@ -0,0 +1,12 @@
+package ru.ssau.srestapp.dto.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class EventScoringAttributesDto {
+    private Long idEvent;
+    private Integer maxParticipants;
+    private Boolean disabilityAccessible;
+}
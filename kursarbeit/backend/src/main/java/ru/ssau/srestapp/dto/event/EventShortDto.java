@@ -4,6 +4,7 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import ru.ssau.srestapp.entity.EventFormat;
 import ru.ssau.srestapp.entity.EventStatus;
+import ru.ssau.srestapp.entity.ModerationStatus;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -26,4 +27,15 @@ public class EventShortDto {
     private String imageUrl;
     private Boolean verified;
     private String moderationStatus;
+
+    //для JPQL-проекции: статус модерации приходит из запроса как enum
+    public EventShortDto(Long idEvent, String eventName, String organizerFio, LocalDateTime eventDate,
+                         LocalDateTime startTime, LocalDateTime endTime, EventFormat eventFormat,
+                         EventStatus eventStatus, String eventCategoryName, Long idEventCategory,
+                         String placeName, BigDecimal price, String imageUrl, Boolean verified,
+                         ModerationStatus moderationStatus) {
+        this(idEvent, eventName, organizerFio, eventDate, startTime, endTime, eventFormat, eventStatus,
+                eventCategoryName, idEventCategory, placeName, price, imageUrl, verified,
+                moderationStatus != null ? moderationStatus.name() : null);
+    }
 }
@@ -0,0 +1,16 @@
+package ru.ssau.srestapp.dto.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import ru.ssau.srestapp.entity.EventStatus;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+public class EventTimingDto {
+    private Long idEvent;
+    private EventStatus eventStatus;
+    private LocalDateTime startTime;
+    private LocalDateTime endTime;
+}
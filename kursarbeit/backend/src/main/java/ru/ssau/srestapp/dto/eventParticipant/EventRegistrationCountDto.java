@@ -0,0 +1,11 @@
+package ru.ssau.srestapp.dto.eventParticipant;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class EventRegistrationCountDto {
+    private Long eventId;
+    private long count;
+}
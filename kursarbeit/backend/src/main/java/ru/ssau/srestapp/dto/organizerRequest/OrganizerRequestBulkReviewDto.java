@@ -0,0 +1,17 @@
+package ru.ssau.srestapp.dto.organizerRequest;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class OrganizerRequestBulkReviewDto {
+    @NotEmpty(message = "Список заявок не должен быть пустым")
+    @Size(max = 500, message = "За один запрос можно обработать не более 500 заявок")
+    private List<@Valid OrganizerRequestBulkReviewItemDto> items;
+
+    private Boolean sendEmail;
+}
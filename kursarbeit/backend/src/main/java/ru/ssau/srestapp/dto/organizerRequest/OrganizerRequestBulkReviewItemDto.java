@@ -0,0 +1,15 @@
+package ru.ssau.srestapp.dto.organizerRequest;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+@Data
+public class OrganizerRequestBulkReviewItemDto {
+    @NotNull(message = "id заявки обязателен")
+    private Long idOrganizerRequest;
+
+    @NotNull(message = "Решение обязательно")
+    private Boolean approved;
+
+    private String reviewComment;
+}
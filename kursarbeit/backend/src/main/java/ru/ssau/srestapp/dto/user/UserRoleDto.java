@@ -0,0 +1,11 @@
+package ru.ssau.srestapp.dto.user;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class UserRoleDto {
+    private Long idUser;
+    private String roleName;
+}
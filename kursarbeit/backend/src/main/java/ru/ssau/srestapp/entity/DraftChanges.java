@@ -0,0 +1,88 @@
+package ru.ssau.srestapp.entity;
+
+import ru.ssau.srestapp.util.JsonConverter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+//изменения мероприятия, ожидающие модерации; null — поле не менялось. В БД хранится JSON с прежними ключами
+public record DraftChanges(
+        String eventName,
+        String eventDescription,
+        LocalDateTime eventDate,
+        LocalDateTime startTime,
+        LocalDateTime endTime,
+        Integer maxParticipants,
+        String imageUrl,
+        BigDecimal price,
+        EventFormat eventFormat,
+        Long eventCategoryId,
+        Long placeId
+) {
+
+    private static final JsonConverter JSON = new JsonConverter();
+
+    public static DraftChanges fromMap(Map<String, Object> map) {
+        return new DraftChanges(
+                (String) map.get("eventName"),
+                (String) map.get("eventDescription"),
+                toDateTime(map.get("eventDate")),
+                toDateTime(map.get("startTime")),
+                toDateTime(map.get("endTime")),
+                map.get("maxParticipants") instanceof Number n ? n.intValue() : null,
+                (String) map.get("imageUrl"),
+                map.get("price") != null ? new BigDecimal(map.get("price").toString()) : null,
+                map.get("eventFormat") != null ? EventFormat.valueOf(map.get("eventFormat").toString()) : null,
+                map.get("eventCategoryId") instanceof Number n ? n.longValue() : null,
+                map.get("placeId") instanceof Number n ? n.longValue() : null
+        );
+    }
+
+    public static DraftChanges fromJson(String json) {
+        Map<String, Object> map = JSON.convertToEntityAttribute(json);
+        return map != null ? fromMap(map) : null;
+    }
+
+    //ключи и значения в виде, в котором черновик отдаётся клиенту и сохраняется в БД
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        putIfPresent(map, "eventName", eventName);
+        putIfPresent(map, "eventDescription", eventDescription);
+        putIfPresent(map, "eventDate", eventDate != null ? eventDate.toString() : null);
+        putIfPresent(map, "startTime", startTime != null ? startTime.toString() : null);
+        putIfPresent(map, "endTime", endTime != null ? endTime.toString() : null);
+        putIfPresent(map, "maxParticipants", maxParticipants);
+        putIfPresent(map, "imageUrl", imageUrl);
+        putIfPresent(map, "price", price);
+        putIfPresent(map, "eventFormat", eventFormat != null ? eventFormat.name() : null);
+        putIfPresent(map, "eventCategoryId", eventCategoryId);
+        putIfPresent(map, "placeId", placeId);
+        return map;
+    }
+
+    public String toJson() {
+        return JSON.convertToDatabaseColumn(toMap());
+    }
+
+    public List<String> fields() {
+        return new ArrayList<>(toMap().keySet());
+    }
+
+    public boolean isEmpty() {
+        return toMap().isEmpty();
+    }
+
+    private static LocalDateTime toDateTime(Object value) {
+        return value != null ? LocalDateTime.parse(value.toString()) : null;
+    }
+
+    private static void putIfPresent(Map<String, Object> map, String key, Object value) {
+        if (value != null) {
+            map.put(key, value);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package ru.ssau.srestapp.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import ru.ssau.srestapp.dto.email.EmailTemplate;
+import ru.ssau.srestapp.util.JsonConverter;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+//письмо в очереди отправки: пишется в той же транзакции, что и бизнес-изменение, отправляется EmailDispatcher
+@Entity
+@Table(indexes = {
+        @Index(name = "idx_email_outbox_status_next", columnList = "status, nextAttemptAt, idMessage")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmailOutboxMessage {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long idMessage;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String recipient;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private EmailTemplate template;
+
+    @Convert(converter = JsonConverter.class)
+    @Column(columnDefinition = "TEXT")
+    private Map<String, Object> variables;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private EmailOutboxStatus status = EmailOutboxStatus.PENDING;
+
+    @Column(nullable = false)
+    private Integer attempts = 0;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    @Column(nullable = false)
+    private LocalDateTime nextAttemptAt = LocalDateTime.now();
+
+    //пока статус SENDING: после этого момента письмо считается брошенным упавшим экземпляром и возвращается в PENDING
+    private LocalDateTime leaseExpiresAt;
+
+    //метка экземпляра, забравшего письмо: по ней он выбирает именно свою пачку
+    @Column(length = 36)
+    private String claimToken;
+
+    private LocalDateTime sentAt;
+
+    @Column(columnDefinition = "TEXT")
+    private String lastError;
+}
@@ -0,0 +1,9 @@
+package ru.ssau.srestapp.entity;
+
+public enum EmailOutboxStatus {
+    PENDING,
+    //забрано экземпляром на отправку до leaseExpiresAt
+    SENDING,
+    SENT,
+    DEAD
+}
@@ -1,21 +1,25 @@
 package ru.ssau.srestapp.entity;
 
 import jakarta.persistence.*;
-import lombok.AllArgsConstructor;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
-import ru.ssau.srestapp.util.JsonConverter;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.util.Map;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_event_date_id", columnList = "eventDate, idEvent"),
+        @Index(name = "idx_event_category_date_id", columnList = "id_event_category, eventDate, idEvent"),
+        @Index(name = "idx_event_status_date_id", columnList = "eventStatus, eventDate, idEvent"),
+        @Index(name = "idx_event_verified_date_id", columnList = "verified, eventDate, idEvent")
+})
 @Getter
 @Setter
 @NoArgsConstructor
-@AllArgsConstructor
 public class Event {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -48,9 +52,6 @@ public class Event {
     @Column(nullable = false, columnDefinition = "TEXT")
     private String eventName;
 
-    @Column(columnDefinition = "TEXT")
-    private String eventDescription;
-
     @Column(nullable = false)
     private LocalDateTime eventDate;
 
@@ -62,6 +63,11 @@ public class Event {
 
     private Integer maxParticipants;
 
+    //число участников со статусом REGISTERED, меняется только атомарными UPDATE из SeatAllocator
+    @ColumnDefault("0")
+    @Column(nullable = false, updatable = false)
+    private Integer registeredCount = 0;
+
     @Column(columnDefinition = "TEXT")
     private String imageUrl;
 
@@ -71,14 +77,49 @@ public class Event {
     @Column(nullable = false)
     private Boolean verified = false;
 
-    @Column(columnDefinition = "TEXT")
-    private String verificationComment;
-
-    @Convert(converter = JsonConverter.class)
-    @Column(columnDefinition = "TEXT")
-    private Map<String, Object> draftChanges;
-
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     private ModerationStatus moderationStatus = ModerationStatus.PUBLISHED;
+
+    //описание, комментарий модератора и черновик лежат в event_details и читаются отдельным запросом при первом обращении
+    @OneToOne(mappedBy = "event", fetch = FetchType.LAZY, optional = false, cascade = CascadeType.ALL)
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private EventDetails details;
+
+    public String getEventDescription() {
+        return details().getEventDescription();
+    }
+
+    public void setEventDescription(String eventDescription) {
+        details().setEventDescription(eventDescription);
+    }
+
+    public String getVerificationComment() {
+        return details().getVerificationComment();
+    }
+
+    public void setVerificationComment(String verificationComment) {
+        details().setVerificationComment(verificationComment);
+    }
+
+    public DraftChanges getDraftChanges() {
+        return details().getDraftChanges();
+    }
+
+    public void setDraftChanges(DraftChanges draftChanges) {
+        details().setDraftChanges(draftChanges);
+    }
+
+    @PrePersist
+    private void ensureDetails() {
+        details();
+    }
+
+    private EventDetails details() {
+        if (details == null) {
+            details = new EventDetails(this);
+        }
+        return details;
+    }
 }
@@ -0,0 +1,60 @@
+package ru.ssau.srestapp.entity;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+//редко нужные большие поля мероприятия: списки и регистрация читают только строку event,
+//а эта таблица подгружается при первом обращении к описанию, комментарию модератора или черновику
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+public class EventDetails {
+    @Id
+    private Long idEvent;
+
+    //строка удаляется вместе с мероприятием и при массовом DELETE в обход каскада JPA
+    @MapsId
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "id_event")
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Event event;
+
+    @Column(columnDefinition = "TEXT")
+    private String eventDescription;
+
+    @Column(columnDefinition = "TEXT")
+    private String verificationComment;
+
+    //JSON разбирается только при первом обращении к черновику и дальше берётся из draftChanges
+    @Column(name = "draft_changes", columnDefinition = "TEXT")
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private String draftChangesJson;
+
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private DraftChanges draftChanges;
+
+    public EventDetails(Event event) {
+        this.event = event;
+    }
+
+    public DraftChanges getDraftChanges() {
+        if (draftChanges == null && draftChangesJson != null) {
+            draftChanges = DraftChanges.fromJson(draftChangesJson);
+        }
+        return draftChanges;
+    }
+
+    public void setDraftChanges(DraftChanges draftChanges) {
+        this.draftChanges = draftChanges;
+        this.draftChangesJson = draftChanges != null ? draftChanges.toJson() : null;
+    }
+}
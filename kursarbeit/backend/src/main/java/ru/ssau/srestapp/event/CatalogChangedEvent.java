@@ -0,0 +1,7 @@
+package ru.ssau.srestapp.event;
+
+import ru.ssau.srestapp.cache.ResourceFamily;
+
+//публикуется сервисами справочников при создании, изменении и удалении записи
+public record CatalogChangedEvent(ResourceFamily family) {
+}
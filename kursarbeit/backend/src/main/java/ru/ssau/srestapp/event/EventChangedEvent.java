@@ -0,0 +1,23 @@
+package ru.ssau.srestapp.event;
+
+import ru.ssau.srestapp.entity.Event;
+
+//публикуется EventService при создании, изменении и удалении мероприятия; snapshot == null означает удаление
+public record EventChangedEvent(Long idEvent, EventSnapshot snapshot) {
+
+    public static EventChangedEvent changed(Event event) {
+        return new EventChangedEvent(event.getIdEvent(), EventSnapshot.from(event));
+    }
+
+    public static EventChangedEvent changed(EventSnapshot snapshot) {
+        return new EventChangedEvent(snapshot.idEvent(), snapshot);
+    }
+
+    public static EventChangedEvent deleted(Long idEvent) {
+        return new EventChangedEvent(idEvent, null);
+    }
+
+    public boolean isDeleted() {
+        return snapshot == null;
+    }
+}
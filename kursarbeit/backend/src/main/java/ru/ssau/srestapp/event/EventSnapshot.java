@@ -0,0 +1,45 @@
+package ru.ssau.srestapp.event;
+
+import ru.ssau.srestapp.entity.Event;
+import ru.ssau.srestapp.entity.EventFormat;
+import ru.ssau.srestapp.entity.EventStatus;
+import ru.ssau.srestapp.entity.ModerationStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+//неизменяемая копия полей мероприятия, которую можно читать после закрытия транзакции
+public record EventSnapshot(
+        Long idEvent,
+        String eventName,
+        String eventDescription,
+        Long idEventCategory,
+        EventFormat eventFormat,
+        EventStatus eventStatus,
+        LocalDateTime eventDate,
+        LocalDateTime startTime,
+        LocalDateTime endTime,
+        Integer maxParticipants,
+        BigDecimal price,
+        Boolean verified,
+        ModerationStatus moderationStatus
+) {
+
+    public static EventSnapshot from(Event event) {
+        return new EventSnapshot(
+                event.getIdEvent(),
+                event.getEventName(),
+                event.getEventDescription(),
+                event.getEventCategory().getIdEventCategory(),
+                event.getEventFormat(),
+                event.getEventStatus(),
+                event.getEventDate(),
+                event.getStartTime(),
+                event.getEndTime(),
+                event.getMaxParticipants(),
+                event.getPrice(),
+                event.getVerified(),
+                event.getModerationStatus()
+        );
+    }
+}
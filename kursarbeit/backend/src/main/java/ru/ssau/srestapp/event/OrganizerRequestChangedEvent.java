@@ -0,0 +1,19 @@
+package ru.ssau.srestapp.event;
+
+import ru.ssau.srestapp.entity.RequestStatus;
+
+//публикуется OrganizerRequestService при подаче, рассмотрении и удалении заявки; status == null означает удаление
+public record OrganizerRequestChangedEvent(Long idOrganizerRequest, RequestStatus status) {
+
+    public static OrganizerRequestChangedEvent changed(Long idOrganizerRequest, RequestStatus status) {
+        return new OrganizerRequestChangedEvent(idOrganizerRequest, status);
+    }
+
+    public static OrganizerRequestChangedEvent deleted(Long idOrganizerRequest) {
+        return new OrganizerRequestChangedEvent(idOrganizerRequest, null);
+    }
+
+    public boolean isDeleted() {
+        return status == null;
+    }
+}
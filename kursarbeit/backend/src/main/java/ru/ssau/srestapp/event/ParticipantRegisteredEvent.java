@@ -0,0 +1,5 @@
+package ru.ssau.srestapp.event;
+
+//публикуется EventParticipantService при каждой успешной записи на мероприятие, в том числе в лист ожидания
+public record ParticipantRegisteredEvent(Long idEvent, Long idUser) {
+}
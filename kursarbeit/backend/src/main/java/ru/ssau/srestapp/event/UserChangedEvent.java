@@ -0,0 +1,17 @@
+package ru.ssau.srestapp.event;
+
+//публикуется при изменении данных, из которых строится CustomUserDetails; idUser == null означает всех пользователей
+public record UserChangedEvent(Long idUser) {
+
+    public static UserChangedEvent changed(Long idUser) {
+        return new UserChangedEvent(idUser);
+    }
+
+    public static UserChangedEvent allUsers() {
+        return new UserChangedEvent(null);
+    }
+
+    public boolean isAllUsers() {
+        return idUser == null;
+    }
+}
@@ -0,0 +1,8 @@
+package ru.ssau.srestapp.exception;
+
+//курсор постраничного списка повреждён или подделан; непроверяемое, потому что бросается из разбора параметра запроса
+public class InvalidCursorException extends RuntimeException {
+    public InvalidCursorException() {
+        super("Некорректный курсор");
+    }
+}
@@ -4,4 +4,8 @@ public class ModerationException extends Exception {
     public ModerationException() {
         super("Нет ожидаемых изменений для этого мероприятия");
     }
+
+    public ModerationException(String message) {
+        super(message);
+    }
 }
@@ -0,0 +1,232 @@
+package ru.ssau.srestapp.mail;
+
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.Context;
+import org.unbescape.html.HtmlEscape;
+
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+//шаблон письма, заранее разобранный на статические фрагменты и места подстановки.
+//Фрагменты получаются рендером Thymeleaf с маркерами вместо переменных, поэтому разметка совпадает с обычным рендером,
+//а при отправке остаётся только склеить фрагменты с экранированными значениями
+public final class CompiledEmailTemplate {
+
+    private static final String MARKER_PREFIX = "EMAILSLOT";
+    private static final char MARKER_END = '_';
+    private static final String ITEM = "\u0000item";
+    private static final int MAX_POOLED_BUFFER = 64 * 1024;
+
+    private static final Pattern VARIABLE = Pattern.compile("\\$\\{\\s*([A-Za-z_][A-Za-z0-9_]*)");
+    private static final Pattern EACH = Pattern.compile("th:each=\"\\s*(\\w+)\\s*:\\s*\\$\\{\\s*(\\w+)\\s*}\\s*\"");
+    private static final Pattern ATTRIBUTE = Pattern.compile("th:(?!text=|if=|each=)[\\w-]+=\"[^\"]*\\$\\{\\s*(\\w+)");
+    private static final Pattern PROCESSOR = Pattern.compile("th:([\\w-]+)=");
+    private static final Set<String> SUPPORTED_PROCESSORS = Set.of("text", "href", "if", "each");
+
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(8 * 1024));
+
+    private final Set<String> variables;
+    private final Fragments single;
+    private final String listVariable;
+    private final Fragments emptyList;
+    private final Fragments head;
+    private final Fragments repeated;
+    private final Fragments tail;
+    //атрибуты с null Thymeleaf удаляет целиком, такие вызовы уходят в обычный рендер
+    private final Set<String> attributeVariables;
+
+    //texts.length == slots.length + 1, между соседними текстами подставляется значение slots[i]
+    private record Fragments(String[] texts, String[] slots) {
+    }
+
+    private CompiledEmailTemplate(Set<String> variables, Fragments single, String listVariable, Fragments emptyList,
+                                  Fragments head, Fragments repeated, Fragments tail, Set<String> attributeVariables) {
+        this.variables = variables;
+        this.single = single;
+        this.listVariable = listVariable;
+        this.emptyList = emptyList;
+        this.head = head;
+        this.repeated = repeated;
+        this.tail = tail;
+        this.attributeVariables = attributeVariables;
+    }
+
+    //разбирает шаблон; null, если в нём есть конструкции, которые компилятор не поддерживает
+    public static CompiledEmailTemplate compile(TemplateEngine engine, String templateName, String source,
+                                                Map<String, Object> fixedVariables) {
+        Matcher processors = PROCESSOR.matcher(source);
+        while (processors.find()) {
+            if (!SUPPORTED_PROCESSORS.contains(processors.group(1))) {
+                return null;
+            }
+        }
+        Set<String> attributeVariables = new HashSet<>(collect(ATTRIBUTE, source, 1));
+        attributeVariables.removeAll(fixedVariables.keySet());
+        List<String> eachLists = collect(EACH, source, 2);
+        Set<String> iterationVariables = new HashSet<>(collect(EACH, source, 1));
+        if (eachLists.size() > 1) {
+            return null;
+        }
+
+        Map<String, String> markers = new LinkedHashMap<>();
+        Context context = new Context();
+        fixedVariables.forEach(context::setVariable);
+        for (String variable : new LinkedHashSet<>(collect(VARIABLE, source, 1))) {
+            if (!fixedVariables.containsKey(variable) && !iterationVariables.contains(variable) && !eachLists.contains(variable)) {
+                String marker = marker(markers.size());
+                markers.put(marker, variable);
+                context.setVariable(variable, marker);
+            }
+        }
+
+        Set<String> variables = Set.copyOf(markers.values());
+        if (eachLists.isEmpty()) {
+            Fragments fragments = split(engine.process(templateName, context), markers);
+            return fragments == null ? null
+                    : new CompiledEmailTemplate(variables, fragments, null, null, null, null, null, attributeVariables);
+        }
+
+        String listVariable = eachLists.get(0);
+        context.setVariable(listVariable, List.of());
+        String none = engine.process(templateName, context);
+        String firstItem = marker(markers.size());
+        String secondItem = marker(markers.size() + 1);
+        context.setVariable(listVariable, List.of(firstItem));
+        String one = engine.process(templateName, context);
+        context.setVariable(listVariable, List.of(firstItem, secondItem));
+        String two = engine.process(templateName, context);
+
+        //второй элемент вставляется в вывод одним периодическим куском: one = A + B, two = A + D + B,
+        //где A содержит первый элемент, D — второй, и каждый следующий элемент добавляет ещё один D
+        int prefix = commonPrefix(one, two);
+        int delta = two.length() - one.length();
+        if (delta <= 0 || !two.startsWith(one.substring(prefix), prefix + delta)) {
+            return null;
+        }
+        Map<String, String> headMarkers = new HashMap<>(markers);
+        headMarkers.put(firstItem, ITEM);
+        Map<String, String> repeatedMarkers = new HashMap<>(markers);
+        repeatedMarkers.put(secondItem, ITEM);
+        Fragments emptyList = split(none, markers);
+        Fragments head = split(one.substring(0, prefix), headMarkers);
+        Fragments repeated = split(two.substring(prefix, prefix + delta), repeatedMarkers);
+        Fragments tail = split(one.substring(prefix), markers);
+        if (emptyList == null || head == null || repeated == null || tail == null
+                || count(head, ITEM) != 1 || count(repeated, ITEM) != 1) {
+            return null;
+        }
+        return new CompiledEmailTemplate(variables, null, listVariable, emptyList, head, repeated, tail, attributeVariables);
+    }
+
+    //скалярные переменные шаблона без фиксированных
+    public Set<String> variables() {
+        return variables;
+    }
+
+    //переменная-список из th:each или null
+    public String listVariable() {
+        return listVariable;
+    }
+
+    //false — значение атрибута равно null, и рендер нужно отдать Thymeleaf
+    public boolean supports(Map<String, Object> variables) {
+        for (String attribute : attributeVariables) {
+            if (variables == null || variables.get(attribute) == null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public String render(Map<String, Object> variables) {
+        Map<String, Object> values = variables != null ? variables : Map.of();
+        StringBuilder buffer = BUFFER.get();
+        buffer.setLength(0);
+        if (listVariable == null) {
+            append(buffer, single, values, null);
+        } else {
+            Iterator<?> items = values.get(listVariable) instanceof Iterable<?> iterable
+                    ? iterable.iterator()
+                    : Collections.emptyIterator();
+            if (!items.hasNext()) {
+                append(buffer, emptyList, values, null);
+            } else {
+                append(buffer, head, values, items.next());
+                while (items.hasNext()) {
+                    append(buffer, repeated, values, items.next());
+                }
+                append(buffer, tail, values, null);
+            }
+        }
+        String html = buffer.toString();
+        if (buffer.capacity() > MAX_POOLED_BUFFER) {
+            BUFFER.remove();
+        }
+        return html;
+    }
+
+    private static void append(StringBuilder buffer, Fragments fragments, Map<String, Object> values, Object item) {
+        String[] texts = fragments.texts();
+        String[] slots = fragments.slots();
+        for (int i = 0; i < slots.length; i++) {
+            buffer.append(texts[i]);
+            Object value = ITEM.equals(slots[i]) ? item : values.get(slots[i]);
+            if (value != null) {
+                buffer.append(HtmlEscape.escapeHtml4Xml(value.toString()));
+            }
+        }
+        buffer.append(texts[slots.length]);
+    }
+
+    private static Fragments split(String html, Map<String, String> markers) {
+        List<String> texts = new ArrayList<>();
+        List<String> slots = new ArrayList<>();
+        int position = 0;
+        int start;
+        while ((start = html.indexOf(MARKER_PREFIX, position)) >= 0) {
+            int end = html.indexOf(MARKER_END, start + MARKER_PREFIX.length());
+            String variable = end < 0 ? null : markers.get(html.substring(start, end + 1));
+            if (variable == null) {
+                return null;
+            }
+            texts.add(html.substring(position, start));
+            slots.add(variable);
+            position = end + 1;
+        }
+        texts.add(html.substring(position));
+        return new Fragments(texts.toArray(String[]::new), slots.toArray(String[]::new));
+    }
+
+    private static int count(Fragments fragments, String slot) {
+        int count = 0;
+        for (String s : fragments.slots()) {
+            if (s.equals(slot)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static int commonPrefix(String a, String b) {
+        int length = Math.min(a.length(), b.length());
+        int i = 0;
+        while (i < length && a.charAt(i) == b.charAt(i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private static List<String> collect(Pattern pattern, String source, int group) {
+        List<String> result = new ArrayList<>();
+        Matcher matcher = pattern.matcher(source);
+        while (matcher.find()) {
+            result.add(matcher.group(group));
+        }
+        return result;
+    }
+
+    private static String marker(int index) {
+        return MARKER_PREFIX + index + MARKER_END;
+    }
+}
@@ -0,0 +1,246 @@
+package ru.ssau.srestapp.mail;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.ssau.srestapp.entity.EmailOutboxMessage;
+import ru.ssau.srestapp.entity.EmailOutboxStatus;
+import ru.ssau.srestapp.repository.EmailOutboxRepository;
+
+import java.io.UnsupportedEncodingException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+//разбирает очередь писем пачками: одна пачка уходит через одно SMTP-соединение,
+//неудачные письма повторяются с экспоненциальной задержкой, после max-attempts помечаются DEAD.
+//Пачка сначала забирается короткой транзакцией условным UPDATE (SENDING с арендой), поэтому несколько экземпляров не шлют одно письмо дважды
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class EmailDispatcher {
+
+    private static final int MAX_BATCHES_PER_RUN = 20;
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final EmailOutboxRepository outboxRepository;
+    private final EmailTemplateRenderer renderer;
+    private final SendRateLimiter rateLimiter;
+    private final ObjectProvider<JavaMailSender> mailSenderProvider;
+    private final TransactionTemplate transactionTemplate;
+    //не synchronized: разбор очереди ждёт SMTP, а монитор закрепил бы виртуальный поток за платформенным
+    private final Lock drainLock = new ReentrantLock();
+    //разбор ждёт ограничитель скорости и SMTP, поэтому идёт в своём потоке: общий планировщик @Scheduled по умолчанию
+    //однопоточный, и на нём же работают смена статусов мероприятий, статистика, проверка реплик и синхронизация отзывов.
+    //Пока предыдущий разбор не закончился, новый запуск пропускается
+    private final ThreadPoolExecutor drainExecutor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+            new SynchronousQueue<>(), EmailDispatcher::newDrainThread, new ThreadPoolExecutor.DiscardPolicy());
+
+    @Value("${email.from.address:dashashevlyak@mail.ru}")
+    private String fromAddress;
+
+    @Value("${email.from.name:Freizeitgestaltung}")
+    private String fromName;
+
+    @Value("${email.outbox.batch-size:50}")
+    private int batchSize;
+
+    @Value("${email.outbox.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${email.outbox.backoff-base:PT30S}")
+    private Duration backoffBase;
+
+    @Value("${email.outbox.backoff-max:PT1H}")
+    private Duration backoffMax;
+
+    @Value("${email.outbox.retention:P7D}")
+    private Duration retention;
+
+    @Value("${email.outbox.lease:PT5M}")
+    private Duration lease;
+
+    @Scheduled(fixedDelayString = "${email.outbox.poll-interval:5000}")
+    public void scheduleDrain() {
+        drainExecutor.execute(this::drain);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        drainExecutor.shutdownNow();
+    }
+
+    public void drain() {
+        JavaMailSender mailSender = mailSenderProvider.getIfAvailable();
+        if (mailSender == null) {
+            log.debug("JavaMailSender не настроен, очередь писем не разбирается");
+            return;
+        }
+        drainLock.lock();
+        try {
+            for (int i = 0; i < MAX_BATCHES_PER_RUN; i++) {
+                if (dispatchBatch(mailSender) < batchSize) {
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            drainLock.unlock();
+        }
+    }
+
+    @Scheduled(fixedRateString = "${email.outbox.purge-interval:3600000}")
+    @Transactional
+    public void purgeSent() {
+        int deleted = outboxRepository.deleteSentBefore(EmailOutboxStatus.SENT, LocalDateTime.now().minus(retention));
+        if (deleted > 0) {
+            log.info("Из очереди писем удалено {} отправленных", deleted);
+        }
+    }
+
+    //письма, аренда которых истекла (экземпляр упал во время отправки), снова становятся доступны
+    @Scheduled(fixedRateString = "${email.outbox.lease-check-interval:60000}")
+    @Transactional
+    public void releaseExpiredLeases() {
+        int released = outboxRepository.releaseExpiredLeases(LocalDateTime.now());
+        if (released > 0) {
+            log.warn("Возвращено в очередь писем с истёкшей арендой: {}", released);
+        }
+    }
+
+    private List<EmailOutboxMessage> claimBatch() {
+        return transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<Long> due = outboxRepository.findDueIds(EmailOutboxStatus.PENDING, now, PageRequest.of(0, batchSize));
+            if (due.isEmpty()) {
+                return List.of();
+            }
+            String claimToken = UUID.randomUUID().toString();
+            outboxRepository.claim(due, claimToken, now.plus(lease));
+            return outboxRepository.findClaimed(due, claimToken);
+        });
+    }
+
+    private int dispatchBatch(JavaMailSender mailSender) throws InterruptedException {
+        List<EmailOutboxMessage> batch = claimBatch();
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        rateLimiter.acquire(batch.size());
+
+        Map<MimeMessage, EmailOutboxMessage> prepared = new IdentityHashMap<>();
+        for (EmailOutboxMessage message : batch) {
+            try {
+                prepared.put(toMimeMessage(mailSender, message), message);
+            } catch (Exception e) {
+                markFailed(message, e);
+            }
+        }
+
+        Map<Object, Exception> failures = Map.of();
+        if (!prepared.isEmpty()) {
+            try {
+                mailSender.send(prepared.keySet().toArray(new MimeMessage[0]));
+            } catch (MailSendException e) {
+                failures = e.getFailedMessages().isEmpty() ? allFailed(prepared, e) : e.getFailedMessages();
+            } catch (MailException e) {
+                failures = allFailed(prepared, e);
+            }
+        }
+        for (Map.Entry<MimeMessage, EmailOutboxMessage> entry : prepared.entrySet()) {
+            Exception failure = failures.get(entry.getKey());
+            if (failure == null) {
+                markSent(entry.getValue());
+            } else {
+                markFailed(entry.getValue(), failure);
+            }
+        }
+        outboxRepository.saveAll(batch);
+        log.info("Пачка писем обработана: {} шт., ошибок: {}", batch.size(), failures.size());
+        return batch.size();
+    }
+
+    private MimeMessage toMimeMessage(JavaMailSender mailSender, EmailOutboxMessage message)
+            throws MessagingException, UnsupportedEncodingException {
+        MimeMessage mimeMessage = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, true, "UTF-8");
+        helper.setFrom(fromAddress, fromName);
+        helper.setTo(message.getRecipient());
+        helper.setSubject(message.getTemplate().getDefaultSubject());
+        helper.setText(renderer.render(message.getTemplate(), message.getVariables()), true);
+        return mimeMessage;
+    }
+
+    private Map<Object, Exception> allFailed(Map<MimeMessage, EmailOutboxMessage> prepared, Exception e) {
+        Map<Object, Exception> failures = new IdentityHashMap<>();
+        prepared.keySet().forEach(mimeMessage -> failures.put(mimeMessage, e));
+        return failures;
+    }
+
+    private void markSent(EmailOutboxMessage message) {
+        message.setStatus(EmailOutboxStatus.SENT);
+        message.setLeaseExpiresAt(null);
+        message.setClaimToken(null);
+        message.setSentAt(LocalDateTime.now());
+        message.setAttempts(message.getAttempts() + 1);
+        message.setLastError(null);
+    }
+
+    private void markFailed(EmailOutboxMessage message, Exception e) {
+        int attempts = message.getAttempts() + 1;
+        message.setAttempts(attempts);
+        message.setLastError(truncate(e.getMessage()));
+        message.setLeaseExpiresAt(null);
+        message.setClaimToken(null);
+        if (attempts >= maxAttempts) {
+            message.setStatus(EmailOutboxStatus.DEAD);
+            log.error("Письмо {} на {} не отправлено после {} попыток: {}",
+                    message.getIdMessage(), message.getRecipient(), attempts, e.getMessage());
+        } else {
+            message.setStatus(EmailOutboxStatus.PENDING);
+            message.setNextAttemptAt(LocalDateTime.now().plus(backoff(attempts)));
+            log.warn("Ошибка отправки письма {} на {} (попытка {}): {}",
+                    message.getIdMessage(), message.getRecipient(), attempts, e.getMessage());
+        }
+    }
+
+    private static Thread newDrainThread(Runnable task) {
+        Thread thread = new Thread(task, "email-dispatcher");
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    private Duration backoff(int attempts) {
+        Duration delay = backoffBase.multipliedBy(1L << Math.min(attempts - 1, 20));
+        return delay.compareTo(backoffMax) > 0 ? backoffMax : delay;
+    }
+
+    private String truncate(String error) {
+        if (error == null || error.length() <= MAX_ERROR_LENGTH) {
+            return error;
+        }
+        return error.substring(0, MAX_ERROR_LENGTH);
+    }
+}
@@ -0,0 +1,126 @@
+package ru.ssau.srestapp.mail;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.Context;
+import ru.ssau.srestapp.dto.email.EmailTemplate;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+//HTML письма из шаблонов templates/email с общими цветами и базовым адресом.
+//Шаблоны компилируются один раз при старте, Thymeleaf остаётся запасным путём
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class EmailTemplateRenderer {
+
+    private static final String TEMPLATE_DIRECTORY = "email/";
+    private static final String SAMPLE_VALUE = "Проверка <&\"'>";
+
+    private final TemplateEngine templateEngine;
+
+    @Value("${email.base-url}")
+    private String baseUrl;
+
+    @Value("${email.color.primary:#7C3AED}")
+    private String colorPrimary;
+
+    @Value("${email.color.secondary:#A78BFA}")
+    private String colorSecondary;
+
+    @Value("${email.color.background:#F5F3FF}")
+    private String colorBackground;
+
+    @Value("${email.color.text:#1F2937}")
+    private String colorText;
+
+    private volatile Map<EmailTemplate, CompiledEmailTemplate> compiled = Map.of();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void compileTemplates() {
+        Map<EmailTemplate, CompiledEmailTemplate> result = new EnumMap<>(EmailTemplate.class);
+        for (EmailTemplate template : EmailTemplate.values()) {
+            CompiledEmailTemplate compiledTemplate = compile(template);
+            if (compiledTemplate != null) {
+                result.put(template, compiledTemplate);
+            } else {
+                log.warn("Шаблон {} не скомпилирован, будет рендериться через Thymeleaf", template.getFileName());
+            }
+        }
+        compiled = result;
+        log.info("Скомпилировано шаблонов писем: {} из {}", result.size(), EmailTemplate.values().length);
+    }
+
+    public String render(EmailTemplate template, Map<String, Object> variables) {
+        CompiledEmailTemplate compiledTemplate = compiled.get(template);
+        if (compiledTemplate != null && compiledTemplate.supports(variables)) {
+            return compiledTemplate.render(variables);
+        }
+        return renderWithThymeleaf(template, variables);
+    }
+
+    private String renderWithThymeleaf(EmailTemplate template, Map<String, Object> variables) {
+        Context context = new Context();
+        fixedVariables().forEach(context::setVariable);
+        if (variables != null) {
+            variables.forEach(context::setVariable);
+        }
+        return templateEngine.process(TEMPLATE_DIRECTORY + template.getFileName(), context);
+    }
+
+    private Map<String, Object> fixedVariables() {
+        return Map.of(
+                "baseUrl", baseUrl,
+                "colorPrimary", colorPrimary,
+                "colorSecondary", colorSecondary,
+                "colorBackground", colorBackground,
+                "colorText", colorText
+        );
+    }
+
+    //скомпилированный шаблон принимается, только если на пробных данных совпадает с Thymeleaf
+    private CompiledEmailTemplate compile(EmailTemplate template) {
+        try {
+            String source = new ClassPathResource("templates/" + TEMPLATE_DIRECTORY + template.getFileName())
+                    .getContentAsString(StandardCharsets.UTF_8);
+            CompiledEmailTemplate compiledTemplate = CompiledEmailTemplate.compile(
+                    templateEngine, TEMPLATE_DIRECTORY + template.getFileName(), source, fixedVariables());
+            if (compiledTemplate == null) {
+                return null;
+            }
+            for (Map<String, Object> sample : samples(compiledTemplate)) {
+                if (!compiledTemplate.render(sample).equals(renderWithThymeleaf(template, sample))) {
+                    log.warn("Скомпилированный шаблон {} расходится с Thymeleaf", template.getFileName());
+                    return null;
+                }
+            }
+            return compiledTemplate;
+        } catch (IOException | RuntimeException e) {
+            log.warn("Ошибка компиляции шаблона {}: {}", template.getFileName(), e.getMessage());
+            return null;
+        }
+    }
+
+    //все переменные шаблона со спецсимволами; список пустой, из трёх элементов или отсутствует
+    private List<Map<String, Object>> samples(CompiledEmailTemplate compiledTemplate) {
+        Map<String, Object> scalars = new HashMap<>();
+        compiledTemplate.variables().forEach(variable -> scalars.put(variable, SAMPLE_VALUE + variable));
+        String listVariable = compiledTemplate.listVariable();
+        if (listVariable == null) {
+            return List.of(scalars);
+        }
+        Map<String, Object> withItems = new HashMap<>(scalars);
+        withItems.put(listVariable, List.of(SAMPLE_VALUE + 1, SAMPLE_VALUE + 2, SAMPLE_VALUE + 3));
+        Map<String, Object> withEmptyList = new HashMap<>(scalars);
+        withEmptyList.put(listVariable, List.of());
+        return List.of(scalars, withItems, withEmptyList);
+    }
+}
@@ -0,0 +1,34 @@
+package ru.ssau.srestapp.mail;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+//ограничение скорости отправки: каждое письмо занимает 1/ratePerSecond секунды, при опережении поток ждёт
+@Component
+public class SendRateLimiter {
+
+    private final long intervalNanos;
+    private long nextFreeAt = System.nanoTime();
+
+    public SendRateLimiter(@Value("${email.outbox.rate-per-second:10}") double ratePerSecond) {
+        if (ratePerSecond <= 0) {
+            throw new IllegalArgumentException("email.outbox.rate-per-second должен быть положительным");
+        }
+        this.intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / ratePerSecond);
+    }
+
+    public void acquire(int permits) throws InterruptedException {
+        long waitNanos;
+        synchronized (this) {
+            long now = System.nanoTime();
+            long start = Math.max(now, nextFreeAt);
+            nextFreeAt = start + intervalNanos * permits;
+            waitNanos = start - now;
+        }
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package ru.ssau.srestapp.metrics;
+
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+//гистограмма с фиксированными границами корзин, запись без блокировок
+public final class Histogram {
+
+    private final double[] bounds;
+    private final LongAdder[] buckets;
+    private final LongAdder count = new LongAdder();
+    private final DoubleAdder sum = new DoubleAdder();
+
+    Histogram(double[] bounds) {
+        this.bounds = bounds;
+        this.buckets = new LongAdder[bounds.length];
+        for (int i = 0; i < bounds.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    public void observe(double value) {
+        for (int i = 0; i < bounds.length; i++) {
+            if (value <= bounds[i]) {
+                buckets[i].increment();
+                break;
+            }
+        }
+        count.increment();
+        sum.add(value);
+    }
+
+    public void observeNanos(long nanos) {
+        observe(nanos / 1e9);
+    }
+
+    public long count() {
+        return count.sum();
+    }
+
+    //корзины в формате Prometheus накопительные, последняя — le="+Inf"
+    void write(StringBuilder out, String name, String labels) {
+        long cumulative = 0;
+        for (int i = 0; i < bounds.length; i++) {
+            cumulative += buckets[i].sum();
+            MetricsRegistry.sample(out, name + "_bucket", MetricsRegistry.join(labels, "le=\"" + MetricsRegistry.format(bounds[i]) + "\""), cumulative);
+        }
+        long total = count.sum();
+        MetricsRegistry.sample(out, name + "_bucket", MetricsRegistry.join(labels, "le=\"+Inf\""), total);
+        MetricsRegistry.sample(out, name + "_sum", labels, sum.sum());
+        MetricsRegistry.sample(out, name + "_count", labels, total);
+    }
+}
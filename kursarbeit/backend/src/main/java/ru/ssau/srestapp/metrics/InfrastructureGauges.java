@@ -0,0 +1,62 @@
+package ru.ssau.srestapp.metrics;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.jdbc.DataSourceUnwrapper;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import ru.ssau.srestapp.datasource.ReplicaPool;
+import ru.ssau.srestapp.entity.EmailOutboxStatus;
+import ru.ssau.srestapp.repository.EmailOutboxRepository;
+import ru.ssau.srestapp.security.BoundedPasswordEncoder;
+
+import javax.sql.DataSource;
+import java.util.function.ToIntFunction;
+
+//датчики пулов соединений (основного и реплик, метка pool), очереди писем и пула хэширования паролей,
+//значения читаются в момент снятия метрик
+@Component
+public class InfrastructureGauges {
+
+    public InfrastructureGauges(MetricsRegistry metrics, DataSource dataSource, ObjectProvider<ReplicaPool> replicaPool,
+                                EmailOutboxRepository outboxRepository, PasswordEncoder passwordEncoder) {
+        poolGauges(metrics, dataSource);
+        replicaPool.ifAvailable(replicas -> {
+            replicas.dataSources().values().forEach(replica -> poolGauges(metrics, replica));
+            metrics.gauge("datasource_replicas_healthy", "Реплики, прошедшие последнюю проверку", replicas::healthyCount);
+        });
+        metrics.gauge("email_outbox_pending", "Письма в очереди на отправку",
+                () -> outboxRepository.countByStatus(EmailOutboxStatus.PENDING));
+        metrics.gauge("email_outbox_sending", "Письма, забранные экземплярами на отправку",
+                () -> outboxRepository.countByStatus(EmailOutboxStatus.SENDING));
+        metrics.gauge("email_outbox_dead", "Письма, отправка которых прекращена после всех попыток",
+                () -> outboxRepository.countByStatus(EmailOutboxStatus.DEAD));
+        if (passwordEncoder instanceof BoundedPasswordEncoder hashing) {
+            metrics.gauge("password_hashing_active", "Пароли, хэшируемые прямо сейчас", hashing::activeCount);
+            metrics.gauge("password_hashing_queued", "Пароли в очереди на хэширование", hashing::queueSize);
+            metrics.gauge("password_hashing_rejected", "Запросы, отклонённые с 503 из-за переполнения очереди, с момента запуска", hashing::rejectedCount);
+        }
+    }
+
+    private static void poolGauges(MetricsRegistry metrics, DataSource dataSource) {
+        HikariDataSource hikari = DataSourceUnwrapper.unwrap(dataSource, HikariDataSource.class);
+        if (hikari == null) {
+            return;
+        }
+        String labels = MetricsRegistry.labels("pool", hikari.getPoolName());
+        poolGauge(metrics, hikari, labels, "hikari_connections_active", "Занятые соединения пула", HikariPoolMXBean::getActiveConnections);
+        poolGauge(metrics, hikari, labels, "hikari_connections_idle", "Свободные соединения пула", HikariPoolMXBean::getIdleConnections);
+        poolGauge(metrics, hikari, labels, "hikari_connections_total", "Все соединения пула", HikariPoolMXBean::getTotalConnections);
+        poolGauge(metrics, hikari, labels, "hikari_connections_pending", "Потоки, ожидающие соединение", HikariPoolMXBean::getThreadsAwaitingConnection);
+        metrics.gauge("hikari_connections_max", "Размер пула", labels, hikari::getMaximumPoolSize);
+    }
+
+    private static void poolGauge(MetricsRegistry metrics, HikariDataSource hikari, String labels, String name, String help,
+                                  ToIntFunction<HikariPoolMXBean> value) {
+        metrics.gauge(name, help, labels, () -> {
+            HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+            return pool != null ? value.applyAsInt(pool) : Double.NaN;
+        });
+    }
+}
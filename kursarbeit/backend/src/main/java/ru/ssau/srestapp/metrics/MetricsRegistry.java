@@ -0,0 +1,112 @@
+package ru.ssau.srestapp.metrics;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleSupplier;
+
+//метрики приложения в текстовом формате Prometheus: счётчики, гистограммы и датчики, которые вычисляются при снятии.
+//Метрика с тем же именем и метками создаётся один раз, повторные вызовы возвращают уже зарегистрированную
+@Component
+public class MetricsRegistry {
+
+    public static final double[] LATENCY_BUCKETS = {0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10};
+
+    private final Map<String, Family> families = new ConcurrentSkipListMap<>();
+
+    private record Family(String type, String help, Map<String, Object> series) {
+    }
+
+    public LongAdder counter(String name, String help) {
+        return counter(name, help, "");
+    }
+
+    public LongAdder counter(String name, String help, String labels) {
+        return (LongAdder) family(name, "counter", help).series().computeIfAbsent(labels, l -> new LongAdder());
+    }
+
+    public Histogram histogram(String name, String help, double[] bounds, String labels) {
+        return (Histogram) family(name, "histogram", help).series().computeIfAbsent(labels, l -> new Histogram(bounds));
+    }
+
+    public void gauge(String name, String help, DoubleSupplier value) {
+        gauge(name, help, "", value);
+    }
+
+    public void gauge(String name, String help, String labels, DoubleSupplier value) {
+        family(name, "gauge", help).series().put(labels, value);
+    }
+
+    public String scrape() {
+        StringBuilder out = new StringBuilder(4096);
+        families.forEach((name, family) -> {
+            out.append("# HELP ").append(name).append(' ').append(family.help()).append('\n');
+            out.append("# TYPE ").append(name).append(' ').append(family.type()).append('\n');
+            family.series().forEach((labels, metric) -> {
+                if (metric instanceof LongAdder counter) {
+                    sample(out, name, labels, counter.sum());
+                } else if (metric instanceof Histogram histogram) {
+                    histogram.write(out, name, labels);
+                } else if (metric instanceof DoubleSupplier gauge) {
+                    sample(out, name, labels, gauge.getAsDouble());
+                }
+            });
+        });
+        return out.toString();
+    }
+
+    //метки в виде key="value",key2="value2" с экранированием значений
+    public static String labels(String... keyValues) {
+        StringBuilder labels = new StringBuilder();
+        for (int i = 0; i < keyValues.length; i += 2) {
+            if (!labels.isEmpty()) {
+                labels.append(',');
+            }
+            labels.append(keyValues[i]).append("=\"");
+            String value = keyValues[i + 1];
+            for (int j = 0; j < value.length(); j++) {
+                char c = value.charAt(j);
+                switch (c) {
+                    case '\\' -> labels.append("\\\\");
+                    case '"' -> labels.append("\\\"");
+                    case '\n' -> labels.append("\\n");
+                    default -> labels.append(c);
+                }
+            }
+            labels.append('"');
+        }
+        return labels.toString();
+    }
+
+    private Family family(String name, String type, String help) {
+        Family family = families.computeIfAbsent(name, n -> new Family(type, help, new ConcurrentSkipListMap<>()));
+        if (!family.type().equals(type)) {
+            throw new IllegalArgumentException("Метрика " + name + " уже зарегистрирована как " + family.type());
+        }
+        return family;
+    }
+
+    static void sample(StringBuilder out, String name, String labels, double value) {
+        out.append(name);
+        if (!labels.isEmpty()) {
+            out.append('{').append(labels).append('}');
+        }
+        out.append(' ').append(format(value)).append('\n');
+    }
+
+    static String join(String labels, String label) {
+        return labels.isEmpty() ? label : labels + "," + label;
+    }
+
+    static String format(double value) {
+        if (Double.isNaN(value)) {
+            return "NaN";
+        }
+        if (Double.isInfinite(value)) {
+            return value > 0 ? "+Inf" : "-Inf";
+        }
+        return value == Math.rint(value) && Math.abs(value) < 1e15 ? Long.toString((long) value) : Double.toString(value);
+    }
+}
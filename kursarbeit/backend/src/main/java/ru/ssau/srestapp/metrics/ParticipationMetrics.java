@@ -0,0 +1,28 @@
+package ru.ssau.srestapp.metrics;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.LongAdder;
+
+//исходы записи на мероприятия из EventParticipantService
+@Component
+public class ParticipationMetrics {
+
+    private final LongAdder registrations;
+    private final LongAdder waitlistings;
+    private final LongAdder promotions;
+
+    public ParticipationMetrics(MetricsRegistry metrics) {
+        this.registrations = metrics.counter("participation_registrations_total", "Записи на мероприятия с местом");
+        this.waitlistings = metrics.counter("participation_waitlistings_total", "Записи в лист ожидания");
+        this.promotions = metrics.counter("participation_promotions_total", "Переводы из листа ожидания в участники");
+    }
+
+    public void recordAllocation(boolean registered) {
+        (registered ? registrations : waitlistings).increment();
+    }
+
+    public void recordPromotions(int promoted) {
+        promotions.add(promoted);
+    }
+}
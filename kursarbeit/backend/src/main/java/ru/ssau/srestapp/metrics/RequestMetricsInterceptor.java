@@ -0,0 +1,42 @@
+package ru.ssau.srestapp.metrics;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+//время ответа и число SQL-запросов по методам контроллеров; запросы к статике и ошибки маршрутизации не учитываются
+@RequiredArgsConstructor
+public class RequestMetricsInterceptor implements HandlerInterceptor {
+
+    private static final String START_ATTRIBUTE = RequestMetricsInterceptor.class.getName() + ".start";
+    private static final double[] STATEMENT_BUCKETS = {0, 1, 2, 5, 10, 20, 50, 100};
+
+    private final MetricsRegistry metrics;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod) {
+            request.setAttribute(START_ATTRIBUTE, System.nanoTime());
+            SqlStatementCounter.reset();
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (!(handler instanceof HandlerMethod method) || !(request.getAttribute(START_ATTRIBUTE) instanceof Long start)) {
+            return;
+        }
+        String handlerName = method.getBeanType().getSimpleName() + "." + method.getMethod().getName();
+        metrics.histogram("http_server_request_duration_seconds", "Время обработки запроса методом контроллера",
+                        MetricsRegistry.LATENCY_BUCKETS,
+                        MetricsRegistry.labels("handler", handlerName, "method", request.getMethod(),
+                                "status", Integer.toString(response.getStatus())))
+                .observeNanos(System.nanoTime() - start);
+        metrics.histogram("http_server_request_sql_statements", "SQL-запросов за один HTTP-запрос",
+                        STATEMENT_BUCKETS, MetricsRegistry.labels("handler", handlerName))
+                .observe(SqlStatementCounter.current());
+    }
+}
@@ -0,0 +1,54 @@
+package ru.ssau.srestapp.metrics;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+import org.springframework.scheduling.support.ScheduledTaskObservationContext;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+//длительность запусков @Scheduled-методов: Spring сообщает о каждом запуске через ObservationRegistry планировщика
+public class ScheduledTaskMetrics implements ObservationHandler<ScheduledTaskObservationContext> {
+
+    private static final String START = ScheduledTaskMetrics.class.getName() + ".start";
+
+    private final MetricsRegistry metrics;
+    private final Map<String, AtomicLong> lastDurations = new ConcurrentHashMap<>();
+
+    public ScheduledTaskMetrics(MetricsRegistry metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public boolean supportsContext(Observation.Context context) {
+        return context instanceof ScheduledTaskObservationContext;
+    }
+
+    @Override
+    public void onStart(ScheduledTaskObservationContext context) {
+        context.put(START, System.nanoTime());
+    }
+
+    @Override
+    public void onStop(ScheduledTaskObservationContext context) {
+        Long start = context.get(START);
+        if (start == null) {
+            return;
+        }
+        long nanos = System.nanoTime() - start;
+        String task = context.getTargetClass().getSimpleName() + "." + context.getMethod().getName();
+        String labels = MetricsRegistry.labels("task", task);
+        metrics.histogram("scheduler_run_duration_seconds", "Длительность запуска задачи по расписанию",
+                MetricsRegistry.LATENCY_BUCKETS, labels).observeNanos(nanos);
+        lastDurations.computeIfAbsent(task, t -> {
+            AtomicLong last = new AtomicLong();
+            metrics.gauge("scheduler_last_run_duration_seconds", "Длительность последнего запуска задачи",
+                    labels, () -> last.get() / 1e9);
+            return last;
+        }).set(nanos);
+        if (context.getError() != null) {
+            metrics.counter("scheduler_run_failures_total", "Запуски задачи, завершившиеся исключением", labels).increment();
+        }
+    }
+}
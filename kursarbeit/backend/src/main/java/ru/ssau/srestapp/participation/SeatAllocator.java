@@ -0,0 +1,98 @@
+package ru.ssau.srestapp.participation;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.ssau.srestapp.entity.ParticipationStatus;
+import ru.ssau.srestapp.repository.EventRepository;
+
+import java.util.List;
+
+//учёт занятых мест через счётчик Event.registeredCount: место выдаётся одним условным UPDATE,
+//так что параллельные регистрации не могут превысить maxParticipants и не пересчитывают строки участников
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SeatAllocator {
+
+    private final EventRepository eventRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    //true, если место занято; false — свободных мест нет и участника нужно ставить в лист ожидания
+    @Transactional
+    public boolean tryReserve(Long eventId) {
+        return eventRepository.tryReserveSeat(eventId) == 1;
+    }
+
+    //занимает сразу до wanted мест под блокировкой строки мероприятия, возвращает число выданных
+    @Transactional
+    public int reserveUpTo(Long eventId, int wanted) {
+        if (wanted <= 0 || eventRepository.lockSeatCounter(eventId) == 0) {
+            return 0;
+        }
+        SeatState state = eventRepository.findSeatState(eventId).orElseThrow();
+        int granted = state.isUnlimited() ? wanted : Math.min(wanted, state.freeSeats());
+        if (granted > 0) {
+            eventRepository.occupySeats(eventId, granted);
+        }
+        return granted;
+    }
+
+    //возвращает места, выданные reserveUpTo, но не использованные
+    @Transactional
+    public void releaseSeats(Long eventId, int count) {
+        if (count > 0) {
+            eventRepository.occupySeats(eventId, -count);
+        }
+    }
+
+    @Transactional
+    public void release(Long eventId) {
+        eventRepository.releaseSeat(eventId);
+    }
+
+    //поддерживает счётчик при любой смене статуса участника; to = null означает удаление записи
+    @Transactional
+    public void onStatusChange(Long eventId, ParticipationStatus from, ParticipationStatus to) {
+        boolean wasRegistered = from == ParticipationStatus.REGISTERED;
+        boolean isRegistered = to == ParticipationStatus.REGISTERED;
+        if (!wasRegistered && isRegistered) {
+            eventRepository.occupySeat(eventId);
+        } else if (wasRegistered && !isRegistered) {
+            eventRepository.releaseSeat(eventId);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public long registeredCount(Long eventId) {
+        return eventRepository.findRegisteredCount(eventId).orElse(0);
+    }
+
+    //страховочная сверка счётчиков с таблицей участников при старте и раз в час: исправляются только разошедшиеся.
+    //Каждое мероприятие пересчитывается в своей транзакции после блокировки строки, поэтому
+    //параллельная регистрация либо уже закоммичена и попадёт в COUNT, либо увеличит счётчик после пересчёта
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedRateString = "${events.seats.reconcile-interval:3600000}",
+            initialDelayString = "${events.seats.reconcile-interval:3600000}")
+    public void reconcile() {
+        try {
+            List<Long> drifted = eventRepository.findIdsWithDriftedRegisteredCount(ParticipationStatus.REGISTERED);
+            for (Long eventId : drifted) {
+                transactionTemplate.executeWithoutResult(status -> {
+                    eventRepository.lockSeatCounter(eventId);
+                    eventRepository.recountRegistered(eventId, ParticipationStatus.REGISTERED);
+                });
+            }
+            if (!drifted.isEmpty()) {
+                log.warn("Счётчики занятых мест пересчитаны для {} мероприятий: {}", drifted.size(), drifted);
+            }
+        } catch (Exception e) {
+            log.error("Ошибка сверки счётчиков занятых мест: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package ru.ssau.srestapp.participation;
+
+//лимит и занятые места мероприятия; maxParticipants null или 0 — без ограничения
+public record SeatState(Integer maxParticipants, Integer registeredCount) {
+
+    public boolean isUnlimited() {
+        return maxParticipants == null || maxParticipants == 0;
+    }
+
+    public int freeSeats() {
+        return Math.max(0, maxParticipants - registeredCount);
+    }
+}
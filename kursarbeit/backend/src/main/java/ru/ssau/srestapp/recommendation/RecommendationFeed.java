@@ -0,0 +1,270 @@
+package ru.ssau.srestapp.recommendation;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.ssau.srestapp.dto.event.EventScoringAttributesDto;
+import ru.ssau.srestapp.dto.event.EventShortDto;
+import ru.ssau.srestapp.dto.eventParticipant.EventRegistrationCountDto;
+import ru.ssau.srestapp.entity.EventFormat;
+import ru.ssau.srestapp.entity.ParticipationStatus;
+import ru.ssau.srestapp.event.EventChangedEvent;
+import ru.ssau.srestapp.event.EventSnapshot;
+import ru.ssau.srestapp.repository.EventParticipantRepository;
+import ru.ssau.srestapp.repository.EventRepository;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+//кандидаты для рекомендаций: предстоящие подтверждённые мероприятия с признаками для скоринга
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RecommendationFeed {
+
+    private static final long POPULARITY_REFRESH_INTERVAL = 5 * 60 * 1000;
+    private static final int POPULAR_LIST_SIZE = 100;
+    private static final int VELOCITY_WINDOW_DAYS = 7;
+    private static final Comparator<EventShortDto> BY_DATE = Comparator
+            .comparing(EventShortDto::getEventDate)
+            .thenComparing(EventShortDto::getIdEvent);
+
+    private final EventRepository eventRepository;
+    private final EventParticipantRepository eventParticipantRepository;
+
+    private final Map<Long, EventShortDto> candidates = new HashMap<>();
+    private final Map<Long, EventScoringAttributesDto> attributes = new HashMap<>();
+    private final NavigableSet<EventShortDto> byDate = new TreeSet<>(BY_DATE);
+    //хранятся только id: карточки берутся из candidates, чтобы правки мероприятия были видны до следующего пересчёта
+    private List<Long> popularIds = List.of();
+    private Map<Long, Long> registrations = Map.of();
+    private Map<Long, Long> recentRegistrations = Map.of();
+    //собирается лениво при первом запросе после изменения ленты, сбрасывается под блокировкой записи
+    private volatile ScoringCandidates scoringCandidates;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        LocalDateTime today = startOfToday();
+        List<EventShortDto> upcoming = eventRepository.findShortActiveAndVerified(today);
+        List<EventScoringAttributesDto> upcomingAttributes = eventRepository.findScoringAttributesActiveAndVerified(today);
+        lock.writeLock().lock();
+        try {
+            candidates.clear();
+            attributes.clear();
+            byDate.clear();
+            upcoming.forEach(this::addCandidate);
+            upcomingAttributes.forEach(a -> attributes.put(a.getIdEvent(), a));
+            scoringCandidates = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        refreshPopular();
+        log.info("Лента рекомендаций построена: {} мероприятий", upcoming.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEventChanged(EventChangedEvent change) {
+        EventShortDto candidate = null;
+        List<EventScoringAttributesDto> candidateAttributes = List.of();
+        if (isCandidate(change)) {
+            candidate = loadCandidate(change.idEvent());
+            candidateAttributes = eventRepository.findScoringAttributesByIds(List.of(change.idEvent()));
+        }
+        lock.writeLock().lock();
+        try {
+            removeCandidate(change.idEvent());
+            if (candidate != null) {
+                addCandidate(candidate);
+                candidateAttributes.forEach(a -> attributes.put(a.getIdEvent(), a));
+            }
+            scoringCandidates = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    //популярность, заполненность и скорость регистраций пересчитываются по расписанию двумя GROUP BY-запросами,
+    //прошедшие мероприятия при этом выбрасываются
+    @Scheduled(fixedRate = POPULARITY_REFRESH_INTERVAL, initialDelay = POPULARITY_REFRESH_INTERVAL)
+    public void refreshPopular() {
+        Map<Long, Long> total = toCountMap(eventParticipantRepository.countGroupedByEvent(ParticipationStatus.REGISTERED));
+        Map<Long, Long> recent = toCountMap(eventParticipantRepository.countGroupedByEventSince(
+                ParticipationStatus.REGISTERED, LocalDateTime.now().minusDays(VELOCITY_WINDOW_DAYS)));
+        Comparator<EventShortDto> byPopularity = Comparator
+                .comparing((EventShortDto e) -> total.getOrDefault(e.getIdEvent(), 0L))
+                .reversed()
+                .thenComparing(BY_DATE);
+        lock.writeLock().lock();
+        try {
+            registrations = total;
+            recentRegistrations = recent;
+            scoringCandidates = null;
+            purgeExpired();
+            PriorityQueue<EventShortDto> top = new PriorityQueue<>(POPULAR_LIST_SIZE + 1, byPopularity.reversed());
+            for (EventShortDto candidate : candidates.values()) {
+                top.offer(candidate);
+                if (top.size() > POPULAR_LIST_SIZE) {
+                    top.poll();
+                }
+            }
+            List<EventShortDto> sorted = new ArrayList<>(top);
+            sorted.sort(byPopularity);
+            popularIds = sorted.stream().map(EventShortDto::getIdEvent).toList();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    //признаки всех кандидатов для RecommendationScorer, упорядоченные по дате
+    public ScoringCandidates scoringCandidates() {
+        ScoringCandidates current = scoringCandidates;
+        if (current != null) {
+            return current;
+        }
+        lock.writeLock().lock();
+        try {
+            if (scoringCandidates == null) {
+                scoringCandidates = buildScoringCandidates();
+            }
+            return scoringCandidates;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    //популярные мероприятия для анонимных пользователей, при нехватке дополняются ближайшими по дате
+    public List<EventShortDto> popular(int limit) {
+        LocalDateTime today = startOfToday();
+        lock.readLock().lock();
+        try {
+            List<EventShortDto> result = new ArrayList<>(limit);
+            Set<Long> taken = new HashSet<>();
+            for (Long idEvent : popularIds) {
+                if (result.size() >= limit) {
+                    return result;
+                }
+                EventShortDto event = candidates.get(idEvent);
+                if (event != null && !event.getEventDate().isBefore(today)) {
+                    result.add(event);
+                    taken.add(idEvent);
+                }
+            }
+            PeekingIterator upcoming = new PeekingIterator(byDate.iterator(), today);
+            while (result.size() < limit && upcoming.peek() != null) {
+                EventShortDto event = upcoming.next();
+                if (!taken.contains(event.getIdEvent())) {
+                    result.add(event);
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private boolean isCandidate(EventChangedEvent change) {
+        if (change.isDeleted()) {
+            return false;
+        }
+        EventSnapshot snapshot = change.snapshot();
+        return Boolean.TRUE.equals(snapshot.verified()) && !snapshot.eventDate().isBefore(startOfToday());
+    }
+
+    private EventShortDto loadCandidate(Long idEvent) {
+        List<EventShortDto> loaded = eventRepository.findShortByIds(List.of(idEvent));
+        return loaded.isEmpty() ? null : loaded.get(0);
+    }
+
+    private ScoringCandidates buildScoringCandidates() {
+        ScoringCandidates result = new ScoringCandidates(byDate.size());
+        for (EventShortDto event : byDate) {
+            EventScoringAttributesDto eventAttributes = attributes.get(event.getIdEvent());
+            Integer maxParticipants = eventAttributes != null ? eventAttributes.getMaxParticipants() : null;
+            boolean accessible = event.getEventFormat() == EventFormat.ONLINE
+                    || (eventAttributes != null && Boolean.TRUE.equals(eventAttributes.getDisabilityAccessible()));
+            float velocity = (float) recentRegistrations.getOrDefault(event.getIdEvent(), 0L) / VELOCITY_WINDOW_DAYS;
+            result.add(event,
+                    event.getIdEventCategory(),
+                    event.getEventDate().toLocalDate().toEpochDay(),
+                    velocity,
+                    maxParticipants != null ? maxParticipants : 0,
+                    registrations.getOrDefault(event.getIdEvent(), 0L).intValue(),
+                    event.getPrice() != null ? event.getPrice().floatValue() : 0f,
+                    accessible);
+        }
+        return result;
+    }
+
+    private Map<Long, Long> toCountMap(List<EventRegistrationCountDto> counts) {
+        Map<Long, Long> result = new HashMap<>();
+        for (EventRegistrationCountDto count : counts) {
+            result.put(count.getEventId(), count.getCount());
+        }
+        return result;
+    }
+
+    private void addCandidate(EventShortDto event) {
+        candidates.put(event.getIdEvent(), event);
+        byDate.add(event);
+    }
+
+    private void removeCandidate(Long idEvent) {
+        EventShortDto existing = candidates.remove(idEvent);
+        attributes.remove(idEvent);
+        if (existing != null) {
+            byDate.remove(existing);
+        }
+    }
+
+    private void purgeExpired() {
+        LocalDateTime today = startOfToday();
+        while (!byDate.isEmpty() && byDate.first().getEventDate().isBefore(today)) {
+            removeCandidate(byDate.first().getIdEvent());
+        }
+    }
+
+    private LocalDateTime startOfToday() {
+        return LocalDateTime.now().toLocalDate().atStartOfDay();
+    }
+
+    //итератор по отсортированному набору, пропускающий мероприятия, дата которых уже прошла
+    private static final class PeekingIterator {
+        private final Iterator<EventShortDto> delegate;
+        private final LocalDateTime today;
+        private EventShortDto next;
+
+        private PeekingIterator(Iterator<EventShortDto> delegate, LocalDateTime today) {
+            this.delegate = delegate;
+            this.today = today;
+            advance();
+        }
+
+        private EventShortDto peek() {
+            return next;
+        }
+
+        private EventShortDto next() {
+            EventShortDto current = next;
+            advance();
+            return current;
+        }
+
+        private void advance() {
+            next = null;
+            while (delegate.hasNext()) {
+                EventShortDto candidate = delegate.next();
+                if (!candidate.getEventDate().isBefore(today)) {
+                    next = candidate;
+                    return;
+                }
+            }
+        }
+    }
+}
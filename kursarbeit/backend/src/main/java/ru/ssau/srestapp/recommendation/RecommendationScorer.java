@@ -0,0 +1,138 @@
+package ru.ssau.srestapp.recommendation;
+
+//линейный проход по кандидатам с ограниченной min-кучей на limit элементов: O(n log limit) без сортировки всего набора
+public final class RecommendationScorer {
+
+    static final float INTEREST_WEIGHT = 3f;
+    static final float VELOCITY_WEIGHT = 1.5f;
+    static final float CAPACITY_WEIGHT = 1f;
+    static final float PRICE_WEIGHT = 0.5f;
+    static final float ACCESSIBILITY_WEIGHT = 2f;
+    static final float SOONNESS_WEIGHT = 1f;
+
+    //регистраций в день, при которых сигнал скорости набирает половину веса
+    private static final float VELOCITY_HALF_SATURATION = 2f;
+    //цена, при которой ценовой сигнал падает вдвое
+    private static final float PRICE_SCALE = 500f;
+    private static final float SOONNESS_SCALE_DAYS = 14f;
+    //мест не осталось — регистрация попадёт только в лист ожидания
+    private static final float FULL_EVENT_PENALTY = -1f;
+
+    private RecommendationScorer() {
+    }
+
+    //индексы лучших кандидатов по убыванию оценки, прошедшие мероприятия пропускаются
+    public static int[] topK(ScoringCandidates candidates, ScoringProfile profile, long today, int limit) {
+        if (limit <= 0 || candidates.size == 0) {
+            return new int[0];
+        }
+        int[] heap = new int[limit];
+        float[] heapScores = new float[limit];
+        int heapSize = 0;
+        long[] interests = profile.interestCategoryIds();
+        boolean hasDisability = profile.hasDisability();
+
+        for (int i = 0; i < candidates.size; i++) {
+            long daysAhead = candidates.eventDays[i] - today;
+            if (daysAhead < 0) {
+                continue;
+            }
+            float score = score(candidates, i, daysAhead, interests, hasDisability);
+            if (heapSize < limit) {
+                heap[heapSize] = i;
+                heapScores[heapSize] = score;
+                siftUp(heap, heapScores, heapSize++);
+            } else if (isWorse(heapScores[0], heap[0], score, i)) {
+                heap[0] = i;
+                heapScores[0] = score;
+                siftDown(heap, heapScores, heapSize);
+            }
+        }
+
+        int[] result = new int[heapSize];
+        for (int last = heapSize - 1; last >= 0; last--) {
+            result[last] = heap[0];
+            heap[0] = heap[last];
+            heapScores[0] = heapScores[last];
+            siftDown(heap, heapScores, last);
+        }
+        return result;
+    }
+
+    static float score(ScoringCandidates c, int i, long daysAhead, long[] interests, boolean hasDisability) {
+        float score = 0f;
+
+        long categoryId = c.categoryIds[i];
+        for (long interest : interests) {
+            if (interest == categoryId) {
+                score += INTEREST_WEIGHT;
+                break;
+            }
+        }
+
+        float velocity = c.velocities[i];
+        score += VELOCITY_WEIGHT * velocity / (velocity + VELOCITY_HALF_SATURATION);
+
+        int max = c.maxParticipants[i];
+        if (max <= 0) {
+            score += CAPACITY_WEIGHT;
+        } else {
+            int remaining = max - c.registered[i];
+            score += remaining > 0 ? CAPACITY_WEIGHT * remaining / max : FULL_EVENT_PENALTY;
+        }
+
+        score += PRICE_WEIGHT / (1f + c.prices[i] / PRICE_SCALE);
+
+        if (hasDisability) {
+            score += c.accessible[i] ? ACCESSIBILITY_WEIGHT : -ACCESSIBILITY_WEIGHT;
+        }
+
+        score += SOONNESS_WEIGHT / (1f + daysAhead / SOONNESS_SCALE_DAYS);
+        return score;
+    }
+
+    //при равной оценке выше стоит кандидат с меньшим индексом — набор упорядочен по дате
+    private static boolean isWorse(float score, int index, float otherScore, int otherIndex) {
+        return score < otherScore || (score == otherScore && index > otherIndex);
+    }
+
+    private static void siftUp(int[] heap, float[] scores, int position) {
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+            if (!isWorse(scores[position], heap[position], scores[parent], heap[parent])) {
+                return;
+            }
+            swap(heap, scores, position, parent);
+            position = parent;
+        }
+    }
+
+    private static void siftDown(int[] heap, float[] scores, int size) {
+        int position = 0;
+        while (true) {
+            int left = 2 * position + 1;
+            if (left >= size) {
+                return;
+            }
+            int worst = left;
+            int right = left + 1;
+            if (right < size && isWorse(scores[right], heap[right], scores[left], heap[left])) {
+                worst = right;
+            }
+            if (!isWorse(scores[worst], heap[worst], scores[position], heap[position])) {
+                return;
+            }
+            swap(heap, scores, position, worst);
+            position = worst;
+        }
+    }
+
+    private static void swap(int[] heap, float[] scores, int a, int b) {
+        int index = heap[a];
+        heap[a] = heap[b];
+        heap[b] = index;
+        float score = scores[a];
+        scores[a] = scores[b];
+        scores[b] = score;
+    }
+}
@@ -0,0 +1,53 @@
+package ru.ssau.srestapp.recommendation;
+
+import ru.ssau.srestapp.dto.event.EventShortDto;
+
+//признаки кандидатов в параллельных примитивных массивах: скоринг проходит по ним без распаковки и обращений к объектам
+public final class ScoringCandidates {
+
+    final EventShortDto[] events;
+    final long[] categoryIds;
+    final long[] eventDays;
+    final float[] velocities;
+    final int[] maxParticipants;
+    final int[] registered;
+    final float[] prices;
+    final boolean[] accessible;
+    int size;
+
+    public ScoringCandidates(int capacity) {
+        events = new EventShortDto[capacity];
+        categoryIds = new long[capacity];
+        eventDays = new long[capacity];
+        velocities = new float[capacity];
+        maxParticipants = new int[capacity];
+        registered = new int[capacity];
+        prices = new float[capacity];
+        accessible = new boolean[capacity];
+    }
+
+    //maxParticipants = 0 означает мероприятие без ограничения мест, velocity — регистраций в день
+    public void add(EventShortDto event, long categoryId, long eventDay, float velocity,
+                    int maxParticipants, int registered, float price, boolean accessible) {
+        if (size == events.length) {
+            throw new IllegalStateException("Превышена вместимость набора кандидатов");
+        }
+        this.events[size] = event;
+        this.categoryIds[size] = categoryId;
+        this.eventDays[size] = eventDay;
+        this.velocities[size] = velocity;
+        this.maxParticipants[size] = maxParticipants;
+        this.registered[size] = registered;
+        this.prices[size] = price;
+        this.accessible[size] = accessible;
+        size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public EventShortDto event(int index) {
+        return events[index];
+    }
+}
@@ -0,0 +1,5 @@
+package ru.ssau.srestapp.recommendation;
+
+//то, что скоринг знает о пользователе: категории интересов и потребность в доступной среде
+public record ScoringProfile(long[] interestCategoryIds, boolean hasDisability) {
+}
@@ -1,7 +1,16 @@
 package ru.ssau.srestapp.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import ru.ssau.srestapp.entity.Avatar;
 
+import java.util.List;
+
 public interface AvatarRepository extends JpaRepository<Avatar, Long> {
+
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<Avatar> findAll();
 }
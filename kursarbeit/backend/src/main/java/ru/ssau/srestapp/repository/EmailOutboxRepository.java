@@ -0,0 +1,41 @@
+package ru.ssau.srestapp.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.ssau.srestapp.entity.EmailOutboxMessage;
+import ru.ssau.srestapp.entity.EmailOutboxStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface EmailOutboxRepository extends JpaRepository<EmailOutboxMessage, Long> {
+
+    @Query("SELECT m.idMessage FROM EmailOutboxMessage m WHERE m.status = :status AND m.nextAttemptAt <= :now " +
+            "ORDER BY m.nextAttemptAt ASC, m.idMessage ASC")
+    List<Long> findDueIds(@Param("status") EmailOutboxStatus status, @Param("now") LocalDateTime now, Pageable pageable);
+
+    //условный UPDATE: если те же строки уже забрал другой экземпляр, статус не PENDING и они не попадут в пачку
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE EmailOutboxMessage m SET m.status = ru.ssau.srestapp.entity.EmailOutboxStatus.SENDING, " +
+            "m.claimToken = :claimToken, m.leaseExpiresAt = :leaseExpiresAt " +
+            "WHERE m.idMessage IN :ids AND m.status = ru.ssau.srestapp.entity.EmailOutboxStatus.PENDING")
+    int claim(@Param("ids") List<Long> ids, @Param("claimToken") String claimToken, @Param("leaseExpiresAt") LocalDateTime leaseExpiresAt);
+
+    @Query("SELECT m FROM EmailOutboxMessage m WHERE m.idMessage IN :ids AND m.claimToken = :claimToken ORDER BY m.idMessage ASC")
+    List<EmailOutboxMessage> findClaimed(@Param("ids") List<Long> ids, @Param("claimToken") String claimToken);
+
+    long countByStatus(EmailOutboxStatus status);
+
+    @Modifying
+    @Query("UPDATE EmailOutboxMessage m SET m.status = ru.ssau.srestapp.entity.EmailOutboxStatus.PENDING, " +
+            "m.claimToken = NULL, m.leaseExpiresAt = NULL " +
+            "WHERE m.status = ru.ssau.srestapp.entity.EmailOutboxStatus.SENDING AND m.leaseExpiresAt < :now")
+    int releaseExpiredLeases(@Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("DELETE FROM EmailOutboxMessage m WHERE m.status = :status AND m.sentAt < :before")
+    int deleteSentBefore(@Param("status") EmailOutboxStatus status, @Param("before") LocalDateTime before);
+}
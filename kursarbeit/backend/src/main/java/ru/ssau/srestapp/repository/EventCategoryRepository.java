@@ -1,12 +1,20 @@
 package ru.ssau.srestapp.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import ru.ssau.srestapp.entity.EventCategory;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface EventCategoryRepository extends JpaRepository<EventCategory, Long> {
 
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<EventCategory> findAll();
+
     boolean existsByEventCategoryName(String eventCategoryName);
 
     Optional<EventCategory> findByEventCategoryName(String eventCategoryName);
@@ -0,0 +1,49 @@
+package ru.ssau.srestapp.repository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+//у каждого мероприятия должна быть строка event_details (связь optional = false). В базе, созданной до её появления,
+//строки дозаполняются при старте, до приёма запросов: описание, комментарий и черновик переносятся
+//из прежних столбцов event, если они ещё есть. Повторный запуск ничего не меняет
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class EventDetailsBackfill implements SmartInitializingSingleton {
+
+    private static final String MISSING = "FROM event e WHERE NOT EXISTS (SELECT 1 FROM event_details d WHERE d.id_event = e.id_event)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        boolean legacyColumns = Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                hasColumn(connection.getMetaData(), "event", "draft_changes")));
+        int inserted = legacyColumns
+                ? jdbcTemplate.update("INSERT INTO event_details (id_event, event_description, verification_comment, draft_changes) " +
+                "SELECT e.id_event, e.event_description, e.verification_comment, e.draft_changes " + MISSING)
+                : jdbcTemplate.update("INSERT INTO event_details (id_event) SELECT e.id_event " + MISSING);
+        if (inserted > 0) {
+            log.info("Созданы строки event_details для {} мероприятий", inserted);
+        }
+    }
+
+    private boolean hasColumn(DatabaseMetaData metaData, String table, String column) throws SQLException {
+        for (String[] names : new String[][]{{table, column}, {table.toUpperCase(), column.toUpperCase()}}) {
+            try (ResultSet columns = metaData.getColumns(null, null, names[0], names[1])) {
+                if (columns.next()) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
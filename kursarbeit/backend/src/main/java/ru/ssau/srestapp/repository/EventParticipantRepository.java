@@ -1,19 +1,35 @@
 package ru.ssau.srestapp.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
+import ru.ssau.srestapp.dto.eventParticipant.EventParticipantShortDto;
+import ru.ssau.srestapp.dto.eventParticipant.EventRegistrationCountDto;
 import ru.ssau.srestapp.entity.EventParticipant;
 import ru.ssau.srestapp.entity.EventParticipantId;
 import ru.ssau.srestapp.entity.ParticipationStatus;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface EventParticipantRepository extends JpaRepository<EventParticipant, EventParticipantId> {
 
     List<EventParticipant> findByIdEvent_IdEvent(Long eventId);
 
+    @Query("SELECT new ru.ssau.srestapp.dto.eventParticipant.EventParticipantShortDto(u.idUser, u.fio, e.idEvent, e.eventName, " +
+            "ep.participationStatus, ep.registrationDate) " +
+            "FROM EventParticipant ep JOIN ep.idUser u JOIN ep.idEvent e WHERE e.idEvent = :eventId")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = StreamingQueries.FETCH_SIZE))
+    Stream<EventParticipantShortDto> streamShortByEvent(@Param("eventId") Long eventId);
+
     List<EventParticipant> findByIdUser_IdUser(Long userId);
 
     Optional<EventParticipant> findByIdUser_IdUserAndIdEvent_IdEvent(Long userId, Long eventId);
@@ -29,5 +45,40 @@ public interface EventParticipantRepository extends JpaRepository<EventParticipa
     @Query("SELECT ep FROM EventParticipant ep WHERE ep.idEvent.idEvent = :eventId AND ep.participationStatus IN :statuses")
     List<EventParticipant> findByParticipationStatusIn(@Param("eventId") Long eventId, @Param("statuses") List<ParticipationStatus> statuses);
 
+    @Query("SELECT new ru.ssau.srestapp.dto.eventParticipant.EventRegistrationCountDto(ep.idEvent.idEvent, COUNT(ep)) " +
+            "FROM EventParticipant ep WHERE ep.participationStatus = :status GROUP BY ep.idEvent.idEvent")
+    List<EventRegistrationCountDto> countGroupedByEvent(@Param("status") ParticipationStatus status);
+
+    @Query("SELECT new ru.ssau.srestapp.dto.eventParticipant.EventRegistrationCountDto(ep.idEvent.idEvent, COUNT(ep)) " +
+            "FROM EventParticipant ep WHERE ep.participationStatus = :status AND ep.registrationDate >= :since GROUP BY ep.idEvent.idEvent")
+    List<EventRegistrationCountDto> countGroupedByEventSince(@Param("status") ParticipationStatus status, @Param("since") LocalDateTime since);
+
+    @Query("SELECT ep FROM EventParticipant ep JOIN FETCH ep.idUser JOIN FETCH ep.idEvent " +
+            "WHERE ep.idEvent.idEvent = :eventId AND ep.participationStatus = :status " +
+            "ORDER BY ep.registrationDate ASC, ep.idUser.idUser ASC")
+    List<EventParticipant> findQueueHead(@Param("eventId") Long eventId, @Param("status") ParticipationStatus status, Pageable pageable);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE EventParticipant ep SET ep.participationStatus = :to " +
+            "WHERE ep.idEvent.idEvent = :eventId AND ep.idUser.idUser IN :userIds AND ep.participationStatus = :from")
+    int updateStatuses(@Param("eventId") Long eventId, @Param("userIds") Collection<Long> userIds,
+                       @Param("from") ParticipationStatus from, @Param("to") ParticipationStatus to);
+
+    @Query("SELECT ep.idUser.idUser FROM EventParticipant ep " +
+            "WHERE ep.idEvent.idEvent = :eventId AND ep.idUser.idUser IN :userIds AND ep.participationStatus = :status")
+    List<Long> findUserIdsWithStatus(@Param("eventId") Long eventId, @Param("userIds") Collection<Long> userIds,
+                                     @Param("status") ParticipationStatus status);
+
     boolean existsByIdUser_IdUserAndIdEvent_IdEventAndParticipationStatusIn(Long userId, Long eventId, List<ParticipationStatus> statuses);
+
+    @Query("SELECT new ru.ssau.srestapp.entity.EventParticipantId(ep.idUser.idUser, ep.idEvent.idEvent) " +
+            "FROM EventParticipant ep WHERE ep.registrationDate >= :since")
+    List<EventParticipantId> findIdsRegisteredSince(@Param("since") LocalDateTime since);
+
+    @Query("SELECT ep.idEvent.idEvent FROM EventParticipant ep WHERE ep.idUser.idUser = :userId AND ep.participationStatus = :status")
+    List<Long> findEventIdsByUser(@Param("userId") Long userId, @Param("status") ParticipationStatus status);
+
+    @Modifying
+    @Query("DELETE FROM EventParticipant ep WHERE ep.idUser.idUser = :userId")
+    int deleteAllByUser(@Param("userId") Long userId);
 }
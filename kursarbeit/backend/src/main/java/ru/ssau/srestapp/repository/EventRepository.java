@@ -1,50 +1,187 @@
 package ru.ssau.srestapp.repository;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
+import ru.ssau.srestapp.dto.event.EventScoringAttributesDto;
+import ru.ssau.srestapp.dto.event.EventShortDto;
+import ru.ssau.srestapp.dto.event.EventTimingDto;
 import ru.ssau.srestapp.entity.Event;
 import ru.ssau.srestapp.entity.EventStatus;
 import ru.ssau.srestapp.entity.ModerationStatus;
+import ru.ssau.srestapp.entity.ParticipationStatus;
+import ru.ssau.srestapp.event.EventSnapshot;
+import ru.ssau.srestapp.participation.SeatState;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface EventRepository extends JpaRepository<Event, Long> {
+public interface EventRepository extends JpaRepository<Event, Long>, EventRepositoryCustom {
 
-    List<Event> findByOrganizer_IdUser(Long organizerId);
+    //списки мероприятий собираются одним запросом сразу в EventShortDto, без ленивой подгрузки связей
+    String SHORT_DTO_SELECT = "SELECT new ru.ssau.srestapp.dto.event.EventShortDto(" +
+            "e.idEvent, e.eventName, o.fio, e.eventDate, e.startTime, e.endTime, e.eventFormat, e.eventStatus, " +
+            "c.eventCategoryName, c.idEventCategory, p.placeName, e.price, e.imageUrl, e.verified, e.moderationStatus) " +
+            "FROM Event e JOIN e.organizer o JOIN e.eventCategory c LEFT JOIN e.place p ";
 
-    List<Event> findByVerifiedTrue();
+    String SNAPSHOT_SELECT = "SELECT new ru.ssau.srestapp.event.EventSnapshot(" +
+            "e.idEvent, e.eventName, d.eventDescription, c.idEventCategory, e.eventFormat, e.eventStatus, " +
+            "e.eventDate, e.startTime, e.endTime, e.maxParticipants, e.price, e.verified, e.moderationStatus) " +
+            "FROM Event e JOIN e.eventCategory c LEFT JOIN e.details d ";
 
-    List<Event> findByEventCategory_IdEventCategory(Long categoryId);
+    @Query(SHORT_DTO_SELECT)
+    List<EventShortDto> findAllShort();
 
-    List<Event> findByEventStatus(EventStatus status);
+    @Query(SHORT_DTO_SELECT)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = StreamingQueries.FETCH_SIZE))
+    Stream<EventShortDto> streamAllShort();
 
-    @Query("SELECT e FROM Event e WHERE e.eventDate BETWEEN :from AND :to AND e.verified = true")
-    List<Event> findByDateRangeAndVerified(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+    @Query(SHORT_DTO_SELECT + "WHERE o.idUser = :organizerId")
+    List<EventShortDto> findShortByOrganizer(@Param("organizerId") Long organizerId);
 
-    @Query("SELECT e FROM Event e WHERE e.eventDate >= :today AND e.verified = true ORDER BY e.eventDate ASC")
-    List<Event> findActiveAndVerified(@Param("today") LocalDateTime today);
+    @Query(SHORT_DTO_SELECT + "WHERE e.verified = true")
+    List<EventShortDto> findShortVerified();
 
-    @Query("SELECT e FROM Event e WHERE LOWER(e.eventName) LIKE LOWER(CONCAT('%', :keyword, '%')) AND e.verified = true")
-    List<Event> searchByKeyword(@Param("keyword") String keyword);
+    @Query(SHORT_DTO_SELECT + "WHERE c.idEventCategory = :categoryId")
+    List<EventShortDto> findShortByCategory(@Param("categoryId") Long categoryId);
 
-    @Query("SELECT e FROM Event e WHERE e.eventStatus = :status AND e.startTime <= :now")
-    List<Event> findEventsByStatusAndStartTimeBefore(@Param("status") EventStatus status, @Param("now") LocalDateTime now);
+    @Query(SHORT_DTO_SELECT + "WHERE e.eventStatus = :status")
+    List<EventShortDto> findShortByStatus(@Param("status") EventStatus status);
 
-    @Query("SELECT e FROM Event e WHERE e.eventStatus = :status AND e.endTime <= :now")
-    List<Event> findEventsByStatusAndEndTimeBefore(@Param("status") EventStatus status, @Param("now") LocalDateTime now);
+    @Query(SHORT_DTO_SELECT + "WHERE e.eventDate BETWEEN :from AND :to AND e.verified = true")
+    List<EventShortDto> findShortByDateRangeAndVerified(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Query(SHORT_DTO_SELECT + "WHERE e.eventDate >= :today AND e.verified = true ORDER BY e.eventDate ASC")
+    List<EventShortDto> findShortActiveAndVerified(@Param("today") LocalDateTime today);
+
+    @Query(SHORT_DTO_SELECT + "WHERE e.idEvent IN :ids")
+    List<EventShortDto> findShortByIds(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT new ru.ssau.srestapp.dto.event.EventScoringAttributesDto(e.idEvent, e.maxParticipants, pp.disabilityAccessible) " +
+            "FROM Event e LEFT JOIN e.place p LEFT JOIN PhysicalPlace pp ON pp.idPlace = p.idPlace " +
+            "WHERE e.eventDate >= :today AND e.verified = true")
+    List<EventScoringAttributesDto> findScoringAttributesActiveAndVerified(@Param("today") LocalDateTime today);
+
+    @Query("SELECT new ru.ssau.srestapp.dto.event.EventScoringAttributesDto(e.idEvent, e.maxParticipants, pp.disabilityAccessible) " +
+            "FROM Event e LEFT JOIN e.place p LEFT JOIN PhysicalPlace pp ON pp.idPlace = p.idPlace " +
+            "WHERE e.idEvent IN :ids")
+    List<EventScoringAttributesDto> findScoringAttributesByIds(@Param("ids") Collection<Long> ids);
+
+    @Query(SHORT_DTO_SELECT + "WHERE e.moderationStatus = :status")
+    List<EventShortDto> findShortByModerationStatus(@Param("status") ModerationStatus status);
+
+    @Query("SELECT e.idEvent FROM Event e WHERE e.eventStatus = :status AND e.startTime <= :now")
+    List<Long> findIdsByStatusAndStartTimeBefore(@Param("status") EventStatus status, @Param("now") LocalDateTime now);
+
+    @Query("SELECT e.idEvent FROM Event e WHERE e.eventStatus = :status AND e.endTime <= :now")
+    List<Long> findIdsByStatusAndEndTimeBefore(@Param("status") EventStatus status, @Param("now") LocalDateTime now);
+
+    //мероприятия, у которых следующий переход статуса наступит до horizon
+    @Query("SELECT new ru.ssau.srestapp.dto.event.EventTimingDto(e.idEvent, e.eventStatus, e.startTime, e.endTime) " +
+            "FROM Event e WHERE (e.eventStatus = ru.ssau.srestapp.entity.EventStatus.PLANNED AND e.startTime <= :horizon) " +
+            "OR (e.eventStatus = ru.ssau.srestapp.entity.EventStatus.ONGOING AND e.endTime <= :horizon)")
+    List<EventTimingDto> findTimingsWithTransitionBefore(@Param("horizon") LocalDateTime horizon);
+
+    //условие на время защищает от устаревших таймеров, если мероприятие перенесли
+    @Modifying
+    @Query("UPDATE Event e SET e.eventStatus = ru.ssau.srestapp.entity.EventStatus.ONGOING " +
+            "WHERE e.idEvent IN :ids AND e.eventStatus = ru.ssau.srestapp.entity.EventStatus.PLANNED AND e.startTime <= :now")
+    int startEvents(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE Event e SET e.eventStatus = ru.ssau.srestapp.entity.EventStatus.COMPLETED " +
+            "WHERE e.idEvent IN :ids AND e.eventStatus = ru.ssau.srestapp.entity.EventStatus.ONGOING AND e.endTime <= :now")
+    int completeEvents(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    //пакетная модерация: мероприятия вместе с организатором и деталями одним запросом
+    @Query("SELECT e FROM Event e JOIN FETCH e.organizer LEFT JOIN FETCH e.details WHERE e.idEvent IN :ids")
+    List<Event> findAllForModeration(@Param("ids") Collection<Long> ids);
+
+    //блокировка строк мероприятий на время пакетной модерации отдельным запросом без соединений:
+    //FOR UPDATE нельзя применить к необязательной стороне LEFT JOIN в findAllForModeration
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e FROM Event e WHERE e.idEvent IN :ids")
+    List<Event> lockAllByIds(@Param("ids") Collection<Long> ids);
+
+    //пакетные UPDATE модерации сначала сбрасывают поля, применённые из черновиков на управляемых сущностях,
+    //а после выполнения очищают контекст, чтобы устаревшие копии мероприятий не записались поверх
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Event e SET e.verified = :verified WHERE e.idEvent IN :ids")
+    int updateVerified(@Param("ids") Collection<Long> ids, @Param("verified") Boolean verified);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE EventDetails d SET d.verificationComment = :comment WHERE d.idEvent IN :ids")
+    int updateVerificationComment(@Param("ids") Collection<Long> ids, @Param("comment") String comment);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Event e SET e.moderationStatus = ru.ssau.srestapp.entity.ModerationStatus.PUBLISHED " +
+            "WHERE e.idEvent IN :ids AND e.moderationStatus = ru.ssau.srestapp.entity.ModerationStatus.PENDING")
+    int publishModerated(@Param("ids") Collection<Long> ids);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE EventDetails d SET d.draftChangesJson = NULL WHERE d.idEvent IN :ids")
+    int clearDraftChanges(@Param("ids") Collection<Long> ids);
 
     long countByVerifiedFalse();
 
-    List<Event> findByModerationStatus(ModerationStatus status);
+    @Query(SNAPSHOT_SELECT)
+    List<EventSnapshot> findAllSnapshots();
+
+    @Query(SNAPSHOT_SELECT + "WHERE e.idEvent IN :ids")
+    List<EventSnapshot> findSnapshotsByIds(@Param("ids") Collection<Long> ids);
 
     @Query("SELECT e FROM Event e " +
             "JOIN FETCH e.organizer " +
             "JOIN FETCH e.eventCategory " +
             "LEFT JOIN FETCH e.place " +
             "LEFT JOIN FETCH e.admin " +
+            "LEFT JOIN FETCH e.details " +
             "WHERE e.idEvent = :id")
     Optional<Event> findByIdWithDetails(@Param("id") Long id);
+
+    @Modifying
+    @Query("UPDATE Event e SET e.registeredCount = e.registeredCount + 1 WHERE e.idEvent = :eventId " +
+            "AND (e.maxParticipants IS NULL OR e.maxParticipants = 0 OR e.registeredCount < e.maxParticipants)")
+    int tryReserveSeat(@Param("eventId") Long eventId);
+
+    @Modifying
+    @Query("UPDATE Event e SET e.registeredCount = e.registeredCount + 1 WHERE e.idEvent = :eventId")
+    int occupySeat(@Param("eventId") Long eventId);
+
+    @Modifying
+    @Query("UPDATE Event e SET e.registeredCount = e.registeredCount + :count WHERE e.idEvent = :eventId")
+    int occupySeats(@Param("eventId") Long eventId, @Param("count") int count);
+
+    //пустой UPDATE берёт блокировку строки мероприятия до конца транзакции
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Event e SET e.registeredCount = e.registeredCount WHERE e.idEvent = :eventId")
+    int lockSeatCounter(@Param("eventId") Long eventId);
+
+    @Query("SELECT new ru.ssau.srestapp.participation.SeatState(e.maxParticipants, e.registeredCount) FROM Event e WHERE e.idEvent = :eventId")
+    Optional<SeatState> findSeatState(@Param("eventId") Long eventId);
+
+    @Modifying
+    @Query("UPDATE Event e SET e.registeredCount = e.registeredCount - 1 WHERE e.idEvent = :eventId AND e.registeredCount > 0")
+    int releaseSeat(@Param("eventId") Long eventId);
+
+    @Query("SELECT e.idEvent FROM Event e WHERE e.registeredCount <> (SELECT COUNT(ep) FROM EventParticipant ep " +
+            "WHERE ep.idEvent.idEvent = e.idEvent AND ep.participationStatus = :status)")
+    List<Long> findIdsWithDriftedRegisteredCount(@Param("status") ParticipationStatus status);
+
+    @Modifying
+    @Query("UPDATE Event e SET e.registeredCount = (SELECT COUNT(ep) FROM EventParticipant ep " +
+            "WHERE ep.idEvent.idEvent = e.idEvent AND ep.participationStatus = :status) WHERE e.idEvent = :eventId")
+    int recountRegistered(@Param("eventId") Long eventId, @Param("status") ParticipationStatus status);
+
+    @Query("SELECT e.registeredCount FROM Event e WHERE e.idEvent = :eventId")
+    Optional<Integer> findRegisteredCount(@Param("eventId") Long eventId);
 }
@@ -0,0 +1,12 @@
+package ru.ssau.srestapp.repository;
+
+import ru.ssau.srestapp.dto.event.EventFilterDto;
+import ru.ssau.srestapp.dto.event.EventShortDto;
+import ru.ssau.srestapp.util.EventCursor;
+
+import java.util.List;
+
+public interface EventRepositoryCustom {
+
+    List<EventShortDto> findPage(EventFilterDto filter, EventCursor after, int limit);
+}
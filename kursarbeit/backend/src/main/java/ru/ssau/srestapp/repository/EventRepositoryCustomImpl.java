@@ -0,0 +1,94 @@
+package ru.ssau.srestapp.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import ru.ssau.srestapp.dto.event.EventFilterDto;
+import ru.ssau.srestapp.dto.event.EventShortDto;
+import ru.ssau.srestapp.entity.Event;
+import ru.ssau.srestapp.entity.EventCategory;
+import ru.ssau.srestapp.entity.Place;
+import ru.ssau.srestapp.entity.User;
+import ru.ssau.srestapp.util.EventCursor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+//keyset-пагинация: в SQL попадают только заданные фильтры, чтобы запрос шёл по составным индексам Event
+public class EventRepositoryCustomImpl implements EventRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<EventShortDto> findPage(EventFilterDto filter, EventCursor after, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<EventShortDto> query = cb.createQuery(EventShortDto.class);
+        Root<Event> event = query.from(Event.class);
+        Join<Event, User> organizer = event.join("organizer");
+        Join<Event, EventCategory> category = event.join("eventCategory");
+        Join<Event, Place> place = event.join("place", JoinType.LEFT);
+        List<Predicate> predicates = buildPredicates(cb, event, filter);
+        if (after != null) {
+            predicates.add(cb.or(
+                    cb.greaterThan(event.<LocalDateTime>get("eventDate"), after.eventDate()),
+                    cb.and(
+                            cb.equal(event.get("eventDate"), after.eventDate()),
+                            cb.greaterThan(event.<Long>get("idEvent"), after.idEvent())
+                    )
+            ));
+        }
+        query.select(cb.construct(EventShortDto.class,
+                        event.get("idEvent"), event.get("eventName"), organizer.get("fio"),
+                        event.get("eventDate"), event.get("startTime"), event.get("endTime"),
+                        event.get("eventFormat"), event.get("eventStatus"),
+                        category.get("eventCategoryName"), category.get("idEventCategory"),
+                        place.get("placeName"), event.get("price"), event.get("imageUrl"),
+                        event.get("verified"), event.get("moderationStatus")))
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(cb.asc(event.get("eventDate")), cb.asc(event.get("idEvent")));
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    private List<Predicate> buildPredicates(CriteriaBuilder cb, Root<Event> event, EventFilterDto filter) {
+        List<Predicate> predicates = new ArrayList<>();
+        if (filter.getCategoryId() != null) {
+            predicates.add(cb.equal(event.get("eventCategory").get("idEventCategory"), filter.getCategoryId()));
+        }
+        if (filter.getStatus() != null) {
+            predicates.add(cb.equal(event.get("eventStatus"), filter.getStatus()));
+        }
+        if (filter.getFormat() != null) {
+            predicates.add(cb.equal(event.get("eventFormat"), filter.getFormat()));
+        }
+        if (filter.getVerified() != null) {
+            predicates.add(cb.equal(event.get("verified"), filter.getVerified()));
+        }
+        if (filter.getFrom() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(event.<LocalDateTime>get("eventDate"), filter.getFrom()));
+        }
+        if (filter.getTo() != null) {
+            predicates.add(cb.lessThanOrEqualTo(event.<LocalDateTime>get("eventDate"), filter.getTo()));
+        }
+        if (filter.getMinPrice() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(event.<BigDecimal>get("price"), filter.getMinPrice()));
+        }
+        if (filter.getMaxPrice() != null) {
+            predicates.add(cb.lessThanOrEqualTo(event.<BigDecimal>get("price"), filter.getMaxPrice()));
+        }
+        if (filter.getKeyword() != null && !filter.getKeyword().isBlank()) {
+            String pattern = "%" + filter.getKeyword().trim().toLowerCase() + "%";
+            predicates.add(cb.like(cb.lower(event.<String>get("eventName")), pattern));
+        }
+        return predicates;
+    }
+}
@@ -1,7 +1,16 @@
 package ru.ssau.srestapp.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import ru.ssau.srestapp.entity.OnlinePlace;
 
+import java.util.List;
+
 public interface OnlinePlaceRepository extends JpaRepository<OnlinePlace, Long> {
+
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<OnlinePlace> findAll();
 }
@@ -1,11 +1,17 @@
 package ru.ssau.srestapp.repository;
 
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import ru.ssau.srestapp.entity.OrganizerRequest;
 import ru.ssau.srestapp.entity.RequestStatus;
+import ru.ssau.srestapp.entity.User;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -20,10 +26,27 @@ public interface OrganizerRequestRepository extends JpaRepository<OrganizerReque
     @Query("SELECT o FROM OrganizerRequest o JOIN FETCH o.user ORDER BY o.submittedAt DESC")
     List<OrganizerRequest> findAllWithUser();
 
+    //пакетное рассмотрение: заявки блокируются до конца транзакции, чтобы проверка PENDING оставалась верной
+    //до UPDATE, повышения ролей и писем, даже если ту же заявку параллельно решает другой администратор
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM OrganizerRequest o JOIN FETCH o.user WHERE o.idOrganizerRequest IN :ids")
+    List<OrganizerRequest> findAllWithUserByIdsForUpdate(@Param("ids") Collection<Long> ids);
+
+    //условие на статус не даёт повторно рассмотреть заявку, решённую параллельным запросом
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE OrganizerRequest o SET o.requestStatus = :status, o.admin = :admin, o.reviewComment = :comment, " +
+            "o.reviewedAt = :reviewedAt WHERE o.idOrganizerRequest IN :ids " +
+            "AND o.requestStatus = ru.ssau.srestapp.entity.RequestStatus.PENDING")
+    int review(@Param("ids") Collection<Long> ids, @Param("status") RequestStatus status, @Param("admin") User admin,
+               @Param("comment") String comment, @Param("reviewedAt") LocalDateTime reviewedAt);
+
     List<OrganizerRequest> findByRequestStatus(RequestStatus status);
 
     @Query("SELECT o FROM OrganizerRequest o WHERE o.user.idUser = :userId ORDER BY o.submittedAt DESC")
     List<OrganizerRequest> findByUserId(@Param("userId") Long userId);
 
     long countByRequestStatus(RequestStatus status);
+
+    @Query("SELECT o.idOrganizerRequest FROM OrganizerRequest o WHERE o.requestStatus = :status")
+    List<Long> findIdsByRequestStatus(@Param("status") RequestStatus status);
 }
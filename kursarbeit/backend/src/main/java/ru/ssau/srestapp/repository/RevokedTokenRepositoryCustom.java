@@ -0,0 +1,9 @@
+package ru.ssau.srestapp.repository;
+
+import ru.ssau.srestapp.entity.RevokedToken;
+
+public interface RevokedTokenRepositoryCustom {
+
+    //только INSERT, без merge: уже существующий jti даёт DataIntegrityViolationException
+    void insert(RevokedToken token);
+}
@@ -0,0 +1,21 @@
+package ru.ssau.srestapp.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.ssau.srestapp.entity.RevokedToken;
+
+public class RevokedTokenRepositoryCustomImpl implements RevokedTokenRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    //своя транзакция: ошибка ключа откатывает только эту вставку, а не вызывающую транзакцию
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void insert(RevokedToken token) {
+        entityManager.persist(token);
+        entityManager.flush();
+    }
+}
@@ -0,0 +1,10 @@
+package ru.ssau.srestapp.repository;
+
+//подсказки для запросов, возвращающих Stream: драйвер читает строки порциями, а не всю выборку сразу
+public final class StreamingQueries {
+
+    public static final String FETCH_SIZE = "500";
+
+    private StreamingQueries() {
+    }
+}
@@ -1,11 +1,21 @@
 package ru.ssau.srestapp.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import ru.ssau.srestapp.dto.user.UserResponseDto;
+import ru.ssau.srestapp.dto.user.UserRoleDto;
 import ru.ssau.srestapp.entity.Role;
 import ru.ssau.srestapp.entity.User;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface UserRepository extends JpaRepository<User, Long> {
 
@@ -14,4 +24,27 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
 
     long countByRole(Role role);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE User u SET u.role = :role WHERE u.idUser IN :ids")
+    int updateRole(@Param("ids") Collection<Long> ids, @Param("role") Role role);
+
+    @Query("SELECT u.hasDisability FROM User u WHERE u.idUser = :userId")
+    Optional<Boolean> findHasDisabilityById(@Param("userId") Long userId);
+
+    @Query("SELECT new ru.ssau.srestapp.dto.user.UserRoleDto(u.idUser, r.roleName) FROM User u LEFT JOIN u.role r")
+    List<UserRoleDto> findAllRoles();
+
+    @Query("SELECT new ru.ssau.srestapp.dto.user.UserRoleDto(u.idUser, r.roleName) FROM User u LEFT JOIN u.role r " +
+            "WHERE u.idUser = :userId")
+    Optional<UserRoleDto> findRoleById(@Param("userId") Long userId);
+
+    @Query("SELECT u.idUser FROM User u JOIN u.role r WHERE UPPER(r.roleName) = UPPER(:roleName)")
+    List<Long> findIdsByRoleName(@Param("roleName") String roleName);
+
+    @Query("SELECT new ru.ssau.srestapp.dto.user.UserResponseDto(u.idUser, u.userStatus, a.idAvatar, a.avatarUrl, " +
+            "r.idRole, r.roleName, u.fio, u.email, u.birthDate, u.hasDisability) " +
+            "FROM User u JOIN u.role r LEFT JOIN u.avatar a")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = StreamingQueries.FETCH_SIZE))
+    Stream<UserResponseDto> streamAllResponses();
 }
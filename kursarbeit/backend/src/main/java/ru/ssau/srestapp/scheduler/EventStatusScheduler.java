@@ -1,29 +1,131 @@
 package ru.ssau.srestapp.scheduler;
 
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
-import ru.ssau.srestapp.exception.EntityNotFoundException;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.ssau.srestapp.dto.event.EventTimingDto;
+import ru.ssau.srestapp.entity.EventStatus;
+import ru.ssau.srestapp.event.EventChangedEvent;
+import ru.ssau.srestapp.event.EventSnapshot;
+import ru.ssau.srestapp.repository.EventRepository;
 import ru.ssau.srestapp.service.EventService;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+//переходы PLANNED -> ONGOING -> COMPLETED по колесу таймеров: у каждого мероприятия в колесе лежит ближайший переход.
+//Колесо заполняется сверкой при старте и раз в час, после каждого изменения мероприятия таймер переставляется
 @Component
-@RequiredArgsConstructor
 @Slf4j
 public class EventStatusScheduler {
 
+    private static final long TICK_INTERVAL = 1000;
+    private static final int WHEEL_SIZE = 3600;
+
     private final EventService eventService;
+    private final EventRepository eventRepository;
+    private final Duration horizon;
+
+    private final TimingWheel<Long, Transition> wheel;
+
+    private record Transition(Long idEvent, EventStatus to) {
+    }
+
+    public EventStatusScheduler(EventService eventService, EventRepository eventRepository,
+                                @Value("${events.status.horizon:PT6H}") Duration horizon) {
+        this.eventService = eventService;
+        this.eventRepository = eventRepository;
+        this.horizon = horizon;
+        this.wheel = new TimingWheel<>(TICK_INTERVAL, WHEEL_SIZE, System.currentTimeMillis());
+    }
 
-    private static final long UPDATE_INTERVAL = 5 * 60 * 1000;
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        reconcile();
+    }
 
-    @Scheduled(fixedRate = UPDATE_INTERVAL)
-    public void updateEventStatuses() {
+    @Scheduled(fixedDelay = TICK_INTERVAL, initialDelay = TICK_INTERVAL)
+    public void tick() {
+        List<Transition> due;
+        synchronized (wheel) {
+            due = wheel.advance(System.currentTimeMillis());
+        }
+        if (due.isEmpty()) {
+            return;
+        }
+        List<Long> toStart = new ArrayList<>();
+        List<Long> toComplete = new ArrayList<>();
+        for (Transition transition : due) {
+            (transition.to() == EventStatus.ONGOING ? toStart : toComplete).add(transition.idEvent());
+        }
         try {
-            log.info("Запуск планового обновления статусов мероприятий");
-            eventService.updateEventStatuses();
-            log.info("Статусы мероприятий успешно обновлены");
+            LocalDateTime now = LocalDateTime.now();
+            int started = toStart.isEmpty() ? 0 : eventService.startEvents(toStart, now);
+            int completed = toComplete.isEmpty() ? 0 : eventService.completeEvents(toComplete, now);
+            log.debug("Статусы мероприятий обновлены: начато {}, завершено {}", started, completed);
+        } catch (Exception e) {
+            //пропущенные переходы подберёт сверка
+            log.error("Ошибка обновления статусов мероприятий: {}", e.getMessage(), e);
+        }
+    }
+
+    //страховочная сверка по таблице и загрузка переходов на ближайший horizon
+    @Scheduled(fixedRateString = "${events.status.reconcile-interval:3600000}",
+            initialDelayString = "${events.status.reconcile-interval:3600000}")
+    public void reconcile() {
+        try {
+            int updated = eventService.updateEventStatuses();
+            if (updated > 0) {
+                log.info("Сверка статусов мероприятий: обновлено {}", updated);
+            }
+            List<EventTimingDto> upcoming = eventRepository.findTimingsWithTransitionBefore(LocalDateTime.now().plus(horizon));
+            synchronized (wheel) {
+                upcoming.forEach(timing -> schedule(timing.getIdEvent(), timing.getEventStatus(),
+                        timing.getStartTime(), timing.getEndTime()));
+            }
+            log.info("Запланировано переходов статусов: {}", upcoming.size());
         } catch (Exception e) {
             log.error("Критическая ошибка scheduler: {}", e.getMessage(), e);
         }
     }
+
+    //в том числе после собственных переходов: для начавшегося мероприятия ставится таймер завершения
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEventChanged(EventChangedEvent change) {
+        synchronized (wheel) {
+            if (change.isDeleted()) {
+                wheel.cancel(change.idEvent());
+                return;
+            }
+            EventSnapshot snapshot = change.snapshot();
+            schedule(snapshot.idEvent(), snapshot.eventStatus(), snapshot.startTime(), snapshot.endTime());
+        }
+    }
+
+    public int scheduledCount() {
+        synchronized (wheel) {
+            return wheel.size();
+        }
+    }
+
+    private void schedule(Long idEvent, EventStatus status, LocalDateTime startTime, LocalDateTime endTime) {
+        if (status == EventStatus.PLANNED && startTime != null) {
+            wheel.schedule(idEvent, new Transition(idEvent, EventStatus.ONGOING), toMillis(startTime));
+        } else if (status == EventStatus.ONGOING && endTime != null) {
+            wheel.schedule(idEvent, new Transition(idEvent, EventStatus.COMPLETED), toMillis(endTime));
+        } else {
+            wheel.cancel(idEvent);
+        }
+    }
+
+    private long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
 }
@@ -0,0 +1,78 @@
+package ru.ssau.srestapp.scheduler;
+
+import java.util.*;
+
+//хешированное колесо таймеров: слот выбирается по такту срабатывания, у каждого ключа не больше одного таймера.
+//Постановка, отмена и перенос — O(1), за такт просматривается только один слот. Не потокобезопасно
+public final class TimingWheel<K, T> {
+
+    private final long tickMillis;
+    private final List<Map<K, Timeout<T>>> slots;
+    private final Map<K, Integer> slotByKey = new HashMap<>();
+    //последний обработанный такт
+    private long currentTick;
+
+    private record Timeout<T>(T task, long deadline) {
+    }
+
+    public TimingWheel(long tickMillis, int wheelSize, long startMillis) {
+        if (tickMillis <= 0 || wheelSize <= 0) {
+            throw new IllegalArgumentException("Размер такта и колеса должен быть положительным");
+        }
+        this.tickMillis = tickMillis;
+        this.slots = new ArrayList<>(wheelSize);
+        for (int i = 0; i < wheelSize; i++) {
+            slots.add(new LinkedHashMap<>());
+        }
+        this.currentTick = Math.floorDiv(startMillis, tickMillis);
+    }
+
+    //заменяет прежний таймер ключа; просроченный срок срабатывает на ближайшем такте
+    public void schedule(K key, T task, long deadlineMillis) {
+        cancel(key);
+        //такт, к началу которого срок уже наступил: округление вверх
+        long tick = Math.max(-Math.floorDiv(-deadlineMillis, tickMillis), currentTick + 1);
+        int slot = slotIndex(tick);
+        slots.get(slot).put(key, new Timeout<>(task, deadlineMillis));
+        slotByKey.put(key, slot);
+    }
+
+    public void cancel(K key) {
+        Integer slot = slotByKey.remove(key);
+        if (slot != null) {
+            slots.get(slot).remove(key);
+        }
+    }
+
+    //задачи, срок которых наступил к nowMillis, в порядке обхода слотов
+    public List<T> advance(long nowMillis) {
+        long targetTick = Math.floorDiv(nowMillis, tickMillis);
+        if (targetTick <= currentTick) {
+            return List.of();
+        }
+        List<T> due = new ArrayList<>();
+        //после долгой паузы достаточно одного полного оборота: каждый слот просматривается ровно один раз
+        long firstTick = Math.max(currentTick + 1, targetTick - slots.size() + 1);
+        for (long tick = firstTick; tick <= targetTick; tick++) {
+            Iterator<Map.Entry<K, Timeout<T>>> iterator = slots.get(slotIndex(tick)).entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<K, Timeout<T>> entry = iterator.next();
+                if (entry.getValue().deadline() <= nowMillis) {
+                    due.add(entry.getValue().task());
+                    slotByKey.remove(entry.getKey());
+                    iterator.remove();
+                }
+            }
+        }
+        currentTick = targetTick;
+        return due;
+    }
+
+    public int size() {
+        return slotByKey.size();
+    }
+
+    private int slotIndex(long tick) {
+        return (int) Math.floorMod(tick, (long) slots.size());
+    }
+}
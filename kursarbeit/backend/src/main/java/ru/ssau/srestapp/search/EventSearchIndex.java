@@ -0,0 +1,156 @@
+package ru.ssau.srestapp.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.ssau.srestapp.event.EventChangedEvent;
+import ru.ssau.srestapp.event.EventSnapshot;
+import ru.ssau.srestapp.repository.EventRepository;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+//инвертированный индекс по названию и описанию мероприятий, обновляется после коммита изменений в EventService
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class EventSearchIndex {
+
+    private static final float NAME_WEIGHT = 3f;
+    private static final float DESCRIPTION_WEIGHT = 1f;
+    private static final float PREFIX_FACTOR = 0.5f;
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+
+    private final EventRepository eventRepository;
+
+    private final NavigableMap<String, Map<Long, Float>> postings = new TreeMap<>();
+    private final Map<Long, IndexedDocument> documents = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private record IndexedDocument(Set<String> terms, boolean verified) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<EventSnapshot> snapshots = eventRepository.findAllSnapshots();
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documents.clear();
+            snapshots.forEach(this::addDocument);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Поисковый индекс мероприятий построен: {} документов, {} термов", snapshots.size(), postings.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEventChanged(EventChangedEvent change) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(change.idEvent());
+            if (!change.isDeleted()) {
+                addDocument(change.snapshot());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    //id подтверждённых мероприятий, содержащих все слова запроса (целиком или как начало слова), по убыванию релевантности
+    public List<Long> search(String query, int limit) {
+        List<String> queryTerms = TextTokenizer.tokenize(query);
+        if (queryTerms.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        Map<Long, Float> scores = null;
+        lock.readLock().lock();
+        try {
+            for (String queryTerm : queryTerms) {
+                Map<Long, Float> termScores = scoreTerm(queryTerm);
+                scores = scores == null ? termScores : intersect(scores, termScores);
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return topK(scores, limit);
+    }
+
+    private Map<Long, Float> scoreTerm(String queryTerm) {
+        Map<Long, Float> termScores = new HashMap<>();
+        int expansions = 0;
+        for (Map.Entry<String, Map<Long, Float>> entry : postings.tailMap(queryTerm, true).entrySet()) {
+            String term = entry.getKey();
+            if (!term.startsWith(queryTerm) || expansions++ >= MAX_PREFIX_EXPANSIONS) {
+                break;
+            }
+            Map<Long, Float> docs = entry.getValue();
+            float idf = (float) Math.log(1 + (double) documents.size() / docs.size());
+            float factor = term.equals(queryTerm) ? 1f : PREFIX_FACTOR;
+            for (Map.Entry<Long, Float> doc : docs.entrySet()) {
+                if (documents.get(doc.getKey()).verified()) {
+                    termScores.merge(doc.getKey(), doc.getValue() * idf * factor, Math::max);
+                }
+            }
+        }
+        return termScores;
+    }
+
+    private Map<Long, Float> intersect(Map<Long, Float> scores, Map<Long, Float> termScores) {
+        Map<Long, Float> result = new HashMap<>();
+        for (Map.Entry<Long, Float> entry : scores.entrySet()) {
+            Float termScore = termScores.get(entry.getKey());
+            if (termScore != null) {
+                result.put(entry.getKey(), entry.getValue() + termScore);
+            }
+        }
+        return result;
+    }
+
+    private List<Long> topK(Map<Long, Float> scores, int limit) {
+        PriorityQueue<Map.Entry<Long, Float>> heap = new PriorityQueue<>(limit + 1, Map.Entry.comparingByValue());
+        for (Map.Entry<Long, Float> entry : scores.entrySet()) {
+            heap.offer(entry);
+            if (heap.size() > limit) {
+                heap.poll();
+            }
+        }
+        List<Long> result = new ArrayList<>(heap.size());
+        while (!heap.isEmpty()) {
+            result.add(heap.poll().getKey());
+        }
+        Collections.reverse(result);
+        return result;
+    }
+
+    private void addDocument(EventSnapshot snapshot) {
+        Map<String, Float> weights = new HashMap<>();
+        TextTokenizer.tokenize(snapshot.eventName()).forEach(term -> weights.merge(term, NAME_WEIGHT, Float::sum));
+        TextTokenizer.tokenize(snapshot.eventDescription()).forEach(term -> weights.merge(term, DESCRIPTION_WEIGHT, Float::sum));
+        weights.forEach((term, weight) -> postings.computeIfAbsent(term, t -> new HashMap<>()).put(snapshot.idEvent(), weight));
+        documents.put(snapshot.idEvent(), new IndexedDocument(weights.keySet(), Boolean.TRUE.equals(snapshot.verified())));
+    }
+
+    private void removeDocument(Long idEvent) {
+        IndexedDocument document = documents.remove(idEvent);
+        if (document == null) {
+            return;
+        }
+        for (String term : document.terms()) {
+            Map<Long, Float> docs = postings.get(term);
+            if (docs != null) {
+                docs.remove(idEvent);
+                if (docs.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+}
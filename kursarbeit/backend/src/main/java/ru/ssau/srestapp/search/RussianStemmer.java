@@ -0,0 +1,166 @@
+package ru.ssau.srestapp.search;
+
+//стеммер Портера (Snowball) для русского языка: отсекает окончания внутри области RV
+public final class RussianStemmer {
+
+    private static final String VOWELS = "аеиоуыэюя";
+
+    private static final String[] PERFECTIVE_GERUND_1 = {"вшись", "вши", "в"};
+    private static final String[] PERFECTIVE_GERUND_2 = {"ившись", "ывшись", "ивши", "ывши", "ив", "ыв"};
+    private static final String[] REFLEXIVE = {"ся", "сь"};
+    private static final String[] ADJECTIVE = {
+            "ими", "ыми", "его", "ого", "ему", "ому",
+            "ее", "ие", "ые", "ое", "ей", "ий", "ый", "ой", "ем", "им", "ым", "ом",
+            "их", "ых", "ую", "юю", "ая", "яя", "ою", "ею"
+    };
+    private static final String[] PARTICIPLE_1 = {"ем", "нн", "вш", "ющ", "щ"};
+    private static final String[] PARTICIPLE_2 = {"ивш", "ывш", "ующ"};
+    private static final String[] VERB_1 = {
+            "ете", "йте", "ешь", "нно", "ла", "на", "ли", "ем", "ло", "но", "ет", "ют", "ны", "ть", "й", "л", "н"
+    };
+    private static final String[] VERB_2 = {
+            "ейте", "уйте", "ила", "ыла", "ена", "ите", "или", "ыли", "ило", "ыло", "ено", "ует", "уют", "ены",
+            "ить", "ыть", "ишь", "ей", "уй", "ил", "ыл", "им", "ым", "ен", "ят", "ит", "ыт", "ую", "ю"
+    };
+    private static final String[] NOUN = {
+            "иями", "ями", "ами", "ией", "иям", "ием", "иях",
+            "ев", "ов", "ие", "ье", "еи", "ии", "ей", "ой", "ий", "ям", "ем", "ам", "ом", "ах", "ях", "ию", "ью", "ия", "ья",
+            "а", "е", "и", "й", "о", "у", "ы", "ь", "ю", "я"
+    };
+    private static final String[] SUPERLATIVE = {"ейше", "ейш"};
+    private static final String[] DERIVATIONAL = {"ость", "ост"};
+
+    private RussianStemmer() {
+    }
+
+    public static String stem(String word) {
+        int rv = findRv(word);
+        if (rv >= word.length()) {
+            return word;
+        }
+        String prefix = word.substring(0, rv);
+        StringBuilder region = new StringBuilder(word.substring(rv));
+
+        if (!removeGrouped(region, PERFECTIVE_GERUND_1, PERFECTIVE_GERUND_2)) {
+            removeSuffix(region, REFLEXIVE);
+            if (!removeAdjectival(region)
+                    && !removeGrouped(region, VERB_1, VERB_2)) {
+                removeSuffix(region, NOUN);
+            }
+        }
+
+        if (endsWith(region, "и")) {
+            region.setLength(region.length() - 1);
+        }
+
+        int r2 = findR2(word) - rv;
+        int derivational = matchSuffix(region, DERIVATIONAL);
+        if (derivational > 0 && region.length() - derivational >= r2) {
+            region.setLength(region.length() - derivational);
+        }
+
+        if (endsWith(region, "нн")) {
+            region.setLength(region.length() - 1);
+        } else if (removeSuffix(region, SUPERLATIVE)) {
+            if (endsWith(region, "нн")) {
+                region.setLength(region.length() - 1);
+            }
+        } else if (endsWith(region, "ь")) {
+            region.setLength(region.length() - 1);
+        }
+
+        return prefix + region;
+    }
+
+    private static boolean removeAdjectival(StringBuilder region) {
+        int adjective = matchSuffix(region, ADJECTIVE);
+        if (adjective == 0) {
+            return false;
+        }
+        region.setLength(region.length() - adjective);
+        removeGrouped(region, PARTICIPLE_1, PARTICIPLE_2);
+        return true;
+    }
+
+    //суффиксы первой группы удаляются, только если им предшествует «а» или «я»
+    private static boolean removeGrouped(StringBuilder region, String[] group1, String[] group2) {
+        int first = matchSuffix(region, group1);
+        int second = matchSuffix(region, group2);
+        if (second >= first && second > 0) {
+            region.setLength(region.length() - second);
+            return true;
+        }
+        if (first > 0 && region.length() > first) {
+            char preceding = region.charAt(region.length() - first - 1);
+            if (preceding == 'а' || preceding == 'я') {
+                region.setLength(region.length() - first);
+                return true;
+            }
+        }
+        if (second > 0) {
+            region.setLength(region.length() - second);
+            return true;
+        }
+        return false;
+    }
+
+    private static boolean removeSuffix(StringBuilder region, String[] suffixes) {
+        int length = matchSuffix(region, suffixes);
+        if (length == 0) {
+            return false;
+        }
+        region.setLength(region.length() - length);
+        return true;
+    }
+
+    //длина самого длинного подходящего суффикса или 0
+    private static int matchSuffix(StringBuilder region, String[] suffixes) {
+        int best = 0;
+        for (String suffix : suffixes) {
+            if (suffix.length() > best && endsWith(region, suffix)) {
+                best = suffix.length();
+            }
+        }
+        return best;
+    }
+
+    private static boolean endsWith(StringBuilder region, String suffix) {
+        int offset = region.length() - suffix.length();
+        if (offset < 0) {
+            return false;
+        }
+        for (int i = 0; i < suffix.length(); i++) {
+            if (region.charAt(offset + i) != suffix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int findRv(String word) {
+        for (int i = 0; i < word.length(); i++) {
+            if (isVowel(word.charAt(i))) {
+                return i + 1;
+            }
+        }
+        return word.length();
+    }
+
+    private static int findR2(String word) {
+        int r1 = findRegionAfterVowelConsonant(word, 0);
+        return findRegionAfterVowelConsonant(word, r1);
+    }
+
+    private static int findRegionAfterVowelConsonant(String word, int start) {
+        for (int i = start + 1; i < word.length(); i++) {
+            if (!isVowel(word.charAt(i)) && isVowel(word.charAt(i - 1))) {
+                return i + 1;
+            }
+        }
+        return word.length();
+    }
+
+    private static boolean isVowel(char c) {
+        return VOWELS.indexOf(c) >= 0;
+    }
+}
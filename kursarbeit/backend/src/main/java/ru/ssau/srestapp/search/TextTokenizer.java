@@ -0,0 +1,49 @@
+package ru.ssau.srestapp.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+//разбивает текст на слова, приводит к нижнему регистру, заменяет «ё» на «е» и стеммирует русские слова
+public final class TextTokenizer {
+
+    private static final int MIN_TOKEN_LENGTH = 2;
+
+    private TextTokenizer() {
+    }
+
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return tokens;
+        }
+        String normalized = text.toLowerCase(Locale.ROOT).replace('ё', 'е');
+        int start = -1;
+        for (int i = 0; i <= normalized.length(); i++) {
+            boolean letterOrDigit = i < normalized.length() && Character.isLetterOrDigit(normalized.charAt(i));
+            if (letterOrDigit && start < 0) {
+                start = i;
+            } else if (!letterOrDigit && start >= 0) {
+                addToken(tokens, normalized.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    private static void addToken(List<String> tokens, String word) {
+        if (word.length() < MIN_TOKEN_LENGTH) {
+            return;
+        }
+        tokens.add(isCyrillic(word) ? RussianStemmer.stem(word) : word);
+    }
+
+    private static boolean isCyrillic(String word) {
+        for (int i = 0; i < word.length(); i++) {
+            if (Character.UnicodeBlock.of(word.charAt(i)) != Character.UnicodeBlock.CYRILLIC) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
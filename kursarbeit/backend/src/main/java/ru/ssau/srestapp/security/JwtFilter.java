@@ -21,6 +21,7 @@ public class JwtFilter extends OncePerRequestFilter {
 
     private final JwtTokenService jwtTokenService;
     private final CustomUserDetailsService customUserDetailsService;
+    private final PrincipalCache principalCache;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
@@ -28,7 +29,7 @@ public class JwtFilter extends OncePerRequestFilter {
         if (StringUtils.hasText(token)) {
             try {
                 Long userId = jwtTokenService.getUserIdFromToken(token);
-                CustomUserDetails userDetails = customUserDetailsService.loadUserById(userId);
+                CustomUserDetails userDetails = principalCache.get(userId, customUserDetailsService::loadUserById);
                 UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(authentication);
@@ -3,30 +3,39 @@ package ru.ssau.srestapp.security;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
-import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.stereotype.Service;
 
 import java.security.Key;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Service
-@RequiredArgsConstructor
 public class JwtTokenService {
 
     private static final long ACCESS_TOKEN_TTL_MS = 24 * 60 * 60 * 1000;
     private static final long REFRESH_TOKEN_TTL_MS = 7 * 24 * 60 * 60 * 1000;
 
-    @Value("${jwt.secret}")
-    private String jwtSecret;
+    //ключ и парсер неизменяемы и потокобезопасны, поэтому строятся один раз
+    private final Key signingKey;
+    private final JwtParser parser;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final TokenRevocationList revocationList;
 
-    private Key getSigningKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(jwtSecret);
-        return Keys.hmacShaKeyFor(keyBytes);
+    public JwtTokenService(@Value("${jwt.secret}") String jwtSecret, VerifiedTokenCache verifiedTokenCache,
+                           TokenRevocationList revocationList) {
+        this.signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.revocationList = revocationList;
     }
 
     public String generateAccessToken(CustomUserDetails userDetails) {
@@ -50,20 +59,45 @@ public class JwtTokenService {
 
         return Jwts.builder()
                 .setClaims(claims)
+                .setId(UUID.randomUUID().toString())
                 .setSubject(subject)
                 .setIssuedAt(now)
                 .setExpiration(expiryDate)
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
     public Claims validateToken(String token) {
+        Claims claims = verifiedTokenCache.get(token);
+        if (claims == null) {
+            claims = parse(token);
+            verifiedTokenCache.put(token, claims);
+        }
+        if (revocationList.isRevoked(claims.getId())) {
+            throw new JwtException("Токен отозван");
+        }
+        return claims;
+    }
+
+    //refresh-токен одноразовый: при обмене он отзывается, повторное предъявление отклоняется
+    public Long useRefreshToken(String token) {
+        Claims claims = validateToken(token);
+        if (claims.getId() != null && !revocationList.revoke(claims.getId(), toLocalDateTime(claims.getExpiration()))) {
+            throw new JwtException("Токен отозван");
+        }
+        return claims.get("userId", Long.class);
+    }
+
+    public void revokeToken(String token) {
+        Claims claims = validateToken(token);
+        if (claims.getId() != null) {
+            revocationList.revoke(claims.getId(), toLocalDateTime(claims.getExpiration()));
+        }
+    }
+
+    private Claims parse(String token) {
         try {
-            return Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
+            return parser.parseClaimsJws(token).getBody();
         } catch (ExpiredJwtException e) {
             throw new JwtException("Токен истёк");
         } catch (JwtException e) {
@@ -71,6 +105,10 @@ public class JwtTokenService {
         }
     }
 
+    private LocalDateTime toLocalDateTime(Date date) {
+        return LocalDateTime.ofInstant(date.toInstant(), ZoneId.systemDefault());
+    }
+
     public Long getUserIdFromToken(String token) {
         Claims claims = validateToken(token);
         return claims.get("userId", Long.class);
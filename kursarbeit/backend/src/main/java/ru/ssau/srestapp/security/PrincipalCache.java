@@ -0,0 +1,113 @@
+package ru.ssau.srestapp.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.ssau.srestapp.dto.admin.CacheStatisticsDto;
+import ru.ssau.srestapp.event.UserChangedEvent;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+//CustomUserDetails по id пользователя для JwtFilter: ограничен по размеру и времени жизни,
+//сбрасывается после коммита изменений роли, статуса, пароля, email или удаления пользователя
+@Component
+public class PrincipalCache {
+
+    public static final String NAME = "principals";
+
+    private final long ttlNanos;
+    private final int maxSize;
+
+    //порядок вставки: при переполнении вытесняется самая старая запись, чтение не меняет порядок и идёт под блокировкой чтения
+    private final LinkedHashMap<Long, Entry> entries;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    //загрузка, начатая до инвалидации, не должна положить в кэш устаревшие данные
+    private final AtomicLong invalidations = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    private record Entry(CustomUserDetails userDetails, long expiresAt) {
+    }
+
+    public PrincipalCache(@Value("${security.principal-cache.ttl:PT5M}") Duration ttl,
+                          @Value("${security.principal-cache.max-size:10000}") int maxSize) {
+        this.ttlNanos = ttl.toNanos();
+        this.maxSize = maxSize;
+        this.entries = new LinkedHashMap<>(16, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                if (size() > PrincipalCache.this.maxSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public CustomUserDetails get(Long userId, Function<Long, CustomUserDetails> loader) {
+        long now = System.nanoTime();
+        Entry entry;
+        lock.readLock().lock();
+        try {
+            entry = entries.get(userId);
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (entry != null && entry.expiresAt() - now > 0) {
+            hits.increment();
+            return entry.userDetails();
+        }
+        misses.increment();
+        long generation = invalidations.get();
+        CustomUserDetails userDetails = loader.apply(userId);
+        if (maxSize > 0 && ttlNanos > 0) {
+            lock.writeLock().lock();
+            try {
+                if (invalidations.get() == generation) {
+                    //удаление перед вставкой переносит обновлённую запись в конец очереди вытеснения
+                    entries.remove(userId);
+                    entries.put(userId, new Entry(userDetails, System.nanoTime() + ttlNanos));
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        return userDetails;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent change) {
+        lock.writeLock().lock();
+        try {
+            invalidations.incrementAndGet();
+            if (change.isAllUsers()) {
+                entries.clear();
+            } else {
+                entries.remove(change.idUser());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public CacheStatisticsDto statistics() {
+        int size;
+        lock.readLock().lock();
+        try {
+            size = entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+        return new CacheStatisticsDto(NAME, size, hits.sum(), misses.sum(), evictions.sum());
+    }
+}
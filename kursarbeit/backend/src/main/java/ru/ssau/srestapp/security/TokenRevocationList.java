@@ -0,0 +1,135 @@
+package ru.ssau.srestapp.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import ru.ssau.srestapp.entity.RevokedToken;
+import ru.ssau.srestapp.repository.RevokedTokenRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+//отозванные jti: таблица revoked_token — источник истины, в памяти фильтр Блума и точное множество для подтверждения.
+//Проверка неотозванного токена почти всегда заканчивается на фильтре и в БД не ходит
+@Component
+@Slf4j
+public class TokenRevocationList {
+
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+    private static final long SYNC_INTERVAL = 30 * 1000;
+    private static final long PURGE_INTERVAL = 60 * 60 * 1000;
+    //запас на расхождение часов и незакоммиченные на момент синхронизации записи
+    private static final long SYNC_OVERLAP_SECONDS = 60;
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final int expectedSize;
+
+    private record Snapshot(BloomFilter filter, Map<String, LocalDateTime> revoked) {
+    }
+
+    //фильтр не умеет удалять, поэтому при очистке строится новый снимок и подменяется целиком
+    private volatile Snapshot snapshot;
+    //запись в текущий снимок и его подмена идут под одной блокировкой: иначе отзыв, добавленный в старый снимок
+    //после переноса его содержимого в новый, пропал бы до следующего sync. Проверка isRevoked блокировку не берёт
+    private final Lock snapshotLock = new ReentrantLock();
+    private volatile LocalDateTime lastSync = LocalDateTime.now();
+
+    public TokenRevocationList(RevokedTokenRepository revokedTokenRepository,
+                               @Value("${jwt.revocation.expected-size:100000}") int expectedSize) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.expectedSize = expectedSize;
+        this.snapshot = new Snapshot(new BloomFilter(expectedSize, FALSE_POSITIVE_RATE), new ConcurrentHashMap<>());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        LocalDateTime now = LocalDateTime.now();
+        List<RevokedToken> active = revokedTokenRepository.findByExpiresAtAfter(now);
+        Snapshot rebuilt = new Snapshot(
+                new BloomFilter(Math.max(expectedSize, active.size() * 2), FALSE_POSITIVE_RATE),
+                new ConcurrentHashMap<>());
+        active.forEach(token -> remember(rebuilt, token.getJti(), token.getExpiresAt()));
+        snapshotLock.lock();
+        try {
+            //отзывы, сделанные во время загрузки, попали в старый снимок и переносятся в новый
+            snapshot.revoked().forEach((jti, expiresAt) -> {
+                if (expiresAt.isAfter(now)) {
+                    remember(rebuilt, jti, expiresAt);
+                }
+            });
+            snapshot = rebuilt;
+            lastSync = now;
+        } finally {
+            snapshotLock.unlock();
+        }
+        log.info("Список отозванных токенов загружен: {}", rebuilt.revoked().size());
+    }
+
+    public boolean isRevoked(String jti) {
+        if (jti == null) {
+            return false;
+        }
+        Snapshot current = snapshot;
+        return current.filter().mightContain(jti) && current.revoked().containsKey(jti);
+    }
+
+    //false, если токен уже был отозван. Решает первичный ключ revoked_token, поэтому повторное использование
+    //refresh-токена обнаруживается и тогда, когда первый обмен прошёл на другом экземпляре до очередного sync
+    public boolean revoke(String jti, LocalDateTime expiresAt) {
+        if (snapshot.revoked().containsKey(jti)) {
+            return false;
+        }
+        boolean inserted;
+        try {
+            revokedTokenRepository.insert(new RevokedToken(jti, expiresAt, LocalDateTime.now()));
+            inserted = true;
+        } catch (DataIntegrityViolationException e) {
+            inserted = false;
+        }
+        snapshotLock.lock();
+        try {
+            remember(snapshot, jti, expiresAt);
+        } finally {
+            snapshotLock.unlock();
+        }
+        return inserted;
+    }
+
+    //подтягивает отзывы, сделанные другими экземплярами приложения
+    @Scheduled(fixedDelay = SYNC_INTERVAL, initialDelay = SYNC_INTERVAL)
+    public void sync() {
+        LocalDateTime now = LocalDateTime.now();
+        List<RevokedToken> recent = revokedTokenRepository.findByRevokedAtGreaterThanEqual(lastSync.minusSeconds(SYNC_OVERLAP_SECONDS));
+        snapshotLock.lock();
+        try {
+            recent.forEach(token -> remember(snapshot, token.getJti(), token.getExpiresAt()));
+            lastSync = now;
+        } finally {
+            snapshotLock.unlock();
+        }
+    }
+
+    @Scheduled(fixedRate = PURGE_INTERVAL, initialDelay = PURGE_INTERVAL)
+    @Transactional
+    public void purgeExpired() {
+        int deleted = revokedTokenRepository.deleteExpired(LocalDateTime.now());
+        if (deleted > 0) {
+            log.info("Удалено истёкших отозванных токенов: {}", deleted);
+        }
+        rebuild();
+    }
+
+    private void remember(Snapshot target, String jti, LocalDateTime expiresAt) {
+        target.revoked().put(jti, expiresAt);
+        target.filter().add(jti);
+    }
+}
@@ -0,0 +1,91 @@
+package ru.ssau.srestapp.security;
+
+import io.jsonwebtoken.Claims;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.ssau.srestapp.dto.admin.CacheStatisticsDto;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+//claims уже проверенных токенов до их exp; ключ — SHA-256 токена, сами токены в памяти не хранятся
+@Component
+public class VerifiedTokenCache {
+
+    public static final String NAME = "verified-tokens";
+
+    private static final long PURGE_INTERVAL = 60 * 1000;
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
+    private final int maxSize;
+    private final Map<ByteBuffer, Entry> entries = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    private record Entry(Claims claims, long expiresAt) {
+    }
+
+    public VerifiedTokenCache(@Value("${jwt.verified-cache.max-size:10000}") int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    //claims токена или null, если его нет в кэше или срок уже истёк
+    public Claims get(String token) {
+        Entry entry = entries.get(digest(token));
+        if (entry != null && entry.expiresAt() > System.currentTimeMillis()) {
+            hits.increment();
+            return entry.claims();
+        }
+        misses.increment();
+        return null;
+    }
+
+    //при заполненном кэше сначала выбрасываются истёкшие записи; если места так и нет, токен просто не кэшируется
+    public void put(String token, Claims claims) {
+        if (maxSize <= 0 || claims.getExpiration() == null) {
+            return;
+        }
+        if (entries.size() >= maxSize) {
+            purgeExpired();
+            if (entries.size() >= maxSize) {
+                return;
+            }
+        }
+        entries.put(digest(token), new Entry(claims, claims.getExpiration().getTime()));
+    }
+
+    @Scheduled(fixedRate = PURGE_INTERVAL, initialDelay = PURGE_INTERVAL)
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        entries.values().removeIf(entry -> {
+            boolean expired = entry.expiresAt() <= now;
+            if (expired) {
+                evictions.increment();
+            }
+            return expired;
+        });
+    }
+
+    public CacheStatisticsDto statistics() {
+        return new CacheStatisticsDto(NAME, entries.size(), hits.sum(), misses.sum(), evictions.sum());
+    }
+
+    private ByteBuffer digest(String token) {
+        return ByteBuffer.wrap(SHA_256.get().digest(token.getBytes(StandardCharsets.US_ASCII)));
+    }
+}
@@ -2,33 +2,47 @@ package ru.ssau.srestapp.service;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.ssau.srestapp.cache.ReferenceCacheRegionFactory;
 import ru.ssau.srestapp.dto.admin.AdminStatisticsDto;
-import ru.ssau.srestapp.entity.RequestStatus;
-import ru.ssau.srestapp.repository.EventRepository;
-import ru.ssau.srestapp.repository.OrganizerRequestRepository;
-import ru.ssau.srestapp.repository.RoleRepository;
-import ru.ssau.srestapp.repository.UserRepository;
+import ru.ssau.srestapp.dto.admin.CacheStatisticsDto;
+import ru.ssau.srestapp.metrics.MetricsRegistry;
+import ru.ssau.srestapp.security.PrincipalCache;
+import ru.ssau.srestapp.security.VerifiedTokenCache;
+import ru.ssau.srestapp.statistics.AdminStatisticsCounters;
+import ru.ssau.srestapp.statistics.AdminStatisticsStream;
+
+import java.util.ArrayList;
+import java.util.List;
 
 @Service
 @RequiredArgsConstructor
 public class AdminService {
 
-    private static final String ROLE_ORGANIZER = "ORGANIZER";
-
-    private final UserRepository userRepository;
-    private final RoleRepository roleRepository;
-    private final EventRepository eventRepository;
-    private final OrganizerRequestRepository organizerRequestRepository;
+    private final AdminStatisticsCounters statisticsCounters;
+    private final AdminStatisticsStream statisticsStream;
+    private final PrincipalCache principalCache;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final ReferenceCacheRegionFactory referenceCacheRegionFactory;
+    private final MetricsRegistry metricsRegistry;
 
-    @Transactional(readOnly = true)
     public AdminStatisticsDto getStatistics() {
-        long totalUsers = userRepository.count();
-        long totalOrganizers = roleRepository.findByRoleName(ROLE_ORGANIZER)
-                .map(userRepository::countByRole)
-                .orElse(0L);
-        long pendingEvents = eventRepository.countByVerifiedFalse();
-        long pendingOrganizerRequests = organizerRequestRepository.countByRequestStatus(RequestStatus.PENDING);
-        return new AdminStatisticsDto(totalUsers, totalOrganizers, pendingEvents, pendingOrganizerRequests);
+        return statisticsCounters.snapshot();
+    }
+
+    public SseEmitter subscribeToStatistics() {
+        return statisticsStream.subscribe();
+    }
+
+    public List<CacheStatisticsDto> getCacheStatistics() {
+        List<CacheStatisticsDto> statistics = new ArrayList<>();
+        statistics.add(principalCache.statistics());
+        statistics.add(verifiedTokenCache.statistics());
+        statistics.addAll(referenceCacheRegionFactory.statistics());
+        return statistics;
+    }
+
+    public String scrapeMetrics() {
+        return metricsRegistry.scrape();
     }
 }
@@ -1,11 +1,14 @@
 package ru.ssau.srestapp.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.ssau.srestapp.cache.ResourceFamily;
 import ru.ssau.srestapp.dto.avatar.AvatarRequestDto;
 import ru.ssau.srestapp.dto.avatar.AvatarResponseDto;
 import ru.ssau.srestapp.entity.Avatar;
+import ru.ssau.srestapp.event.CatalogChangedEvent;
 import ru.ssau.srestapp.exception.EntityNotFoundException;
 import ru.ssau.srestapp.exception.EntityType;
 import ru.ssau.srestapp.repository.AvatarRepository;
@@ -17,6 +20,7 @@ import java.util.List;
 public class AvatarService {
 
     private final AvatarRepository avatarRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional(readOnly = true)
     public List<AvatarResponseDto> getAll() {
@@ -35,6 +39,7 @@ public class AvatarService {
     public AvatarResponseDto create(AvatarRequestDto dto) {
         Avatar entity = new Avatar();
         entity.setAvatarUrl(dto.getAvatarUrl());
+        eventPublisher.publishEvent(new CatalogChangedEvent(ResourceFamily.AVATARS));
         return toDto(avatarRepository.save(entity));
     }
 
@@ -42,6 +47,7 @@ public class AvatarService {
     public AvatarResponseDto update(Long id, AvatarRequestDto dto) throws EntityNotFoundException {
         Avatar entity = findOrThrow(id);
         entity.setAvatarUrl(dto.getAvatarUrl());
+        eventPublisher.publishEvent(new CatalogChangedEvent(ResourceFamily.AVATARS));
         return toDto(avatarRepository.save(entity));
     }
 
@@ -50,6 +56,7 @@ public class AvatarService {
     public void delete(Long id) throws EntityNotFoundException {
         findOrThrow(id);
         avatarRepository.deleteById(id);
+        eventPublisher.publishEvent(new CatalogChangedEvent(ResourceFamily.AVATARS));
     }
 
     private Avatar findOrThrow(Long id) throws EntityNotFoundException {
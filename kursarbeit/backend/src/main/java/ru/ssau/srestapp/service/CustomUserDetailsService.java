@@ -3,10 +3,12 @@ package ru.ssau.srestapp.service;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.ssau.srestapp.datasource.PrimaryRouting;
 import ru.ssau.srestapp.entity.User;
 import ru.ssau.srestapp.exception.EntityType;
 import ru.ssau.srestapp.repository.UserRepository;
@@ -16,23 +18,37 @@ import java.util.List;
 
 @Service
 @RequiredArgsConstructor
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
 
+    //принципал читается с основной БД: после блокировки или смены роли отстающая реплика
+    //вернула бы старое состояние, и оно осталось бы в PrincipalCache на весь TTL
     @Override
     @Transactional(readOnly = true)
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        User user = userRepository.findByEmail(email).orElseThrow(() -> new UsernameNotFoundException(EntityType.USER.notFoundByEmail(email)));
+        User user = PrimaryRouting.call(() -> userRepository.findByEmail(email))
+                .orElseThrow(() -> new UsernameNotFoundException(EntityType.USER.notFoundByEmail(email)));
         return toCustomUserDetails(user, extractAuthorities(user));
     }
 
     @Transactional(readOnly = true)
     public CustomUserDetails loadUserById(Long userId) {
-        User user = userRepository.findById(userId).orElseThrow(() -> new UsernameNotFoundException(EntityType.USER.notFound(userId)));
+        User user = PrimaryRouting.call(() -> userRepository.findById(userId))
+                .orElseThrow(() -> new UsernameNotFoundException(EntityType.USER.notFound(userId)));
         return toCustomUserDetails(user, extractAuthorities(user));
     }
 
+    //пересчёт хэша при входе: пароль тот же, поэтому кэш принципалов и токены не сбрасываются
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails userDetails, String newPasswordHash) {
+        User user = userRepository.findByEmail(userDetails.getUsername())
+                .orElseThrow(() -> new UsernameNotFoundException(EntityType.USER.notFoundByEmail(userDetails.getUsername())));
+        user.setPasswordHash(newPasswordHash);
+        return toCustomUserDetails(userRepository.save(user), extractAuthorities(user));
+    }
+
     private List<SimpleGrantedAuthority> extractAuthorities(User user) {
         if (user.getRole() == null) {
             return List.of();
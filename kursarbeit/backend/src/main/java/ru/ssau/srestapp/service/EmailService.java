@@ -1,18 +1,15 @@
 package ru.ssau.srestapp.service;
 
-import jakarta.mail.MessagingException;
-import jakarta.mail.internet.MimeMessage;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
-import org.thymeleaf.TemplateEngine;
-import org.thymeleaf.context.Context;
+import ru.ssau.srestapp.dto.email.EmailRecipient;
 import ru.ssau.srestapp.dto.email.EmailTemplate;
+import ru.ssau.srestapp.entity.EmailOutboxMessage;
+import ru.ssau.srestapp.repository.EmailOutboxRepository;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -25,61 +22,32 @@ public class EmailService {
     private static final String ACTION_URL_EVENTS = "/events";
     private static final String ACTION_URL_CREATE_EVENT = "/events/create";
 
-    private final JavaMailSender mailSender;
-    private final TemplateEngine templateEngine;
-
-    @Value("${email.from.address:dashashevlyak@mail.ru}")
-    private String fromAddress;
-
-    @Value("${email.from.name:Freizeitgestaltung}")
-    private String fromName;
+    private final EmailOutboxRepository outboxRepository;
 
     @Value("${email.base-url}")
     private String baseUrl;
 
-    @Value("${email.color.primary:#7C3AED}")
-    private String colorPrimary;
-
-    @Value("${email.color.secondary:#A78BFA}")
-    private String colorSecondary;
-
-    @Value("${email.color.background:#F5F3FF}")
-    private String colorBackground;
+    //письмо ставится в очередь в текущей транзакции: при откате оно не уйдёт, отправкой занимается EmailDispatcher
+    public void sendEmail(String to, EmailTemplate emailTemplate, Map<String, Object> variables) {
+        enqueue(toOutboxMessage(to, emailTemplate, variables));
+    }
 
-    @Value("${email.color.text:#1F2937}")
-    private String colorText;
+    private void enqueue(EmailOutboxMessage message) {
+        outboxRepository.save(message);
+        log.debug("Письмо поставлено в очередь: {} (шаблон: {})", message.getRecipient(), message.getTemplate().name());
+    }
 
-    @Async
-    public void sendEmail(String to, EmailTemplate emailTemplate, Map<String, Object> variables) {
-        try {
-            MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
-            helper.setFrom(fromAddress, fromName);
-            helper.setTo(to);
-            helper.setSubject(emailTemplate.getDefaultSubject());
-            String htmlContent = processTemplate(emailTemplate.getFileName(), variables);
-            helper.setText(htmlContent, true);
-            mailSender.send(message);
-            log.info("Email отправлен: {} (шаблон: {})", to, emailTemplate.name());
-        } catch (MessagingException e) {
-            log.error("Ошибка отправки email на {}: {}", to, e.getMessage());
-        } catch (Exception e) {
-            log.error("Критическая ошибка отправки email: {}", e.getMessage());
-        }
+    //письма пакетной операции копятся в памяти и ставятся в очередь одним saveAll при send
+    public Batch batch() {
+        return new Batch();
     }
 
-    //Обработка HTML шаблона через Thymeleaf
-    private String processTemplate(String templateName, Object variables) {
-        Context context = new Context();
-        context.setVariable("baseUrl", baseUrl);
-        context.setVariable("colorPrimary", colorPrimary);
-        context.setVariable("colorSecondary", colorSecondary);
-        context.setVariable("colorBackground", colorBackground);
-        context.setVariable("colorText", colorText);
-        if (variables instanceof Map<?, ?> map) {
-            map.forEach((k, v) -> context.setVariable(k.toString(), v));
-        }
-        return templateEngine.process("email/" + templateName, context);
+    private EmailOutboxMessage toOutboxMessage(String to, EmailTemplate emailTemplate, Map<String, Object> variables) {
+        EmailOutboxMessage message = new EmailOutboxMessage();
+        message.setRecipient(to);
+        message.setTemplate(emailTemplate);
+        message.setVariables(variables);
+        return message;
     }
 
     private String resolveComment(String comment, String defaultComment) {
@@ -87,19 +55,27 @@ public class EmailService {
     }
 
     public void sendEventApproved(String to, String eventName, String comment) {
+        enqueue(eventApprovedMessage(to, eventName, comment));
+    }
+
+    private EmailOutboxMessage eventApprovedMessage(String to, String eventName, String comment) {
         Map<String, Object> variables = new HashMap<>();
         variables.put("eventName", eventName);
         variables.put("comment", resolveComment(comment, "Мероприятие успешно прошло модерацию"));
         variables.put("actionUrl", baseUrl + ACTION_URL_EVENTS);
-        sendEmail(to, EmailTemplate.EVENT_APPROVED, variables);
+        return toOutboxMessage(to, EmailTemplate.EVENT_APPROVED, variables);
     }
 
     public void sendEventRejected(String to, String eventName, String comment) {
+        enqueue(eventRejectedMessage(to, eventName, comment));
+    }
+
+    private EmailOutboxMessage eventRejectedMessage(String to, String eventName, String comment) {
         Map<String, Object> variables = new HashMap<>();
         variables.put("eventName", eventName);
         variables.put("comment", resolveComment(comment, "Мероприятие не прошло модерацию"));
         variables.put("actionUrl", baseUrl + ACTION_URL_CREATE_EVENT);
-        sendEmail(to, EmailTemplate.EVENT_REJECTED, variables);
+        return toOutboxMessage(to, EmailTemplate.EVENT_REJECTED, variables);
     }
 
     public void sendParticipationConfirmed(String to, String userName, String eventName, String eventDate, String placeName) {
@@ -137,6 +113,21 @@ public class EmailService {
         sendEmail(to, EmailTemplate.WAITLIST_PROMOTED, variables);
     }
 
+    //уведомления о переводе из листа ожидания ставятся в очередь одним saveAll в текущей транзакции;
+    //ключи IDENTITY не дают Hibernate объединить вставки в JDBC-пакет, поэтому это по INSERT на письмо
+    public void sendWaitlistPromotedBatch(List<EmailRecipient> recipients, String eventName, String eventDate) {
+        List<EmailOutboxMessage> messages = new ArrayList<>(recipients.size());
+        for (EmailRecipient recipient : recipients) {
+            Map<String, Object> variables = new HashMap<>();
+            variables.put("userName", recipient.getUserName());
+            variables.put("eventName", eventName);
+            variables.put("eventDate", eventDate);
+            variables.put("actionUrl", baseUrl + ACTION_URL_EVENTS);
+            messages.add(toOutboxMessage(recipient.getEmail(), EmailTemplate.WAITLIST_PROMOTED, variables));
+        }
+        outboxRepository.saveAll(messages);
+    }
+
     public void sendWelcome(String to, String userName) {
         Map<String, Object> variables = new HashMap<>();
         variables.put("userName", userName);
@@ -154,35 +145,51 @@ public class EmailService {
     }
 
     public void sendOrganizerRequestApproved(String to, String userName) {
+        enqueue(organizerRequestApprovedMessage(to, userName));
+    }
+
+    private EmailOutboxMessage organizerRequestApprovedMessage(String to, String userName) {
         Map<String, Object> variables = new HashMap<>();
         variables.put("userName", userName);
         variables.put("actionUrl", baseUrl + ACTION_URL_CREATE_EVENT);
-        sendEmail(to, EmailTemplate.ORGANIZER_REQUEST_APPROVED, variables);
+        return toOutboxMessage(to, EmailTemplate.ORGANIZER_REQUEST_APPROVED, variables);
     }
 
     public void sendOrganizerRequestRejected(String to, String userName, String comment) {
+        enqueue(organizerRequestRejectedMessage(to, userName, comment));
+    }
+
+    private EmailOutboxMessage organizerRequestRejectedMessage(String to, String userName, String comment) {
         Map<String, Object> variables = new HashMap<>();
         variables.put("userName", userName);
         variables.put("comment", resolveComment(comment, "Ваша заявка не прошла модерацию"));
-        sendEmail(to, EmailTemplate.ORGANIZER_REQUEST_REJECTED, variables);
+        return toOutboxMessage(to, EmailTemplate.ORGANIZER_REQUEST_REJECTED, variables);
     }
 
     public void sendEventChangesApproved(String to, String eventName, List<String> acceptedFields, String comment) {
+        enqueue(eventChangesApprovedMessage(to, eventName, acceptedFields, comment));
+    }
+
+    private EmailOutboxMessage eventChangesApprovedMessage(String to, String eventName, List<String> acceptedFields, String comment) {
         Map<String, Object> variables = new HashMap<>();
         variables.put("eventName", eventName);
         variables.put("comment", resolveComment(comment, "Ваши изменения приняты"));
         variables.put("acceptedFields", acceptedFields);
         variables.put("actionUrl", baseUrl + ACTION_URL_EVENTS);
-        sendEmail(to, EmailTemplate.EVENT_CHANGES_APPROVED, variables);
+        return toOutboxMessage(to, EmailTemplate.EVENT_CHANGES_APPROVED, variables);
     }
 
     public void sendEventChangesRejected(String to, String eventName, List<String> rejectedFields, String comment) {
+        enqueue(eventChangesRejectedMessage(to, eventName, rejectedFields, comment));
+    }
+
+    private EmailOutboxMessage eventChangesRejectedMessage(String to, String eventName, List<String> rejectedFields, String comment) {
         Map<String, Object> variables = new HashMap<>();
         variables.put("eventName", eventName);
         variables.put("comment", resolveComment(comment, "Ваши изменения отклонены"));
         variables.put("rejectedFields", rejectedFields);
         variables.put("actionUrl", baseUrl + ACTION_URL_EVENTS);
-        sendEmail(to, EmailTemplate.EVENT_CHANGES_REJECTED, variables);
+        return toOutboxMessage(to, EmailTemplate.EVENT_CHANGES_REJECTED, variables);
     }
 
     public void sendContactMessageToAdmin(String adminTo, Map<String, Object> variables) {
@@ -192,4 +199,46 @@ public class EmailService {
     public void sendContactConfirmationToUser(String userTo, Map<String, Object> variables) {
         sendEmail(userTo, EmailTemplate.CONTACT_CONFIRMATION_USER, variables);
     }
+
+    public final class Batch {
+
+        private final List<EmailOutboxMessage> messages = new ArrayList<>();
+
+        private Batch() {
+        }
+
+        public void eventApproved(String to, String eventName, String comment) {
+            messages.add(eventApprovedMessage(to, eventName, comment));
+        }
+
+        public void eventRejected(String to, String eventName, String comment) {
+            messages.add(eventRejectedMessage(to, eventName, comment));
+        }
+
+        public void eventChangesApproved(String to, String eventName, List<String> acceptedFields, String comment) {
+            messages.add(eventChangesApprovedMessage(to, eventName, acceptedFields, comment));
+        }
+
+        public void eventChangesRejected(String to, String eventName, List<String> rejectedFields, String comment) {
+            messages.add(eventChangesRejectedMessage(to, eventName, rejectedFields, comment));
+        }
+
+        public void organizerRequestApproved(String to, String userName) {
+            messages.add(organizerRequestApprovedMessage(to, userName));
+        }
+
+        public void organizerRequestRejected(String to, String userName, String comment) {
+            messages.add(organizerRequestRejectedMessage(to, userName, comment));
+        }
+
+        public int send() {
+            if (!messages.isEmpty()) {
+                outboxRepository.saveAll(messages);
+                log.debug("Пакет писем поставлен в очередь: {} шт.", messages.size());
+            }
+            int sent = messages.size();
+            messages.clear();
+            return sent;
+        }
+    }
 }
@@ -1,11 +1,14 @@
 package ru.ssau.srestapp.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.ssau.srestapp.cache.ResourceFamily;
 import ru.ssau.srestapp.dto.eventCategory.EventCategoryRequestDto;
 import ru.ssau.srestapp.dto.eventCategory.EventCategoryResponseDto;
 import ru.ssau.srestapp.entity.EventCategory;
+import ru.ssau.srestapp.event.CatalogChangedEvent;
 import ru.ssau.srestapp.exception.DuplicateEntityException;
 import ru.ssau.srestapp.exception.EntityNotFoundException;
 import ru.ssau.srestapp.exception.EntityType;
@@ -18,6 +21,7 @@ import java.util.List;
 public class EventCategoryService {
 
     private final EventCategoryRepository eventCategoryRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional(readOnly = true)
     public List<EventCategoryResponseDto> getAll() {
@@ -37,6 +41,7 @@ public class EventCategoryService {
         checkUniqueName(dto.getEventCategoryName());
         EventCategory entity = new EventCategory();
         updateEntityFromDto(entity, dto);
+        eventPublisher.publishEvent(new CatalogChangedEvent(ResourceFamily.CATEGORIES));
         return toDto(eventCategoryRepository.save(entity));
     }
 
@@ -48,6 +53,7 @@ public class EventCategoryService {
             checkUniqueName(dto.getEventCategoryName());
         }
         updateEntityFromDto(entity, dto);
+        eventPublisher.publishEvent(new CatalogChangedEvent(ResourceFamily.CATEGORIES));
         return toDto(eventCategoryRepository.save(entity));
     }
 
@@ -55,6 +61,7 @@ public class EventCategoryService {
     public void delete(Long id) throws EntityNotFoundException {
         findOrThrow(id);
         eventCategoryRepository.deleteById(id);
+        eventPublisher.publishEvent(new CatalogChangedEvent(ResourceFamily.CATEGORIES));
     }
 
     private void updateEntityFromDto(EventCategory entity, EventCategoryRequestDto dto) {
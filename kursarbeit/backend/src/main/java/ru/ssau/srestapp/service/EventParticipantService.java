@@ -2,12 +2,18 @@ package ru.ssau.srestapp.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.ssau.srestapp.dto.email.EmailRecipient;
 import ru.ssau.srestapp.dto.eventParticipant.EventParticipantResponseDto;
 import ru.ssau.srestapp.dto.eventParticipant.EventParticipantShortDto;
 import ru.ssau.srestapp.entity.*;
+import ru.ssau.srestapp.event.ParticipantRegisteredEvent;
 import ru.ssau.srestapp.exception.*;
+import ru.ssau.srestapp.metrics.ParticipationMetrics;
+import ru.ssau.srestapp.participation.SeatAllocator;
 import ru.ssau.srestapp.repository.EventParticipantRepository;
 import ru.ssau.srestapp.repository.EventRepository;
 import ru.ssau.srestapp.repository.UserRepository;
@@ -15,6 +21,9 @@ import ru.ssau.srestapp.repository.UserRepository;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -27,6 +36,9 @@ public class EventParticipantService {
     private final EventRepository eventRepository;
     private final UserRepository userRepository;
     private final EmailService emailService;
+    private final SeatAllocator seatAllocator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ParticipationMetrics participationMetrics;
 
     private record EmailData(String email, String fio, String eventName, String eventTime) {
     }
@@ -39,13 +51,15 @@ public class EventParticipantService {
         if (existing.isPresent()) {
             EventParticipant participant = existing.get();
             if (participant.getParticipationStatus() == ParticipationStatus.CANCELLED) {
-                ParticipationStatus newStatus = determineParticipationStatus(eventId, event);
-                return updateParticipantStatus(participant, newStatus, user, event);
+                ParticipationStatus newStatus = allocateSeat(eventId);
+                EventParticipantResponseDto response = updateParticipantStatus(participant, newStatus, user, event);
+                eventPublisher.publishEvent(new ParticipantRegisteredEvent(eventId, userId));
+                return response;
             } else {
                 throw new ParticipantAlreadyExistsException(userId, eventId);
             }
         }
-        ParticipationStatus status = determineParticipationStatus(eventId, event);
+        ParticipationStatus status = allocateSeat(eventId);
         EventParticipant entity = new EventParticipant();
         entity.setIdUser(user);
         entity.setIdEvent(event);
@@ -55,6 +69,7 @@ public class EventParticipantService {
         if (status == ParticipationStatus.REGISTERED) {
             sendConfirmationEmail(user, event);
         }
+        eventPublisher.publishEvent(new ParticipantRegisteredEvent(eventId, userId));
         return response;
     }
 
@@ -111,6 +126,7 @@ public class EventParticipantService {
         if (participant.getParticipationStatus() == ParticipationStatus.REJECTED_BY_ORGANIZER) {
             throw new IllegalArgumentException("Нельзя отменить участие, если вы отклонены организатором");
         }
+        seatAllocator.onStatusChange(eventId, participant.getParticipationStatus(), ParticipationStatus.CANCELLED);
         participant.setParticipationStatus(ParticipationStatus.CANCELLED);
         EventParticipantResponseDto response = toDto(eventParticipantRepository.save(participant));
         if (sendEmail != null && sendEmail) {
@@ -123,6 +139,7 @@ public class EventParticipantService {
     @Transactional
     public EventParticipantResponseDto removeParticipant(Long userId, Long eventId, Boolean sendEmail) throws EntityNotFoundException, ParticipantNotFoundException {
         EventParticipant participant = findParticipantOrThrow(userId, eventId);
+        seatAllocator.onStatusChange(eventId, participant.getParticipationStatus(), ParticipationStatus.REJECTED_BY_ORGANIZER);
         participant.setParticipationStatus(ParticipationStatus.REJECTED_BY_ORGANIZER);
         EventParticipantResponseDto response = toDto(eventParticipantRepository.save(participant));
         if (sendEmail != null && sendEmail) {
@@ -135,6 +152,7 @@ public class EventParticipantService {
     @Transactional
     public EventParticipantResponseDto changeStatus(Long userId, Long eventId, ParticipationStatus newStatus, Boolean sendEmail) throws ParticipantNotFoundException {
         EventParticipant participant = findParticipantOrThrow(userId, eventId);
+        seatAllocator.onStatusChange(eventId, participant.getParticipationStatus(), newStatus);
         participant.setParticipationStatus(newStatus);
         EventParticipantResponseDto response = toDto(eventParticipantRepository.save(participant));
         if (sendEmail != null && sendEmail) {
@@ -149,6 +167,13 @@ public class EventParticipantService {
                 .stream().map(this::toShortDto).toList();
     }
 
+    @Transactional(readOnly = true)
+    public void streamParticipantsByEvent(Long eventId, Consumer<EventParticipantShortDto> sink) {
+        try (Stream<EventParticipantShortDto> participants = eventParticipantRepository.streamShortByEvent(eventId)) {
+            participants.forEach(sink);
+        }
+    }
+
     @Transactional(readOnly = true)
     public List<EventParticipantShortDto> getRegisteredParticipants(Long eventId) {
         return eventParticipantRepository.findByIdEvent_IdEvent(eventId)
@@ -159,7 +184,7 @@ public class EventParticipantService {
 
     @Transactional(readOnly = true)
     public long getRegisteredParticipantsCount(Long eventId) {
-        return eventParticipantRepository.countByIdEvent_IdEventAndParticipationStatus(eventId, ParticipationStatus.REGISTERED);
+        return seatAllocator.registeredCount(eventId);
     }
 
     @Transactional(readOnly = true)
@@ -182,32 +207,44 @@ public class EventParticipantService {
 
     @Transactional
     public void deleteParticipant(Long userId, Long eventId) throws ParticipantNotFoundException {
-        findParticipantOrThrow(userId, eventId);
+        EventParticipant participant = findParticipantOrThrow(userId, eventId);
+        seatAllocator.onStatusChange(eventId, participant.getParticipationStatus(), null);
         eventParticipantRepository.deleteById(new EventParticipantId(userId, eventId));
     }
 
+    //свободные места считаются один раз, первые K из очереди переводятся одним UPDATE, письма уходят одной пачкой
     @Transactional
-    public void promoteFromWaitlist(Long eventId, Boolean sendEmail) throws EntityNotFoundException {
-        ParticipationStatus registeredStatus = ParticipationStatus.REGISTERED;
-        long registeredCount = eventParticipantRepository
-                .countByIdEvent_IdEventAndParticipationStatus(eventId, registeredStatus);
-        Event event = findEventOrThrow(eventId);
-        Integer maxParticipants = event.getMaxParticipants();
-        if (maxParticipants == null || maxParticipants == 0 || registeredCount >= maxParticipants) {
+    public int promoteFromWaitlist(Long eventId, Boolean sendEmail) {
+        long waiting = eventParticipantRepository.countByIdEvent_IdEventAndParticipationStatus(eventId, ParticipationStatus.WAITLISTED);
+        if (waiting == 0) {
+            return 0;
+        }
+        int granted = seatAllocator.reserveUpTo(eventId, (int) Math.min(waiting, Integer.MAX_VALUE));
+        if (granted == 0) {
             log.info("Нет свободных мест для продвижения из листа ожидания (eventId={})", eventId);
-            return;
+            return 0;
         }
-        List<EventParticipant> waitlisted = eventParticipantRepository
-                .findByParticipationStatus(eventId, ParticipationStatus.WAITLISTED);
-        if (!waitlisted.isEmpty()) {
-            EventParticipant firstInLine = waitlisted.get(0);
-            log.info("Продвижение пользователя {} из листа ожидания (eventId={})", firstInLine.getIdUser().getIdUser(), eventId);
-            firstInLine.setParticipationStatus(ParticipationStatus.REGISTERED);
-            eventParticipantRepository.save(firstInLine);
-            if (sendEmail != null && sendEmail) {
-                sendStatusEmail(ParticipationStatus.WAITLISTED, extractEmailData(firstInLine), null);
-            }
+        List<EventParticipant> head = eventParticipantRepository
+                .findQueueHead(eventId, ParticipationStatus.WAITLISTED, PageRequest.of(0, granted));
+        List<Long> userIds = head.stream().map(ep -> ep.getIdUser().getIdUser()).toList();
+        int promoted = userIds.isEmpty() ? 0 : eventParticipantRepository
+                .updateStatuses(eventId, userIds, ParticipationStatus.WAITLISTED, ParticipationStatus.REGISTERED);
+        seatAllocator.releaseSeats(eventId, granted - promoted);
+        participationMetrics.recordPromotions(promoted);
+        log.info("Из листа ожидания переведено {} участников (eventId={})", promoted, eventId);
+        if (promoted > 0 && sendEmail != null && sendEmail) {
+            //кто-то из очереди мог успеть отменить заявку — письма только реально переведённым
+            Set<Long> promotedIds = promoted == userIds.size()
+                    ? Set.copyOf(userIds)
+                    : Set.copyOf(eventParticipantRepository.findUserIdsWithStatus(eventId, userIds, ParticipationStatus.REGISTERED));
+            Event event = head.get(0).getIdEvent();
+            List<EmailRecipient> recipients = head.stream()
+                    .filter(ep -> promotedIds.contains(ep.getIdUser().getIdUser()))
+                    .map(ep -> new EmailRecipient(ep.getIdUser().getEmail(), ep.getIdUser().getFio()))
+                    .toList();
+            emailService.sendWaitlistPromotedBatch(recipients, event.getEventName(), event.getStartTime().toString());
         }
+        return promoted;
     }
 
     private User findUserOrThrow(Long id) throws EntityNotFoundException {
@@ -222,13 +259,10 @@ public class EventParticipantService {
         return eventParticipantRepository.findByIdUser_IdUserAndIdEvent_IdEvent(userId, eventId).orElseThrow(() -> new ParticipantNotFoundException(userId, eventId));
     }
 
-    private ParticipationStatus determineParticipationStatus(Long eventId, Event event) {
-        long registeredCount = eventParticipantRepository
-                .countByIdEvent_IdEventAndParticipationStatus(eventId, ParticipationStatus.REGISTERED);
-        Integer maxParticipants = event.getMaxParticipants();
-        return (maxParticipants == null || maxParticipants == 0 || registeredCount < maxParticipants)
-                ? ParticipationStatus.REGISTERED
-                : ParticipationStatus.WAITLISTED;
+    private ParticipationStatus allocateSeat(Long eventId) {
+        boolean registered = seatAllocator.tryReserve(eventId);
+        participationMetrics.recordAllocation(registered);
+        return registered ? ParticipationStatus.REGISTERED : ParticipationStatus.WAITLISTED;
     }
 
     private EventParticipantResponseDto toDto(EventParticipant ep) {
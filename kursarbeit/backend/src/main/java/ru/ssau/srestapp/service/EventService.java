@@ -3,44 +3,86 @@ package ru.ssau.srestapp.service;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.hibernate.Hibernate;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.ssau.srestapp.dto.admin.BulkModerationItemResultDto;
+import ru.ssau.srestapp.dto.admin.BulkModerationResultDto;
 import ru.ssau.srestapp.dto.event.*;
 import ru.ssau.srestapp.entity.*;
+import ru.ssau.srestapp.event.EventChangedEvent;
 import ru.ssau.srestapp.exception.*;
 import ru.ssau.srestapp.repository.*;
+import ru.ssau.srestapp.search.EventSearchIndex;
+import ru.ssau.srestapp.util.EventCursor;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.ToIntFunction;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class EventService {
 
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int STATUS_UPDATE_CHUNK = 500;
+
     private final EventRepository eventRepository;
     private final EmailService emailService;
     private final UserRepository userRepository;
     private final EventCategoryRepository eventCategoryRepository;
     private final PlaceRepository placeRepository;
+    private final EventSearchIndex eventSearchIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EventParticipantService eventParticipantService;
 
     @Transactional(readOnly = true)
     public List<EventShortDto> getAll() {
-        return eventRepository.findAll().stream().map(this::toShortDto).toList();
+        return eventRepository.findAllShort();
+    }
+
+    @Transactional(readOnly = true)
+    public void streamAll(Consumer<EventShortDto> sink) {
+        try (Stream<EventShortDto> events = eventRepository.streamAllShort()) {
+            events.forEach(sink);
+        }
     }
 
     @Transactional(readOnly = true)
     public List<EventShortDto> getAllVerified() {
-        return eventRepository.findByVerifiedTrue().stream().map(this::toShortDto).toList();
+        return eventRepository.findShortVerified();
     }
 
     @Transactional(readOnly = true)
     public List<EventShortDto> getActiveAndVerified() {
         LocalDateTime today = LocalDateTime.now().toLocalDate().atStartOfDay();
-        return eventRepository.findActiveAndVerified(today).stream().map(this::toShortDto).toList();
+        return eventRepository.findShortActiveAndVerified(today);
+    }
+
+    @Transactional(readOnly = true)
+    public EventPageDto getPage(EventFilterDto filter, String cursor, Integer size) {
+        int pageSize = resolvePageSize(size);
+        List<EventShortDto> events = eventRepository.findPage(filter, EventCursor.decode(cursor), pageSize + 1);
+        boolean hasNext = events.size() > pageSize;
+        List<EventShortDto> page = hasNext ? events.subList(0, pageSize) : events;
+        String nextCursor = null;
+        if (hasNext) {
+            EventShortDto last = page.get(page.size() - 1);
+            nextCursor = new EventCursor(last.getEventDate(), last.getIdEvent()).encode();
+        }
+        return new EventPageDto(page, nextCursor, hasNext);
     }
 
     @Transactional(readOnly = true)
@@ -51,27 +93,33 @@ public class EventService {
 
     @Transactional(readOnly = true)
     public List<EventShortDto> getByOrganizer(Long organizerId) {
-        return eventRepository.findByOrganizer_IdUser(organizerId).stream().map(this::toShortDto).toList();
+        return eventRepository.findShortByOrganizer(organizerId);
     }
 
     @Transactional(readOnly = true)
     public List<EventShortDto> getByCategory(Long categoryId) {
-        return eventRepository.findByEventCategory_IdEventCategory(categoryId).stream().map(this::toShortDto).toList();
+        return eventRepository.findShortByCategory(categoryId);
     }
 
     @Transactional(readOnly = true)
-    public List<EventShortDto> search(String keyword) {
-        return eventRepository.searchByKeyword(keyword).stream().map(this::toShortDto).toList();
+    public List<EventShortDto> search(String keyword, Integer limit) {
+        List<Long> rankedIds = eventSearchIndex.search(keyword, resolvePageSize(limit));
+        if (rankedIds.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, EventShortDto> byId = new HashMap<>();
+        eventRepository.findShortByIds(rankedIds).forEach(dto -> byId.put(dto.getIdEvent(), dto));
+        return rankedIds.stream().map(byId::get).filter(Objects::nonNull).toList();
     }
 
     @Transactional(readOnly = true)
     public List<EventShortDto> getByStatus(EventStatus status) {
-        return eventRepository.findByEventStatus(status).stream().map(this::toShortDto).toList();
+        return eventRepository.findShortByStatus(status);
     }
 
     @Transactional(readOnly = true)
     public List<EventShortDto> getByDateRange(LocalDateTime from, LocalDateTime to) {
-        return eventRepository.findByDateRangeAndVerified(from, to).stream().map(this::toShortDto).toList();
+        return eventRepository.findShortByDateRangeAndVerified(from, to);
     }
 
     @Transactional
@@ -79,85 +127,99 @@ public class EventService {
         validateDateTime(dto.getStartTime(), dto.getEndTime());
         Event entity = new Event();
         updateEntityFromDto(entity, dto);
-        return toDto(eventRepository.save(entity));
+        Event saved = eventRepository.save(entity);
+        eventPublisher.publishEvent(EventChangedEvent.changed(saved));
+        return toDto(saved);
     }
 
     @Transactional
     public EventResponseDto submitChanges(Long eventId, @Valid EventSubmitChangesDto dto) throws EntityNotFoundException, EventNotEditableException {
         Event entity = findOrThrow(eventId);
         checkEventEditable(entity);
-        Map<String, Object> changes = collectChangedFields(entity, dto);
+        DraftChanges changes = collectChangedFields(entity, dto);
         if (changes.isEmpty()) {
             return toDto(entity);
         }
         entity.setDraftChanges(changes);
         entity.setModerationStatus(ModerationStatus.PENDING);
         eventRepository.save(entity);
+        eventPublisher.publishEvent(EventChangedEvent.changed(entity));
         return toDto(entity);
     }
 
     @Transactional(readOnly = true)
     public List<EventShortDto> getPendingEvents() {
-        return eventRepository.findByModerationStatus(ModerationStatus.PENDING)
-                .stream().map(this::toShortDto).toList();
+        return eventRepository.findShortByModerationStatus(ModerationStatus.PENDING);
     }
 
     @Transactional
     public EventResponseDto approveChanges(Long eventId, ApproveChangesDto approveDto) throws EntityNotFoundException, ModerationException {
         Event entity = findOrThrow(eventId);
         checkModerationPending(entity);
-        Map<String, Object> changes = entity.getDraftChanges();
+        DraftChanges changes = entity.getDraftChanges();
         if (changes == null || changes.isEmpty()) {
             return toDto(finalizeModeration(entity));
         }
-        boolean applyAll = approveDto.getApplyAll() != null && approveDto.getApplyAll();
-        List<String> fieldsToApply = approveDto.getFields();
-        List<String> appliedFieldsRussian = new ArrayList<>();
-        for (Map.Entry<String, Object> entry : changes.entrySet()) {
-            String field = entry.getKey();
-            Object newValue = entry.getValue();
-            if (applyAll || (fieldsToApply != null && fieldsToApply.contains(field))) {
-                applyFieldChange(entity, field, newValue);
-                appliedFieldsRussian.add(mapFieldToRussian(field));
-            }
+        List<String> appliedFields = selectFieldsToApply(changes, approveDto.getApplyAll(), approveDto.getFields());
+        Integer previousMaxParticipants = entity.getMaxParticipants();
+        for (String field : appliedFields) {
+            applyFieldChange(entity, field, changes);
         }
         finalizeModeration(entity);
+        if (isCapacityRaised(previousMaxParticipants, entity.getMaxParticipants())) {
+            eventParticipantService.promoteFromWaitlist(eventId, true);
+        }
+        eventPublisher.publishEvent(EventChangedEvent.changed(entity));
         emailService.sendEventChangesApproved(
                 entity.getOrganizer().getEmail(),
                 entity.getEventName(),
-                appliedFieldsRussian,
+                collectRussianFieldNames(appliedFields),
                 "Администратор принял изменения"
         );
         return toDto(entity);
     }
 
-    private void applyFieldChange(Event entity, String field, Object newValue) throws EntityNotFoundException {
+    private List<String> selectFieldsToApply(DraftChanges changes, Boolean applyAll, List<String> fields) {
+        if (applyAll != null && applyAll) {
+            return changes.fields();
+        }
+        return changes.fields().stream()
+                .filter(field -> fields != null && fields.contains(field))
+                .toList();
+    }
+
+    //null и 0 означают мероприятие без ограничения мест
+    private boolean isCapacityRaised(Integer before, Integer after) {
+        boolean wasLimited = before != null && before != 0;
+        boolean isLimited = after != null && after != 0;
+        return wasLimited && (!isLimited || after > before);
+    }
+
+    private void applyFieldChange(Event entity, String field, DraftChanges changes) throws EntityNotFoundException {
         switch (field) {
-            case "eventName" -> entity.setEventName((String) newValue);
-            case "eventDescription" -> entity.setEventDescription((String) newValue);
-            case "eventDate" -> entity.setEventDate(LocalDateTime.parse((String) newValue));
-            case "startTime" -> entity.setStartTime(LocalDateTime.parse((String) newValue));
-            case "endTime" -> entity.setEndTime(LocalDateTime.parse((String) newValue));
-            case "maxParticipants" -> entity.setMaxParticipants((Integer) newValue);
-            case "imageUrl" -> entity.setImageUrl((String) newValue);
-            case "price" -> entity.setPrice(new BigDecimal(newValue.toString()));
-            case "eventFormat" -> entity.setEventFormat((EventFormat) newValue);
-            case "eventCategoryId" -> entity.setEventCategory(findEventCategoryOrThrow(((Number) newValue).longValue()));
-            case "placeId" -> {
-                Long placeId = newValue != null ? ((Number) newValue).longValue() : null;
-                entity.setPlace(placeId != null ? findPlaceOrThrow(placeId) : null);
-            }
+            case "eventName" -> entity.setEventName(changes.eventName());
+            case "eventDescription" -> entity.setEventDescription(changes.eventDescription());
+            case "eventDate" -> entity.setEventDate(changes.eventDate());
+            case "startTime" -> entity.setStartTime(changes.startTime());
+            case "endTime" -> entity.setEndTime(changes.endTime());
+            case "maxParticipants" -> entity.setMaxParticipants(changes.maxParticipants());
+            case "imageUrl" -> entity.setImageUrl(changes.imageUrl());
+            case "price" -> entity.setPrice(changes.price());
+            case "eventFormat" -> entity.setEventFormat(changes.eventFormat());
+            case "eventCategoryId" -> entity.setEventCategory(findEventCategoryOrThrow(changes.eventCategoryId()));
+            case "placeId" -> entity.setPlace(findPlaceOrThrow(changes.placeId()));
         }
     }
 
     @Transactional
     public void rejectChanges(Long eventId, String comment) throws EntityNotFoundException {
         Event entity = findOrThrow(eventId);
-        Map<String, Object> changes = entity.getDraftChanges();
-        List<String> rejectedFieldsRussian = changes != null && !changes.isEmpty()
-                ? collectRussianFieldNames(changes)
+        DraftChanges changes = entity.getDraftChanges();
+        List<String> rejectedFieldsRussian = changes != null
+                ? collectRussianFieldNames(changes.fields())
                 : List.of();
         finalizeModeration(entity);
+        eventPublisher.publishEvent(EventChangedEvent.changed(entity));
         if (!rejectedFieldsRussian.isEmpty()) {
             emailService.sendEventChangesRejected(
                     entity.getOrganizer().getEmail(),
@@ -176,22 +238,146 @@ public class EventService {
         if (sendEmail != null && sendEmail) {
             sendVerificationEmail(entity, verified, comment);
         }
-        return toDto(eventRepository.save(entity));
+        Event saved = eventRepository.save(entity);
+        eventPublisher.publishEvent(EventChangedEvent.changed(saved));
+        return toDto(saved);
+    }
+
+    //решения по списку мероприятий в одной транзакции: одна выборка, UPDATE на каждую группу одинаковых решений
+    //и одна пачка писем в outbox. Ошибка по элементу попадает в отчёт и не откатывает остальные
+    @Transactional
+    public BulkModerationResultDto moderateBulk(EventBulkModerationDto dto) {
+        List<EventBulkModerationItemDto> items = dto.getItems();
+        List<Long> requestedIds = items.stream().map(EventBulkModerationItemDto::getIdEvent).toList();
+        //строки держатся до коммита: статус модерации, проверенный ниже, не изменится до publishModerated,
+        //поэтому мероприятие, решённое параллельным запросом, не попадёт в успешные и не получит письмо повторно
+        eventRepository.lockAllByIds(requestedIds);
+        Map<Long, Event> events = new HashMap<>();
+        eventRepository.findAllForModeration(requestedIds)
+                .forEach(event -> events.put(event.getIdEvent(), event));
+        BulkEventModeration moderation = new BulkEventModeration(emailService.batch(), dto.getSendEmail() != null && dto.getSendEmail());
+        Set<Long> seen = new HashSet<>();
+        List<BulkModerationItemResultDto> results = new ArrayList<>(items.size());
+        for (EventBulkModerationItemDto item : items) {
+            Long id = item.getIdEvent();
+            try {
+                if (!seen.add(id)) {
+                    throw new ModerationException("Мероприятие указано в запросе повторно");
+                }
+                Event entity = events.get(id);
+                if (entity == null) {
+                    throw new EntityNotFoundException(EntityType.EVENT.notFoundNeuter(id));
+                }
+                moderateItem(entity, item, moderation);
+                results.add(BulkModerationItemResultDto.success(id));
+            } catch (EntityNotFoundException | ModerationException e) {
+                results.add(BulkModerationItemResultDto.failure(id, e.getMessage()));
+            }
+        }
+
+        moderation.verifications.forEach((group, ids) -> {
+            eventRepository.updateVerified(ids, group.verified());
+            eventRepository.updateVerificationComment(ids, group.comment());
+        });
+        if (!moderation.moderated.isEmpty()) {
+            eventRepository.publishModerated(moderation.moderated);
+            eventRepository.clearDraftChanges(moderation.moderated);
+        }
+        moderation.capacityRaised.forEach(id -> eventParticipantService.promoteFromWaitlist(id, true));
+        int emailsQueued = moderation.emails.send();
+        List<Long> changed = results.stream()
+                .filter(BulkModerationItemResultDto::isSuccess)
+                .map(BulkModerationItemResultDto::getId)
+                .toList();
+        if (!changed.isEmpty()) {
+            eventRepository.findSnapshotsByIds(changed)
+                    .forEach(snapshot -> eventPublisher.publishEvent(EventChangedEvent.changed(snapshot)));
+        }
+        return BulkModerationResultDto.of(results, emailsQueued);
+    }
+
+    //проверяет элемент и раскладывает его по группам; сущность меняется только для полей из черновика,
+    //остальное пишется пакетными UPDATE в moderateBulk
+    private void moderateItem(Event entity, EventBulkModerationItemDto item, BulkEventModeration moderation)
+            throws EntityNotFoundException, ModerationException {
+        String organizerEmail = entity.getOrganizer().getEmail();
+        switch (item.getDecision()) {
+            case VERIFY, UNVERIFY -> {
+                boolean verified = item.getDecision() == EventModerationDecision.VERIFY;
+                moderation.verifications
+                        .computeIfAbsent(new VerificationGroup(verified, item.getComment()), group -> new ArrayList<>())
+                        .add(entity.getIdEvent());
+                if (moderation.sendEmail && verified) {
+                    moderation.emails.eventApproved(organizerEmail, entity.getEventName(), item.getComment());
+                } else if (moderation.sendEmail) {
+                    moderation.emails.eventRejected(organizerEmail, entity.getEventName(), item.getComment());
+                }
+            }
+            case APPROVE_CHANGES -> {
+                checkModerationPending(entity);
+                DraftChanges changes = entity.getDraftChanges();
+                if (changes != null && !changes.isEmpty()) {
+                    List<String> appliedFields = selectFieldsToApply(changes, item.getApplyAll(), item.getFields());
+                    checkReferencedEntities(appliedFields, changes);
+                    Integer previousMaxParticipants = entity.getMaxParticipants();
+                    for (String field : appliedFields) {
+                        applyFieldChange(entity, field, changes);
+                    }
+                    if (isCapacityRaised(previousMaxParticipants, entity.getMaxParticipants())) {
+                        moderation.capacityRaised.add(entity.getIdEvent());
+                    }
+                    moderation.emails.eventChangesApproved(organizerEmail, entity.getEventName(),
+                            collectRussianFieldNames(appliedFields), "Администратор принял изменения");
+                }
+                moderation.moderated.add(entity.getIdEvent());
+            }
+            case REJECT_CHANGES -> {
+                checkModerationPending(entity);
+                DraftChanges changes = entity.getDraftChanges();
+                if (changes != null && !changes.isEmpty()) {
+                    moderation.emails.eventChangesRejected(organizerEmail, entity.getEventName(),
+                            collectRussianFieldNames(changes.fields()),
+                            item.getComment() != null ? item.getComment() : "Администратор отклонил изменения");
+                }
+                moderation.moderated.add(entity.getIdEvent());
+            }
+        }
+    }
+
+    //категория и место проверяются до применения полей, чтобы ошибка не оставила мероприятие изменённым наполовину
+    private void checkReferencedEntities(List<String> fields, DraftChanges changes) throws EntityNotFoundException {
+        if (fields.contains("eventCategoryId")) {
+            findEventCategoryOrThrow(changes.eventCategoryId());
+        }
+        if (fields.contains("placeId")) {
+            findPlaceOrThrow(changes.placeId());
+        }
     }
 
     @Transactional
     public void delete(Long id) throws EntityNotFoundException {
         findOrThrow(id);
         eventRepository.deleteById(id);
+        eventPublisher.publishEvent(EventChangedEvent.deleted(id));
     }
 
+    //сверка по всей таблице: переводит мероприятия, переходы которых были пропущены
     @Transactional
-    public void updateEventStatuses() {
+    public int updateEventStatuses() {
         LocalDateTime now = LocalDateTime.now();
-        List<Event> toStart = eventRepository.findEventsByStatusAndStartTimeBefore(EventStatus.PLANNED, now);
-        updateEventsStatus(toStart, EventStatus.ONGOING);
-        List<Event> toEnd = eventRepository.findEventsByStatusAndEndTimeBefore(EventStatus.ONGOING, now);
-        updateEventsStatus(toEnd, EventStatus.COMPLETED);
+        int started = startEvents(eventRepository.findIdsByStatusAndStartTimeBefore(EventStatus.PLANNED, now), now);
+        int completed = completeEvents(eventRepository.findIdsByStatusAndEndTimeBefore(EventStatus.ONGOING, now), now);
+        return started + completed;
+    }
+
+    @Transactional
+    public int startEvents(Collection<Long> ids, LocalDateTime now) {
+        return applyStatusTransition(ids, chunk -> eventRepository.startEvents(chunk, now));
+    }
+
+    @Transactional
+    public int completeEvents(Collection<Long> ids, LocalDateTime now) {
+        return applyStatusTransition(ids, chunk -> eventRepository.completeEvents(chunk, now));
     }
 
     private void checkEventEditable(Event entity) throws EventNotEditableException {
@@ -206,31 +392,25 @@ public class EventService {
         }
     }
 
-    private Map<String, Object> collectChangedFields(Event entity, EventSubmitChangesDto dto) {
-        Map<String, Object> changes = new HashMap<>();
-        if (dto.getEventName() != null && !dto.getEventName().equals(entity.getEventName()))
-            changes.put("eventName", dto.getEventName());
-        if (dto.getEventDescription() != null && !dto.getEventDescription().equals(entity.getEventDescription()))
-            changes.put("eventDescription", dto.getEventDescription());
-        if (dto.getEventDate() != null && !dto.getEventDate().equals(entity.getEventDate()))
-            changes.put("eventDate", dto.getEventDate().toString());
-        if (dto.getStartTime() != null && !dto.getStartTime().equals(entity.getStartTime()))
-            changes.put("startTime", dto.getStartTime().toString());
-        if (dto.getEndTime() != null && !dto.getEndTime().equals(entity.getEndTime()))
-            changes.put("endTime", dto.getEndTime().toString());
-        if (dto.getMaxParticipants() != null && !dto.getMaxParticipants().equals(entity.getMaxParticipants()))
-            changes.put("maxParticipants", dto.getMaxParticipants());
-        if (dto.getImageUrl() != null && !dto.getImageUrl().equals(entity.getImageUrl()))
-            changes.put("imageUrl", dto.getImageUrl());
-        if (dto.getPrice() != null && dto.getPrice().compareTo(entity.getPrice()) != 0)
-            changes.put("price", dto.getPrice());
-        if (dto.getEventFormat() != null && dto.getEventFormat() != entity.getEventFormat())
-            changes.put("eventFormat", dto.getEventFormat());
-        if (dto.getIdEventCategory() != null && !dto.getIdEventCategory().equals(entity.getEventCategory().getIdEventCategory()))
-            changes.put("eventCategoryId", dto.getIdEventCategory());
-        if (dto.getIdPlace() != null && (entity.getPlace() == null || !dto.getIdPlace().equals(entity.getPlace().getIdPlace())))
-            changes.put("placeId", dto.getIdPlace());
-        return changes;
+    private DraftChanges collectChangedFields(Event entity, EventSubmitChangesDto dto) {
+        return new DraftChanges(
+                changed(dto.getEventName(), entity.getEventName()),
+                changed(dto.getEventDescription(), entity.getEventDescription()),
+                changed(dto.getEventDate(), entity.getEventDate()),
+                changed(dto.getStartTime(), entity.getStartTime()),
+                changed(dto.getEndTime(), entity.getEndTime()),
+                changed(dto.getMaxParticipants(), entity.getMaxParticipants()),
+                changed(dto.getImageUrl(), entity.getImageUrl()),
+                dto.getPrice() != null && dto.getPrice().compareTo(entity.getPrice()) != 0 ? dto.getPrice() : null,
+                changed(dto.getEventFormat(), entity.getEventFormat()),
+                changed(dto.getIdEventCategory(), entity.getEventCategory().getIdEventCategory()),
+                changed(dto.getIdPlace(), entity.getPlace() != null ? entity.getPlace().getIdPlace() : null)
+        );
+    }
+
+    //новое значение, если оно передано и отличается от текущего, иначе null
+    private <T> T changed(T requested, T current) {
+        return requested != null && !requested.equals(current) ? requested : null;
     }
 
     private void sendVerificationEmail(Event entity, Boolean verified, String comment) {
@@ -247,15 +427,36 @@ public class EventService {
         return eventRepository.save(entity);
     }
 
-    private List<String> collectRussianFieldNames(Map<String, Object> changes) {
-        return changes.keySet().stream()
+    private List<String> collectRussianFieldNames(List<String> fields) {
+        return fields.stream()
                 .map(this::mapFieldToRussian)
                 .toList();
     }
 
-    private void updateEventsStatus(List<Event> events, EventStatus newStatus) {
-        events.forEach(event -> event.setEventStatus(newStatus));
-        eventRepository.saveAll(events);
+    //массовый UPDATE частями по STATUS_UPDATE_CHUNK id, затем одно чтение снимков для подписчиков EventChangedEvent
+    private int applyStatusTransition(Collection<Long> ids, ToIntFunction<List<Long>> update) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        List<Long> idList = List.copyOf(ids);
+        int updated = 0;
+        for (int from = 0; from < idList.size(); from += STATUS_UPDATE_CHUNK) {
+            List<Long> chunk = idList.subList(from, Math.min(from + STATUS_UPDATE_CHUNK, idList.size()));
+            int count = update.applyAsInt(chunk);
+            if (count > 0) {
+                updated += count;
+                eventRepository.findSnapshotsByIds(chunk)
+                        .forEach(snapshot -> eventPublisher.publishEvent(EventChangedEvent.changed(snapshot)));
+            }
+        }
+        return updated;
+    }
+
+    private int resolvePageSize(Integer size) {
+        if (size == null || size <= 0) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.min(size, MAX_PAGE_SIZE);
     }
 
     private void validateDateTime(LocalDateTime startTime, LocalDateTime endTime) throws InvalidDateTimeException {
@@ -326,31 +527,11 @@ public class EventService {
                 event.getPrice(),
                 event.getVerified(),
                 event.getVerificationComment(),
-                event.getDraftChanges(),
+                event.getDraftChanges() != null ? event.getDraftChanges().toMap() : null,
                 event.getModerationStatus().name()
         );
     }
 
-    private EventShortDto toShortDto(Event event) {
-        return new EventShortDto(
-                event.getIdEvent(),
-                event.getEventName(),
-                event.getOrganizer().getFio(),
-                event.getEventDate(),
-                event.getStartTime(),
-                event.getEndTime(),
-                event.getEventFormat(),
-                event.getEventStatus(),
-                event.getEventCategory().getEventCategoryName(),
-                event.getEventCategory().getIdEventCategory(),
-                getPlaceNameOrNull(event),
-                event.getPrice(),
-                event.getImageUrl(),
-                event.getVerified(),
-                event.getModerationStatus() != null ? event.getModerationStatus().name() : null
-        );
-    }
-
     private String mapFieldToRussian(String field) {
         return switch (field) {
             case "eventName" -> "Название мероприятия";
@@ -387,4 +568,21 @@ public class EventService {
     private String getAdminFioOrNull(Event event) {
         return event.getAdmin() != null ? event.getAdmin().getFio() : null;
     }
+
+    private record VerificationGroup(boolean verified, String comment) {
+    }
+
+    //накопленное за пакетную модерацию: id для групповых UPDATE и письма
+    private static final class BulkEventModeration {
+        private final EmailService.Batch emails;
+        private final boolean sendEmail;
+        private final Map<VerificationGroup, List<Long>> verifications = new LinkedHashMap<>();
+        private final List<Long> moderated = new ArrayList<>();
+        private final List<Long> capacityRaised = new ArrayList<>();
+
+        private BulkEventModeration(EmailService.Batch emails, boolean sendEmail) {
+            this.emails = emails;
+            this.sendEmail = sendEmail;
+        }
+    }
 }
@@ -1,11 +1,14 @@
 package ru.ssau.srestapp.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.ssau.srestapp.cache.ResourceFamily;
 import ru.ssau.srestapp.dto.place.onlinePlace.OnlinePlaceRequestDto;
 import ru.ssau.srestapp.dto.place.onlinePlace.OnlinePlaceResponseDto;
 import ru.ssau.srestapp.entity.OnlinePlace;
+import ru.ssau.srestapp.event.CatalogChangedEvent;
 import ru.ssau.srestapp.exception.EntityNotFoundException;
 import ru.ssau.srestapp.exception.EntityType;
 import ru.ssau.srestapp.repository.OnlinePlaceRepository;
@@ -19,6 +22,7 @@ public class OnlinePlaceService {
     private static final String PLACE_TYPE_ONLINE = "ONLINE";
 
     private final OnlinePlaceRepository onlinePlaceRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional(readOnly = true)
     public List<OnlinePlaceResponseDto> getAll() {
@@ -34,6 +38,7 @@ public class OnlinePlaceService {
     public OnlinePlaceResponseDto create(OnlinePlaceRequestDto dto) {
         OnlinePlace entity = new OnlinePlace();
         updateEntityFromDto(entity, dto);
+        eventPublisher.publishEvent(new CatalogChangedEvent(ResourceFamily.PLACES));
         return toDto(onlinePlaceRepository.save(entity));
     }
 
@@ -41,6 +46,7 @@ public class OnlinePlaceService {
     public OnlinePlaceResponseDto update(Long id, OnlinePlaceRequestDto dto) throws EntityNotFoundException {
         OnlinePlace entity = findOrThrow(id);
         updateEntityFromDto(entity, dto);
+        eventPublisher.publishEvent(new CatalogChangedEvent(ResourceFamily.PLACES));
         return toDto(onlinePlaceRepository.save(entity));
     }
 
@@ -48,6 +54,7 @@ public class OnlinePlaceService {
     public void delete(Long id) throws EntityNotFoundException {
         findOrThrow(id);
         onlinePlaceRepository.deleteById(id);
+        eventPublisher.publishEvent(new CatalogChangedEvent(ResourceFamily.PLACES));
     }
 
     private void updateEntityFromDto(OnlinePlace entity, OnlinePlaceRequestDto dto) {
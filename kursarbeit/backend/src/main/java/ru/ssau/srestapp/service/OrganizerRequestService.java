@@ -2,10 +2,15 @@ package ru.ssau.srestapp.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.ssau.srestapp.dto.admin.BulkModerationItemResultDto;
+import ru.ssau.srestapp.dto.admin.BulkModerationResultDto;
 import ru.ssau.srestapp.dto.organizerRequest.*;
 import ru.ssau.srestapp.entity.*;
+import ru.ssau.srestapp.event.OrganizerRequestChangedEvent;
+import ru.ssau.srestapp.event.UserChangedEvent;
 import ru.ssau.srestapp.exception.*;
 import ru.ssau.srestapp.repository.OrganizerRequestRepository;
 import ru.ssau.srestapp.repository.RoleRepository;
@@ -14,7 +19,7 @@ import ru.ssau.srestapp.security.CustomUserDetails;
 import ru.ssau.srestapp.util.SecurityUtils;
 
 import java.time.LocalDateTime;
-import java.util.List;
+import java.util.*;
 
 @Service
 @RequiredArgsConstructor
@@ -27,6 +32,7 @@ public class OrganizerRequestService {
     private final UserRepository userRepository;
     private final RoleRepository roleRepository;
     private final EmailService emailService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public OrganizerRequestResponseDto createForCurrentUser(OrganizerRequestRequestDto dto) throws EntityNotFoundException, DuplicateEntityException {
@@ -43,7 +49,9 @@ public class OrganizerRequestService {
         entity.setRequestStatus(RequestStatus.PENDING);
         entity.setRequestText(dto.getRequestText());
         entity.setSubmittedAt(LocalDateTime.now());
-        return toDto(organizerRequestRepository.save(entity));
+        OrganizerRequest saved = organizerRequestRepository.save(entity);
+        eventPublisher.publishEvent(OrganizerRequestChangedEvent.changed(saved.getIdOrganizerRequest(), saved.getRequestStatus()));
+        return toDto(saved);
     }
 
     @Transactional(readOnly = true)
@@ -83,6 +91,7 @@ public class OrganizerRequestService {
             Role organizerRole = findOrganizerRoleOrThrow();
             user.setRole(organizerRole);
             userRepository.save(user);
+            eventPublisher.publishEvent(UserChangedEvent.changed(user.getIdUser()));
             if (sendEmail != null && sendEmail) {
                 emailService.sendOrganizerRequestApproved(user.getEmail(), user.getFio());
             }
@@ -96,13 +105,76 @@ public class OrganizerRequestService {
                 );
             }
         }
-        return toDto(organizerRequestRepository.save(request));
+        OrganizerRequest saved = organizerRequestRepository.save(request);
+        eventPublisher.publishEvent(OrganizerRequestChangedEvent.changed(saved.getIdOrganizerRequest(), saved.getRequestStatus()));
+        return toDto(saved);
+    }
+
+    //решения по списку заявок в одной транзакции: одна выборка, UPDATE заявок на каждую группу одинаковых решений,
+    //один UPDATE ролей и одна пачка писем в outbox
+    @Transactional
+    public BulkModerationResultDto reviewBulk(OrganizerRequestBulkReviewDto dto) throws EntityNotFoundException {
+        List<OrganizerRequestBulkReviewItemDto> items = dto.getItems();
+        Map<Long, OrganizerRequest> requests = new HashMap<>();
+        organizerRequestRepository.findAllWithUserByIdsForUpdate(items.stream().map(OrganizerRequestBulkReviewItemDto::getIdOrganizerRequest).toList())
+                .forEach(request -> requests.put(request.getIdOrganizerRequest(), request));
+        User admin = findUserOrThrow(SecurityUtils.getCurrentUserDetails().getUserId());
+        boolean sendEmail = dto.getSendEmail() != null && dto.getSendEmail();
+        EmailService.Batch emails = emailService.batch();
+        Map<ReviewGroup, List<Long>> reviews = new LinkedHashMap<>();
+        Set<Long> promotedUsers = new LinkedHashSet<>();
+        Set<Long> seen = new HashSet<>();
+        List<BulkModerationItemResultDto> results = new ArrayList<>(items.size());
+        for (OrganizerRequestBulkReviewItemDto item : items) {
+            Long id = item.getIdOrganizerRequest();
+            OrganizerRequest request = requests.get(id);
+            String error = null;
+            if (!seen.add(id)) {
+                error = "Заявка указана в запросе повторно";
+            } else if (request == null) {
+                error = EntityType.ORGANIZER_REQUEST.notFoundFeminine(id);
+            } else if (request.getRequestStatus() != RequestStatus.PENDING) {
+                error = "Заявка уже рассмотрена";
+            }
+            if (error != null) {
+                results.add(BulkModerationItemResultDto.failure(id, error));
+                continue;
+            }
+            User user = request.getUser();
+            reviews.computeIfAbsent(new ReviewGroup(item.getApproved(), item.getReviewComment()), group -> new ArrayList<>()).add(id);
+            if (item.getApproved()) {
+                promotedUsers.add(user.getIdUser());
+                if (sendEmail) {
+                    emails.organizerRequestApproved(user.getEmail(), user.getFio());
+                }
+            } else if (sendEmail) {
+                emails.organizerRequestRejected(user.getEmail(), user.getFio(), item.getReviewComment());
+            }
+            results.add(BulkModerationItemResultDto.success(id));
+        }
+
+        //роль ищется до записи: проверяемое исключение не откатывает транзакцию
+        Role organizerRole = promotedUsers.isEmpty() ? null : findOrganizerRoleOrThrow();
+        LocalDateTime reviewedAt = LocalDateTime.now();
+        reviews.forEach((group, ids) -> organizerRequestRepository.review(ids,
+                group.approved() ? RequestStatus.APPROVED : RequestStatus.REJECTED, admin, group.comment(), reviewedAt));
+        if (!promotedUsers.isEmpty()) {
+            userRepository.updateRole(promotedUsers, organizerRole);
+            promotedUsers.forEach(idUser -> eventPublisher.publishEvent(UserChangedEvent.changed(idUser)));
+        }
+        int emailsQueued = emails.send();
+        reviews.forEach((group, ids) -> {
+            RequestStatus status = group.approved() ? RequestStatus.APPROVED : RequestStatus.REJECTED;
+            ids.forEach(id -> eventPublisher.publishEvent(OrganizerRequestChangedEvent.changed(id, status)));
+        });
+        return BulkModerationResultDto.of(results, emailsQueued);
     }
 
     @Transactional
     public void deleteRequest(Long id) throws EntityNotFoundException {
         findOrThrow(id);
         organizerRequestRepository.deleteById(id);
+        eventPublisher.publishEvent(OrganizerRequestChangedEvent.deleted(id));
     }
 
     private Role findOrganizerRoleOrThrow() throws EntityNotFoundException {
@@ -141,4 +213,7 @@ public class OrganizerRequestService {
                 r.getSubmittedAt()
         );
     }
+
+    private record ReviewGroup(boolean approved, String comment) {
+    }
 }
@@ -1,11 +1,14 @@
 package ru.ssau.srestapp.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.ssau.srestapp.cache.ResourceFamily;
 import ru.ssau.srestapp.dto.place.physicalPlace.PhysicalPlaceRequestDto;
 import ru.ssau.srestapp.dto.place.physicalPlace.PhysicalPlaceResponseDto;
 import ru.ssau.srestapp.entity.PhysicalPlace;
+import ru.ssau.srestapp.event.CatalogChangedEvent;
 import ru.ssau.srestapp.exception.EntityNotFoundException;
 import ru.ssau.srestapp.exception.EntityType;
 import ru.ssau.srestapp.repository.PhysicalPlaceRepository;
@@ -19,6 +22,7 @@ public class PhysicalPlaceService {
     private static final String PLACE_TYPE_PHYSICAL = "PHYSICAL";
 
     private final PhysicalPlaceRepository physicalPlaceRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional(readOnly = true)
     public List<PhysicalPlaceResponseDto> getAll() {
@@ -34,6 +38,7 @@ public class PhysicalPlaceService {
     public PhysicalPlaceResponseDto create(PhysicalPlaceRequestDto dto) {
         PhysicalPlace entity = new PhysicalPlace();
         updateEntityFromDto(entity, dto);
+        eventPublisher.publishEvent(new CatalogChangedEvent(ResourceFamily.PLACES));
         return toDto(physicalPlaceRepository.save(entity));
     }
 
@@ -41,6 +46,7 @@ public class PhysicalPlaceService {
     public PhysicalPlaceResponseDto update(Long id, PhysicalPlaceRequestDto dto) throws EntityNotFoundException {
         PhysicalPlace entity = findOrThrow(id);
         updateEntityFromDto(entity, dto);
+        eventPublisher.publishEvent(new CatalogChangedEvent(ResourceFamily.PLACES));
         return toDto(physicalPlaceRepository.save(entity));
     }
 
@@ -48,6 +54,7 @@ public class PhysicalPlaceService {
     public void delete(Long id) throws EntityNotFoundException {
         findOrThrow(id);
         physicalPlaceRepository.deleteById(id);
+        eventPublisher.publishEvent(new CatalogChangedEvent(ResourceFamily.PLACES));
     }
 
     private void updateEntityFromDto(PhysicalPlace entity, PhysicalPlaceRequestDto dto) {
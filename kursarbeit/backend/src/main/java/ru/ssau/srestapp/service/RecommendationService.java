@@ -4,67 +4,51 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.ssau.srestapp.dto.event.EventShortDto;
-import ru.ssau.srestapp.entity.Event;
 import ru.ssau.srestapp.entity.UserInterest;
-import ru.ssau.srestapp.repository.EventRepository;
+import ru.ssau.srestapp.recommendation.RecommendationFeed;
+import ru.ssau.srestapp.recommendation.RecommendationScorer;
+import ru.ssau.srestapp.recommendation.ScoringCandidates;
+import ru.ssau.srestapp.recommendation.ScoringProfile;
 import ru.ssau.srestapp.repository.UserInterestRepository;
+import ru.ssau.srestapp.repository.UserRepository;
 
-import java.time.LocalDateTime;
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Set;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class RecommendationService {
 
-    private final EventRepository eventRepository;
+    private static final int MAX_LIMIT = 100;
+
+    private final RecommendationFeed recommendationFeed;
     private final UserInterestRepository userInterestRepository;
+    private final UserRepository userRepository;
 
+    //анонимным пользователям отдаётся готовый список популярных, остальным — скоринг всех кандидатов по профилю
     @Transactional(readOnly = true)
     public List<EventShortDto> getRecommendedEvents(Long userId, int limit) {
-        LocalDateTime now = LocalDateTime.now().toLocalDate().atStartOfDay();
-        List<Event> activeEvents = eventRepository.findActiveAndVerified(now);
-        if (userId != null) {
-            List<UserInterest> interests = userInterestRepository.findByUserId(userId);
-            if (!interests.isEmpty()) {
-                Set<Long> categoryIds = interests.stream()
-                        .map(ui -> ui.getIdEventCategory().getIdEventCategory())
-                        .collect(Collectors.toSet());
-                List<Event> matched = activeEvents.stream()
-                        .filter(e -> categoryIds.contains(e.getEventCategory().getIdEventCategory()))
-                        .limit(limit)
-                        .toList();
-                if (!matched.isEmpty()) {
-                    return matched.stream()
-                            .map(this::toShortDto)
-                            .toList();
-                }
-            }
+        int boundedLimit = Math.max(0, Math.min(limit, MAX_LIMIT));
+        if (userId == null) {
+            return recommendationFeed.popular(boundedLimit);
+        }
+        ScoringCandidates candidates = recommendationFeed.scoringCandidates();
+        int[] top = RecommendationScorer.topK(candidates, loadProfile(userId), LocalDate.now().toEpochDay(), boundedLimit);
+        List<EventShortDto> result = new ArrayList<>(top.length);
+        for (int index : top) {
+            result.add(candidates.event(index));
         }
-        return activeEvents.stream()
-                .limit(limit)
-                .map(this::toShortDto)
-                .toList();
+        return result;
     }
 
-    private EventShortDto toShortDto(Event event) {
-        return new EventShortDto(
-                event.getIdEvent(),
-                event.getEventName(),
-                event.getOrganizer().getFio(),
-                event.getEventDate(),
-                event.getStartTime(),
-                event.getEndTime(),
-                event.getEventFormat(),
-                event.getEventStatus(),
-                event.getEventCategory().getEventCategoryName(),
-                event.getEventCategory().getIdEventCategory(),
-                event.getPlace() != null ? event.getPlace().getPlaceName() : null,
-                event.getPrice(),
-                event.getImageUrl(),
-                event.getVerified(),
-                event.getModerationStatus() != null ? event.getModerationStatus().name() : null
-        );
+    private ScoringProfile loadProfile(Long userId) {
+        List<UserInterest> interests = userInterestRepository.findByUserId(userId);
+        long[] categoryIds = new long[interests.size()];
+        for (int i = 0; i < categoryIds.length; i++) {
+            categoryIds[i] = interests.get(i).getIdEventCategory().getIdEventCategory();
+        }
+        boolean hasDisability = userRepository.findHasDisabilityById(userId).orElse(false);
+        return new ScoringProfile(categoryIds, hasDisability);
     }
 }
@@ -2,11 +2,13 @@ package ru.ssau.srestapp.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.ssau.srestapp.dto.role.RoleRequestDto;
 import ru.ssau.srestapp.dto.role.RoleResponseDto;
 import ru.ssau.srestapp.entity.Role;
+import ru.ssau.srestapp.event.UserChangedEvent;
 import ru.ssau.srestapp.exception.DuplicateEntityException;
 import ru.ssau.srestapp.exception.EntityNotFoundException;
 import ru.ssau.srestapp.exception.EntityType;
@@ -20,6 +22,7 @@ import java.util.List;
 public class RoleService {
 
     private final RoleRepository roleRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional(readOnly = true)
     public List<RoleResponseDto> getAll() {
@@ -51,6 +54,10 @@ public class RoleService {
             checkUniqueName(dto.getRoleName());
         }
         updateEntityFromDto(entity, dto);
+        if (nameChanged) {
+            //имя роли входит в authorities закэшированных пользователей
+            eventPublisher.publishEvent(UserChangedEvent.allUsers());
+        }
         log.info("Обновлена роль: {}", dto.getRoleName());
         return toDto(roleRepository.save(entity));
     }
@@ -59,6 +66,7 @@ public class RoleService {
     public void delete(Long id) throws EntityNotFoundException {
         findOrThrow(id);
         roleRepository.deleteById(id);
+        eventPublisher.publishEvent(UserChangedEvent.allUsers());
         log.info("Удалена роль с id={}", id);
     }
 
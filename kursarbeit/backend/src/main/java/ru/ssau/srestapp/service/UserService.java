@@ -1,18 +1,24 @@
 package ru.ssau.srestapp.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.ssau.srestapp.dto.user.*;
 import ru.ssau.srestapp.entity.*;
+import ru.ssau.srestapp.event.UserChangedEvent;
 import ru.ssau.srestapp.exception.*;
+import ru.ssau.srestapp.participation.SeatAllocator;
 import ru.ssau.srestapp.repository.AvatarRepository;
+import ru.ssau.srestapp.repository.EventParticipantRepository;
 import ru.ssau.srestapp.repository.RoleRepository;
 import ru.ssau.srestapp.repository.UserRepository;
 import ru.ssau.srestapp.util.SecurityUtils;
 
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -21,14 +27,24 @@ public class UserService {
     private final UserRepository userRepository;
     private final RoleRepository roleRepository;
     private final AvatarRepository avatarRepository;
+    private final EventParticipantRepository eventParticipantRepository;
+    private final SeatAllocator seatAllocator;
     private final PasswordEncoder passwordEncoder;
     private final EmailService emailService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional(readOnly = true)
     public List<UserResponseDto> getAll() {
         return userRepository.findAll().stream().map(this::toDto).toList();
     }
 
+    @Transactional(readOnly = true)
+    public void streamAll(Consumer<UserResponseDto> sink) {
+        try (Stream<UserResponseDto> users = userRepository.streamAllResponses()) {
+            users.forEach(sink);
+        }
+    }
+
     @Transactional(readOnly = true)
     public UserResponseDto getById(Long id) throws EntityNotFoundException {
         return toDto(findOrThrow(id));
@@ -47,7 +63,9 @@ public class UserService {
         entity.setBirthDate(dto.getBirthDate());
         entity.setHasDisability(dto.getHasDisability());
         emailService.sendWelcome(entity.getEmail(), entity.getFio());
-        return toDto(userRepository.save(entity));
+        User saved = userRepository.save(entity);
+        eventPublisher.publishEvent(UserChangedEvent.changed(saved.getIdUser()));
+        return toDto(saved);
     }
 
     @Transactional
@@ -57,6 +75,7 @@ public class UserService {
         updateUserFromRequest(entity, dto);
         entity.setUserStatus(dto.getUserStatus());
         entity.setRole(findRoleOrThrow(dto.getIdRole()));
+        eventPublisher.publishEvent(UserChangedEvent.changed(id));
         return toDto(userRepository.save(entity));
     }
 
@@ -66,6 +85,7 @@ public class UserService {
         User entity = findOrThrow(id);
         updateEmailIfChanged(entity, dto.getEmail());
         updateUserFromRequest(entity, dto);
+        eventPublisher.publishEvent(UserChangedEvent.changed(id));
         return toDto(userRepository.save(entity));
     }
 
@@ -75,6 +95,7 @@ public class UserService {
         User entity = findOrThrow(userId);
         updateEmailIfChanged(entity, dto.getEmail());
         updateUserFromProfileDto(entity, dto);
+        eventPublisher.publishEvent(UserChangedEvent.changed(userId));
         return toDto(userRepository.save(entity));
     }
 
@@ -98,12 +119,17 @@ public class UserService {
         }
         user.setPasswordHash(passwordEncoder.encode(dto.getNewPassword()));
         userRepository.save(user);
+        eventPublisher.publishEvent(UserChangedEvent.changed(currentUserId));
     }
 
     @Transactional
     public void delete(Long id) throws EntityNotFoundException {
         findOrThrow(id);
+        //участия удаляются вместе с пользователем, занятые им места возвращаются в счётчики мероприятий
+        eventParticipantRepository.findEventIdsByUser(id, ParticipationStatus.REGISTERED).forEach(seatAllocator::release);
+        eventParticipantRepository.deleteAllByUser(id);
         userRepository.deleteById(id);
+        eventPublisher.publishEvent(UserChangedEvent.changed(id));
     }
 
     @Transactional
@@ -111,6 +137,7 @@ public class UserService {
         ensureNotSelfModification(userId);
         User user = findOrThrow(userId);
         user.setUserStatus(newStatus);
+        eventPublisher.publishEvent(UserChangedEvent.changed(userId));
         return toDto(userRepository.save(user));
     }
 
@@ -120,6 +147,7 @@ public class UserService {
         User user = findOrThrow(userId);
         Role newRole = findRoleOrThrow(roleId);
         user.setRole(newRole);
+        eventPublisher.publishEvent(UserChangedEvent.changed(userId));
         return toDto(userRepository.save(user));
     }
 
@@ -0,0 +1,243 @@
+package ru.ssau.srestapp.statistics;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.ssau.srestapp.dto.admin.AdminStatisticsDto;
+import ru.ssau.srestapp.dto.user.UserRoleDto;
+import ru.ssau.srestapp.entity.EventParticipantId;
+import ru.ssau.srestapp.entity.EventStatus;
+import ru.ssau.srestapp.entity.ModerationStatus;
+import ru.ssau.srestapp.entity.RequestStatus;
+import ru.ssau.srestapp.event.*;
+import ru.ssau.srestapp.repository.EventParticipantRepository;
+import ru.ssau.srestapp.repository.EventRepository;
+import ru.ssau.srestapp.repository.OrganizerRequestRepository;
+import ru.ssau.srestapp.repository.UserRepository;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+//счётчики панели администратора: загружаются из БД при старте и каждую полночь,
+//в остальное время пересчитываются по событиям сервисов после коммита
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AdminStatisticsCounters {
+
+    private static final String ROLE_ORGANIZER = "ORGANIZER";
+    private static final int REBUILD_ATTEMPTS = 3;
+
+    private final UserRepository userRepository;
+    private final EventRepository eventRepository;
+    private final OrganizerRequestRepository organizerRequestRepository;
+    private final EventParticipantRepository eventParticipantRepository;
+
+    //хранятся только id, входящие в счётчики (организаторы, непроверенные, ожидающие модерации и идущие мероприятия,
+    //записи за сегодня): по ним событие применяется идемпотентно, а объём не растёт вместе с таблицами
+    private final Set<Long> organizers = new HashSet<>();
+    private final Set<Long> pendingEvents = new HashSet<>();
+    private final Set<Long> pendingModeration = new HashSet<>();
+    private final Set<Long> activeEvents = new HashSet<>();
+    private final Set<Long> pendingOrganizerRequests = new HashSet<>();
+    private final Set<EventParticipantId> registrationsToday = new HashSet<>();
+    private long totalUsers;
+    private LocalDate registrationsDay = LocalDate.now();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    //растёт при каждом изменении, по нему AdminStatisticsStream решает, нужно ли рассылать снимок
+    private final AtomicLong version = new AtomicLong();
+    //растёт под блокировкой записи при каждом применённом событии, по нему rebuild видит изменения во время загрузки
+    private final AtomicLong changes = new AtomicLong();
+    //изменение, затронувшее всех пользователей (переименование или удаление роли), пересчитывается по расписанию,
+    //а не в потоке, закоммитившем транзакцию
+    private final AtomicBoolean dirty = new AtomicBoolean();
+
+    private record Loaded(long totalUsers, List<Long> organizers, List<EventSnapshot> snapshots, List<Long> pendingRequests,
+                          List<EventParticipantId> registrations, LocalDate day) {
+    }
+
+    //загрузка идёт без блокировки; если за это время пришло изменение, более старые данные из БД
+    //затёрли бы его, поэтому загрузка повторяется, а последняя попытка держит блокировку записи
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "0 0 0 * * *")
+    public void rebuild() {
+        dirty.set(false);
+        Loaded loaded = null;
+        for (int attempt = 1; attempt < REBUILD_ATTEMPTS && loaded == null; attempt++) {
+            long changesBefore = changes.get();
+            Loaded candidate = load();
+            lock.writeLock().lock();
+            try {
+                if (changes.get() == changesBefore) {
+                    apply(candidate);
+                    loaded = candidate;
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        if (loaded == null) {
+            lock.writeLock().lock();
+            try {
+                loaded = load();
+                apply(loaded);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        version.incrementAndGet();
+        log.info("Статистика администратора загружена: {} пользователей, {} мероприятий",
+                loaded.totalUsers(), loaded.snapshots().size());
+    }
+
+    @Scheduled(fixedDelayString = "${admin.statistics.dirty-check-interval:10000}")
+    public void rebuildIfDirty() {
+        if (dirty.get()) {
+            rebuild();
+        }
+    }
+
+    private Loaded load() {
+        LocalDate today = LocalDate.now();
+        return new Loaded(
+                userRepository.count(),
+                userRepository.findIdsByRoleName(ROLE_ORGANIZER),
+                eventRepository.findAllSnapshots(),
+                organizerRequestRepository.findIdsByRequestStatus(RequestStatus.PENDING),
+                eventParticipantRepository.findIdsRegisteredSince(today.atStartOfDay()),
+                today);
+    }
+
+    private void apply(Loaded loaded) {
+        totalUsers = loaded.totalUsers();
+        organizers.clear();
+        organizers.addAll(loaded.organizers());
+        pendingEvents.clear();
+        pendingModeration.clear();
+        activeEvents.clear();
+        loaded.snapshots().forEach(this::putEvent);
+        pendingOrganizerRequests.clear();
+        pendingOrganizerRequests.addAll(loaded.pendingRequests());
+        registrationsToday.clear();
+        registrationsToday.addAll(loaded.registrations());
+        registrationsDay = loaded.day();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEventChanged(EventChangedEvent change) {
+        lock.writeLock().lock();
+        try {
+            changes.incrementAndGet();
+            pendingEvents.remove(change.idEvent());
+            pendingModeration.remove(change.idEvent());
+            activeEvents.remove(change.idEvent());
+            if (!change.isDeleted()) {
+                putEvent(change.snapshot());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        version.incrementAndGet();
+    }
+
+    //роль и число пользователей берутся запросами: изменения пользователей редки, а событие не несёт их данных
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent change) {
+        if (change.isAllUsers()) {
+            dirty.set(true);
+            return;
+        }
+        Optional<UserRoleDto> user = userRepository.findRoleById(change.idUser());
+        long total = userRepository.count();
+        lock.writeLock().lock();
+        try {
+            changes.incrementAndGet();
+            totalUsers = total;
+            if (user.isPresent() && ROLE_ORGANIZER.equalsIgnoreCase(user.get().getRoleName())) {
+                organizers.add(change.idUser());
+            } else {
+                organizers.remove(change.idUser());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        version.incrementAndGet();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrganizerRequestChanged(OrganizerRequestChangedEvent change) {
+        lock.writeLock().lock();
+        try {
+            changes.incrementAndGet();
+            if (change.status() == RequestStatus.PENDING) {
+                pendingOrganizerRequests.add(change.idOrganizerRequest());
+            } else {
+                pendingOrganizerRequests.remove(change.idOrganizerRequest());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        version.incrementAndGet();
+    }
+
+    //запись учитывается по ключу (пользователь, мероприятие): если rebuild уже прочитал её из БД,
+    //событие после коммита не посчитает её второй раз
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onParticipantRegistered(ParticipantRegisteredEvent registration) {
+        LocalDate today = LocalDate.now();
+        lock.writeLock().lock();
+        try {
+            changes.incrementAndGet();
+            if (!today.equals(registrationsDay)) {
+                registrationsDay = today;
+                registrationsToday.clear();
+            }
+            registrationsToday.add(new EventParticipantId(registration.idUser(), registration.idEvent()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+        version.incrementAndGet();
+    }
+
+    public AdminStatisticsDto snapshot() {
+        lock.readLock().lock();
+        try {
+            return new AdminStatisticsDto(
+                    totalUsers,
+                    organizers.size(),
+                    pendingEvents.size(),
+                    pendingOrganizerRequests.size(),
+                    LocalDate.now().equals(registrationsDay) ? registrationsToday.size() : 0,
+                    pendingModeration.size(),
+                    activeEvents.size());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long version() {
+        return version.get();
+    }
+
+    //непроверенным считается только verified = false, как в countByVerifiedFalse
+    private void putEvent(EventSnapshot snapshot) {
+        if (Boolean.FALSE.equals(snapshot.verified())) {
+            pendingEvents.add(snapshot.idEvent());
+        }
+        if (snapshot.moderationStatus() == ModerationStatus.PENDING) {
+            pendingModeration.add(snapshot.idEvent());
+        }
+        if (snapshot.eventStatus() == EventStatus.ONGOING) {
+            activeEvents.add(snapshot.idEvent());
+        }
+    }
+}
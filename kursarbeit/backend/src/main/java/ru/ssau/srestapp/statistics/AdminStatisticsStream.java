@@ -0,0 +1,71 @@
+package ru.ssau.srestapp.statistics;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.ssau.srestapp.dto.admin.AdminStatisticsDto;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+//рассылка снимков статистики подписчикам SSE: изменения за секунду сливаются в одно событие,
+//между изменениями идут комментарии-пинги, чтобы прокси не закрывали соединение
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AdminStatisticsStream {
+
+    private static final String EVENT_NAME = "statistics";
+    private static final long EMITTER_TIMEOUT = 30 * 60 * 1000;
+    private static final long PUSH_INTERVAL = 1000;
+    private static final long HEARTBEAT_INTERVAL = 15 * 1000;
+
+    private final AdminStatisticsCounters counters;
+
+    private final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+    private long pushedVersion = -1;
+
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(EMITTER_TIMEOUT);
+        emitter.onCompletion(() -> emitters.remove(emitter));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> emitters.remove(emitter));
+        emitters.add(emitter);
+        send(emitter, SseEmitter.event().name(EVENT_NAME).data(counters.snapshot()));
+        return emitter;
+    }
+
+    @Scheduled(fixedDelay = PUSH_INTERVAL)
+    public void push() {
+        long version = counters.version();
+        if (version == pushedVersion || emitters.isEmpty()) {
+            return;
+        }
+        pushedVersion = version;
+        AdminStatisticsDto snapshot = counters.snapshot();
+        //билдер события одноразовый, поэтому собирается для каждого подписчика
+        emitters.forEach(emitter -> send(emitter, SseEmitter.event().name(EVENT_NAME).data(snapshot)));
+    }
+
+    @Scheduled(fixedRate = HEARTBEAT_INTERVAL, initialDelay = HEARTBEAT_INTERVAL)
+    public void heartbeat() {
+        emitters.forEach(emitter -> send(emitter, SseEmitter.event().comment("ping")));
+    }
+
+    public int subscriberCount() {
+        return emitters.size();
+    }
+
+    private void send(SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+        try {
+            emitter.send(event);
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Подписчик статистики отключился: {}", e.getMessage());
+            emitters.remove(emitter);
+            emitter.completeWithError(e);
+        }
+    }
+}
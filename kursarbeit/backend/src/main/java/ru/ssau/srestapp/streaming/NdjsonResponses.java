@@ -0,0 +1,80 @@
+package ru.ssau.srestapp.streaming;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.ssau.srestapp.datasource.PrimaryRouting;
+import tools.jackson.databind.ObjectWriter;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+//потоковая выдача больших списков в формате NDJSON (по запросу с Accept: application/x-ndjson):
+//строки читаются курсором и сразу пишутся в ответ, поэтому память не зависит от размера выборки
+@Component
+@RequiredArgsConstructor
+public class NdjsonResponses {
+
+    private static final int BUFFER_SIZE = 8 * 1024;
+    //первая строка уходит клиенту сразу, дальше буфер сбрасывается пачками
+    private static final int FLUSH_EVERY = 100;
+
+    private final JsonMapper jsonMapper;
+
+    //source получает приёмник строк и должен передать в него всю выборку, пока открыт курсор:
+    //методы сервисов для source помечаются @Transactional(readOnly = true), курсор читается по мере записи строк в ответ
+    public <T> ResponseEntity<StreamingResponseBody> stream(Consumer<Consumer<T>> source) {
+        ObjectWriter writer = jsonMapper.writer();
+        //тело пишется в другом потоке: выбор основной БД для ответа с ETag переносится вместе с ним
+        boolean primary = PrimaryRouting.isForced();
+        StreamingResponseBody body = out -> {
+            LineWriter<T> lines = new LineWriter<>(writer, new BufferedOutputStream(out, BUFFER_SIZE));
+            try {
+                if (primary) {
+                    PrimaryRouting.run(() -> source.accept(lines));
+                } else {
+                    source.accept(lines);
+                }
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            lines.flush();
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    private static final class LineWriter<T> implements Consumer<T> {
+        private final ObjectWriter writer;
+        private final OutputStream out;
+        private long written;
+
+        private LineWriter(ObjectWriter writer, OutputStream out) {
+            this.writer = writer;
+            this.out = out;
+        }
+
+        //ошибка записи (например, клиент отключился) прерывает чтение курсора и закрывает транзакцию
+        @Override
+        public void accept(T item) {
+            try {
+                out.write(writer.writeValueAsBytes(item));
+                out.write('\n');
+                if (++written == 1 || written % FLUSH_EVERY == 0) {
+                    out.flush();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private void flush() throws IOException {
+            out.flush();
+        }
+    }
+}
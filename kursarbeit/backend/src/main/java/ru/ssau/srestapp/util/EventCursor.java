@@ -0,0 +1,39 @@
+package ru.ssau.srestapp.util;
+
+import ru.ssau.srestapp.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+//позиция в списке мероприятий (eventDate, idEvent), передаётся клиенту как непрозрачная строка
+public record EventCursor(LocalDateTime eventDate, Long idEvent) {
+
+    private static final String SEPARATOR = "|";
+
+    public String encode() {
+        String raw = eventDate + SEPARATOR + idEvent;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static EventCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separatorIndex = raw.indexOf(SEPARATOR);
+            if (separatorIndex < 0) {
+                throw new InvalidCursorException();
+            }
+            return new EventCursor(
+                    LocalDateTime.parse(raw.substring(0, separatorIndex)),
+                    Long.parseLong(raw.substring(separatorIndex + 1))
+            );
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            //IllegalArgumentException покрывает и невалидный Base64, и NumberFormatException
+            throw new InvalidCursorException();
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package ru.ssau.srestapp.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.core.io.ClassPathResource;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+import ru.ssau.srestapp.dto.email.EmailTemplate;
+import ru.ssau.srestapp.mail.CompiledEmailTemplate;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+//время и аллокации на одно письмо: Thymeleaf против скомпилированного шаблона; запуск: main из тестового classpath
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EmailRenderingBenchmark {
+
+    private static final Map<String, Object> FIXED = Map.of(
+            "baseUrl", "http://localhost:3000",
+            "colorPrimary", "#7C3AED",
+            "colorSecondary", "#A78BFA",
+            "colorBackground", "#F5F3FF",
+            "colorText", "#1F2937"
+    );
+
+    @Param({
+            "EVENT_APPROVED", "EVENT_REJECTED", "EVENT_EDITED",
+            "PARTICIPATION_CONFIRMED", "PARTICIPATION_CANCELLED", "PARTICIPATION_REJECTED", "PARTICIPATION_ATTENDED",
+            "WAITLIST_PROMOTED", "WELCOME", "ORGANIZER_REQUEST_APPROVED", "ORGANIZER_REQUEST_REJECTED",
+            "EVENT_CHANGES_APPROVED", "EVENT_CHANGES_REJECTED", "CONTACT_MESSAGE_ADMIN", "CONTACT_CONFIRMATION_USER"
+    })
+    private EmailTemplate template;
+
+    private SpringTemplateEngine engine;
+    private CompiledEmailTemplate compiled;
+    private String templateName;
+    private Map<String, Object> variables;
+
+    @Setup
+    public void setUp() throws IOException {
+        ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+        resolver.setPrefix("templates/");
+        resolver.setSuffix(".html");
+        resolver.setTemplateMode(TemplateMode.HTML);
+        resolver.setCharacterEncoding("UTF-8");
+        engine = new SpringTemplateEngine();
+        engine.setTemplateResolver(resolver);
+
+        templateName = "email/" + template.getFileName();
+        String source = new ClassPathResource("templates/" + templateName).getContentAsString(StandardCharsets.UTF_8);
+        compiled = CompiledEmailTemplate.compile(engine, templateName, source, FIXED);
+        if (compiled == null) {
+            throw new IllegalStateException("Шаблон не компилируется: " + templateName);
+        }
+        variables = new HashMap<>();
+        compiled.variables().forEach(variable -> variables.put(variable, "Значение " + variable + " & <b>"));
+        if (compiled.listVariable() != null) {
+            variables.put(compiled.listVariable(), List.of("Название", "Описание", "Дата проведения"));
+        }
+    }
+
+    @Benchmark
+    public String thymeleaf() {
+        Context context = new Context();
+        FIXED.forEach(context::setVariable);
+        variables.forEach(context::setVariable);
+        return engine.process(templateName, context);
+    }
+
+    @Benchmark
+    public String compiled() {
+        return compiled.render(variables);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(EmailRenderingBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
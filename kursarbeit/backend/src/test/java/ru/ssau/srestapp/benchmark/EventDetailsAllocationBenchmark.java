@@ -0,0 +1,110 @@
+package ru.ssau.srestapp.benchmark;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+import ru.ssau.srestapp.entity.*;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+//память, выделяемая на загрузку 10 тысяч сущностей Event: только строка event (как сейчас при списках и регистрации)
+//против строки вместе с event_details и разобранным черновиком (как было, когда описание и JSON лежали в event).
+//Запуск: main из тестового classpath, -Dbenchmark.events и -Dbenchmark.iterations меняют объём
+public class EventDetailsAllocationBenchmark {
+
+    private static final Class<?>[] ENTITIES = {Avatar.class, Role.class, User.class, EventCategory.class, Place.class,
+            OnlinePlace.class, PhysicalPlace.class, Event.class, EventDetails.class};
+
+    public static void main(String[] args) {
+        int events = Integer.getInteger("benchmark.events", 10_000);
+        int iterations = Integer.getInteger("benchmark.iterations", 20);
+        Configuration configuration = new Configuration();
+        for (Class<?> entity : ENTITIES) {
+            configuration.addAnnotatedClass(entity);
+        }
+        configuration.setProperty("hibernate.connection.url", "jdbc:h2:mem:allocation;DB_CLOSE_DELAY=-1");
+        configuration.setProperty("hibernate.hbm2ddl.auto", "create-drop");
+        try (SessionFactory sessionFactory = configuration.buildSessionFactory()) {
+            seed(sessionFactory, events);
+            String rowOnly = "SELECT e FROM Event e";
+            String withDetails = "SELECT e FROM Event e JOIN FETCH e.details";
+            for (int warmup = 0; warmup < 5; warmup++) {
+                load(sessionFactory, rowOnly, false);
+                load(sessionFactory, withDetails, true);
+            }
+            report("только event", sessionFactory, rowOnly, false, iterations);
+            report("event + event_details + черновик", sessionFactory, withDetails, true, iterations);
+        }
+    }
+
+    private static void seed(SessionFactory sessionFactory, int events) {
+        String description = "Подробное описание мероприятия. ".repeat(64);
+        DraftChanges draft = DraftChanges.fromMap(Map.of("eventName", "Новое название", "maxParticipants", 120,
+                "price", 1500, "eventDate", "2030-01-01T19:00", "eventFormat", "ONLINE"));
+        sessionFactory.inTransaction(session -> {
+            Role role = new Role(null, "ORGANIZER", null);
+            session.persist(role);
+            User organizer = new User();
+            organizer.setUserStatus(UserStatus.ACTIVE);
+            organizer.setRole(role);
+            organizer.setFio("Организатор");
+            organizer.setEmail("organizer@example.com");
+            organizer.setPasswordHash("hash");
+            session.persist(organizer);
+            EventCategory category = new EventCategory();
+            category.setEventCategoryName("Концерт");
+            session.persist(category);
+            LocalDateTime date = LocalDateTime.now().plusDays(30);
+            for (int i = 0; i < events; i++) {
+                Event event = new Event();
+                event.setOrganizer(organizer);
+                event.setEventCategory(category);
+                event.setEventFormat(EventFormat.OFFLINE);
+                event.setEventStatus(EventStatus.PLANNED);
+                event.setEventName("Мероприятие " + i);
+                event.setEventDescription(description);
+                event.setVerificationComment("Проверено");
+                event.setDraftChanges(draft);
+                event.setEventDate(date);
+                event.setStartTime(date);
+                event.setEndTime(date.plusHours(2));
+                session.persist(event);
+                if (i % 500 == 0) {
+                    session.flush();
+                    session.clear();
+                    organizer = session.getReference(User.class, organizer.getIdUser());
+                    category = session.getReference(EventCategory.class, category.getIdEventCategory());
+                }
+            }
+        });
+    }
+
+    private static void report(String name, SessionFactory sessionFactory, String query, boolean touchDetails, int iterations) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        long started = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            load(sessionFactory, query, touchDetails);
+        }
+        double millis = (System.nanoTime() - started) / 1_000_000.0 / iterations;
+        double megabytes = (threads.getThreadAllocatedBytes(threadId) - allocatedBefore) / 1024.0 / 1024.0 / iterations;
+        System.out.printf("%-34s %8.1f МБ на загрузку  %8.1f мс%n", name, megabytes, millis);
+    }
+
+    private static long load(SessionFactory sessionFactory, String query, boolean touchDetails) {
+        return sessionFactory.fromTransaction(session -> {
+            List<Event> events = session.createSelectionQuery(query, Event.class).setReadOnly(true).list();
+            long checksum = 0;
+            for (Event event : events) {
+                checksum += event.getEventName().length();
+                if (touchDetails) {
+                    checksum += event.getEventDescription().length() + event.getDraftChanges().fields().size();
+                }
+            }
+            return checksum;
+        });
+    }
+}
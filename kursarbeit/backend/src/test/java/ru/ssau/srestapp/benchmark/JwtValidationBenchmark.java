@@ -0,0 +1,75 @@
+package ru.ssau.srestapp.benchmark;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import ru.ssau.srestapp.security.CustomUserDetails;
+import ru.ssau.srestapp.repository.RevokedTokenRepository;
+import ru.ssau.srestapp.security.JwtTokenService;
+import ru.ssau.srestapp.security.TokenRevocationList;
+import ru.ssau.srestapp.security.VerifiedTokenCache;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+
+//проверка access-токена: прежний путь с ключом и парсером на каждый вызов, общий парсер и кэш проверенных токенов;
+//запуск: main из тестового classpath
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtValidationBenchmark {
+
+    private static final String SECRET = "YmVuY2htYXJrLXNlY3JldC1mb3Itand0LXZhbGlkYXRpb24tMTIzNDU2Nzg5MGFiY2RlZg==";
+
+    private JwtTokenService uncachedService;
+    private JwtTokenService cachedService;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        TokenRevocationList revocationList = new TokenRevocationList(mock(RevokedTokenRepository.class), 100_000);
+        uncachedService = new JwtTokenService(SECRET, new VerifiedTokenCache(0), revocationList);
+        cachedService = new JwtTokenService(SECRET, new VerifiedTokenCache(10_000), revocationList);
+        CustomUserDetails user = new CustomUserDetails(42L, "user@test.ru", "hash",
+                List.of(new SimpleGrantedAuthority("ROLE_USER")));
+        token = cachedService.generateAccessToken(user);
+    }
+
+    @Benchmark
+    public Claims keyAndParserPerCall() {
+        return Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)))
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+
+    @Benchmark
+    public Claims sharedParser() {
+        return uncachedService.validateToken(token);
+    }
+
+    @Benchmark
+    public Claims verifiedTokenCache() {
+        return cachedService.validateToken(token);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(JwtValidationBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
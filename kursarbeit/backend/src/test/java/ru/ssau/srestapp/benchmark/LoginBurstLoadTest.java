@@ -0,0 +1,61 @@
+package ru.ssau.srestapp.benchmark;
+
+import ru.ssau.srestapp.loadtest.LoadProfile;
+import ru.ssau.srestapp.loadtest.LoadRunner;
+import ru.ssau.srestapp.loadtest.Scenario;
+import ru.ssau.srestapp.loadtest.ScenarioResult;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+
+//задержка каталога во время волны входов: сначала каталог под нагрузкой отдельно, затем одновременно с login.
+//При хэшировании на отдельном пуле p95/p99 каталога почти не растут, а лишние входы получают 503.
+//Параметры: -Dloadtest.base-url, -Dloadtest.email и -Dloadtest.password существующего пользователя,
+//нагрузка — -Dloadtest.browse.* и -Dloadtest.login.*, см. LoadProfile.fromSystemProperties
+public class LoginBurstLoadTest {
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = System.getProperty("loadtest.base-url", "http://localhost:8080");
+        String login = """
+                {"email":"%s","password":"%s"}""".formatted(
+                System.getProperty("loadtest.email", "user@example.com"), System.getProperty("loadtest.password", "password"));
+
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newFixedThreadPool(8))
+                .build();
+
+        Scenario browse = new Scenario("browse", LoadProfile.fromSystemProperties("browse", 20),
+                i -> HttpRequest.newBuilder(URI.create(baseUrl + "/api/events/active"))
+                        .header("Accept", "application/json")
+                        .GET()
+                        .build());
+        Scenario loginBurst = new Scenario("login", LoadProfile.fromSystemProperties("login", 200),
+                i -> HttpRequest.newBuilder(URI.create(baseUrl + "/auth/login"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(login))
+                        .build());
+
+        ScenarioResult baseline = LoadRunner.run(client, browse);
+        CompletableFuture<ScenarioResult> burst = CompletableFuture.supplyAsync(() -> {
+            try {
+                return LoadRunner.run(client, loginBurst);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        });
+        ScenarioResult underBurst = LoadRunner.run(client, browse);
+        ScenarioResult logins = burst.join();
+
+        System.out.println("без входов    " + baseline.summary());
+        System.out.println("во время волны " + underBurst.summary());
+        System.out.println("волна входов  " + logins.summary() + "  статусы " + logins.statuses());
+        System.out.printf("рост p99 каталога: %.2fx%n", underBurst.p99() / Math.max(baseline.p99(), 0.001));
+        System.exit(0);
+    }
+}
@@ -0,0 +1,72 @@
+package ru.ssau.srestapp.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import ru.ssau.srestapp.recommendation.RecommendationScorer;
+import ru.ssau.srestapp.recommendation.ScoringCandidates;
+import ru.ssau.srestapp.recommendation.ScoringProfile;
+
+import java.time.LocalDate;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+//скоринг 100 тысяч кандидатов должен укладываться в доли миллисекунды; запуск: main из тестового classpath
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RecommendationScoringBenchmark {
+
+    @Param({"100000"})
+    private int candidateCount;
+
+    @Param({"10", "100"})
+    private int limit;
+
+    private ScoringCandidates candidates;
+    private ScoringProfile interestedUser;
+    private ScoringProfile userWithDisability;
+    private long today;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        today = LocalDate.now().toEpochDay();
+        candidates = new ScoringCandidates(candidateCount);
+        for (int i = 0; i < candidateCount; i++) {
+            int maxParticipants = random.nextInt(4) * 50;
+            candidates.add(null,
+                    random.nextInt(30),
+                    today + i * 365L / candidateCount,
+                    random.nextFloat() * 20,
+                    maxParticipants,
+                    maxParticipants == 0 ? random.nextInt(500) : random.nextInt(maxParticipants + 1),
+                    random.nextInt(10) == 0 ? 0f : random.nextInt(5000),
+                    random.nextBoolean());
+        }
+        interestedUser = new ScoringProfile(new long[]{2L, 5L, 11L, 17L}, false);
+        userWithDisability = new ScoringProfile(new long[]{2L, 5L, 11L, 17L}, true);
+    }
+
+    @Benchmark
+    public int[] interestedUser() {
+        return RecommendationScorer.topK(candidates, interestedUser, today, limit);
+    }
+
+    @Benchmark
+    public int[] userWithDisability() {
+        return RecommendationScorer.topK(candidates, userWithDisability, today, limit);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(RecommendationScoringBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,43 @@
+package ru.ssau.srestapp.benchmark;
+
+import ru.ssau.srestapp.loadtest.LoadProfile;
+import ru.ssau.srestapp.loadtest.LoadRunner;
+import ru.ssau.srestapp.loadtest.Scenario;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+
+//сравнение режимов потоков под нагрузкой: приложение запускается дважды, с spring.threads.virtual.enabled=false и true,
+//и для каждого запуска выполняется main; сравниваются пропускная способность и перцентили задержки.
+//Параметры: -Dloadtest.base-url, -Dloadtest.role-id, нагрузка — см. LoadProfile.fromSystemProperties
+public class ThreadingModeLoadTest {
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = System.getProperty("loadtest.base-url", "http://localhost:8080");
+        String roleId = System.getProperty("loadtest.role-id", "2");
+        String runId = Long.toString(System.currentTimeMillis(), 36);
+
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newFixedThreadPool(8))
+                .build();
+
+        System.out.println(LoadRunner.run(client, new Scenario("listing", LoadProfile.fromSystemProperties("listing", 200),
+                i -> HttpRequest.newBuilder(URI.create(baseUrl + "/api/events/verified"))
+                        .header("Accept", "application/json")
+                        .GET()
+                        .build())).summary());
+
+        System.out.println(LoadRunner.run(client, new Scenario("registration", LoadProfile.fromSystemProperties("registration", 200),
+                i -> HttpRequest.newBuilder(URI.create(baseUrl + "/users/register"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString("""
+                                {"userStatus":"ACTIVE","idRole":%s,"fio":"Нагрузочный тест","email":"load-%s-%d@example.com","password":"password"}"""
+                                .formatted(roleId, runId, i)))
+                        .build())).summary());
+        System.exit(0);
+    }
+}
@@ -10,10 +10,12 @@ import ru.ssau.srestapp.controller.AdminController;
 import ru.ssau.srestapp.dto.admin.AdminStatisticsDto;
 import ru.ssau.srestapp.entity.*;
 import ru.ssau.srestapp.repository.*;
+import ru.ssau.srestapp.statistics.AdminStatisticsCounters;
 
 import java.time.LocalDateTime;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @SpringBootTest
 @ActiveProfiles("test")
@@ -37,6 +39,9 @@ class AdminControllerIntegrationTest {
     @Autowired
     private OrganizerRequestRepository organizerRequestRepository;
 
+    @Autowired
+    private AdminStatisticsCounters adminStatisticsCounters;
+
     @BeforeEach
     void before() {
         Role userRole = roleRepository.findByRoleName("USER")
@@ -87,6 +92,9 @@ class AdminControllerIntegrationTest {
         pendingRequest.setRequestText("Хочу стать организатором");
         pendingRequest.setSubmittedAt(LocalDateTime.now());
         organizerRequestRepository.save(pendingRequest);
+
+        //данные вставлены в обход сервисов, поэтому счётчики перечитываются из БД
+        adminStatisticsCounters.rebuild();
     }
 
     @AfterEach
@@ -105,5 +113,15 @@ class AdminControllerIntegrationTest {
         assertEquals(1, stats.getTotalOrganizers());
         assertEquals(1, stats.getPendingEvents());
         assertEquals(1, stats.getPendingOrganizerRequests());
+        assertEquals(0, stats.getRegistrationsToday());
+        assertEquals(0, stats.getActiveEvents());
+    }
+
+    @Test
+    void testGetMetrics() {
+        String metrics = adminController.getMetrics();
+        assertTrue(metrics.contains("# TYPE hikari_connections_active gauge"));
+        assertTrue(metrics.contains("# TYPE email_outbox_pending gauge"));
+        assertTrue(metrics.contains("participation_registrations_total "));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,339 @@
+package ru.ssau.srestapp.integration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.ssau.srestapp.dto.admin.BulkModerationItemResultDto;
+import ru.ssau.srestapp.dto.admin.BulkModerationResultDto;
+import ru.ssau.srestapp.dto.email.EmailTemplate;
+import ru.ssau.srestapp.dto.event.EventBulkModerationDto;
+import ru.ssau.srestapp.dto.event.EventBulkModerationItemDto;
+import ru.ssau.srestapp.dto.event.EventModerationDecision;
+import ru.ssau.srestapp.dto.organizerRequest.OrganizerRequestBulkReviewDto;
+import ru.ssau.srestapp.dto.organizerRequest.OrganizerRequestBulkReviewItemDto;
+import ru.ssau.srestapp.entity.*;
+import ru.ssau.srestapp.repository.*;
+import ru.ssau.srestapp.security.CustomUserDetails;
+import ru.ssau.srestapp.service.EventService;
+import ru.ssau.srestapp.service.OrganizerRequestService;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+//пакетная модерация: решения применяются групповыми UPDATE, ошибки по элементам не мешают остальным,
+//письма попадают в outbox одной пачкой, решённое параллельно не засчитывается повторно
+@SpringBootTest
+@ActiveProfiles("test")
+class BulkModerationIntegrationTest {
+
+    private static final long MISSING_ID = 999_999L;
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private OrganizerRequestService organizerRequestService;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private EventCategoryRepository eventCategoryRepository;
+
+    @Autowired
+    private OrganizerRequestRepository organizerRequestRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private EmailOutboxRepository outboxRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @DynamicPropertySource
+    static void mailProperties(DynamicPropertyRegistry registry) {
+        registry.add("email.base-url", () -> "http://localhost:4200");
+        registry.add("email.outbox.poll-interval", () -> "3600000");
+    }
+
+    private User admin;
+    private List<User> users;
+    private EventCategory category;
+
+    @BeforeEach
+    void setUp() {
+        Role userRole = findOrCreateRole("USER");
+        findOrCreateRole("ORGANIZER");
+        Role adminRole = findOrCreateRole("ADMIN");
+        admin = userRepository.save(newUser("admin@example.com", adminRole));
+        users = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            users.add(userRepository.save(newUser("bulk" + i + "@example.com", userRole)));
+        }
+        category = new EventCategory();
+        category.setEventCategoryName("Концерт");
+        category.setColorCode("#FFAA33");
+        category = eventCategoryRepository.save(category);
+
+        CustomUserDetails details = new CustomUserDetails(admin.getIdUser(), admin.getEmail(), null,
+                List.of(new SimpleGrantedAuthority("ROLE_ADMIN")));
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(details, null, details.getAuthorities()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        outboxRepository.deleteAllInBatch();
+        organizerRequestRepository.deleteAllInBatch();
+        eventRepository.deleteAllInBatch();
+        eventCategoryRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+        roleRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void moderateBulk_ShouldApplyDecisionsAndReportEachItem() {
+        Event toVerify = eventRepository.save(newEvent("Концерт", null));
+        Event toApprove = eventRepository.save(newEvent("Лекция", Map.of("eventName", "Лекция о джазе", "maxParticipants", 50)));
+        Event toReject = eventRepository.save(newEvent("Выставка", Map.of("eventName", "Другая выставка")));
+        Event published = eventRepository.save(newEvent("Спектакль", null));
+
+        EventBulkModerationDto dto = new EventBulkModerationDto();
+        dto.setSendEmail(true);
+        dto.setItems(List.of(
+                item(toVerify.getIdEvent(), EventModerationDecision.VERIFY, "Всё в порядке"),
+                approveAll(toApprove.getIdEvent()),
+                item(toReject.getIdEvent(), EventModerationDecision.REJECT_CHANGES, "Не подходит"),
+                item(published.getIdEvent(), EventModerationDecision.REJECT_CHANGES, null),
+                item(MISSING_ID, EventModerationDecision.VERIFY, null),
+                item(toVerify.getIdEvent(), EventModerationDecision.UNVERIFY, null)
+        ));
+
+        BulkModerationResultDto result = eventService.moderateBulk(dto);
+
+        assertEquals(3, result.getSucceeded());
+        assertEquals(3, result.getFailed());
+        assertEquals(List.of(true, true, true, false, false, false),
+                result.getItems().stream().map(BulkModerationItemResultDto::isSuccess).toList());
+        assertEquals(3, result.getEmailsQueued());
+        assertEquals(3, outboxRepository.count());
+
+        Event verified = eventRepository.findByIdWithDetails(toVerify.getIdEvent()).orElseThrow();
+        assertTrue(verified.getVerified());
+        assertEquals("Всё в порядке", verified.getVerificationComment());
+
+        Event approved = eventRepository.findByIdWithDetails(toApprove.getIdEvent()).orElseThrow();
+        assertEquals("Лекция о джазе", approved.getEventName());
+        assertEquals(50, approved.getMaxParticipants());
+        assertEquals(ModerationStatus.PUBLISHED, approved.getModerationStatus());
+        assertNull(approved.getDraftChanges());
+
+        Event rejected = eventRepository.findByIdWithDetails(toReject.getIdEvent()).orElseThrow();
+        assertEquals("Выставка", rejected.getEventName());
+        assertEquals(ModerationStatus.PUBLISHED, rejected.getModerationStatus());
+        assertNull(rejected.getDraftChanges());
+    }
+
+    @Test
+    void reviewBulk_ShouldReviewPendingRequestsAndPromoteApprovedUsers() throws Exception {
+        OrganizerRequest first = organizerRequestRepository.save(newRequest(users.get(0), RequestStatus.PENDING));
+        OrganizerRequest second = organizerRequestRepository.save(newRequest(users.get(1), RequestStatus.PENDING));
+        OrganizerRequest reviewed = organizerRequestRepository.save(newRequest(users.get(2), RequestStatus.REJECTED));
+
+        OrganizerRequestBulkReviewDto dto = new OrganizerRequestBulkReviewDto();
+        dto.setSendEmail(true);
+        dto.setItems(List.of(
+                review(first.getIdOrganizerRequest(), true, null),
+                review(second.getIdOrganizerRequest(), false, "Недостаточно опыта"),
+                review(reviewed.getIdOrganizerRequest(), true, null)
+        ));
+
+        BulkModerationResultDto result = organizerRequestService.reviewBulk(dto);
+
+        assertEquals(2, result.getSucceeded());
+        assertEquals(1, result.getFailed());
+        assertFalse(result.getItems().get(2).isSuccess());
+        assertEquals(RequestStatus.APPROVED, organizerRequestRepository.findById(first.getIdOrganizerRequest()).orElseThrow().getRequestStatus());
+        assertEquals(RequestStatus.REJECTED, organizerRequestRepository.findById(second.getIdOrganizerRequest()).orElseThrow().getRequestStatus());
+        assertEquals("ORGANIZER", roleName(users.get(0)));
+        assertEquals("USER", roleName(users.get(1)));
+        assertEquals("USER", roleName(users.get(2)));
+        assertEquals(List.of(EmailTemplate.ORGANIZER_REQUEST_APPROVED, EmailTemplate.ORGANIZER_REQUEST_REJECTED),
+                outboxRepository.findAll().stream().map(EmailOutboxMessage::getTemplate).sorted().toList());
+    }
+
+    @Test
+    void reviewBulk_RequestResolvedConcurrently_ShouldNotPromoteOrEmail() throws Exception {
+        OrganizerRequest contested = organizerRequestRepository.save(newRequest(users.get(0), RequestStatus.PENDING));
+        OrganizerRequest other = organizerRequestRepository.save(newRequest(users.get(1), RequestStatus.PENDING));
+        OrganizerRequestBulkReviewDto dto = new OrganizerRequestBulkReviewDto();
+        dto.setSendEmail(true);
+        dto.setItems(List.of(review(contested.getIdOrganizerRequest(), true, null), review(other.getIdOrganizerRequest(), true, null)));
+
+        BulkModerationResultDto result = whileResolvedConcurrently(
+                () -> organizerRequestRepository.review(List.of(contested.getIdOrganizerRequest()), RequestStatus.REJECTED,
+                        admin, "Решено другим администратором", LocalDateTime.now()),
+                () -> organizerRequestService.reviewBulk(dto));
+
+        assertEquals(List.of(false, true), result.getItems().stream().map(BulkModerationItemResultDto::isSuccess).toList());
+        assertEquals(RequestStatus.REJECTED, organizerRequestRepository.findById(contested.getIdOrganizerRequest()).orElseThrow().getRequestStatus());
+        assertEquals("USER", roleName(users.get(0)));
+        assertEquals("ORGANIZER", roleName(users.get(1)));
+        assertEquals(1, result.getEmailsQueued());
+        assertEquals(1, outboxRepository.count());
+    }
+
+    @Test
+    void moderateBulk_EventPublishedConcurrently_ShouldReportFailureWithoutEmail() throws Exception {
+        Event contested = eventRepository.save(newEvent("Лекция", Map.of("eventName", "Лекция о джазе")));
+        EventBulkModerationDto dto = new EventBulkModerationDto();
+        dto.setSendEmail(true);
+        dto.setItems(List.of(approveAll(contested.getIdEvent())));
+
+        BulkModerationResultDto result = whileResolvedConcurrently(
+                () -> {
+                    eventRepository.publishModerated(List.of(contested.getIdEvent()));
+                    eventRepository.clearDraftChanges(List.of(contested.getIdEvent()));
+                },
+                () -> eventService.moderateBulk(dto));
+
+        assertEquals(0, result.getSucceeded());
+        assertEquals(1, result.getFailed());
+        assertEquals(0, outboxRepository.count());
+        assertEquals("Лекция", eventRepository.findByIdWithDetails(contested.getIdEvent()).orElseThrow().getEventName());
+    }
+
+    //решение другого администратора записано, но не закоммичено, пока пакетная операция читает те же строки;
+    //коммит происходит, когда пакетная операция уже ждёт или вот-вот начнёт ждать блокировку
+    private <T> T whileResolvedConcurrently(Runnable competing, Callable<T> bulk) throws Exception {
+        CountDownLatch written = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        SecurityContext context = SecurityContextHolder.getContext();
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> competitor = executor.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+                competing.run();
+                written.countDown();
+                awaitUninterruptibly(commit);
+            }));
+            assertTrue(written.await(5, TimeUnit.SECONDS));
+            Future<T> moderation = executor.submit(() -> {
+                SecurityContextHolder.setContext(context);
+                try {
+                    return bulk.call();
+                } finally {
+                    SecurityContextHolder.clearContext();
+                }
+            });
+            Thread.sleep(300);
+            commit.countDown();
+            competitor.get(5, TimeUnit.SECONDS);
+            return moderation.get(10, TimeUnit.SECONDS);
+        } finally {
+            commit.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Role findOrCreateRole(String name) {
+        return roleRepository.findByRoleName(name).orElseGet(() -> roleRepository.save(new Role(null, name, null)));
+    }
+
+    private User newUser(String email, Role role) {
+        User user = new User();
+        user.setUserStatus(UserStatus.ACTIVE);
+        user.setRole(role);
+        user.setFio("Пользователь " + email);
+        user.setEmail(email);
+        user.setPasswordHash("1234567");
+        user.setHasDisability(false);
+        return user;
+    }
+
+    private Event newEvent(String name, Map<String, Object> draft) {
+        Event event = new Event();
+        event.setOrganizer(users.get(0));
+        event.setEventFormat(EventFormat.ONLINE);
+        event.setEventStatus(EventStatus.PLANNED);
+        event.setEventCategory(category);
+        event.setEventName(name);
+        event.setEventDate(LocalDateTime.now().plusDays(5));
+        event.setStartTime(LocalDateTime.now().plusDays(5).withHour(18));
+        event.setEndTime(LocalDateTime.now().plusDays(5).withHour(20));
+        event.setMaxParticipants(10);
+        event.setVerified(false);
+        if (draft != null) {
+            event.setDraftChanges(DraftChanges.fromMap(draft));
+            event.setModerationStatus(ModerationStatus.PENDING);
+        } else {
+            event.setModerationStatus(ModerationStatus.PUBLISHED);
+        }
+        return event;
+    }
+
+    private OrganizerRequest newRequest(User user, RequestStatus status) {
+        OrganizerRequest request = new OrganizerRequest();
+        request.setUser(user);
+        request.setRequestStatus(status);
+        request.setRequestText("Хочу проводить мероприятия для студентов");
+        return request;
+    }
+
+    private EventBulkModerationItemDto item(Long idEvent, EventModerationDecision decision, String comment) {
+        EventBulkModerationItemDto item = new EventBulkModerationItemDto();
+        item.setIdEvent(idEvent);
+        item.setDecision(decision);
+        item.setComment(comment);
+        return item;
+    }
+
+    private EventBulkModerationItemDto approveAll(Long idEvent) {
+        EventBulkModerationItemDto item = item(idEvent, EventModerationDecision.APPROVE_CHANGES, null);
+        item.setApplyAll(true);
+        return item;
+    }
+
+    private OrganizerRequestBulkReviewItemDto review(Long id, boolean approved, String comment) {
+        OrganizerRequestBulkReviewItemDto item = new OrganizerRequestBulkReviewItemDto();
+        item.setIdOrganizerRequest(id);
+        item.setApproved(approved);
+        item.setReviewComment(comment);
+        return item;
+    }
+
+    private String roleName(User user) {
+        return userRepository.findAllRoles().stream()
+                .filter(role -> role.getIdUser().equals(user.getIdUser()))
+                .findFirst().orElseThrow()
+                .getRoleName();
+    }
+}
@@ -0,0 +1,185 @@
+package ru.ssau.srestapp.integration;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.ssau.srestapp.entity.EmailOutboxMessage;
+import ru.ssau.srestapp.entity.EmailOutboxStatus;
+import ru.ssau.srestapp.mail.EmailDispatcher;
+import ru.ssau.srestapp.repository.EmailOutboxRepository;
+import ru.ssau.srestapp.service.EmailService;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+//очередь писем против SMTP-заглушки в процессе: пачки, откат транзакции, повторы и DEAD, захват строк экземпляром
+@SpringBootTest
+@ActiveProfiles("test")
+class EmailOutboxIntegrationTest {
+
+    private static final FakeSmtpServer SMTP = startSmtp();
+
+    @Autowired
+    private EmailService emailService;
+
+    @Autowired
+    private EmailDispatcher emailDispatcher;
+
+    @Autowired
+    private EmailOutboxRepository outboxRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @DynamicPropertySource
+    static void mailProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.mail.host", () -> "localhost");
+        registry.add("spring.mail.port", SMTP::port);
+        registry.add("email.base-url", () -> "http://localhost:4200");
+        registry.add("email.outbox.poll-interval", () -> "3600000");
+        registry.add("email.outbox.batch-size", () -> "10");
+        registry.add("email.outbox.max-attempts", () -> "3");
+        registry.add("email.outbox.backoff-base", () -> "0s");
+        registry.add("email.outbox.rate-per-second", () -> "1000");
+    }
+
+    @AfterEach
+    void tearDown() {
+        outboxRepository.deleteAllInBatch();
+        SMTP.reset();
+    }
+
+    @AfterAll
+    static void stopSmtp() throws IOException {
+        SMTP.close();
+    }
+
+    @Test
+    void drain_ShouldSendQueuedMessagesInBatches_OneConnectionPerBatch() {
+        for (int i = 0; i < 25; i++) {
+            emailService.sendWelcome("user" + i + "@example.com", "Пользователь " + i);
+        }
+        assertEquals(0, SMTP.messages().size());
+
+        emailDispatcher.drain();
+
+        assertEquals(25, SMTP.messages().size());
+        assertEquals(3, SMTP.connections());
+        assertEquals(25, outboxRepository.countByStatus(EmailOutboxStatus.SENT));
+        assertTrue(SMTP.messages().get(0).data().contains("Subject:"));
+    }
+
+    @Test
+    void sendEmail_InRolledBackTransaction_ShouldNotBeQueued() {
+        transactionTemplate.executeWithoutResult(status -> {
+            emailService.sendWelcome("rollback@example.com", "Откат");
+            status.setRollbackOnly();
+        });
+
+        emailDispatcher.drain();
+
+        assertEquals(0, outboxRepository.count());
+        assertEquals(0, SMTP.messages().size());
+    }
+
+    @Test
+    void drain_RejectedRecipient_ShouldRetryThenDeadLetter() {
+        SMTP.rejectRecipient("bounce@example.com");
+        emailService.sendWelcome("bounce@example.com", "Недоступен");
+        emailService.sendWelcome("ok@example.com", "Доступен");
+
+        emailDispatcher.drain();
+
+        EmailOutboxMessage bounced = findByRecipient("bounce@example.com");
+        assertEquals(EmailOutboxStatus.PENDING, bounced.getStatus());
+        assertNull(bounced.getLeaseExpiresAt());
+        assertEquals(1, bounced.getAttempts());
+        assertNotNull(bounced.getLastError());
+        assertEquals(EmailOutboxStatus.SENT, findByRecipient("ok@example.com").getStatus());
+
+        emailDispatcher.drain();
+        emailDispatcher.drain();
+
+        bounced = findByRecipient("bounce@example.com");
+        assertEquals(EmailOutboxStatus.DEAD, bounced.getStatus());
+        assertEquals(3, bounced.getAttempts());
+        assertEquals(List.of("ok@example.com"), SMTP.messages().stream().flatMap(m -> m.recipients().stream()).toList());
+    }
+
+    @Test
+    void claim_SameRowsByTwoInstances_ShouldGoToOnlyOne() {
+        for (int i = 0; i < 3; i++) {
+            emailService.sendWelcome("race" + i + "@example.com", "Гонка " + i);
+        }
+        LocalDateTime now = LocalDateTime.now();
+        //оба экземпляра успели прочитать одни и те же id до того, как кто-то их забрал
+        List<Long> firstView = outboxRepository.findDueIds(EmailOutboxStatus.PENDING, now, PageRequest.of(0, 10));
+        List<Long> secondView = outboxRepository.findDueIds(EmailOutboxStatus.PENDING, now, PageRequest.of(0, 10));
+
+        int first = transactionTemplate.execute(status -> outboxRepository.claim(firstView, "first", now.plusMinutes(5)));
+        int second = transactionTemplate.execute(status -> outboxRepository.claim(secondView, "second", now.plusMinutes(5)));
+
+        assertEquals(3, first);
+        assertEquals(0, second);
+        assertEquals(3, outboxRepository.findClaimed(firstView, "first").size());
+        assertTrue(outboxRepository.findClaimed(secondView, "second").isEmpty());
+
+        emailDispatcher.drain();
+
+        assertEquals(0, SMTP.messages().size());
+    }
+
+    @Test
+    void drain_ClaimedMessage_ShouldNotBeResentUntilLeaseExpires() {
+        emailService.sendWelcome("claimed@example.com", "Забрано");
+        EmailOutboxMessage claimed = findByRecipient("claimed@example.com");
+        claimed.setStatus(EmailOutboxStatus.SENDING);
+        claimed.setClaimToken("crashed-instance");
+        claimed.setLeaseExpiresAt(LocalDateTime.now().plusMinutes(5));
+        outboxRepository.save(claimed);
+
+        emailDispatcher.releaseExpiredLeases();
+        emailDispatcher.drain();
+
+        assertEquals(0, SMTP.messages().size());
+        assertEquals(EmailOutboxStatus.SENDING, findByRecipient("claimed@example.com").getStatus());
+
+        claimed = findByRecipient("claimed@example.com");
+        claimed.setLeaseExpiresAt(LocalDateTime.now().minusSeconds(1));
+        outboxRepository.save(claimed);
+
+        emailDispatcher.releaseExpiredLeases();
+        emailDispatcher.drain();
+
+        EmailOutboxMessage sent = findByRecipient("claimed@example.com");
+        assertEquals(EmailOutboxStatus.SENT, sent.getStatus());
+        assertNull(sent.getLeaseExpiresAt());
+        assertNull(sent.getClaimToken());
+        assertEquals(1, SMTP.messages().size());
+    }
+
+    private EmailOutboxMessage findByRecipient(String recipient) {
+        return outboxRepository.findAll().stream()
+                .filter(m -> m.getRecipient().equals(recipient))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private static FakeSmtpServer startSmtp() {
+        try {
+            return new FakeSmtpServer();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
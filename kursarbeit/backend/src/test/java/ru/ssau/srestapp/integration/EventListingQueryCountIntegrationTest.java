@@ -0,0 +1,146 @@
+package ru.ssau.srestapp.integration;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import ru.ssau.srestapp.dto.event.EventFilterDto;
+import ru.ssau.srestapp.entity.*;
+import ru.ssau.srestapp.repository.*;
+import ru.ssau.srestapp.service.EventService;
+import ru.ssau.srestapp.service.RecommendationService;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+//регрессия N+1: число SQL-запросов на список мероприятий не зависит от количества мероприятий
+@SpringBootTest
+@ActiveProfiles("test")
+class EventListingQueryCountIntegrationTest {
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private RecommendationService recommendationService;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private EventCategoryRepository eventCategoryRepository;
+
+    @Autowired
+    private PlaceRepository placeRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private StatementCounter statements;
+    private User organizer;
+    private EventCategory category;
+    private PhysicalPlace place;
+
+    @BeforeEach
+    void setUp() {
+        statements = new StatementCounter(entityManagerFactory);
+
+        Role organizerRole = roleRepository.findByRoleName("ORGANIZER")
+                .orElseGet(() -> roleRepository.save(new Role(null, "ORGANIZER", null)));
+        organizer = new User();
+        organizer.setUserStatus(UserStatus.ACTIVE);
+        organizer.setRole(organizerRole);
+        organizer.setFio("Арина Шапорева");
+        organizer.setEmail("deutsch.kedg@gmail.com");
+        organizer.setPasswordHash("1234567");
+        organizer.setHasDisability(false);
+        organizer = userRepository.save(organizer);
+
+        category = new EventCategory();
+        category.setEventCategoryName("Концерт");
+        category.setColorCode("#FF5733");
+        category = eventCategoryRepository.save(category);
+
+        place = new PhysicalPlace();
+        place.setPlaceName("Корпус 14");
+        place.setAddress("ул. Гая, 14");
+        place.setDisabilityAccessible(true);
+        place = placeRepository.save(place);
+    }
+
+    @AfterEach
+    void tearDown() {
+        eventRepository.deleteAllInBatch();
+        placeRepository.deleteAll();
+        eventCategoryRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+        roleRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void getAll_ShouldIssueSingleQuery_RegardlessOfResultSize() {
+        createEvents(1);
+        long few = statements.count(() -> eventService.getAll());
+        createEvents(25);
+        long many = statements.count(() -> eventService.getAll());
+        assertEquals(1, few);
+        assertEquals(few, many);
+    }
+
+    @Test
+    void getActiveAndVerified_ShouldIssueSingleQuery_RegardlessOfResultSize() {
+        createEvents(1);
+        long few = statements.count(() -> eventService.getActiveAndVerified());
+        createEvents(25);
+        long many = statements.count(() -> eventService.getActiveAndVerified());
+        assertEquals(1, few);
+        assertEquals(few, many);
+    }
+
+    @Test
+    void getPage_ShouldIssueSingleQuery_RegardlessOfResultSize() {
+        createEvents(1);
+        long few = statements.count(() -> eventService.getPage(new EventFilterDto(), null, 50));
+        createEvents(25);
+        long many = statements.count(() -> eventService.getPage(new EventFilterDto(), null, 50));
+        assertEquals(1, few);
+        assertEquals(few, many);
+    }
+
+    //анонимная лента читается из памяти RecommendationFeed
+    @Test
+    void getRecommendedEvents_Anonymous_ShouldNotQueryDatabase() {
+        createEvents(25);
+        assertEquals(0, statements.count(() -> recommendationService.getRecommendedEvents(null, 20)));
+    }
+
+    private void createEvents(int count) {
+        for (int i = 0; i < count; i++) {
+            Event event = new Event();
+            event.setOrganizer(organizer);
+            event.setEventFormat(EventFormat.OFFLINE);
+            event.setEventStatus(EventStatus.PLANNED);
+            event.setEventCategory(category);
+            event.setPlace(place);
+            event.setEventName("Концерт №" + i);
+            event.setEventDate(LocalDateTime.now().plusDays(10 + i));
+            event.setStartTime(LocalDateTime.now().plusDays(10 + i).withHour(19));
+            event.setEndTime(LocalDateTime.now().plusDays(10 + i).withHour(22));
+            event.setMaxParticipants(100);
+            event.setPrice(BigDecimal.TEN);
+            event.setVerified(true);
+            eventRepository.save(event);
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package ru.ssau.srestapp.integration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import ru.ssau.srestapp.dto.event.EventFilterDto;
+import ru.ssau.srestapp.dto.event.EventPageDto;
+import ru.ssau.srestapp.dto.event.EventShortDto;
+import ru.ssau.srestapp.entity.*;
+import ru.ssau.srestapp.exception.InvalidCursorException;
+import ru.ssau.srestapp.repository.*;
+import ru.ssau.srestapp.service.EventService;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+//keyset-пагинация списка мероприятий: порядок (eventDate, idEvent), фильтры и ограничение размера страницы
+@SpringBootTest
+@ActiveProfiles("test")
+class EventPageIntegrationTest {
+
+    private static final LocalDateTime BASE_DATE = LocalDateTime.now().plusDays(30).truncatedTo(ChronoUnit.HOURS);
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private EventCategoryRepository eventCategoryRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    private User organizer;
+    private EventCategory concerts;
+    private EventCategory lectures;
+
+    @BeforeEach
+    void setUp() {
+        Role organizerRole = roleRepository.findByRoleName("ORGANIZER")
+                .orElseGet(() -> roleRepository.save(new Role(null, "ORGANIZER", null)));
+        organizer = new User();
+        organizer.setUserStatus(UserStatus.ACTIVE);
+        organizer.setRole(organizerRole);
+        organizer.setFio("Организатор Страниц");
+        organizer.setEmail("pages@example.com");
+        organizer.setPasswordHash("1234567");
+        organizer.setHasDisability(false);
+        organizer = userRepository.save(organizer);
+
+        concerts = saveCategory("Концерт", "#FF5733");
+        lectures = saveCategory("Лекция", "#3366FF");
+    }
+
+    @AfterEach
+    void tearDown() {
+        eventRepository.deleteAllInBatch();
+        eventCategoryRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+        roleRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void getPage_EventsOnSameDate_ShouldWalkAllPagesWithoutGapsOrDuplicates() {
+        List<Long> expected = new ArrayList<>();
+        expected.add(saveEvent("Раньше всех", BASE_DATE.minusDays(1)).getIdEvent());
+        for (int i = 0; i < 5; i++) {
+            expected.add(saveEvent("Одновременно " + i, BASE_DATE).getIdEvent());
+        }
+        expected.add(saveEvent("Позже всех", BASE_DATE.plusDays(1)).getIdEvent());
+
+        List<Long> walked = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        EventPageDto page;
+        do {
+            page = eventService.getPage(new EventFilterDto(), cursor, 2);
+            page.getItems().forEach(event -> walked.add(event.getIdEvent()));
+            cursor = page.getNextCursor();
+            pages++;
+        } while (page.isHasNext());
+
+        assertEquals(expected, walked);
+        assertEquals(4, pages);
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void getPage_ExactlyFullLastPage_ShouldNotReportNext() {
+        saveEvent("Первое", BASE_DATE);
+        saveEvent("Второе", BASE_DATE);
+
+        EventPageDto page = eventService.getPage(new EventFilterDto(), null, 2);
+
+        assertEquals(2, page.getItems().size());
+        assertFalse(page.isHasNext());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void getPage_EachFilter_ShouldNarrowResult() {
+        Event jazz = saveEvent("Джазовый вечер", BASE_DATE);
+        Event lecture = saveEvent("Лекция о космосе", BASE_DATE.plusDays(10));
+        lecture.setEventCategory(lectures);
+        lecture.setEventStatus(EventStatus.CANCELLED);
+        lecture.setEventFormat(EventFormat.ONLINE);
+        lecture.setVerified(false);
+        lecture.setPrice(new BigDecimal("500"));
+        lecture = eventRepository.save(lecture);
+
+        assertEquals(List.of(jazz.getIdEvent(), lecture.getIdEvent()), ids(new EventFilterDto()));
+
+        EventFilterDto byCategory = new EventFilterDto();
+        byCategory.setCategoryId(lectures.getIdEventCategory());
+        assertEquals(List.of(lecture.getIdEvent()), ids(byCategory));
+
+        EventFilterDto byStatus = new EventFilterDto();
+        byStatus.setStatus(EventStatus.PLANNED);
+        assertEquals(List.of(jazz.getIdEvent()), ids(byStatus));
+
+        EventFilterDto byFormat = new EventFilterDto();
+        byFormat.setFormat(EventFormat.ONLINE);
+        assertEquals(List.of(lecture.getIdEvent()), ids(byFormat));
+
+        EventFilterDto byVerified = new EventFilterDto();
+        byVerified.setVerified(true);
+        assertEquals(List.of(jazz.getIdEvent()), ids(byVerified));
+
+        EventFilterDto from = new EventFilterDto();
+        from.setFrom(BASE_DATE.plusDays(1));
+        assertEquals(List.of(lecture.getIdEvent()), ids(from));
+
+        EventFilterDto to = new EventFilterDto();
+        to.setTo(BASE_DATE);
+        assertEquals(List.of(jazz.getIdEvent()), ids(to));
+
+        EventFilterDto minPrice = new EventFilterDto();
+        minPrice.setMinPrice(new BigDecimal("200"));
+        assertEquals(List.of(lecture.getIdEvent()), ids(minPrice));
+
+        EventFilterDto maxPrice = new EventFilterDto();
+        maxPrice.setMaxPrice(new BigDecimal("200"));
+        assertEquals(List.of(jazz.getIdEvent()), ids(maxPrice));
+
+        EventFilterDto keyword = new EventFilterDto();
+        keyword.setKeyword("  КОСМОС ");
+        assertEquals(List.of(lecture.getIdEvent()), ids(keyword));
+
+        EventFilterDto combined = new EventFilterDto();
+        combined.setCategoryId(concerts.getIdEventCategory());
+        combined.setFormat(EventFormat.ONLINE);
+        assertTrue(ids(combined).isEmpty());
+    }
+
+    @Test
+    void getPage_Size_ShouldDefaultTo20AndBeCappedAt100() {
+        for (int i = 0; i < 105; i++) {
+            saveEvent("Мероприятие " + i, BASE_DATE.plusMinutes(i));
+        }
+
+        assertEquals(20, eventService.getPage(new EventFilterDto(), null, null).getItems().size());
+        assertEquals(20, eventService.getPage(new EventFilterDto(), null, 0).getItems().size());
+        assertEquals(5, eventService.getPage(new EventFilterDto(), null, 5).getItems().size());
+        EventPageDto capped = eventService.getPage(new EventFilterDto(), null, 500);
+        assertEquals(100, capped.getItems().size());
+        assertTrue(capped.isHasNext());
+    }
+
+    @Test
+    void getPage_BadCursor_ShouldThrowInvalidCursor() {
+        assertThrows(InvalidCursorException.class, () -> eventService.getPage(new EventFilterDto(), "не курсор!", 10));
+    }
+
+    private List<Long> ids(EventFilterDto filter) {
+        return eventService.getPage(filter, null, 100).getItems().stream()
+                .map(EventShortDto::getIdEvent)
+                .toList();
+    }
+
+    private EventCategory saveCategory(String name, String color) {
+        EventCategory category = new EventCategory();
+        category.setEventCategoryName(name);
+        category.setColorCode(color);
+        return eventCategoryRepository.save(category);
+    }
+
+    private Event saveEvent(String name, LocalDateTime date) {
+        Event event = new Event();
+        event.setOrganizer(organizer);
+        event.setEventFormat(EventFormat.OFFLINE);
+        event.setEventStatus(EventStatus.PLANNED);
+        event.setEventCategory(concerts);
+        event.setEventName(name);
+        event.setEventDate(date);
+        event.setStartTime(date.withHour(19));
+        event.setEndTime(date.withHour(22));
+        event.setMaxParticipants(100);
+        event.setPrice(new BigDecimal("100"));
+        event.setVerified(true);
+        return eventRepository.save(event);
+    }
+}
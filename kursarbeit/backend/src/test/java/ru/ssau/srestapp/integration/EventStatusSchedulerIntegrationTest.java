@@ -0,0 +1,142 @@
+package ru.ssau.srestapp.integration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import ru.ssau.srestapp.entity.*;
+import ru.ssau.srestapp.event.EventChangedEvent;
+import ru.ssau.srestapp.repository.*;
+import ru.ssau.srestapp.scheduler.EventStatusScheduler;
+import ru.ssau.srestapp.service.EmailService;
+import ru.ssau.srestapp.service.EventService;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class EventStatusSchedulerIntegrationTest {
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private EventStatusScheduler eventStatusScheduler;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private EventCategoryRepository eventCategoryRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @MockitoBean
+    private EmailService emailService;
+
+    private User organizer;
+    private EventCategory category;
+
+    @BeforeEach
+    void setUp() {
+        Role role = roleRepository.findByRoleName("ORGANIZER")
+                .orElseGet(() -> roleRepository.save(new Role(null, "ORGANIZER", null)));
+        organizer = new User();
+        organizer.setUserStatus(UserStatus.ACTIVE);
+        organizer.setRole(role);
+        organizer.setFio("Организатор");
+        organizer.setEmail("status-organizer@example.com");
+        organizer.setPasswordHash("1234567");
+        organizer.setHasDisability(false);
+        organizer = userRepository.save(organizer);
+
+        category = new EventCategory();
+        category.setEventCategoryName("Концерт");
+        category.setColorCode("#FFAA33");
+        category = eventCategoryRepository.save(category);
+    }
+
+    @AfterEach
+    void tearDown() {
+        eventRepository.deleteAllInBatch();
+        eventCategoryRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+        roleRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void updateEventStatuses_ShouldApplyMissedTransitionsInBulk() {
+        LocalDateTime now = LocalDateTime.now();
+        Event started = saveEvent("Идёт", EventStatus.PLANNED, now.minusHours(1), now.plusHours(1));
+        Event finished = saveEvent("Прошло", EventStatus.PLANNED, now.minusHours(3), now.minusHours(2));
+        Event upcoming = saveEvent("Будет", EventStatus.PLANNED, now.plusDays(1), now.plusDays(1).plusHours(2));
+        Event cancelled = saveEvent("Отменено", EventStatus.CANCELLED, now.minusHours(1), now.plusHours(1));
+
+        eventService.updateEventStatuses();
+
+        assertEquals(EventStatus.ONGOING, statusOf(started));
+        assertEquals(EventStatus.COMPLETED, statusOf(finished));
+        assertEquals(EventStatus.PLANNED, statusOf(upcoming));
+        assertEquals(EventStatus.CANCELLED, statusOf(cancelled));
+    }
+
+    @Test
+    void timingWheel_ShouldStartAndCompleteEventWithinSeconds() throws InterruptedException {
+        LocalDateTime now = LocalDateTime.now();
+        Event event = saveEvent("Короткое", EventStatus.PLANNED, now.plusSeconds(1), now.plusSeconds(3));
+
+        eventStatusScheduler.onEventChanged(EventChangedEvent.changed(event));
+
+        awaitStatus(event, EventStatus.ONGOING);
+        awaitStatus(event, EventStatus.COMPLETED);
+    }
+
+    @Test
+    void timingWheel_ShouldNotStartRescheduledEvent() throws InterruptedException {
+        LocalDateTime now = LocalDateTime.now();
+        Event event = saveEvent("Перенесённое", EventStatus.PLANNED, now.plusSeconds(1), now.plusHours(2));
+        eventStatusScheduler.onEventChanged(EventChangedEvent.changed(event));
+
+        event.setStartTime(now.plusHours(1));
+        event = eventRepository.save(event);
+        eventStatusScheduler.onEventChanged(EventChangedEvent.changed(event));
+        Thread.sleep(3000);
+
+        assertEquals(EventStatus.PLANNED, statusOf(event));
+    }
+
+    private Event saveEvent(String name, EventStatus status, LocalDateTime start, LocalDateTime end) {
+        Event event = new Event();
+        event.setOrganizer(organizer);
+        event.setEventFormat(EventFormat.ONLINE);
+        event.setEventStatus(status);
+        event.setEventCategory(category);
+        event.setEventName(name);
+        event.setEventDate(start.toLocalDate().atStartOfDay());
+        event.setStartTime(start);
+        event.setEndTime(end);
+        event.setVerified(true);
+        return eventRepository.save(event);
+    }
+
+    private EventStatus statusOf(Event event) {
+        return eventRepository.findById(event.getIdEvent()).orElseThrow().getEventStatus();
+    }
+
+    private void awaitStatus(Event event, EventStatus expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (statusOf(event) != expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(100);
+        }
+        assertEquals(expected, statusOf(event));
+    }
+}
@@ -35,6 +35,14 @@ class GlobalExceptionHandlerIntegrationTest {
                 .andExpect(jsonPath("$.message").value("Недопустимый аргумент"));
     }
 
+    @Test
+    void handleInvalidCursor_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/test/invalid-cursor"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status").value(400))
+                .andExpect(jsonPath("$.message").value("Некорректный курсор"));
+    }
+
     @Test
     void handleEventMaxParticipantsReached_ShouldReturnBadRequest() throws Exception {
         mockMvc.perform(get("/test/max-participants"))
@@ -177,6 +185,11 @@ class GlobalExceptionHandlerIntegrationTest {
             throw new IllegalArgumentException("Недопустимый аргумент");
         }
 
+        @GetMapping("/invalid-cursor")
+        public void throwInvalidCursor() {
+            throw new InvalidCursorException();
+        }
+
         @GetMapping("/max-participants")
         public void throwMaxParticipants() throws EventMaxParticipantsReachedException {
             throw new EventMaxParticipantsReachedException(1L);
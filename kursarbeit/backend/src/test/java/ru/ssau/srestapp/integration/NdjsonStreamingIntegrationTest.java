@@ -0,0 +1,154 @@
+package ru.ssau.srestapp.integration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.ssau.srestapp.controller.EventController;
+import ru.ssau.srestapp.controller.EventParticipantController;
+import ru.ssau.srestapp.controller.UserController;
+import ru.ssau.srestapp.entity.*;
+import ru.ssau.srestapp.repository.*;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+//потоковая выдача NDJSON возвращает те же DTO, что и обычные списки, по одному объекту на строку
+@SpringBootTest
+@ActiveProfiles("test")
+class NdjsonStreamingIntegrationTest {
+
+    @Autowired
+    private EventController eventController;
+
+    @Autowired
+    private UserController userController;
+
+    @Autowired
+    private EventParticipantController eventParticipantController;
+
+    @Autowired
+    private JsonMapper jsonMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private EventCategoryRepository eventCategoryRepository;
+
+    @Autowired
+    private EventParticipantRepository eventParticipantRepository;
+
+    private Event event;
+
+    @BeforeEach
+    void setUp() {
+        Role role = roleRepository.findByRoleName("USER")
+                .orElseGet(() -> roleRepository.save(new Role(null, "USER", null)));
+        User organizer = userRepository.save(user(role, "Арина Шапорева", "deutsch.kedg@gmail.com"));
+        User participant = userRepository.save(user(role, "Дарья Шевлякова", "shevliakova.d@gmail.com"));
+
+        EventCategory category = new EventCategory();
+        category.setEventCategoryName("Концерт");
+        category = eventCategoryRepository.save(category);
+
+        for (int i = 0; i < 3; i++) {
+            Event e = new Event();
+            e.setOrganizer(organizer);
+            e.setEventFormat(EventFormat.ONLINE);
+            e.setEventStatus(EventStatus.PLANNED);
+            e.setEventCategory(category);
+            e.setEventName("Концерт №" + i);
+            e.setEventDate(LocalDateTime.now().plusDays(10 + i));
+            e.setStartTime(LocalDateTime.now().plusDays(10 + i).withHour(19));
+            e.setEndTime(LocalDateTime.now().plusDays(10 + i).withHour(22));
+            e.setMaxParticipants(100);
+            e.setVerified(true);
+            event = eventRepository.save(e);
+        }
+
+        EventParticipant registration = new EventParticipant();
+        registration.setIdUser(participant);
+        registration.setIdEvent(event);
+        registration.setParticipationStatus(ParticipationStatus.REGISTERED);
+        eventParticipantRepository.save(registration);
+    }
+
+    @AfterEach
+    void tearDown() {
+        eventParticipantRepository.deleteAllInBatch();
+        eventRepository.deleteAllInBatch();
+        eventCategoryRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+        roleRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void streamAllEvents_ShouldMatchListResponse() throws Exception {
+        List<JsonNode> streamed = read(eventController.streamAll());
+        assertEquals(3, streamed.size());
+        assertEquals(sorted(toTree(eventController.getAll()), "idEvent"), sorted(streamed, "idEvent"));
+    }
+
+    @Test
+    void streamAllUsers_ShouldMatchListResponse() throws Exception {
+        List<JsonNode> streamed = read(userController.streamAll());
+        assertEquals(sorted(toTree(userController.getAll()), "idUser"), sorted(streamed, "idUser"));
+    }
+
+    @Test
+    void streamParticipants_ShouldMatchListResponse() throws Exception {
+        Long eventId = event.getIdEvent();
+        List<JsonNode> streamed = read(eventParticipantController.streamParticipantsByEvent(eventId));
+        assertEquals(1, streamed.size());
+        assertEquals(toTree(eventParticipantController.getParticipantsByEvent(eventId)), streamed);
+    }
+
+    private List<JsonNode> read(ResponseEntity<StreamingResponseBody> response) throws Exception {
+        assertEquals(MediaType.APPLICATION_NDJSON, response.getHeaders().getContentType());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+        return Arrays.stream(out.toString(StandardCharsets.UTF_8).split("\n"))
+                .filter(line -> !line.isEmpty())
+                .map(jsonMapper::readTree)
+                .toList();
+    }
+
+    private List<JsonNode> toTree(List<?> items) {
+        return items.stream().map(item -> (JsonNode) jsonMapper.valueToTree(item)).toList();
+    }
+
+    private List<JsonNode> sorted(List<JsonNode> nodes, String idField) {
+        return nodes.stream().sorted(Comparator.comparingLong(node -> node.get(idField).asLong())).toList();
+    }
+
+    private User user(Role role, String fio, String email) {
+        User user = new User();
+        user.setUserStatus(UserStatus.ACTIVE);
+        user.setRole(role);
+        user.setFio(fio);
+        user.setEmail(email);
+        user.setPasswordHash("1234567");
+        user.setHasDisability(false);
+        return user;
+    }
+}
@@ -0,0 +1,72 @@
+package ru.ssau.srestapp.integration;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import ru.ssau.srestapp.dto.eventCategory.EventCategoryRequestDto;
+import ru.ssau.srestapp.repository.EventCategoryRepository;
+import ru.ssau.srestapp.service.EventCategoryService;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+//изменение справочника другим экземпляром приложения (в обход Hibernate) видно не позже, чем через reference-cache.ttl
+@SpringBootTest
+@ActiveProfiles("test")
+class ReferenceCacheTtlIntegrationTest {
+
+    @Autowired
+    private EventCategoryService eventCategoryService;
+
+    @Autowired
+    private EventCategoryRepository eventCategoryRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private StatementCounter statements;
+
+    @DynamicPropertySource
+    static void cacheProperties(DynamicPropertyRegistry registry) {
+        registry.add("reference-cache.ttl", () -> "PT0.5S");
+    }
+
+    @BeforeEach
+    void setUp() {
+        entityManagerFactory.getCache().evictAll();
+        statements = new StatementCounter(entityManagerFactory);
+    }
+
+    @AfterEach
+    void tearDown() {
+        eventCategoryRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void category_ChangedByAnotherInstance_ShouldBeReloadedAfterTtl() throws Exception {
+        EventCategoryRequestDto dto = new EventCategoryRequestDto();
+        dto.setEventCategoryName("Концерт");
+        dto.setColorCode("#FF5733");
+        Long id = eventCategoryService.create(dto).getIdEventCategory();
+        eventCategoryService.getById(id);
+
+        jdbcTemplate.update("UPDATE event_category SET event_category_name = 'Фестиваль' WHERE id_event_category = ?", id);
+
+        assertEquals(0, statements.count(() -> eventCategoryRepository.findById(id)));
+        assertEquals("Концерт", eventCategoryService.getById(id).getEventCategoryName());
+
+        Thread.sleep(600);
+
+        assertEquals(1, statements.count(() -> eventCategoryRepository.findById(id)));
+        assertEquals("Фестиваль", eventCategoryService.getById(id).getEventCategoryName());
+    }
+}
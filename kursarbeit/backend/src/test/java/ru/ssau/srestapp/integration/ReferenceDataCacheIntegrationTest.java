@@ -0,0 +1,150 @@
+package ru.ssau.srestapp.integration;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import ru.ssau.srestapp.dto.avatar.AvatarRequestDto;
+import ru.ssau.srestapp.dto.eventCategory.EventCategoryRequestDto;
+import ru.ssau.srestapp.dto.eventCategory.EventCategoryResponseDto;
+import ru.ssau.srestapp.dto.role.RoleRequestDto;
+import ru.ssau.srestapp.entity.PhysicalPlace;
+import ru.ssau.srestapp.entity.Role;
+import ru.ssau.srestapp.entity.User;
+import ru.ssau.srestapp.entity.UserStatus;
+import ru.ssau.srestapp.repository.*;
+import ru.ssau.srestapp.service.*;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+//справочники читаются из кэша второго уровня без SQL и сбрасываются изменениями через сервисы
+@SpringBootTest
+@ActiveProfiles("test")
+class ReferenceDataCacheIntegrationTest {
+
+    @Autowired
+    private EventCategoryService eventCategoryService;
+
+    @Autowired
+    private RoleService roleService;
+
+    @Autowired
+    private PlaceService placeService;
+
+    @Autowired
+    private AvatarService avatarService;
+
+    @Autowired
+    private CustomUserDetailsService customUserDetailsService;
+
+    @Autowired
+    private EventCategoryRepository eventCategoryRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private PlaceRepository placeRepository;
+
+    @Autowired
+    private AvatarRepository avatarRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private StatementCounter statements;
+
+    @BeforeEach
+    void setUp() {
+        entityManagerFactory.getCache().evictAll();
+        statements = new StatementCounter(entityManagerFactory);
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAllInBatch();
+        eventCategoryRepository.deleteAllInBatch();
+        placeRepository.deleteAll();
+        avatarRepository.deleteAllInBatch();
+        roleRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void categories_RepeatedReads_ShouldNotQueryDatabase() throws Exception {
+        Long id = eventCategoryService.create(category("Концерт")).getIdEventCategory();
+        eventCategoryService.getAll();
+        eventCategoryRepository.findById(id);
+
+        assertEquals(0, statements.count(() -> eventCategoryService.getAll()));
+        assertEquals(0, statements.count(() -> eventCategoryRepository.findById(id)));
+    }
+
+    @Test
+    void categories_AfterUpdateAndDelete_ShouldNotReturnStaleData() throws Exception {
+        Long id = eventCategoryService.create(category("Концерт")).getIdEventCategory();
+        Long otherId = eventCategoryService.create(category("Лекция")).getIdEventCategory();
+        eventCategoryService.getAll();
+
+        eventCategoryService.update(id, category("Фестиваль"));
+        eventCategoryService.delete(otherId);
+
+        List<EventCategoryResponseDto> all = eventCategoryService.getAll();
+        assertEquals(List.of("Фестиваль"), all.stream().map(EventCategoryResponseDto::getEventCategoryName).toList());
+        assertEquals("Фестиваль", eventCategoryService.getById(id).getEventCategoryName());
+    }
+
+    @Test
+    void rolesPlacesAndAvatars_RepeatedListing_ShouldNotQueryDatabase() throws Exception {
+        RoleRequestDto role = new RoleRequestDto();
+        role.setRoleName("MODERATOR");
+        roleService.create(role);
+        PhysicalPlace place = new PhysicalPlace();
+        place.setPlaceName("Корпус 14");
+        place.setAddress("ул. Гая, 14");
+        placeRepository.save(place);
+        AvatarRequestDto avatar = new AvatarRequestDto();
+        avatar.setAvatarUrl("/avatars/1.png");
+        avatarService.create(avatar);
+        roleService.getAll();
+        placeService.getAll();
+        avatarService.getAll();
+
+        assertEquals(0, statements.count(() -> roleService.getAll()));
+        assertEquals(0, statements.count(() -> placeService.getAll()));
+        assertEquals(0, statements.count(() -> avatarService.getAll()));
+    }
+
+    @Test
+    void loadUserById_RoleShouldComeFromCache() {
+        Role role = roleRepository.save(new Role(null, "USER", null));
+        User user = new User();
+        user.setUserStatus(UserStatus.ACTIVE);
+        user.setRole(role);
+        user.setFio("Дарья Шевлякова");
+        user.setEmail("shevliakova.d@gmail.com");
+        user.setPasswordHash("1234567");
+        user.setHasDisability(false);
+        Long userId = userRepository.save(user).getIdUser();
+        customUserDetailsService.loadUserById(userId);
+
+        //остаётся только запрос самого пользователя
+        assertEquals(1, statements.count(() -> customUserDetailsService.loadUserById(userId)));
+        assertTrue(statements.statistics().getSecondLevelCacheHitCount() > 0);
+    }
+
+    private EventCategoryRequestDto category(String name) {
+        EventCategoryRequestDto dto = new EventCategoryRequestDto();
+        dto.setEventCategoryName(name);
+        dto.setColorCode("#FF5733");
+        return dto;
+    }
+}
@@ -0,0 +1,166 @@
+package ru.ssau.srestapp.integration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import ru.ssau.srestapp.entity.*;
+import ru.ssau.srestapp.repository.*;
+import ru.ssau.srestapp.service.EmailService;
+import ru.ssau.srestapp.service.EventParticipantService;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+//стресс-тест выдачи мест: тысячи параллельных регистраций не должны превышать maxParticipants
+@SpringBootTest
+@ActiveProfiles("test")
+class SeatAllocationConcurrencyIntegrationTest {
+
+    private static final int USERS = 2000;
+    private static final int CAPACITY = 50;
+    private static final int THREADS = 32;
+
+    @Autowired
+    private EventParticipantService eventParticipantService;
+
+    @Autowired
+    private EventParticipantRepository eventParticipantRepository;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private EventCategoryRepository eventCategoryRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @MockitoBean
+    private EmailService emailService;
+
+    private Event event;
+    private List<User> users;
+
+    @BeforeEach
+    void setUp() {
+        Role userRole = roleRepository.findByRoleName("USER")
+                .orElseGet(() -> roleRepository.save(new Role(null, "USER", null)));
+
+        List<User> newUsers = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            User user = new User();
+            user.setUserStatus(UserStatus.ACTIVE);
+            user.setRole(userRole);
+            user.setFio("Участник " + i);
+            user.setEmail("participant" + i + "@example.com");
+            user.setPasswordHash("1234567");
+            user.setHasDisability(false);
+            newUsers.add(user);
+        }
+        users = userRepository.saveAll(newUsers);
+
+        EventCategory category = new EventCategory();
+        category.setEventCategoryName("Концерт");
+        category.setColorCode("#FF5733");
+        category = eventCategoryRepository.save(category);
+
+        event = new Event();
+        event.setOrganizer(users.get(0));
+        event.setEventFormat(EventFormat.ONLINE);
+        event.setEventStatus(EventStatus.PLANNED);
+        event.setEventCategory(category);
+        event.setEventName("Популярный концерт");
+        event.setEventDate(LocalDateTime.now().plusDays(10));
+        event.setStartTime(LocalDateTime.now().plusDays(10).withHour(19));
+        event.setEndTime(LocalDateTime.now().plusDays(10).withHour(22));
+        event.setMaxParticipants(CAPACITY);
+        event.setVerified(true);
+        event = eventRepository.save(event);
+    }
+
+    @AfterEach
+    void tearDown() {
+        eventParticipantRepository.deleteAllInBatch();
+        eventRepository.deleteAllInBatch();
+        eventCategoryRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+        roleRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void register_ConcurrentBurst_ShouldNeverOverbook() throws Exception {
+        List<Callable<ParticipationStatus>> registrations = new ArrayList<>();
+        for (User user : users) {
+            registrations.add(() -> eventParticipantService.register(user.getIdUser(), event.getIdEvent()).getParticipationStatus());
+        }
+
+        List<ParticipationStatus> statuses = runConcurrently(registrations);
+
+        assertEquals(CAPACITY, statuses.stream().filter(s -> s == ParticipationStatus.REGISTERED).count());
+        assertEquals(USERS - CAPACITY, statuses.stream().filter(s -> s == ParticipationStatus.WAITLISTED).count());
+        assertSeatsConsistent();
+    }
+
+    //отмены и повторные регистрации вперемешку: счётчик совпадает с числом строк REGISTERED и не превышает лимит
+    @Test
+    void cancelAndRegister_Concurrently_ShouldKeepCounterConsistent() throws Exception {
+        List<User> firstWave = users.subList(0, CAPACITY);
+        for (User user : firstWave) {
+            eventParticipantService.register(user.getIdUser(), event.getIdEvent());
+        }
+
+        List<Callable<ParticipationStatus>> tasks = new ArrayList<>();
+        for (User user : firstWave) {
+            tasks.add(() -> eventParticipantService.cancelParticipation(user.getIdUser(), event.getIdEvent(), false).getParticipationStatus());
+        }
+        for (User user : users.subList(CAPACITY, USERS)) {
+            tasks.add(() -> eventParticipantService.register(user.getIdUser(), event.getIdEvent()).getParticipationStatus());
+        }
+
+        runConcurrently(tasks);
+
+        assertSeatsConsistent();
+    }
+
+    private void assertSeatsConsistent() {
+        long registeredRows = eventParticipantRepository
+                .countByIdEvent_IdEventAndParticipationStatus(event.getIdEvent(), ParticipationStatus.REGISTERED);
+        int counter = eventRepository.findRegisteredCount(event.getIdEvent()).orElseThrow();
+        assertEquals(registeredRows, counter);
+        assertTrue(registeredRows <= CAPACITY, "Мест занято больше, чем maxParticipants: " + registeredRows);
+    }
+
+    private List<ParticipationStatus> runConcurrently(List<Callable<ParticipationStatus>> tasks) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<ParticipationStatus>> futures = new ArrayList<>();
+            for (Callable<ParticipationStatus> task : tasks) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return task.call();
+                }));
+            }
+            start.countDown();
+            List<ParticipationStatus> statuses = new ArrayList<>();
+            for (Future<ParticipationStatus> future : futures) {
+                statuses.add(future.get(60, TimeUnit.SECONDS));
+            }
+            return statuses;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
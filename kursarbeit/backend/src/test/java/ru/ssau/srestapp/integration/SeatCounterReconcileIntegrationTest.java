@@ -0,0 +1,143 @@
+package ru.ssau.srestapp.integration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import ru.ssau.srestapp.entity.*;
+import ru.ssau.srestapp.participation.SeatAllocator;
+import ru.ssau.srestapp.repository.*;
+import ru.ssau.srestapp.service.EmailService;
+import ru.ssau.srestapp.service.EventParticipantService;
+import ru.ssau.srestapp.service.UserService;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+//счётчик занятых мест остаётся равным числу строк REGISTERED при удалениях в обход EventParticipantService
+@SpringBootTest
+@ActiveProfiles("test")
+class SeatCounterReconcileIntegrationTest {
+
+    @Autowired
+    private EventParticipantService eventParticipantService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private SeatAllocator seatAllocator;
+
+    @Autowired
+    private EventParticipantRepository eventParticipantRepository;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private EventCategoryRepository eventCategoryRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @MockitoBean
+    private EmailService emailService;
+
+    private Role userRole;
+    private User organizer;
+    private EventCategory category;
+
+    @BeforeEach
+    void setUp() {
+        userRole = roleRepository.findByRoleName("USER")
+                .orElseGet(() -> roleRepository.save(new Role(null, "USER", null)));
+        organizer = saveUser("organizer@example.com");
+
+        category = new EventCategory();
+        category.setEventCategoryName("Концерт");
+        category.setColorCode("#FF5733");
+        category = eventCategoryRepository.save(category);
+    }
+
+    @AfterEach
+    void tearDown() {
+        eventParticipantRepository.deleteAllInBatch();
+        eventRepository.deleteAllInBatch();
+        eventCategoryRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+        roleRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void deleteUser_WithRegistrations_ShouldFreeTheirSeats() throws Exception {
+        Event first = saveEvent("Первое", 2);
+        Event second = saveEvent("Второе", 2);
+        User leaving = saveUser("leaving@example.com");
+        User staying = saveUser("staying@example.com");
+        eventParticipantService.register(leaving.getIdUser(), first.getIdEvent());
+        eventParticipantService.register(leaving.getIdUser(), second.getIdEvent());
+        eventParticipantService.register(staying.getIdUser(), first.getIdEvent());
+
+        userService.delete(leaving.getIdUser());
+
+        assertEquals(1, registeredCount(first));
+        assertEquals(0, registeredCount(second));
+        assertEquals(1, eventParticipantRepository.count());
+    }
+
+    @Test
+    void reconcile_DriftedCounter_ShouldMatchRegisteredRows() throws Exception {
+        Event drifted = saveEvent("Разошедшееся", 5);
+        Event consistent = saveEvent("Согласованное", 5);
+        User first = saveUser("first@example.com");
+        User second = saveUser("second@example.com");
+        eventParticipantService.register(first.getIdUser(), drifted.getIdEvent());
+        eventParticipantService.register(second.getIdUser(), drifted.getIdEvent());
+        eventParticipantService.register(first.getIdUser(), consistent.getIdEvent());
+        //строка участника пропала мимо сервиса, как при каскадном удалении в БД
+        eventParticipantRepository.deleteById(new EventParticipantId(second.getIdUser(), drifted.getIdEvent()));
+        assertEquals(2, registeredCount(drifted));
+
+        seatAllocator.reconcile();
+
+        assertEquals(1, registeredCount(drifted));
+        assertEquals(1, registeredCount(consistent));
+    }
+
+    private int registeredCount(Event event) {
+        return eventRepository.findRegisteredCount(event.getIdEvent()).orElseThrow();
+    }
+
+    private User saveUser(String email) {
+        User user = new User();
+        user.setUserStatus(UserStatus.ACTIVE);
+        user.setRole(userRole);
+        user.setFio("Участник " + email);
+        user.setEmail(email);
+        user.setPasswordHash("1234567");
+        user.setHasDisability(false);
+        return userRepository.save(user);
+    }
+
+    private Event saveEvent(String name, int capacity) {
+        Event event = new Event();
+        event.setOrganizer(organizer);
+        event.setEventFormat(EventFormat.ONLINE);
+        event.setEventStatus(EventStatus.PLANNED);
+        event.setEventCategory(category);
+        event.setEventName(name);
+        event.setEventDate(LocalDateTime.now().plusDays(10));
+        event.setStartTime(LocalDateTime.now().plusDays(10).withHour(19));
+        event.setEndTime(LocalDateTime.now().plusDays(10).withHour(22));
+        event.setMaxParticipants(capacity);
+        event.setVerified(true);
+        return eventRepository.save(event);
+    }
+}
@@ -0,0 +1,27 @@
+package ru.ssau.srestapp.integration;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+
+//число SQL-запросов, подготовленных Hibernate за время действия; статистика включается при создании
+class StatementCounter {
+
+    private final Statistics statistics;
+
+    StatementCounter(EntityManagerFactory entityManagerFactory) {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    long count(Runnable action) {
+        statistics.clear();
+        action.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    //статистика последнего count: попадания в кэш второго уровня и т.п.
+    Statistics statistics() {
+        return statistics;
+    }
+}
@@ -0,0 +1,157 @@
+package ru.ssau.srestapp.integration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import ru.ssau.srestapp.dto.email.EmailRecipient;
+import ru.ssau.srestapp.dto.event.ApproveChangesDto;
+import ru.ssau.srestapp.entity.*;
+import ru.ssau.srestapp.repository.*;
+import ru.ssau.srestapp.service.EmailService;
+import ru.ssau.srestapp.service.EventParticipantService;
+import ru.ssau.srestapp.service.EventService;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class WaitlistPromotionIntegrationTest {
+
+    private static final int CAPACITY = 2;
+    private static final int USERS = 6;
+
+    @Autowired
+    private EventParticipantService eventParticipantService;
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private EventParticipantRepository eventParticipantRepository;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private EventCategoryRepository eventCategoryRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @MockitoBean
+    private EmailService emailService;
+
+    private Event event;
+    private List<User> users;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Role userRole = roleRepository.findByRoleName("USER")
+                .orElseGet(() -> roleRepository.save(new Role(null, "USER", null)));
+        List<User> newUsers = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            User user = new User();
+            user.setUserStatus(UserStatus.ACTIVE);
+            user.setRole(userRole);
+            user.setFio("Участник " + i);
+            user.setEmail("waitlist" + i + "@example.com");
+            user.setPasswordHash("1234567");
+            user.setHasDisability(false);
+            newUsers.add(user);
+        }
+        users = userRepository.saveAll(newUsers);
+
+        EventCategory category = new EventCategory();
+        category.setEventCategoryName("Лекция");
+        category.setColorCode("#33AAFF");
+        category = eventCategoryRepository.save(category);
+
+        event = new Event();
+        event.setOrganizer(users.get(0));
+        event.setEventFormat(EventFormat.ONLINE);
+        event.setEventStatus(EventStatus.PLANNED);
+        event.setEventCategory(category);
+        event.setEventName("Лекция по истории");
+        event.setEventDate(LocalDateTime.now().plusDays(5));
+        event.setStartTime(LocalDateTime.now().plusDays(5).withHour(18));
+        event.setEndTime(LocalDateTime.now().plusDays(5).withHour(20));
+        event.setMaxParticipants(CAPACITY);
+        event.setVerified(true);
+        event = eventRepository.save(event);
+
+        for (User user : users) {
+            eventParticipantService.register(user.getIdUser(), event.getIdEvent());
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        eventParticipantRepository.deleteAllInBatch();
+        eventRepository.deleteAllInBatch();
+        eventCategoryRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+        roleRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void cancelParticipation_ShouldPromoteFirstInLine() throws Exception {
+        eventParticipantService.cancelParticipation(users.get(0).getIdUser(), event.getIdEvent(), true);
+
+        assertEquals(List.of(users.get(1).getIdUser(), users.get(2).getIdUser()), registeredUserIds());
+        assertEquals(CAPACITY, eventParticipantService.getRegisteredParticipantsCount(event.getIdEvent()));
+        assertEquals(List.of("waitlist2@example.com"), promotedRecipients());
+    }
+
+    @Test
+    void promoteFromWaitlist_WithoutFreeSeats_ShouldDoNothing() {
+        assertEquals(0, eventParticipantService.promoteFromWaitlist(event.getIdEvent(), true));
+        verify(emailService, never()).sendWaitlistPromotedBatch(any(), anyString(), anyString());
+    }
+
+    //расширение лимита через модерацию переводит сразу несколько человек одним UPDATE
+    @Test
+    void approveChanges_RaisingCapacity_ShouldPromoteInQueueOrder() throws Exception {
+        Event pending = eventRepository.findById(event.getIdEvent()).orElseThrow();
+        pending.setDraftChanges(DraftChanges.fromMap(Map.of("maxParticipants", 5)));
+        pending.setModerationStatus(ModerationStatus.PENDING);
+        eventRepository.save(pending);
+        ApproveChangesDto approve = new ApproveChangesDto();
+        approve.setApplyAll(true);
+
+        eventService.approveChanges(event.getIdEvent(), approve);
+
+        assertEquals(users.subList(0, 5).stream().map(User::getIdUser).toList(), registeredUserIds());
+        assertEquals(5, eventParticipantService.getRegisteredParticipantsCount(event.getIdEvent()));
+        assertEquals(List.of("waitlist2@example.com", "waitlist3@example.com", "waitlist4@example.com"), promotedRecipients());
+    }
+
+    private List<Long> registeredUserIds() {
+        return eventParticipantRepository.findByParticipationStatus(event.getIdEvent(), ParticipationStatus.REGISTERED)
+                .stream().map(ep -> ep.getIdUser().getIdUser()).sorted().toList();
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<String> promotedRecipients() {
+        ArgumentCaptor<List<EmailRecipient>> captor = ArgumentCaptor.forClass(List.class);
+        verify(emailService).sendWaitlistPromotedBatch(captor.capture(), eq(event.getEventName()), anyString());
+        return captor.getValue().stream().map(EmailRecipient::getEmail).toList();
+    }
+}
@@ -0,0 +1,18 @@
+package ru.ssau.srestapp.loadtest;
+
+import java.time.Duration;
+
+//concurrency потоков выходят на нагрузку равномерно за rampUp и работают до истечения duration от старта сценария
+public record LoadProfile(int concurrency, Duration rampUp, Duration duration) {
+
+    //-Dloadtest.<scenario>.concurrency и т.д., по умолчанию — общие -Dloadtest.concurrency, -Dloadtest.ramp-up, -Dloadtest.duration
+    public static LoadProfile fromSystemProperties(String scenario, int defaultConcurrency) {
+        int concurrency = Integer.getInteger("loadtest." + scenario + ".concurrency",
+                Integer.getInteger("loadtest.concurrency", defaultConcurrency));
+        Duration rampUp = Duration.parse(System.getProperty("loadtest." + scenario + ".ramp-up",
+                System.getProperty("loadtest.ramp-up", "PT5S")));
+        Duration duration = Duration.parse(System.getProperty("loadtest." + scenario + ".duration",
+                System.getProperty("loadtest.duration", "PT30S")));
+        return new LoadProfile(concurrency, rampUp, duration);
+    }
+}
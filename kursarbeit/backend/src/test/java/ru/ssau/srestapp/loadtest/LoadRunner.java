@@ -0,0 +1,111 @@
+package ru.ssau.srestapp.loadtest;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+//прогоняет сценарий: каждый поток шлёт запросы подряд, задержка меряется от отправки до получения всего ответа.
+//Ошибка — исключение клиента или статус 4xx/5xx
+public final class LoadRunner {
+
+    private static final String CLIENT_ERROR = "exception";
+
+    private LoadRunner() {
+    }
+
+    public static ScenarioResult run(HttpClient client, Scenario scenario) throws InterruptedException {
+        LoadProfile profile = scenario.profile();
+        int concurrency = profile.concurrency();
+        long startedAt = System.nanoTime();
+        long deadline = startedAt + profile.duration().toNanos();
+        long rampStepNanos = concurrency > 1 ? profile.rampUp().toNanos() / concurrency : 0;
+        AtomicLong iterations = new AtomicLong();
+
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        List<Future<WorkerResult>> futures = new ArrayList<>(concurrency);
+        for (int w = 0; w < concurrency; w++) {
+            long startDelay = rampStepNanos * w;
+            futures.add(workers.submit(() -> {
+                WorkerResult result = new WorkerResult();
+                TimeUnit.NANOSECONDS.sleep(startDelay);
+                while (System.nanoTime() < deadline) {
+                    HttpRequest request = scenario.requests().next(iterations.getAndIncrement());
+                    if (request == null) {
+                        break;
+                    }
+                    long start = System.nanoTime();
+                    String status;
+                    try {
+                        status = Integer.toString(client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode());
+                    } catch (Exception e) {
+                        status = CLIENT_ERROR;
+                    }
+                    result.record(System.nanoTime() - start, status);
+                }
+                return result;
+            }));
+        }
+        workers.shutdown();
+
+        WorkerResult total = new WorkerResult();
+        for (Future<WorkerResult> future : futures) {
+            try {
+                total.merge(future.get());
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Поток нагрузки завершился с ошибкой", e.getCause());
+            }
+        }
+        double elapsedSeconds = (System.nanoTime() - startedAt) / 1e9;
+        return total.toResult(scenario.name(), concurrency, elapsedSeconds);
+    }
+
+    private static final class WorkerResult {
+        private long[] latencies = new long[1024];
+        private int count;
+        private long errors;
+        private final Map<String, Long> statuses = new TreeMap<>();
+
+        void record(long nanos, String status) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = nanos;
+            statuses.merge(status, 1L, Long::sum);
+            if (status.equals(CLIENT_ERROR) || status.charAt(0) >= '4') {
+                errors++;
+            }
+        }
+
+        void merge(WorkerResult other) {
+            for (int i = 0; i < other.count; i++) {
+                if (count == latencies.length) {
+                    latencies = Arrays.copyOf(latencies, Math.max(count * 2, count + other.count));
+                }
+                latencies[count++] = other.latencies[i];
+            }
+            errors += other.errors;
+            other.statuses.forEach((status, n) -> statuses.merge(status, n, Long::sum));
+        }
+
+        ScenarioResult toResult(String scenario, int concurrency, double elapsedSeconds) {
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            return new ScenarioResult(scenario, concurrency, elapsedSeconds, count, errors,
+                    count == 0 ? 0 : (double) errors / count,
+                    count / elapsedSeconds,
+                    percentile(sorted, 0.50), percentile(sorted, 0.95), percentile(sorted, 0.99),
+                    count == 0 ? 0 : sorted[count - 1] / 1e6,
+                    statuses);
+        }
+
+        private static double percentile(long[] sorted, double p) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            return sorted[(int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1)] / 1e6;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package ru.ssau.srestapp.loadtest;
+
+import org.springframework.context.ApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import ru.ssau.srestapp.entity.*;
+import ru.ssau.srestapp.repository.EventCategoryRepository;
+import ru.ssau.srestapp.repository.EventRepository;
+import ru.ssau.srestapp.repository.RoleRepository;
+import ru.ssau.srestapp.repository.UserRepository;
+import ru.ssau.srestapp.security.JwtTokenService;
+import ru.ssau.srestapp.service.CustomUserDetailsService;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+//данные для сценариев записываются напрямую в репозитории до ApplicationReadyEvent, поэтому поисковый индекс,
+//лента рекомендаций и счётчики админки строятся уже по ним. Email получают суффикс запуска, так что базу можно не чистить
+public record LoadTestData(String password,
+                           List<String> userEmails,
+                           List<Long> userIds,
+                           List<String> userTokens,
+                           String adminToken,
+                           Long ticketDropEventId,
+                           List<Long> pendingEventIds) {
+
+    private static final String PASSWORD = "load-test-password";
+
+    public static LoadTestData seed(ApplicationContext context, int users, int events, int ticketDropCapacity, int pendingEvents) {
+        RoleRepository roleRepository = context.getBean(RoleRepository.class);
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        EventCategoryRepository categoryRepository = context.getBean(EventCategoryRepository.class);
+        EventRepository eventRepository = context.getBean(EventRepository.class);
+        JwtTokenService jwtTokenService = context.getBean(JwtTokenService.class);
+        CustomUserDetailsService userDetailsService = context.getBean(CustomUserDetailsService.class);
+        //один хэш на всех: BCrypt на каждого пользователя занял бы минуты
+        String passwordHash = context.getBean(PasswordEncoder.class).encode(PASSWORD);
+        String run = Long.toString(System.currentTimeMillis(), 36);
+
+        Role userRole = role(roleRepository, "USER");
+        Role organizerRole = role(roleRepository, "ORGANIZER");
+        Role adminRole = role(roleRepository, "ADMIN");
+
+        User admin = userRepository.save(user(adminRole, "admin-" + run + "@load.test", passwordHash));
+        User organizer = userRepository.save(user(organizerRole, "organizer-" + run + "@load.test", passwordHash));
+        List<User> seededUsers = new ArrayList<>(users);
+        for (int i = 0; i < users; i++) {
+            seededUsers.add(user(userRole, "user-" + i + "-" + run + "@load.test", passwordHash));
+        }
+        seededUsers = userRepository.saveAll(seededUsers);
+
+        List<EventCategory> categories = new ArrayList<>();
+        for (String name : List.of("Концерт", "Лекция", "Выставка", "Спорт", "Мастер-класс")) {
+            EventCategory category = new EventCategory();
+            category.setEventCategoryName(name + " " + run);
+            category.setEventCategoryDescription("Категория нагрузочного теста");
+            category.setColorCode("#336699");
+            categories.add(category);
+        }
+        categories = categoryRepository.saveAll(categories);
+
+        List<Event> seededEvents = new ArrayList<>(events + pendingEvents + 1);
+        for (int i = 0; i < events; i++) {
+            seededEvents.add(event(organizer, categories.get(i % categories.size()), "Мероприятие " + i, 1 + i % 60, 200, true));
+        }
+        Event ticketDrop = event(organizer, categories.get(0), "Концерт с ограниченным числом мест", 30, ticketDropCapacity, true);
+        seededEvents.add(ticketDrop);
+        List<Event> pending = new ArrayList<>(pendingEvents);
+        for (int i = 0; i < pendingEvents; i++) {
+            Event event = event(organizer, categories.get(i % categories.size()), "На модерации " + i, 10 + i % 30, 100, false);
+            event.setModerationStatus(ModerationStatus.PENDING);
+            pending.add(event);
+        }
+        seededEvents.addAll(pending);
+        eventRepository.saveAll(seededEvents);
+
+        List<String> emails = new ArrayList<>(users);
+        List<Long> ids = new ArrayList<>(users);
+        List<String> tokens = new ArrayList<>(users);
+        for (User user : seededUsers) {
+            emails.add(user.getEmail());
+            ids.add(user.getIdUser());
+            tokens.add(jwtTokenService.generateAccessToken(userDetailsService.loadUserById(user.getIdUser())));
+        }
+        String adminToken = jwtTokenService.generateAccessToken(userDetailsService.loadUserById(admin.getIdUser()));
+        return new LoadTestData(PASSWORD, emails, ids, tokens, adminToken, ticketDrop.getIdEvent(),
+                pending.stream().map(Event::getIdEvent).toList());
+    }
+
+    private static Role role(RoleRepository roleRepository, String name) {
+        return roleRepository.findByRoleName(name).orElseGet(() -> roleRepository.save(new Role(null, name, null)));
+    }
+
+    private static User user(Role role, String email, String passwordHash) {
+        User user = new User();
+        user.setUserStatus(UserStatus.ACTIVE);
+        user.setRole(role);
+        user.setFio("Участник нагрузочного теста");
+        user.setEmail(email);
+        user.setPasswordHash(passwordHash);
+        user.setHasDisability(false);
+        return user;
+    }
+
+    private static Event event(User organizer, EventCategory category, String name, int daysAhead, Integer maxParticipants,
+                               boolean verified) {
+        LocalDateTime date = LocalDateTime.now().plusDays(daysAhead).withHour(0).withMinute(0).withSecond(0).withNano(0);
+        Event event = new Event();
+        event.setOrganizer(organizer);
+        event.setEventFormat(EventFormat.OFFLINE);
+        event.setEventStatus(EventStatus.PLANNED);
+        event.setEventCategory(category);
+        event.setEventName(name);
+        event.setEventDescription("Описание для нагрузочного теста: " + name);
+        event.setEventDate(date);
+        event.setStartTime(date.withHour(19));
+        event.setEndTime(date.withHour(22));
+        event.setMaxParticipants(maxParticipants);
+        event.setPrice(BigDecimal.valueOf(daysAhead * 100L));
+        event.setVerified(verified);
+        return event;
+    }
+}
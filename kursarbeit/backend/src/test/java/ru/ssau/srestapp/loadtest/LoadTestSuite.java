@@ -0,0 +1,168 @@
+package ru.ssau.srestapp.loadtest;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.ApplicationListener;
+import ru.ssau.srestapp.SrestappApplication;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.File;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.*;
+
+//нагрузочный прогон: поднимает backend на случайном порту (по умолчанию профиль test со встроенной H2,
+//для PostgreSQL — -Dloadtest.profile= и -Dspring.datasource.*; jwt.secret и email.* берутся из application.properties
+//или передаются через -D), заполняет базу и гоняет сценарии.
+//Итог — JSON в target/load-test, по которому сравниваются сборки. Запуск: main из тестового classpath.
+//Параметры: -Dloadtest.scenarios=browse,login (по умолчанию все), -Dloadtest.parallel=true — все сценарии одновременно,
+//-Dloadtest.build — метка сборки в отчёте, нагрузка — см. LoadProfile.fromSystemProperties
+public class LoadTestSuite {
+
+    public record Report(String build, Instant startedAt, String javaVersion, String profile, boolean parallel,
+                         Map<String, String> settings, List<ScenarioResult> scenarios) {
+    }
+
+    public static void main(String[] args) throws Exception {
+        String profile = System.getProperty("loadtest.profile", "test");
+        int users = Integer.getInteger("loadtest.users", 1000);
+        int events = Integer.getInteger("loadtest.events", 500);
+        int ticketDropCapacity = Integer.getInteger("loadtest.ticket-drop.capacity", 100);
+        int pendingEvents = Integer.getInteger("loadtest.pending-events", 500);
+        boolean parallel = Boolean.getBoolean("loadtest.parallel");
+
+        LoadTestData[] data = new LoadTestData[1];
+        SpringApplicationBuilder application = new SpringApplicationBuilder(SrestappApplication.class)
+                .properties("server.port=0", "spring.jpa.show-sql=false")
+                .listeners((ApplicationListener<ApplicationStartedEvent>) event -> data[0] =
+                        LoadTestData.seed(event.getApplicationContext(), users, events, ticketDropCapacity, pendingEvents));
+        if (!profile.isBlank()) {
+            application.profiles(profile);
+        }
+        Instant startedAt = Instant.now();
+        try (ConfigurableApplicationContext context = application.run(args)) {
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            HttpClient client = HttpClient.newBuilder()
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .executor(Executors.newFixedThreadPool(16))
+                    .build();
+
+            List<Scenario> scenarios = selected(scenarios(baseUrl, data[0]));
+            List<ScenarioResult> results = parallel ? runParallel(client, scenarios) : runSequential(client, scenarios);
+            results.forEach(result -> System.out.println(result.summary()));
+
+            Map<String, String> settings = new TreeMap<>();
+            System.getProperties().stringPropertyNames().stream()
+                    .filter(name -> name.startsWith("loadtest.") || name.startsWith("spring."))
+                    .forEach(name -> settings.put(name, System.getProperty(name)));
+            settings.putIfAbsent("spring.threads.virtual.enabled",
+                    context.getEnvironment().getProperty("spring.threads.virtual.enabled", "false"));
+            Report report = new Report(System.getProperty("loadtest.build", "local"), startedAt,
+                    Runtime.version().toString(), profile, parallel, settings, results);
+            File file = new File(System.getProperty("loadtest.report",
+                    "target/load-test/report-" + report.build() + "-" + startedAt.toEpochMilli() + ".json"));
+            file.getParentFile().mkdirs();
+            JsonMapper.builder().findAndAddModules().build().writerWithDefaultPrettyPrinter().writeValue(file, report);
+            System.out.println("Отчёт: " + file.getAbsolutePath());
+        }
+    }
+
+    private static List<Scenario> scenarios(String baseUrl, LoadTestData data) {
+        List<Scenario> scenarios = new ArrayList<>();
+
+        //анонимный просмотр каталога
+        scenarios.add(new Scenario("browse", LoadProfile.fromSystemProperties("browse", 100),
+                i -> get(baseUrl + "/api/events/active").build()));
+
+        //рекомендации: половина запросов анонимные, половина от пользователей с токеном
+        scenarios.add(new Scenario("recommend", LoadProfile.fromSystemProperties("recommend", 50), i -> {
+            HttpRequest.Builder request = get(baseUrl + "/api/recommendations/events?limit=12");
+            if (i % 2 == 1) {
+                request.header("Authorization", "Bearer " + data.userTokens().get((int) (i / 2 % data.userTokens().size())));
+            }
+            return request.build();
+        }));
+
+        //волна входов: каждый вход — проверка BCrypt и выпуск пары токенов
+        scenarios.add(new Scenario("login", LoadProfile.fromSystemProperties("login", 50),
+                i -> post(baseUrl + "/auth/login", """
+                        {"email":"%s","password":"%s"}""".formatted(
+                        data.userEmails().get((int) (i % data.userEmails().size())), data.password()))
+                        .build()));
+
+        //старт продаж: все пользователи одновременно записываются на одно мероприятие, лишние уходят в лист ожидания
+        scenarios.add(new Scenario("ticket-drop", LoadProfile.fromSystemProperties("ticket-drop", 200), i -> {
+            if (i >= data.userIds().size()) {
+                return null;
+            }
+            int user = (int) i;
+            return post(baseUrl + "/api/event-participants/register", """
+                    {"userId":%d,"eventId":%d}""".formatted(data.userIds().get(user), data.ticketDropEventId()))
+                    .header("Authorization", "Bearer " + data.userTokens().get(user))
+                    .build();
+        }));
+
+        //модерация: администратор открывает очередь и одобряет следующее мероприятие
+        scenarios.add(new Scenario("moderation", LoadProfile.fromSystemProperties("moderation", 4), i -> {
+            if (i / 2 >= data.pendingEventIds().size()) {
+                return null;
+            }
+            HttpRequest.Builder request = i % 2 == 0
+                    ? get(baseUrl + "/api/events/admin/pending")
+                    : post(baseUrl + "/api/events/admin/" + data.pendingEventIds().get((int) (i / 2)) + "/approve",
+                    "{\"applyAll\":true}");
+            return request.header("Authorization", "Bearer " + data.adminToken()).build();
+        }));
+        return scenarios;
+    }
+
+    private static List<Scenario> selected(List<Scenario> scenarios) {
+        String selection = System.getProperty("loadtest.scenarios", "");
+        if (selection.isBlank()) {
+            return scenarios;
+        }
+        Set<String> names = Set.of(selection.split("\\s*,\\s*"));
+        return scenarios.stream().filter(scenario -> names.contains(scenario.name())).toList();
+    }
+
+    private static List<ScenarioResult> runSequential(HttpClient client, List<Scenario> scenarios) throws InterruptedException {
+        List<ScenarioResult> results = new ArrayList<>();
+        for (Scenario scenario : scenarios) {
+            results.add(LoadRunner.run(client, scenario));
+        }
+        return results;
+    }
+
+    private static List<ScenarioResult> runParallel(HttpClient client, List<Scenario> scenarios) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(scenarios.size());
+        try {
+            List<Future<ScenarioResult>> futures = new ArrayList<>();
+            for (Scenario scenario : scenarios) {
+                futures.add(executor.submit(() -> LoadRunner.run(client, scenario)));
+            }
+            List<ScenarioResult> results = new ArrayList<>();
+            for (Future<ScenarioResult> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static HttpRequest.Builder get(String url) {
+        return HttpRequest.newBuilder(URI.create(url)).header("Accept", "application/json").GET();
+    }
+
+    private static HttpRequest.Builder post(String url, String json) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .header("Accept", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json));
+    }
+}
@@ -0,0 +1,12 @@
+package ru.ssau.srestapp.loadtest;
+
+import java.net.http.HttpRequest;
+
+public record Scenario(String name, LoadProfile profile, RequestSource requests) {
+
+    //запрос для очередной итерации сценария (номера сквозные по всем потокам); null — сценарий исчерпан
+    @FunctionalInterface
+    public interface RequestSource {
+        HttpRequest next(long iteration);
+    }
+}
@@ -0,0 +1,23 @@
+package ru.ssau.srestapp.loadtest;
+
+import java.util.Map;
+
+//итог сценария в том виде, в каком он попадает в отчёт; задержки в миллисекундах
+public record ScenarioResult(String scenario,
+                             int concurrency,
+                             double elapsedSeconds,
+                             long requests,
+                             long errors,
+                             double errorRate,
+                             double throughput,
+                             double p50,
+                             double p95,
+                             double p99,
+                             double max,
+                             Map<String, Long> statuses) {
+
+    public String summary() {
+        return String.format("%-14s запросов %8d  ошибок %6d (%5.2f%%)  %8.1f rps  p50 %7.1f мс  p95 %7.1f мс  p99 %7.1f мс",
+                scenario, requests, errors, errorRate * 100, throughput, p50, p95, p99);
+    }
+}
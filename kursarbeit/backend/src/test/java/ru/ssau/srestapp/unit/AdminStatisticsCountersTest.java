@@ -0,0 +1,211 @@
+package ru.ssau.srestapp.unit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.ssau.srestapp.dto.admin.AdminStatisticsDto;
+import ru.ssau.srestapp.dto.user.UserRoleDto;
+import ru.ssau.srestapp.entity.EventFormat;
+import ru.ssau.srestapp.entity.EventParticipantId;
+import ru.ssau.srestapp.entity.EventStatus;
+import ru.ssau.srestapp.entity.ModerationStatus;
+import ru.ssau.srestapp.entity.RequestStatus;
+import ru.ssau.srestapp.event.*;
+import ru.ssau.srestapp.repository.EventParticipantRepository;
+import ru.ssau.srestapp.repository.EventRepository;
+import ru.ssau.srestapp.repository.OrganizerRequestRepository;
+import ru.ssau.srestapp.repository.UserRepository;
+import ru.ssau.srestapp.statistics.AdminStatisticsCounters;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AdminStatisticsCountersTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private EventRepository eventRepository;
+
+    @Mock
+    private OrganizerRequestRepository organizerRequestRepository;
+
+    @Mock
+    private EventParticipantRepository eventParticipantRepository;
+
+    @InjectMocks
+    private AdminStatisticsCounters counters;
+
+    @BeforeEach
+    void setUp() {
+        when(userRepository.count()).thenReturn(3L);
+        when(userRepository.findIdsByRoleName("ORGANIZER")).thenReturn(List.of(2L));
+        when(eventRepository.findAllSnapshots()).thenReturn(List.of(
+                snapshot(10L, false, ModerationStatus.PENDING, EventStatus.PLANNED),
+                snapshot(11L, true, ModerationStatus.PUBLISHED, EventStatus.ONGOING)
+        ));
+        when(organizerRequestRepository.findIdsByRequestStatus(RequestStatus.PENDING)).thenReturn(List.of(100L));
+        when(eventParticipantRepository.findIdsRegisteredSince(any())).thenReturn(List.of(
+                new EventParticipantId(1L, 10L),
+                new EventParticipantId(2L, 10L),
+                new EventParticipantId(3L, 10L),
+                new EventParticipantId(1L, 11L),
+                new EventParticipantId(2L, 11L)
+        ));
+        counters.rebuild();
+    }
+
+    @Test
+    void rebuild_ShouldSeedAllCounters() {
+        AdminStatisticsDto stats = counters.snapshot();
+        assertEquals(3, stats.getTotalUsers());
+        assertEquals(1, stats.getTotalOrganizers());
+        assertEquals(1, stats.getPendingEvents());
+        assertEquals(1, stats.getPendingOrganizerRequests());
+        assertEquals(5, stats.getRegistrationsToday());
+        assertEquals(1, stats.getPendingModeration());
+        assertEquals(1, stats.getActiveEvents());
+    }
+
+    @Test
+    void onEventChanged_ShouldMoveEventBetweenCounters() {
+        counters.onEventChanged(EventChangedEvent.changed(snapshot(10L, true, ModerationStatus.PUBLISHED, EventStatus.ONGOING)));
+        counters.onEventChanged(EventChangedEvent.deleted(11L));
+        counters.onEventChanged(EventChangedEvent.changed(snapshot(12L, false, ModerationStatus.PENDING, EventStatus.PLANNED)));
+
+        AdminStatisticsDto stats = counters.snapshot();
+        assertEquals(1, stats.getPendingEvents());
+        assertEquals(1, stats.getPendingModeration());
+        assertEquals(1, stats.getActiveEvents());
+    }
+
+    @Test
+    void onEventChanged_VerifiedNotSet_ShouldNotCountAsPending() {
+        counters.onEventChanged(EventChangedEvent.changed(snapshot(12L, null, ModerationStatus.PUBLISHED, EventStatus.PLANNED)));
+
+        assertEquals(1, counters.snapshot().getPendingEvents());
+    }
+
+    @Test
+    void onUserChanged_ShouldTrackRoleChangesAndDeletion() {
+        when(userRepository.findRoleById(1L)).thenReturn(Optional.of(new UserRoleDto(1L, "ORGANIZER")));
+        when(userRepository.findRoleById(2L)).thenReturn(Optional.empty());
+        when(userRepository.findRoleById(4L)).thenReturn(Optional.of(new UserRoleDto(4L, "USER")));
+
+        counters.onUserChanged(UserChangedEvent.changed(1L));
+        counters.onUserChanged(UserChangedEvent.changed(2L));
+        counters.onUserChanged(UserChangedEvent.changed(4L));
+
+        AdminStatisticsDto stats = counters.snapshot();
+        assertEquals(3, stats.getTotalUsers());
+        assertEquals(1, stats.getTotalOrganizers());
+    }
+
+    @Test
+    void onUserChanged_AllUsers_ShouldRebuildOnScheduleInsteadOfCommittingThread() {
+        counters.onUserChanged(UserChangedEvent.allUsers());
+        verify(userRepository, times(1)).count();
+
+        counters.rebuildIfDirty();
+        counters.rebuildIfDirty();
+
+        verify(userRepository, times(2)).count();
+        verify(eventRepository, times(2)).findAllSnapshots();
+    }
+
+    @Test
+    void onOrganizerRequestChanged_ShouldTrackPendingRequests() {
+        counters.onOrganizerRequestChanged(OrganizerRequestChangedEvent.changed(101L, RequestStatus.PENDING));
+        counters.onOrganizerRequestChanged(OrganizerRequestChangedEvent.changed(100L, RequestStatus.APPROVED));
+        counters.onOrganizerRequestChanged(OrganizerRequestChangedEvent.deleted(101L));
+
+        assertEquals(0, counters.snapshot().getPendingOrganizerRequests());
+    }
+
+    @Test
+    void onParticipantRegistered_ShouldIncrementCounterAndVersion() {
+        long version = counters.version();
+        counters.onParticipantRegistered(new ParticipantRegisteredEvent(11L, 3L));
+
+        assertEquals(6, counters.snapshot().getRegistrationsToday());
+        assertTrue(counters.version() > version);
+    }
+
+    @Test
+    void onParticipantRegistered_AlreadyLoadedByRebuild_ShouldNotCountTwice() {
+        counters.onParticipantRegistered(new ParticipantRegisteredEvent(10L, 1L));
+
+        assertEquals(5, counters.snapshot().getRegistrationsToday());
+    }
+
+    @Test
+    void rebuild_ChangeDuringLoad_ShouldReloadInsteadOfOverwritingIt() {
+        List<EventSnapshot> stale = List.of(
+                snapshot(10L, false, ModerationStatus.PENDING, EventStatus.PLANNED),
+                snapshot(11L, true, ModerationStatus.PUBLISHED, EventStatus.ONGOING));
+        List<EventSnapshot> fresh = List.of(
+                snapshot(10L, true, ModerationStatus.PUBLISHED, EventStatus.PLANNED),
+                snapshot(11L, true, ModerationStatus.PUBLISHED, EventStatus.ONGOING));
+        when(eventRepository.findAllSnapshots())
+                .thenAnswer(invocation -> {
+                    counters.onEventChanged(EventChangedEvent.changed(fresh.get(0)));
+                    return stale;
+                })
+                .thenReturn(fresh);
+
+        counters.rebuild();
+
+        AdminStatisticsDto stats = counters.snapshot();
+        assertEquals(0, stats.getPendingEvents());
+        assertEquals(0, stats.getPendingModeration());
+        verify(eventRepository, times(3)).findAllSnapshots();
+    }
+
+    @Test
+    void rebuild_ChangesOnEveryLoad_ShouldKeepThemAfterLastLockedAttempt() throws InterruptedException {
+        List<Thread> listeners = new ArrayList<>();
+        //каждая загрузка видит уже закоммиченные мероприятия, а пока она идёт, коммитится ещё одно
+        when(eventRepository.findAllSnapshots()).thenAnswer(invocation -> {
+            List<EventSnapshot> committed = new ArrayList<>();
+            committed.add(snapshot(10L, false, ModerationStatus.PENDING, EventStatus.PLANNED));
+            for (int i = 0; i < listeners.size(); i++) {
+                committed.add(snapshot(1000L + i, false, ModerationStatus.PENDING, EventStatus.PLANNED));
+            }
+            long id = 1000L + listeners.size();
+            Thread listener = new Thread(() -> counters.onEventChanged(
+                    EventChangedEvent.changed(snapshot(id, false, ModerationStatus.PENDING, EventStatus.PLANNED))));
+            listeners.add(listener);
+            listener.start();
+            listener.join(100);
+            return committed;
+        });
+
+        counters.rebuild();
+        for (Thread listener : listeners) {
+            listener.join();
+        }
+
+        assertEquals(1 + listeners.size(), counters.snapshot().getPendingEvents());
+    }
+
+    private static EventSnapshot snapshot(Long id, Boolean verified, ModerationStatus moderation, EventStatus status) {
+        LocalDateTime date = LocalDateTime.now().plusDays(1);
+        return new EventSnapshot(id, "Мероприятие " + id, null, 1L, EventFormat.ONLINE, status,
+                date, date, date.plusHours(2), 100, BigDecimal.ZERO, verified, moderation);
+    }
+}
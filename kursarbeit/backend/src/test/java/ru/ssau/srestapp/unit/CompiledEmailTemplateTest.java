@@ -0,0 +1,106 @@
+package ru.ssau.srestapp.unit;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.core.io.ClassPathResource;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+import ru.ssau.srestapp.dto.email.EmailTemplate;
+import ru.ssau.srestapp.mail.CompiledEmailTemplate;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompiledEmailTemplateTest {
+
+    private static final Map<String, Object> FIXED = Map.of(
+            "baseUrl", "http://localhost:3000",
+            "colorPrimary", "#7C3AED",
+            "colorSecondary", "#A78BFA",
+            "colorBackground", "#F5F3FF",
+            "colorText", "#1F2937"
+    );
+
+    private static SpringTemplateEngine engine;
+
+    @BeforeAll
+    static void setUpEngine() {
+        ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+        resolver.setPrefix("templates/");
+        resolver.setSuffix(".html");
+        resolver.setTemplateMode(TemplateMode.HTML);
+        resolver.setCharacterEncoding("UTF-8");
+        engine = new SpringTemplateEngine();
+        engine.setTemplateResolver(resolver);
+    }
+
+    @ParameterizedTest
+    @EnumSource(EmailTemplate.class)
+    void render_ShouldMatchThymeleafForSpecialCharacters(EmailTemplate template) throws IOException {
+        CompiledEmailTemplate compiled = compile(template);
+        Map<String, Object> variables = scalars(compiled, "Тест <b>&amp;</b> \"кавычки\" 'апостроф'");
+
+        assertEquals(thymeleaf(template, variables), compiled.render(variables));
+    }
+
+    @ParameterizedTest
+    @EnumSource(EmailTemplate.class)
+    void render_ShouldMatchThymeleafForListsOfAnySize(EmailTemplate template) throws IOException {
+        CompiledEmailTemplate compiled = compile(template);
+        if (compiled.listVariable() == null) {
+            return;
+        }
+        for (int size : new int[]{0, 1, 3}) {
+            Map<String, Object> variables = scalars(compiled, "значение");
+            List<String> items = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                items.add("поле <" + i + ">");
+            }
+            variables.put(compiled.listVariable(), items);
+
+            assertEquals(thymeleaf(template, variables), compiled.render(variables), "элементов: " + size);
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(EmailTemplate.class)
+    void render_ShouldMatchThymeleafForMissingTextVariables(EmailTemplate template) throws IOException {
+        CompiledEmailTemplate compiled = compile(template);
+        Map<String, Object> variables = new HashMap<>();
+
+        if (compiled.supports(variables)) {
+            assertEquals(thymeleaf(template, variables), compiled.render(variables));
+        }
+    }
+
+    private CompiledEmailTemplate compile(EmailTemplate template) throws IOException {
+        String source = new ClassPathResource("templates/email/" + template.getFileName())
+                .getContentAsString(StandardCharsets.UTF_8);
+        CompiledEmailTemplate compiled = CompiledEmailTemplate.compile(engine, name(template), source, FIXED);
+        assertNotNull(compiled, template.getFileName());
+        return compiled;
+    }
+
+    private Map<String, Object> scalars(CompiledEmailTemplate compiled, String value) {
+        Map<String, Object> variables = new HashMap<>();
+        compiled.variables().forEach(variable -> variables.put(variable, value + " " + variable));
+        return variables;
+    }
+
+    private String thymeleaf(EmailTemplate template, Map<String, Object> variables) {
+        Context context = new Context();
+        FIXED.forEach(context::setVariable);
+        variables.forEach(context::setVariable);
+        return engine.process(name(template), context);
+    }
+
+    private String name(EmailTemplate template) {
+        return "email/" + template.getFileName();
+    }
+}
@@ -0,0 +1,147 @@
+package ru.ssau.srestapp.unit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import ru.ssau.srestapp.cache.ConditionalGetInterceptor;
+import ru.ssau.srestapp.cache.ResourceFamily;
+import ru.ssau.srestapp.cache.ResourceVersions;
+import ru.ssau.srestapp.controller.EventCategoryController;
+import ru.ssau.srestapp.datasource.PrimaryRouting;
+import ru.ssau.srestapp.dto.eventCategory.EventCategoryResponseDto;
+import ru.ssau.srestapp.event.CatalogChangedEvent;
+import ru.ssau.srestapp.event.EventChangedEvent;
+import ru.ssau.srestapp.service.EventCategoryService;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(MockitoExtension.class)
+class ConditionalGetInterceptorTest {
+
+    @Mock
+    private EventCategoryService eventCategoryService;
+
+    private ResourceVersions resourceVersions;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        resourceVersions = new ResourceVersions();
+        mockMvc = MockMvcBuilders.standaloneSetup(new EventCategoryController(eventCategoryService))
+                .addMappedInterceptors(new String[]{"/api/categories/**"},
+                        new ConditionalGetInterceptor(resourceVersions, ResourceFamily.CATEGORIES))
+                .build();
+    }
+
+    @Test
+    void matchingETag_ShouldReturn304WithoutCallingService() throws Exception {
+        when(eventCategoryService.getAll()).thenReturn(List.of(new EventCategoryResponseDto(1L, "Концерт", null, "#FF5733")));
+        String etag = mockMvc.perform(get("/api/categories"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/categories").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag));
+
+        verify(eventCategoryService, times(1)).getAll();
+    }
+
+    @Test
+    void changedCatalog_ShouldReturnFreshResponse() throws Exception {
+        when(eventCategoryService.getAll()).thenReturn(List.of());
+        String etag = mockMvc.perform(get("/api/categories"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        resourceVersions.onCatalogChanged(new CatalogChangedEvent(ResourceFamily.CATEGORIES));
+
+        String fresh = mockMvc.perform(get("/api/categories").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(etag, fresh);
+        verify(eventCategoryService, times(2)).getAll();
+    }
+
+    @Test
+    void freshResponse_ShouldBeReadFromPrimary_AndReleaseHintAfterwards() throws Exception {
+        List<Boolean> forced = new ArrayList<>();
+        when(eventCategoryService.getAll()).thenAnswer(invocation -> {
+            forced.add(PrimaryRouting.isForced());
+            return List.of();
+        });
+
+        mockMvc.perform(get("/api/categories")).andExpect(status().isOk());
+
+        assertEquals(List.of(true), forced);
+        assertFalse(PrimaryRouting.isForced());
+    }
+
+    @Test
+    void jsonAndNdjsonOnSameUrl_ShouldNotShareETag() throws Exception {
+        MockMvc events = MockMvcBuilders.standaloneSetup(new TwoFormatsController())
+                .addMappedInterceptors(new String[]{"/api/events/**"},
+                        new ConditionalGetInterceptor(resourceVersions, ResourceFamily.EVENTS))
+                .build();
+        String json = events.perform(get("/api/events"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        String ndjson = events.perform(get("/api/events").accept(MediaType.APPLICATION_NDJSON)
+                        .header(HttpHeaders.IF_NONE_MATCH, json))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(json, ndjson);
+
+        events.perform(get("/api/events").accept(MediaType.APPLICATION_NDJSON).header(HttpHeaders.IF_NONE_MATCH, ndjson))
+                .andExpect(status().isNotModified());
+        events.perform(get("/api/events").header(HttpHeaders.IF_NONE_MATCH, ndjson))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void bump_ShouldChangeDependentFamiliesOnly() {
+        String events = resourceVersions.current(ResourceFamily.EVENTS).etag();
+        String avatars = resourceVersions.current(ResourceFamily.AVATARS).etag();
+
+        resourceVersions.onCatalogChanged(new CatalogChangedEvent(ResourceFamily.PLACES));
+        assertNotEquals(events, resourceVersions.current(ResourceFamily.EVENTS).etag());
+        assertEquals(avatars, resourceVersions.current(ResourceFamily.AVATARS).etag());
+
+        String categories = resourceVersions.current(ResourceFamily.CATEGORIES).etag();
+        resourceVersions.onEventChanged(EventChangedEvent.deleted(1L));
+        assertEquals(categories, resourceVersions.current(ResourceFamily.CATEGORIES).etag());
+    }
+
+    @RestController
+    static class TwoFormatsController {
+
+        @GetMapping("/api/events")
+        public List<String> getAll() {
+            return List.of("Концерт");
+        }
+
+        @GetMapping(value = "/api/events", produces = MediaType.APPLICATION_NDJSON_VALUE)
+        public String streamAll() {
+            return "\"Концерт\"\n";
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package ru.ssau.srestapp.unit;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import ru.ssau.srestapp.datasource.ConnectionLimitingDataSource;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConnectionLimitingDataSourceTest {
+
+    private static int databaseCounter;
+
+    @AfterEach
+    void tearDown() {
+        //флаг прерывания не должен перейти в следующий тест, даже если проверка упала
+        Thread.interrupted();
+    }
+
+    @Test
+    void getConnection_WhenTargetFails_ShouldReleasePermit() {
+        ConnectionLimitingDataSource limiting = new ConnectionLimitingDataSource(unreachable(), 1, 100);
+
+        assertThrows(SQLException.class, limiting::getConnection);
+        assertThrows(SQLException.class, limiting::getConnection);
+
+        assertEquals(1, limiting.availablePermits());
+    }
+
+    @Test
+    void close_CalledTwice_ShouldReleaseOnlyOnePermit() throws SQLException {
+        ConnectionLimitingDataSource limiting = new ConnectionLimitingDataSource(database(), 2, 100);
+
+        Connection connection = limiting.getConnection();
+        assertEquals(1, limiting.availablePermits());
+
+        connection.close();
+        connection.close();
+
+        assertTrue(connection.isClosed());
+        assertEquals(2, limiting.availablePermits());
+    }
+
+    @Test
+    void getConnection_AllPermitsTaken_ShouldTimeOutWithTransientException() throws SQLException {
+        ConnectionLimitingDataSource limiting = new ConnectionLimitingDataSource(database(), 1, 50);
+
+        try (Connection held = limiting.getConnection()) {
+            long started = System.nanoTime();
+            assertThrows(SQLTransientConnectionException.class, limiting::getConnection);
+
+            assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started) >= 50);
+            assertEquals(0, limiting.availablePermits());
+        }
+        assertEquals(1, limiting.availablePermits());
+    }
+
+    @Test
+    void getConnection_WaitingThread_ShouldProceedOnceConnectionIsClosed() throws Exception {
+        ConnectionLimitingDataSource limiting = new ConnectionLimitingDataSource(database(), 1, 5_000);
+        Connection held = limiting.getConnection();
+
+        CompletableFuture<Boolean> waiting = CompletableFuture.supplyAsync(() -> {
+            try (Connection connection = limiting.getConnection()) {
+                return connection.isValid(1);
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        while (limiting.queueLength() == 0) {
+            Thread.onSpinWait();
+        }
+        held.close();
+
+        assertTrue(waiting.get(5, TimeUnit.SECONDS));
+        assertEquals(1, limiting.availablePermits());
+    }
+
+    @Test
+    void getConnection_Interrupted_ShouldRestoreInterruptFlag() throws SQLException {
+        ConnectionLimitingDataSource limiting = new ConnectionLimitingDataSource(database(), 1, 5_000);
+
+        try (Connection held = limiting.getConnection()) {
+            Thread.currentThread().interrupt();
+            SQLTransientConnectionException e = assertThrows(SQLTransientConnectionException.class, limiting::getConnection);
+
+            assertTrue(Thread.interrupted());
+            assertInstanceOf(InterruptedException.class, e.getCause());
+        }
+        assertEquals(1, limiting.availablePermits());
+    }
+
+    private static JdbcDataSource database() {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:limiting" + (++databaseCounter) + ";DB_CLOSE_DELAY=-1");
+        return dataSource;
+    }
+
+    private static JdbcDataSource unreachable() {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:missing;IFEXISTS=TRUE");
+        return dataSource;
+    }
+}
@@ -0,0 +1,46 @@
+package ru.ssau.srestapp.unit;
+
+import org.junit.jupiter.api.Test;
+import ru.ssau.srestapp.entity.DraftChanges;
+import ru.ssau.srestapp.entity.EventFormat;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DraftChangesTest {
+
+    @Test
+    void fromJson_ShouldReadDraftStoredByPreviousVersion() {
+        String json = "{\"eventDate\":\"2026-11-01T19:00\",\"price\":255.5,\"eventFormat\":\"ONLINE\"," +
+                "\"maxParticipants\":40,\"eventCategoryId\":3}";
+
+        DraftChanges changes = DraftChanges.fromJson(json);
+
+        assertEquals(LocalDateTime.of(2026, 11, 1, 19, 0), changes.eventDate());
+        assertEquals(0, new BigDecimal("255.5").compareTo(changes.price()));
+        assertEquals(EventFormat.ONLINE, changes.eventFormat());
+        assertEquals(40, changes.maxParticipants());
+        assertEquals(3L, changes.eventCategoryId());
+        assertNull(changes.eventName());
+    }
+
+    @Test
+    void toJson_ShouldRoundTripOnlyChangedFields() {
+        DraftChanges changes = new DraftChanges("Лекция", null, null, LocalDateTime.of(2026, 11, 1, 18, 30), null,
+                null, null, new BigDecimal("100"), EventFormat.OFFLINE, null, 7L);
+
+        DraftChanges restored = DraftChanges.fromJson(changes.toJson());
+
+        assertEquals(changes, restored);
+        assertEquals(List.of("eventName", "startTime", "price", "eventFormat", "placeId"), restored.fields());
+    }
+
+    @Test
+    void isEmpty_WithoutChanges_ShouldBeTrue() {
+        assertTrue(new DraftChanges(null, null, null, null, null, null, null, null, null, null, null).isEmpty());
+        assertNull(DraftChanges.fromJson(" "));
+    }
+}
@@ -6,9 +6,12 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import ru.ssau.srestapp.cache.ResourceFamily;
 import ru.ssau.srestapp.dto.eventCategory.EventCategoryRequestDto;
 import ru.ssau.srestapp.dto.eventCategory.EventCategoryResponseDto;
 import ru.ssau.srestapp.entity.EventCategory;
+import ru.ssau.srestapp.event.CatalogChangedEvent;
 import ru.ssau.srestapp.exception.DuplicateEntityException;
 import ru.ssau.srestapp.exception.EntityNotFoundException;
 import ru.ssau.srestapp.repository.EventCategoryRepository;
@@ -27,6 +30,9 @@ class EventCategoryServiceTest {
     @Mock
     private EventCategoryRepository eventCategoryRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private EventCategoryService eventCategoryService;
 
@@ -141,6 +147,7 @@ class EventCategoryServiceTest {
         doNothing().when(eventCategoryRepository).deleteById(1L);
         assertDoesNotThrow(() -> eventCategoryService.delete(1L));
         verify(eventCategoryRepository, times(1)).deleteById(1L);
+        verify(eventPublisher).publishEvent(new CatalogChangedEvent(ResourceFamily.CATEGORIES));
     }
 
     @Test
@@ -148,5 +155,6 @@ class EventCategoryServiceTest {
         when(eventCategoryRepository.findById(999L)).thenReturn(Optional.empty());
         assertThrows(EntityNotFoundException.class, () -> eventCategoryService.delete(999L));
         verify(eventCategoryRepository, never()).deleteById(anyLong());
+        verifyNoInteractions(eventPublisher);
     }
 }
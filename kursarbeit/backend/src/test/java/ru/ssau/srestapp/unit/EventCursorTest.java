@@ -0,0 +1,59 @@
+package ru.ssau.srestapp.unit;
+
+import org.junit.jupiter.api.Test;
+import ru.ssau.srestapp.exception.InvalidCursorException;
+import ru.ssau.srestapp.util.EventCursor;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventCursorTest {
+
+    @Test
+    void decode_ShouldRestoreEncodedCursor() {
+        EventCursor cursor = new EventCursor(LocalDateTime.of(2026, 11, 1, 19, 30, 15, 123_000_000), 42L);
+
+        assertEquals(cursor, EventCursor.decode(cursor.encode()));
+    }
+
+    @Test
+    void encode_ShouldBeUrlSafe() {
+        String token = new EventCursor(LocalDateTime.of(2026, 11, 1, 19, 30), Long.MAX_VALUE).encode();
+
+        assertTrue(token.matches("[A-Za-z0-9_-]+"));
+    }
+
+    @Test
+    void decode_NullOrBlank_ShouldReturnNull() {
+        assertNull(EventCursor.decode(null));
+        assertNull(EventCursor.decode(""));
+        assertNull(EventCursor.decode("   "));
+    }
+
+    @Test
+    void decode_NotBase64_ShouldThrowInvalidCursor() {
+        assertThrows(InvalidCursorException.class, () -> EventCursor.decode("не курсор!"));
+    }
+
+    @Test
+    void decode_WithoutSeparator_ShouldThrowInvalidCursor() {
+        assertThrows(InvalidCursorException.class, () -> EventCursor.decode(token("2026-11-01T19:30")));
+    }
+
+    @Test
+    void decode_BadDate_ShouldThrowInvalidCursor() {
+        assertThrows(InvalidCursorException.class, () -> EventCursor.decode(token("вчера|42")));
+    }
+
+    @Test
+    void decode_BadId_ShouldThrowInvalidCursor() {
+        assertThrows(InvalidCursorException.class, () -> EventCursor.decode(token("2026-11-01T19:30|abc")));
+    }
+
+    private String token(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,82 @@
+package ru.ssau.srestapp.unit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.ssau.srestapp.entity.EventFormat;
+import ru.ssau.srestapp.entity.EventStatus;
+import ru.ssau.srestapp.entity.ModerationStatus;
+import ru.ssau.srestapp.event.EventChangedEvent;
+import ru.ssau.srestapp.event.EventSnapshot;
+import ru.ssau.srestapp.repository.EventRepository;
+import ru.ssau.srestapp.search.EventSearchIndex;
+import ru.ssau.srestapp.search.RussianStemmer;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class EventSearchIndexTest {
+
+    @Mock
+    private EventRepository eventRepository;
+
+    @InjectMocks
+    private EventSearchIndex eventSearchIndex;
+
+    @BeforeEach
+    void setUp() {
+        when(eventRepository.findAllSnapshots()).thenReturn(List.of(
+                snapshot(1L, "Рок-концерт в парке", "Живая музыка под открытым небом", true),
+                snapshot(2L, "Выставка картин", "Концерты не планируются", true),
+                snapshot(3L, "Концерт классической музыки", null, false)
+        ));
+        eventSearchIndex.rebuild();
+    }
+
+    @Test
+    void stem_ShouldReduceWordFormsToCommonStem() {
+        assertEquals(RussianStemmer.stem("концерт"), RussianStemmer.stem("концерты"));
+        assertEquals(RussianStemmer.stem("выставка"), RussianStemmer.stem("выставки"));
+        assertEquals(RussianStemmer.stem("музыкальный"), RussianStemmer.stem("музыкальные"));
+    }
+
+    //совпадение в названии весит больше, чем в описании; неподтверждённые мероприятия не ищутся
+    @Test
+    void search_ShouldRankNameMatchesFirstAndSkipUnverified() {
+        List<Long> result = eventSearchIndex.search("концерты", 10);
+        assertEquals(List.of(1L, 2L), result);
+    }
+
+    @Test
+    void search_ShouldMatchPrefix() {
+        assertEquals(List.of(2L), eventSearchIndex.search("карт", 10));
+    }
+
+    @Test
+    void search_ShouldRequireAllWords() {
+        assertEquals(List.of(1L), eventSearchIndex.search("концерт музыка", 10));
+    }
+
+    @Test
+    void onEventChanged_ShouldReindexAndRemoveDocuments() {
+        eventSearchIndex.onEventChanged(new EventChangedEvent(3L, snapshot(3L, "Концерт классической музыки", null, true)));
+        assertTrue(eventSearchIndex.search("классическая", 10).contains(3L));
+
+        eventSearchIndex.onEventChanged(EventChangedEvent.deleted(3L));
+        assertFalse(eventSearchIndex.search("классическая", 10).contains(3L));
+    }
+
+    private EventSnapshot snapshot(Long id, String name, String description, boolean verified) {
+        LocalDateTime date = LocalDateTime.now().plusDays(10);
+        return new EventSnapshot(id, name, description, 1L, EventFormat.OFFLINE, EventStatus.PLANNED,
+                date, date, date.plusHours(2), 100, BigDecimal.ZERO, verified, ModerationStatus.PUBLISHED);
+    }
+}
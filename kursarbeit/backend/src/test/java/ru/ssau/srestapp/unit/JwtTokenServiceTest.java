@@ -0,0 +1,126 @@
+package ru.ssau.srestapp.unit;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import ru.ssau.srestapp.security.CustomUserDetails;
+import ru.ssau.srestapp.repository.RevokedTokenRepository;
+import ru.ssau.srestapp.security.JwtTokenService;
+import ru.ssau.srestapp.security.TokenRevocationList;
+import ru.ssau.srestapp.security.VerifiedTokenCache;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class JwtTokenServiceTest {
+
+    private static final String SECRET = "dGVzdC1zZWNyZXQtZm9yLWp3dC10b2tlbi1zZXJ2aWNlLXRlc3RzLTEyMzQ1Njc4OTA=";
+
+    private VerifiedTokenCache cache;
+    private TokenRevocationList revocationList;
+    private JwtTokenService service;
+    private CustomUserDetails user;
+
+    @BeforeEach
+    void setUp() {
+        cache = new VerifiedTokenCache(100);
+        revocationList = new TokenRevocationList(mock(RevokedTokenRepository.class), 1000);
+        service = new JwtTokenService(SECRET, cache, revocationList);
+        user = new CustomUserDetails(42L, "user@test.ru", "hash", List.of(new SimpleGrantedAuthority("ROLE_USER")));
+    }
+
+    @Test
+    void getUserIdFromToken_ShouldReturnUserId() {
+        String token = service.generateAccessToken(user);
+
+        assertEquals(42L, service.getUserIdFromToken(token));
+    }
+
+    @Test
+    void validateToken_ShouldParseOnceAndServeRepeatsFromCache() {
+        String token = service.generateAccessToken(user);
+
+        Claims first = service.validateToken(token);
+        Claims second = service.validateToken(token);
+
+        assertSame(first, second);
+        assertEquals(1, cache.statistics().getHits());
+        assertEquals(1, cache.statistics().getSize());
+    }
+
+    @Test
+    void validateToken_ShouldRejectTamperedTokenEvenWhenOriginalIsCached() {
+        String token = service.generateAccessToken(user);
+        service.validateToken(token);
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+
+        assertThrows(JwtException.class, () -> service.validateToken(tampered));
+    }
+
+    @Test
+    void validateToken_ShouldRejectTokenSignedWithAnotherKey() {
+        JwtTokenService other = new JwtTokenService(
+                "b3RoZXItc2VjcmV0LWZvci1qd3QtdG9rZW4tc2VydmljZS10ZXN0cy0xMjM0NTY3ODkw", new VerifiedTokenCache(100), revocationList);
+        String foreign = other.generateAccessToken(user);
+
+        assertThrows(JwtException.class, () -> service.validateToken(foreign));
+    }
+
+    @Test
+    void get_ShouldIgnoreExpiredEntry() {
+        Claims claims = Jwts.claims();
+        claims.setExpiration(new Date(System.currentTimeMillis() - 1000));
+        cache.put("token", claims);
+
+        assertNull(cache.get("token"));
+        cache.purgeExpired();
+        assertEquals(0, cache.statistics().getSize());
+    }
+
+    @Test
+    void put_ShouldNotGrowBeyondMaxSize() {
+        VerifiedTokenCache small = new VerifiedTokenCache(2);
+        Claims claims = Jwts.claims();
+        claims.setExpiration(new Date(System.currentTimeMillis() + 60_000));
+
+        small.put("a", claims);
+        small.put("b", claims);
+        small.put("c", claims);
+
+        assertEquals(2, small.statistics().getSize());
+        assertNull(small.get("c"));
+    }
+
+    @Test
+    void generateAccessToken_ShouldAssignUniqueJti() {
+        String first = service.generateAccessToken(user);
+        String second = service.generateAccessToken(user);
+
+        assertNotNull(service.validateToken(first).getId());
+        assertNotEquals(service.validateToken(first).getId(), service.validateToken(second).getId());
+    }
+
+    @Test
+    void validateToken_ShouldRejectRevokedTokenEvenWhenCached() {
+        String token = service.generateAccessToken(user);
+        service.validateToken(token);
+
+        service.revokeToken(token);
+
+        assertThrows(JwtException.class, () -> service.validateToken(token));
+    }
+
+    @Test
+    void useRefreshToken_ShouldAcceptTokenOnlyOnce() {
+        String refreshToken = service.generateRefreshToken(user);
+
+        assertEquals(42L, service.useRefreshToken(refreshToken));
+        assertThrows(JwtException.class, () -> service.useRefreshToken(refreshToken));
+    }
+}
@@ -0,0 +1,85 @@
+package ru.ssau.srestapp.unit;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.support.ScheduledTaskObservationContext;
+import ru.ssau.srestapp.metrics.Histogram;
+import ru.ssau.srestapp.metrics.MetricsRegistry;
+import ru.ssau.srestapp.metrics.ScheduledTaskMetrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MetricsRegistryTest {
+
+    private final MetricsRegistry metrics = new MetricsRegistry();
+
+    @Test
+    void scrape_ShouldWriteCountersAndGaugesInPrometheusFormat() {
+        metrics.counter("participation_registrations_total", "Записи").add(3);
+        metrics.gauge("email_outbox_pending", "Очередь", () -> 7);
+
+        String scrape = metrics.scrape();
+
+        assertTrue(scrape.contains("# TYPE participation_registrations_total counter\nparticipation_registrations_total 3\n"));
+        assertTrue(scrape.contains("# TYPE email_outbox_pending gauge\nemail_outbox_pending 7\n"));
+    }
+
+    @Test
+    void histogram_ShouldWriteCumulativeBuckets() {
+        String labels = MetricsRegistry.labels("handler", "EventController.getAll");
+        Histogram histogram = metrics.histogram("http_server_request_duration_seconds", "Время", new double[]{0.1, 1}, labels);
+        histogram.observe(0.05);
+        histogram.observe(0.5);
+        histogram.observe(3);
+
+        String scrape = metrics.scrape();
+
+        assertTrue(scrape.contains("http_server_request_duration_seconds_bucket{handler=\"EventController.getAll\",le=\"0.1\"} 1\n"));
+        assertTrue(scrape.contains("http_server_request_duration_seconds_bucket{handler=\"EventController.getAll\",le=\"1\"} 2\n"));
+        assertTrue(scrape.contains("http_server_request_duration_seconds_bucket{handler=\"EventController.getAll\",le=\"+Inf\"} 3\n"));
+        assertTrue(scrape.contains("http_server_request_duration_seconds_sum{handler=\"EventController.getAll\"} 3.55\n"));
+        assertTrue(scrape.contains("http_server_request_duration_seconds_count{handler=\"EventController.getAll\"} 3\n"));
+    }
+
+    @Test
+    void counter_ShouldReturnSameSeriesForSameLabels() {
+        LongAdder first = metrics.counter("requests_total", "Запросы", MetricsRegistry.labels("status", "200"));
+        LongAdder second = metrics.counter("requests_total", "Запросы", MetricsRegistry.labels("status", "200"));
+
+        assertSame(first, second);
+        assertNotSame(first, metrics.counter("requests_total", "Запросы", MetricsRegistry.labels("status", "500")));
+    }
+
+    @Test
+    void counter_ShouldRejectNameRegisteredWithAnotherType() {
+        metrics.gauge("connections", "Соединения", () -> 1);
+
+        assertThrows(IllegalArgumentException.class, () -> metrics.counter("connections", "Соединения"));
+    }
+
+    @Test
+    void labels_ShouldEscapeValues() {
+        assertEquals("q=\"a\\\"b\\\\c\\nd\"", MetricsRegistry.labels("q", "a\"b\\c\nd"));
+    }
+
+    @Test
+    void scheduledTaskMetrics_ShouldRecordRunDurationAndFailures() throws NoSuchMethodException {
+        ObservationRegistry registry = ObservationRegistry.create();
+        registry.observationConfig().observationHandler(new ScheduledTaskMetrics(metrics));
+        ScheduledTaskObservationContext context = new ScheduledTaskObservationContext(
+                new MetricsRegistryTest(), MetricsRegistryTest.class.getDeclaredMethod("labels_ShouldEscapeValues"));
+
+        Observation observation = Observation.start("tasks.scheduled.execution", () -> context, registry);
+        observation.error(new IllegalStateException("сбой"));
+        observation.stop();
+
+        String scrape = metrics.scrape();
+        String task = "task=\"MetricsRegistryTest.labels_ShouldEscapeValues\"";
+        assertTrue(scrape.contains("scheduler_run_duration_seconds_count{" + task + "} 1\n"));
+        assertTrue(scrape.contains("scheduler_last_run_duration_seconds{" + task + "}"));
+        assertTrue(scrape.contains("scheduler_run_failures_total{" + task + "} 1\n"));
+    }
+}
@@ -0,0 +1,102 @@
+package ru.ssau.srestapp.unit;
+
+import org.junit.jupiter.api.Test;
+import ru.ssau.srestapp.dto.admin.CacheStatisticsDto;
+import ru.ssau.srestapp.event.UserChangedEvent;
+import ru.ssau.srestapp.security.CustomUserDetails;
+import ru.ssau.srestapp.security.PrincipalCache;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PrincipalCacheTest {
+
+    private final AtomicInteger loads = new AtomicInteger();
+    private final Function<Long, CustomUserDetails> loader = id -> {
+        loads.incrementAndGet();
+        return new CustomUserDetails(id, "user" + id + "@test.ru", "hash", List.of());
+    };
+
+    @Test
+    void get_ShouldLoadOnceAndCountHitsAndMisses() {
+        PrincipalCache cache = new PrincipalCache(Duration.ofMinutes(5), 100);
+
+        CustomUserDetails first = cache.get(1L, loader);
+        CustomUserDetails second = cache.get(1L, loader);
+
+        assertSame(first, second);
+        assertEquals(1, loads.get());
+        CacheStatisticsDto statistics = cache.statistics();
+        assertEquals(1, statistics.getHits());
+        assertEquals(1, statistics.getMisses());
+        assertEquals(1, statistics.getSize());
+    }
+
+    @Test
+    void onUserChanged_ShouldReloadChangedUserOnly() {
+        PrincipalCache cache = new PrincipalCache(Duration.ofMinutes(5), 100);
+        cache.get(1L, loader);
+        cache.get(2L, loader);
+
+        cache.onUserChanged(UserChangedEvent.changed(1L));
+        cache.get(1L, loader);
+        cache.get(2L, loader);
+
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void onUserChanged_ShouldClearEverythingForAllUsers() {
+        PrincipalCache cache = new PrincipalCache(Duration.ofMinutes(5), 100);
+        cache.get(1L, loader);
+        cache.get(2L, loader);
+
+        cache.onUserChanged(UserChangedEvent.allUsers());
+
+        assertEquals(0, cache.statistics().getSize());
+    }
+
+    @Test
+    void get_ShouldNotCacheValueLoadedBeforeInvalidation() {
+        PrincipalCache cache = new PrincipalCache(Duration.ofMinutes(5), 100);
+
+        cache.get(1L, id -> {
+            cache.onUserChanged(UserChangedEvent.changed(id));
+            return loader.apply(id);
+        });
+        cache.get(1L, loader);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void get_ShouldEvictOldestWhenFull() {
+        PrincipalCache cache = new PrincipalCache(Duration.ofMinutes(5), 2);
+        cache.get(1L, loader);
+        cache.get(2L, loader);
+        cache.get(3L, loader);
+
+        cache.get(2L, loader);
+        cache.get(3L, loader);
+        cache.get(1L, loader);
+
+        assertEquals(4, loads.get());
+        assertEquals(2, cache.statistics().getSize());
+        assertEquals(2, cache.statistics().getEvictions());
+    }
+
+    @Test
+    void get_ShouldReloadExpiredEntry() throws InterruptedException {
+        PrincipalCache cache = new PrincipalCache(Duration.ofMillis(1), 100);
+        cache.get(1L, loader);
+
+        Thread.sleep(5);
+        cache.get(1L, loader);
+
+        assertEquals(2, loads.get());
+    }
+}
@@ -0,0 +1,177 @@
+package ru.ssau.srestapp.unit;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.jdbc.DataSourceUnwrapper;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.ssau.srestapp.datasource.ConnectionLimitingDataSource;
+import ru.ssau.srestapp.datasource.PrimaryRouting;
+import ru.ssau.srestapp.datasource.ReadWriteRoutingDataSource;
+import ru.ssau.srestapp.datasource.RecentWriters;
+import ru.ssau.srestapp.datasource.ReplicaPool;
+import ru.ssau.srestapp.security.CustomUserDetails;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+//основная БД и реплики — отдельные встроенные H2, в каждой своя метка, по которой видно, кто ответил
+class ReadWriteRoutingDataSourceTest {
+
+    private static int databaseCounter;
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readOnlyTransaction_ShouldGoToReplica_AndWritesToPrimary() {
+        Routing routing = routing(Duration.ofSeconds(5), database("primary"), database("replica"));
+
+        assertEquals("replica", routing.read());
+        assertEquals("primary", routing.write());
+    }
+
+    @Test
+    void readOnlyTransactions_ShouldRoundRobinReplicas() {
+        Routing routing = routing(Duration.ofSeconds(5), database("primary"), database("replica-1"), database("replica-2"));
+
+        assertEquals("replica-1", routing.read());
+        assertEquals("replica-2", routing.read());
+        assertEquals("replica-1", routing.read());
+    }
+
+    @Test
+    void readOnlyTransaction_ShouldFallBackToPrimary_WhenReplicasAreDown() {
+        Routing routing = routing(Duration.ofSeconds(5), database("primary"), unreachable());
+
+        assertEquals("primary", routing.read());
+        assertEquals(0, routing.replicas().healthyCount());
+    }
+
+    @Test
+    void readOnlyTransaction_ShouldSkipDownReplica_AndRestoreItAfterHealthCheck() {
+        JdbcDataSource flaky = database("replica-1");
+        String workingUrl = flaky.getURL();
+        flaky.setURL("jdbc:h2:mem:missing;IFEXISTS=TRUE");
+        Routing routing = routing(Duration.ofSeconds(5), database("primary"), flaky, database("replica-2"));
+
+        assertEquals("replica-2", routing.read());
+        assertEquals(1, routing.replicas().healthyCount());
+
+        flaky.setURL(workingUrl);
+        routing.replicas().checkHealth();
+        assertEquals(2, routing.replicas().healthyCount());
+    }
+
+    @Test
+    void readOnlyTransaction_ShouldReadPrimary_WithinReadYourWritesWindow() throws InterruptedException {
+        Routing routing = routing(Duration.ofMillis(200), database("primary"), database("replica"));
+        authenticate(1L);
+
+        routing.write();
+        assertEquals("primary", routing.read());
+
+        Thread.sleep(250);
+        assertEquals("replica", routing.read());
+    }
+
+    @Test
+    void readOnlyTransaction_ShouldUseReplica_ForOtherUsersAfterWrite() {
+        Routing routing = routing(Duration.ofSeconds(5), database("primary"), database("replica"));
+        authenticate(1L);
+        routing.write();
+
+        authenticate(2L);
+        assertEquals("replica", routing.read());
+    }
+
+    @Test
+    void readOnlyTransaction_WithPrimaryHint_ShouldNotSeeLaggingReplica() {
+        JdbcDataSource primary = database("v1");
+        Routing routing = routing(Duration.ofSeconds(5), primary, database("v1"));
+        //реплика ещё не получила запись: как перезагрузка принципала после блокировки пользователя
+        new JdbcTemplate(primary).update("UPDATE marker SET name = 'v2'");
+
+        assertEquals("v1", routing.read());
+        assertEquals("v2", routing.readOnly().execute(status -> PrimaryRouting.call(
+                () -> routing.jdbcTemplate().queryForObject("SELECT name FROM marker", String.class))));
+        assertFalse(PrimaryRouting.isForced());
+        assertEquals("v1", routing.read());
+    }
+
+    @Test
+    void unwrap_ShouldReachPrimaryPoolThroughRouting() {
+        try (HikariDataSource hikari = new HikariDataSource()) {
+            hikari.setJdbcUrl("jdbc:h2:mem:unwrap");
+            DataSource routing = new LazyConnectionDataSourceProxy(new ReadWriteRoutingDataSource(
+                    ConnectionLimitingDataSource.of(hikari), new ReplicaPool(Map.of()), new RecentWriters(Duration.ofSeconds(5))));
+
+            assertSame(hikari, DataSourceUnwrapper.unwrap(routing, HikariDataSource.class));
+        }
+    }
+
+    private record Routing(ReplicaPool replicas, TransactionTemplate readOnly, TransactionTemplate readWrite,
+                           JdbcTemplate jdbcTemplate) {
+
+        String read() {
+            return readOnly.execute(status -> jdbcTemplate.queryForObject("SELECT name FROM marker", String.class));
+        }
+
+        String write() {
+            return readWrite.execute(status -> {
+                jdbcTemplate.update("UPDATE marker SET name = name");
+                return jdbcTemplate.queryForObject("SELECT name FROM marker", String.class);
+            });
+        }
+    }
+
+    private static Routing routing(Duration readYourWritesWindow, DataSource primary, DataSource... replicas) {
+        Map<String, DataSource> replicaMap = new LinkedHashMap<>();
+        for (int i = 0; i < replicas.length; i++) {
+            replicaMap.put("replica-" + (i + 1), replicas[i]);
+        }
+        ReplicaPool pool = new ReplicaPool(replicaMap);
+        DataSource routing = new LazyConnectionDataSourceProxy(
+                new ReadWriteRoutingDataSource(primary, pool, new RecentWriters(readYourWritesWindow)));
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(routing);
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        return new Routing(pool, readOnly, new TransactionTemplate(transactionManager), new JdbcTemplate(routing));
+    }
+
+    private static JdbcDataSource database(String marker) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:routing" + (++databaseCounter) + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE marker (name VARCHAR(32))");
+        jdbcTemplate.update("INSERT INTO marker (name) VALUES (?)", marker);
+        return dataSource;
+    }
+
+    private static JdbcDataSource unreachable() {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:missing;IFEXISTS=TRUE");
+        return dataSource;
+    }
+
+    private static void authenticate(Long userId) {
+        CustomUserDetails user = new CustomUserDetails(userId, "user" + userId + "@test.ru", "password", List.of());
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+    }
+}
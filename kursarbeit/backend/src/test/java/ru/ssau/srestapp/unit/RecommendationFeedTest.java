@@ -0,0 +1,116 @@
+package ru.ssau.srestapp.unit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.ssau.srestapp.dto.event.EventShortDto;
+import ru.ssau.srestapp.dto.eventParticipant.EventRegistrationCountDto;
+import ru.ssau.srestapp.entity.EventFormat;
+import ru.ssau.srestapp.entity.EventStatus;
+import ru.ssau.srestapp.entity.ModerationStatus;
+import ru.ssau.srestapp.entity.ParticipationStatus;
+import ru.ssau.srestapp.event.EventChangedEvent;
+import ru.ssau.srestapp.event.EventSnapshot;
+import ru.ssau.srestapp.recommendation.RecommendationFeed;
+import ru.ssau.srestapp.recommendation.ScoringCandidates;
+import ru.ssau.srestapp.repository.EventParticipantRepository;
+import ru.ssau.srestapp.repository.EventRepository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RecommendationFeedTest {
+
+    @Mock
+    private EventRepository eventRepository;
+
+    @Mock
+    private EventParticipantRepository eventParticipantRepository;
+
+    @InjectMocks
+    private RecommendationFeed recommendationFeed;
+
+    @BeforeEach
+    void setUp() {
+        when(eventRepository.findShortActiveAndVerified(any())).thenReturn(List.of(
+                event(1L, 10L, 3),
+                event(2L, 20L, 1),
+                event(3L, 10L, 2),
+                event(4L, 30L, 4)
+        ));
+        when(eventParticipantRepository.countGroupedByEvent(ParticipationStatus.REGISTERED))
+                .thenReturn(List.of(new EventRegistrationCountDto(4L, 50), new EventRegistrationCountDto(1L, 10)));
+        recommendationFeed.rebuild();
+    }
+
+    @Test
+    void popular_ShouldOrderByRegistrationsThenDate() {
+        List<EventShortDto> result = recommendationFeed.popular(4);
+        assertEquals(List.of(4L, 1L, 2L, 3L), result.stream().map(EventShortDto::getIdEvent).toList());
+    }
+
+    @Test
+    void onEventChanged_Deleted_ShouldRemoveCandidate() {
+        recommendationFeed.onEventChanged(EventChangedEvent.deleted(3L));
+        List<EventShortDto> result = recommendationFeed.popular(10);
+        assertEquals(List.of(4L, 1L, 2L), result.stream().map(EventShortDto::getIdEvent).toList());
+    }
+
+    @Test
+    void onEventChanged_Updated_ShouldShowFreshCardInPopular() {
+        EventShortDto renamed = event(4L, 30L, 4);
+        renamed.setEventName("Новое название");
+        when(eventRepository.findShortByIds(List.of(4L))).thenReturn(List.of(renamed));
+
+        recommendationFeed.onEventChanged(EventChangedEvent.changed(snapshot(renamed)));
+
+        EventShortDto first = recommendationFeed.popular(1).get(0);
+        assertEquals(4L, first.getIdEvent());
+        assertEquals("Новое название", first.getEventName());
+    }
+
+    @Test
+    void scoringCandidates_ShouldBeOrderedByDate() {
+        ScoringCandidates candidates = recommendationFeed.scoringCandidates();
+        assertEquals(4, candidates.size());
+        assertEquals(List.of(2L, 3L, 1L, 4L), IntStream.range(0, candidates.size())
+                .mapToObj(i -> candidates.event(i).getIdEvent()).toList());
+    }
+
+    @Test
+    void scoringCandidates_ShouldBeRebuiltAfterChange() {
+        ScoringCandidates before = recommendationFeed.scoringCandidates();
+        assertSame(before, recommendationFeed.scoringCandidates());
+
+        recommendationFeed.onEventChanged(EventChangedEvent.deleted(2L));
+
+        ScoringCandidates after = recommendationFeed.scoringCandidates();
+        assertNotSame(before, after);
+        assertEquals(3, after.size());
+    }
+
+    private EventSnapshot snapshot(EventShortDto event) {
+        return new EventSnapshot(event.getIdEvent(), event.getEventName(), null, event.getIdEventCategory(),
+                event.getEventFormat(), event.getEventStatus(), event.getEventDate(), event.getStartTime(),
+                event.getEndTime(), 100, event.getPrice(), true, ModerationStatus.PUBLISHED);
+    }
+
+    private EventShortDto event(Long id, Long categoryId, int daysAhead) {
+        LocalDateTime date = LocalDateTime.now().plusDays(daysAhead);
+        return new EventShortDto(id, "Мероприятие " + id, "Организатор", date, date, date.plusHours(2),
+                EventFormat.OFFLINE, EventStatus.PLANNED, "Категория", categoryId, null,
+                BigDecimal.ZERO, null, true, "PUBLISHED");
+    }
+}
@@ -0,0 +1,93 @@
+package ru.ssau.srestapp.unit;
+
+import org.junit.jupiter.api.Test;
+import ru.ssau.srestapp.recommendation.RecommendationScorer;
+import ru.ssau.srestapp.recommendation.ScoringCandidates;
+import ru.ssau.srestapp.recommendation.ScoringProfile;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+class RecommendationScorerTest {
+
+    private static final long TODAY = 20_000;
+    private static final ScoringProfile NO_PREFERENCES = new ScoringProfile(new long[0], false);
+
+    @Test
+    void topK_ShouldPreferInterestingCategory() {
+        ScoringCandidates candidates = new ScoringCandidates(2);
+        candidates.add(null, 1L, TODAY + 1, 0f, 0, 0, 0f, false);
+        candidates.add(null, 2L, TODAY + 1, 0f, 0, 0, 0f, false);
+
+        int[] top = RecommendationScorer.topK(candidates, new ScoringProfile(new long[]{2L}, false), TODAY, 2);
+
+        assertArrayEquals(new int[]{1, 0}, top);
+    }
+
+    @Test
+    void topK_ShouldPreferFasterRegistrations() {
+        ScoringCandidates candidates = new ScoringCandidates(2);
+        candidates.add(null, 1L, TODAY + 1, 0.5f, 0, 0, 0f, false);
+        candidates.add(null, 1L, TODAY + 1, 5f, 0, 0, 0f, false);
+
+        assertArrayEquals(new int[]{1, 0}, RecommendationScorer.topK(candidates, NO_PREFERENCES, TODAY, 2));
+    }
+
+    @Test
+    void topK_ShouldPenalizeFullEvents() {
+        ScoringCandidates candidates = new ScoringCandidates(2);
+        candidates.add(null, 1L, TODAY + 1, 0f, 10, 10, 0f, false);
+        candidates.add(null, 1L, TODAY + 1, 0f, 10, 2, 0f, false);
+
+        assertArrayEquals(new int[]{1, 0}, RecommendationScorer.topK(candidates, NO_PREFERENCES, TODAY, 2));
+    }
+
+    @Test
+    void topK_ShouldPreferCheaperEvents() {
+        ScoringCandidates candidates = new ScoringCandidates(2);
+        candidates.add(null, 1L, TODAY + 1, 0f, 0, 0, 3000f, false);
+        candidates.add(null, 1L, TODAY + 1, 0f, 0, 0, 0f, false);
+
+        assertArrayEquals(new int[]{1, 0}, RecommendationScorer.topK(candidates, NO_PREFERENCES, TODAY, 2));
+    }
+
+    @Test
+    void topK_ShouldPreferAccessiblePlacesOnlyForUsersWithDisability() {
+        ScoringCandidates candidates = new ScoringCandidates(2);
+        candidates.add(null, 1L, TODAY + 1, 0f, 0, 0, 0f, false);
+        candidates.add(null, 1L, TODAY + 2, 0f, 0, 0, 0f, true);
+
+        assertArrayEquals(new int[]{0, 1}, RecommendationScorer.topK(candidates, NO_PREFERENCES, TODAY, 2));
+        assertArrayEquals(new int[]{1, 0},
+                RecommendationScorer.topK(candidates, new ScoringProfile(new long[0], true), TODAY, 2));
+    }
+
+    @Test
+    void topK_ShouldSkipPastEvents() {
+        ScoringCandidates candidates = new ScoringCandidates(2);
+        candidates.add(null, 1L, TODAY - 1, 0f, 0, 0, 0f, false);
+        candidates.add(null, 1L, TODAY, 0f, 0, 0, 0f, false);
+
+        assertArrayEquals(new int[]{1}, RecommendationScorer.topK(candidates, NO_PREFERENCES, TODAY, 5));
+    }
+
+    //ограниченная куча должна давать начало полного ранжирования всех кандидатов
+    @Test
+    void topK_ShouldMatchPrefixOfFullRanking() {
+        Random random = new Random(42);
+        int size = 5_000;
+        ScoringCandidates candidates = new ScoringCandidates(size);
+        for (int i = 0; i < size; i++) {
+            candidates.add(null, random.nextInt(20), TODAY + random.nextInt(90), random.nextFloat() * 10,
+                    random.nextInt(3) * 50, random.nextInt(100), random.nextInt(5000), random.nextBoolean());
+        }
+        ScoringProfile profile = new ScoringProfile(new long[]{3L, 7L}, true);
+
+        int[] full = RecommendationScorer.topK(candidates, profile, TODAY, size);
+        int[] top = RecommendationScorer.topK(candidates, profile, TODAY, 25);
+
+        assertArrayEquals(Arrays.copyOf(full, 25), top);
+    }
+}
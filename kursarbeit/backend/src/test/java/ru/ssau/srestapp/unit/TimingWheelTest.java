@@ -0,0 +1,75 @@
+package ru.ssau.srestapp.unit;
+
+import org.junit.jupiter.api.Test;
+import ru.ssau.srestapp.scheduler.TimingWheel;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimingWheelTest {
+
+    private static final long START = 1_000_000;
+
+    @Test
+    void advance_ShouldFireOnlyDueTimers() {
+        TimingWheel<Long, String> wheel = new TimingWheel<>(1000, 8, START);
+        wheel.schedule(1L, "first", START + 1500);
+        wheel.schedule(2L, "second", START + 3500);
+
+        assertEquals(List.of(), wheel.advance(START + 1000));
+        assertEquals(List.of("first"), wheel.advance(START + 2000));
+        assertEquals(List.of("second"), wheel.advance(START + 4000));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void advance_ShouldKeepTimersForLaterRounds() {
+        TimingWheel<Long, String> wheel = new TimingWheel<>(1000, 4, START);
+        wheel.schedule(1L, "later", START + 10_000);
+
+        assertEquals(List.of(), wheel.advance(START + 9000));
+        assertEquals(1, wheel.size());
+        assertEquals(List.of("later"), wheel.advance(START + 10_000));
+    }
+
+    @Test
+    void advance_ShouldFireEverythingOverdueAfterLongPause() {
+        TimingWheel<Long, String> wheel = new TimingWheel<>(1000, 4, START);
+        for (long i = 1; i <= 10; i++) {
+            wheel.schedule(i, "timer" + i, START + i * 1000);
+        }
+
+        assertEquals(10, wheel.advance(START + 60_000).size());
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void schedule_ShouldFireOverdueDeadlineOnNextTick() {
+        TimingWheel<Long, String> wheel = new TimingWheel<>(1000, 8, START);
+        wheel.schedule(1L, "overdue", START - 5000);
+
+        assertEquals(List.of("overdue"), wheel.advance(START + 1000));
+    }
+
+    @Test
+    void schedule_ShouldReplacePreviousTimerOfSameKey() {
+        TimingWheel<Long, String> wheel = new TimingWheel<>(1000, 8, START);
+        wheel.schedule(1L, "start", START + 1000);
+        wheel.schedule(1L, "end", START + 5000);
+
+        assertEquals(List.of(), wheel.advance(START + 2000));
+        assertEquals(List.of("end"), wheel.advance(START + 5000));
+    }
+
+    @Test
+    void cancel_ShouldRemoveTimer() {
+        TimingWheel<Long, String> wheel = new TimingWheel<>(1000, 8, START);
+        wheel.schedule(1L, "cancelled", START + 1000);
+
+        wheel.cancel(1L);
+
+        assertEquals(List.of(), wheel.advance(START + 5000));
+        assertEquals(0, wheel.size());
+    }
+}
@@ -0,0 +1,126 @@
+package ru.ssau.srestapp.unit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import ru.ssau.srestapp.entity.RevokedToken;
+import ru.ssau.srestapp.repository.RevokedTokenRepository;
+import ru.ssau.srestapp.security.TokenRevocationList;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TokenRevocationListTest {
+
+    @Mock
+    private RevokedTokenRepository revokedTokenRepository;
+
+    private TokenRevocationList revocationList;
+
+    @BeforeEach
+    void setUp() {
+        revocationList = new TokenRevocationList(revokedTokenRepository, 1000);
+    }
+
+    @Test
+    void revoke_ShouldPersistAndMarkTokenRevoked() {
+        String jti = UUID.randomUUID().toString();
+
+        assertTrue(revocationList.revoke(jti, LocalDateTime.now().plusHours(1)));
+
+        assertTrue(revocationList.isRevoked(jti));
+        assertFalse(revocationList.isRevoked(UUID.randomUUID().toString()));
+        verify(revokedTokenRepository).insert(any(RevokedToken.class));
+    }
+
+    @Test
+    void revoke_ShouldReportRepeatedRevocation() {
+        String jti = UUID.randomUUID().toString();
+
+        assertTrue(revocationList.revoke(jti, LocalDateTime.now().plusHours(1)));
+        assertFalse(revocationList.revoke(jti, LocalDateTime.now().plusHours(1)));
+        verify(revokedTokenRepository, times(1)).insert(any(RevokedToken.class));
+    }
+
+    //два экземпляра приложения с общей таблицей: второй обмен того же refresh-токена отклоняется до sync
+    @Test
+    void revoke_OnSecondInstance_ShouldBeRejectedByStore() {
+        Set<String> stored = new HashSet<>();
+        doAnswer(invocation -> {
+            RevokedToken token = invocation.getArgument(0);
+            if (!stored.add(token.getJti())) {
+                throw new DataIntegrityViolationException("duplicate key " + token.getJti());
+            }
+            return null;
+        }).when(revokedTokenRepository).insert(any(RevokedToken.class));
+        TokenRevocationList otherInstance = new TokenRevocationList(revokedTokenRepository, 1000);
+        String jti = UUID.randomUUID().toString();
+
+        assertTrue(revocationList.revoke(jti, LocalDateTime.now().plusHours(1)));
+        assertFalse(otherInstance.isRevoked(jti));
+        assertFalse(otherInstance.revoke(jti, LocalDateTime.now().plusHours(1)));
+
+        assertTrue(otherInstance.isRevoked(jti));
+        verify(revokedTokenRepository, times(2)).insert(any(RevokedToken.class));
+    }
+
+    @Test
+    void rebuild_ShouldLoadActiveRevocationsFromStore() {
+        String stored = UUID.randomUUID().toString();
+        LocalDateTime now = LocalDateTime.now();
+        when(revokedTokenRepository.findByExpiresAtAfter(any()))
+                .thenReturn(List.of(new RevokedToken(stored, now.plusDays(1), now)));
+
+        revocationList.rebuild();
+
+        assertTrue(revocationList.isRevoked(stored));
+    }
+
+    //загрузка из БД не видит свежие отзывы, поэтому они должны пережить подмену снимка, в какой бы момент она ни случилась
+    @Test
+    void rebuild_ConcurrentWithRevoke_ShouldNotLoseRevocations() throws Exception {
+        when(revokedTokenRepository.findByExpiresAtAfter(any())).thenReturn(List.of());
+        List<String> revoked = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            revoked.add(UUID.randomUUID().toString());
+        }
+        AtomicBoolean done = new AtomicBoolean();
+        Thread revoker = new Thread(() -> {
+            revoked.forEach(jti -> revocationList.revoke(jti, LocalDateTime.now().plusHours(1)));
+            done.set(true);
+        });
+
+        revoker.start();
+        while (!done.get()) {
+            revocationList.rebuild();
+        }
+        revoker.join();
+
+        assertTrue(revoked.stream().allMatch(revocationList::isRevoked));
+    }
+
+    @Test
+    void isRevoked_ShouldNotConfuseManyRevokedTokensWithOthers() {
+        for (int i = 0; i < 5000; i++) {
+            revocationList.revoke(UUID.randomUUID().toString(), LocalDateTime.now().plusHours(1));
+        }
+
+        for (int i = 0; i < 5000; i++) {
+            assertFalse(revocationList.isRevoked(UUID.randomUUID().toString()));
+        }
+        assertFalse(revocationList.isRevoked(null));
+    }
+}
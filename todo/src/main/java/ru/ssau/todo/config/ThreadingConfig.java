@@ -0,0 +1,31 @@
+package ru.ssau.todo.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.thread.Threading;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+
+//spring.threads.virtual.enabled переводит Tomcat на виртуальные потоки только на Java 21+,
+//на более старой JVM флаг игнорируется без предупреждения, поэтому режим пишется в лог
+@Configuration
+public class ThreadingConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(ThreadingConfig.class);
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void logThreadingMode(ApplicationReadyEvent event) {
+        Environment environment = event.getApplicationContext().getEnvironment();
+        boolean requested = environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false);
+        if (Threading.VIRTUAL.isActive(environment)) {
+            log.info("Запросы выполняются на виртуальных потоках");
+        } else if (requested) {
+            log.warn("Виртуальные потоки запрошены, но требуют Java 21+ (текущая {}), используется пул платформенных потоков",
+                    Runtime.version().feature());
+        } else {
+            log.info("Запросы выполняются на пуле платформенных потоков");
+        }
+    }
+}
@@ -43,8 +43,7 @@ public class AuthController {
     @PostMapping("/refresh")
     public TokenResponse refresh(@RequestBody Map<String, String> request) throws TokenValidationException {
         String refreshToken = request.get("refreshToken");
-        Map<String, Object> payload = tokenService.parseAndValidate(refreshToken);
-        Long userId = ((Number) payload.get("userId")).longValue();
+        Long userId = tokenService.parseAndValidate(refreshToken).userId();
         CustomUserDetails customUserDetails = (CustomUserDetails) customUserDetailsService.loadUserByUsername(
                 userRepository.findById(userId).orElseThrow().getUsername());
         String newAccessToken = tokenService.generateToken(customUserDetails);
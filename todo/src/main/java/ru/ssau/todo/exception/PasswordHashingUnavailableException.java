@@ -0,0 +1,8 @@
+package ru.ssau.todo.exception;
+
+//пул хэширования паролей переполнен; непроверяемое, потому что бросается изнутри PasswordEncoder
+public class PasswordHashingUnavailableException extends RuntimeException {
+    public PasswordHashingUnavailableException() {
+        super("Сервис временно перегружен, повторите попытку позже");
+    }
+}
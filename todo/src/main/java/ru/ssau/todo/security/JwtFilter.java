@@ -13,7 +13,6 @@ import org.springframework.web.filter.OncePerRequestFilter;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 
 @Component
 public class JwtFilter extends OncePerRequestFilter {
@@ -37,8 +36,7 @@ public class JwtFilter extends OncePerRequestFilter {
             return;
         }
         try {
-            Map<String, Object> payload = tokenService.parseAndValidate(token);
-            setAuthentication(payload);
+            setAuthentication(tokenService.parseAndValidate(token));
             filterChain.doFilter(request, response);
         } catch (Exception e) {
             response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
@@ -53,15 +51,12 @@ public class JwtFilter extends OncePerRequestFilter {
         return header.substring(7);
     }
 
-    private void setAuthentication(Map<String, Object> payload) {
-        String username = (String) payload.get("username");
-        List<String> roles = (List<String>) payload.get("roles");
-        if (username == null || roles == null) {
+    private void setAuthentication(TokenClaims claims) {
+        if (claims.username() == null || claims.roles() == null) {
             throw new IllegalArgumentException("Недостаточно данных в токене");
         }
-        Long userId = ((Number) payload.get("userId")).longValue();
-        List<SimpleGrantedAuthority> authorities = buildAuthorities(roles);
-        CustomUserDetails customUserDetails = new CustomUserDetails(userId, username, "", authorities);
+        List<SimpleGrantedAuthority> authorities = buildAuthorities(claims.roles());
+        CustomUserDetails customUserDetails = new CustomUserDetails(claims.userId(), claims.username(), "", authorities);
         UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(customUserDetails, null, authorities);
         SecurityContextHolder.getContext().setAuthentication(authentication);
     }
@@ -0,0 +1,14 @@
+package ru.ssau.todo.security;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import java.util.List;
+
+//данные из проверенного токена; у refresh-токена username и roles отсутствуют
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record TokenClaims(Long userId, String username, List<String> roles, long exp) {
+
+    public TokenClaims {
+        roles = roles != null ? List.copyOf(roles) : null;
+    }
+}
@@ -4,9 +4,14 @@ import org.springframework.stereotype.Service;
 import ru.ssau.todo.dto.TokenResponse;
 import ru.ssau.todo.exception.TokenValidationException;
 import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.ObjectReader;
 
 import javax.crypto.Mac;
 import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
 import java.util.Base64;
 import java.util.HashMap;
 import java.util.Map;
@@ -15,14 +20,35 @@ import java.util.Map;
 public class TokenService {
     private static final long ACCESS_TOKEN_TTL = 15 * 60;
     private static final long REFRESH_TOKEN_TTL = 7 * 24 * 60 * 60;
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int SIGNATURE_LENGTH = 32;
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
 
     private final ObjectMapper mapper = new ObjectMapper();
-    private final String secret = System.getenv("JWT_SECRET");
+    private final ObjectReader claimsReader = mapper.readerFor(TokenClaims.class);
+    //Mac не потокобезопасен, поэтому у каждого потока свой экземпляр с уже заданным ключом
+    private final ThreadLocal<Mac> mac;
 
     public TokenService() {
+        this(System.getenv("JWT_SECRET"));
+    }
+
+    public TokenService(String secret) {
         if (secret == null || secret.isBlank()) {
             throw new IllegalStateException("JWT_SECRET  не задан");
         }
+        SecretKeySpec key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+        this.mac = ThreadLocal.withInitial(() -> {
+            try {
+                Mac instance = Mac.getInstance(ALGORITHM);
+                instance.init(key);
+                return instance;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("Не удалось инициализировать " + ALGORITHM, e);
+            }
+        });
     }
 
     public TokenResponse buildTokenResponse(CustomUserDetails customUserDetails) {
@@ -37,29 +63,34 @@ public class TokenService {
 
     public String generateToken(Map<String, Object> payload) {
         try {
-            String json = mapper.writeValueAsString(payload);
-            String encodedPayload = encode(json);
-            String encodedSignature = sign(encodedPayload);
+            String encodedPayload = ENCODER.encodeToString(mapper.writeValueAsBytes(payload));
+            byte[] payloadBytes = encodedPayload.getBytes(StandardCharsets.US_ASCII);
+            String encodedSignature = ENCODER.encodeToString(sign(payloadBytes, payloadBytes.length));
             return encodedPayload + "." + encodedSignature;
         } catch (Exception e) {
             throw new RuntimeException("Ошибка генерации токена", e);
         }
     }
 
-    public Map<String, Object> parseAndValidate(String token) throws TokenValidationException {
+    public TokenClaims parseAndValidate(String token) throws TokenValidationException {
         try {
-            String[] parts = token.split("\\.");
-            if (parts.length != 2) {
+            int dot = token.indexOf('.');
+            if (dot <= 0 || token.indexOf('.', dot + 1) >= 0) {
                 throw new TokenValidationException("Неверный формат токена");
             }
-            String payloadPart = parts[0];
-            String signaturePart = parts[1];
-            if (!sign(payloadPart).equals(signaturePart)) {
+            byte[] tokenBytes = token.getBytes(StandardCharsets.US_ASCII);
+            byte[] signature = DECODER.decode(ByteBuffer.wrap(tokenBytes, dot + 1, tokenBytes.length - dot - 1)).array();
+            //MessageDigest.isEqual сравнивает за время, не зависящее от места первого расхождения
+            if (signature.length != SIGNATURE_LENGTH || !MessageDigest.isEqual(sign(tokenBytes, dot), signature)) {
                 throw new TokenValidationException("Неверная подпись токена");
             }
-            Map<String, Object> payload = decode(payloadPart);
-            validateExpiration(payload);
-            return payload;
+            ByteBuffer payload = DECODER.decode(ByteBuffer.wrap(tokenBytes, 0, dot));
+            TokenClaims claims = claimsReader.readValue(payload.array(), 0, payload.limit());
+            if (claims.userId() == null) {
+                throw new TokenValidationException("Неверный формат токена");
+            }
+            validateExpiration(claims);
+            return claims;
         } catch (TokenValidationException e) {
             throw e;
         } catch (Exception e) {
@@ -90,33 +121,17 @@ public class TokenService {
         return payload;
     }
 
-    private String encode(String data) {
-        return Base64.getUrlEncoder()
-                .withoutPadding()
-                .encodeToString(data.getBytes());
-    }
-
-    private Map<String, Object> decode(String encoded) throws Exception {
-        byte[] decoded = Base64.getUrlDecoder().decode(encoded);
-        return mapper.readValue(decoded, Map.class);
-    }
-
-    private void validateExpiration(Map<String, Object> payload) throws TokenValidationException {
-        long exp = ((Number) payload.get("exp")).longValue();
+    private void validateExpiration(TokenClaims claims) throws TokenValidationException {
         long now = System.currentTimeMillis() / 1000;
-        if (exp < now) {
+        if (claims.exp() < now) {
             throw new TokenValidationException("Токен истёк");
         }
     }
 
-    private String sign(String data) throws Exception {
-        Mac mac = Mac.getInstance("HmacSHA256");
-        SecretKeySpec key = new SecretKeySpec(secret.getBytes(), "HmacSHA256");
-        mac.init(key);
-        byte[] signatureByte = mac.doFinal(data.getBytes());
-        String encodedSignature = Base64.getUrlEncoder()
-                .withoutPadding()
-                .encodeToString(signatureByte);
-        return encodedSignature;
+    //подпись первых length байт закодированного payload
+    private byte[] sign(byte[] data, int length) {
+        Mac instance = mac.get();
+        instance.update(data, 0, length);
+        return instance.doFinal();
     }
 }
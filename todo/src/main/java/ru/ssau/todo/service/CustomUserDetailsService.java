@@ -2,6 +2,7 @@ package ru.ssau.todo.service;
 
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -19,7 +20,7 @@ import ru.ssau.todo.security.CustomUserDetails;
 import java.util.List;
 
 @Service
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
     private final UserRepository userRepository;
     private final RoleRepository roleRepository;
     private final PasswordEncoder passwordEncoder;
@@ -38,6 +39,17 @@ public class CustomUserDetailsService implements UserDetailsService {
         return new CustomUserDetails(user.getId(), user.getUsername(), user.getPassword(), authorities);
     }
 
+    //вызывается после успешного входа, если хэш посчитан с другой стоимостью BCrypt
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails userDetails, String newPasswordHash) {
+        User user = userRepository.findByUsername(userDetails.getUsername())
+                .orElseThrow(() -> new UsernameNotFoundException("Пользователь " + userDetails.getUsername() + " не найден"));
+        user.setPassword(newPasswordHash);
+        userRepository.save(user);
+        return loadUserByUsername(user.getUsername());
+    }
+
     @Transactional
     public UserDto register(UserDto userDto) throws UsernameExistsException, RoleNotFoundException {
         if (userRepository.findByUsername(userDto.getUsername()).isPresent()) {
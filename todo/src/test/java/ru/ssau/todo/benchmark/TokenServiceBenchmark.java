@@ -0,0 +1,66 @@
+package ru.ssau.todo.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import ru.ssau.todo.exception.TokenValidationException;
+import ru.ssau.todo.security.CustomUserDetails;
+import ru.ssau.todo.security.TokenClaims;
+import ru.ssau.todo.security.TokenService;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+//токенов в секунду на проверку и выпуск; байты на операцию выводит GCProfiler (gc.alloc.rate.norm).
+//Запуск: main из тестового classpath
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TokenServiceBenchmark {
+
+    private TokenService tokenService;
+    private CustomUserDetails user;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        tokenService = new TokenService("benchmark-secret-for-todo-token-service");
+        user = new CustomUserDetails(42L, "benchmark-user", "",
+                List.of(new SimpleGrantedAuthority("ROLE_USER"), new SimpleGrantedAuthority("ROLE_ADMIN")));
+        token = tokenService.generateToken(user);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public TokenClaims validate() throws TokenValidationException {
+        return tokenService.parseAndValidate(token);
+    }
+
+    //потоки не делят Mac, поэтому пропускная способность должна расти с их числом
+    @Benchmark
+    @Threads(4)
+    public TokenClaims validateConcurrently() throws TokenValidationException {
+        return tokenService.parseAndValidate(token);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public String generate() {
+        return tokenService.generateToken(user);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(TokenServiceBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,112 @@
+package ru.ssau.todo.security;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import ru.ssau.todo.exception.PasswordHashingUnavailableException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedPasswordEncoderTest {
+
+    private BoundedPasswordEncoder encoder;
+
+    @AfterEach
+    void tearDown() {
+        encoder.close();
+    }
+
+    @Test
+    void encode_ShouldProduceHashVerifiableByPlainBCrypt() {
+        encoder = new BoundedPasswordEncoder(4, 2, 10, Duration.ofSeconds(30));
+
+        String hash = encoder.encode("secret");
+
+        assertTrue(hash.startsWith("$2a$04$"));
+        assertTrue(encoder.matches("secret", hash));
+        assertFalse(encoder.matches("wrong", hash));
+        assertTrue(new BCryptPasswordEncoder().matches("secret", hash));
+    }
+
+    //BCrypt учитывает только первые 72 байта, поэтому более длинный пароль отклоняется ещё при хэшировании
+    @Test
+    void encode_ShouldAcceptExactly72BytesAndRejectLonger() {
+        encoder = new BoundedPasswordEncoder(4, 1, 10, Duration.ofSeconds(30));
+        String longest = "a".repeat(72);
+
+        String hash = encoder.encode(longest);
+
+        assertTrue(encoder.matches(longest, hash));
+        assertFalse(encoder.matches("a".repeat(71) + "b", hash));
+        assertThrows(IllegalArgumentException.class, () -> encoder.encode("a".repeat(73)));
+        assertEquals(0L, encoder.rejectedCount());
+    }
+
+    //граница считается в байтах UTF-8: кириллический символ занимает два
+    @Test
+    void encode_MultibytePassword_ShouldBeBoundedByBytesNotCharacters() {
+        encoder = new BoundedPasswordEncoder(4, 1, 10, Duration.ofSeconds(30));
+        String longest = "пароль".repeat(6);
+        assertEquals(72, longest.getBytes(StandardCharsets.UTF_8).length);
+
+        String hash = encoder.encode(longest);
+
+        assertTrue(encoder.matches(longest, hash));
+        assertFalse(encoder.matches("пароль".repeat(5) + "парола", hash));
+        assertTrue(new BCryptPasswordEncoder().matches(longest, hash));
+        assertThrows(IllegalArgumentException.class, () -> encoder.encode(longest + "ь"));
+    }
+
+    @Test
+    void upgradeEncoding_ShouldRequestRehashWhenCostDiffers() {
+        encoder = new BoundedPasswordEncoder(5, 1, 10, Duration.ofSeconds(30));
+
+        assertTrue(encoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode("secret")));
+        assertTrue(encoder.upgradeEncoding(new BCryptPasswordEncoder(6).encode("secret")));
+        assertFalse(encoder.upgradeEncoding(new BCryptPasswordEncoder(5).encode("secret")));
+        assertFalse(encoder.upgradeEncoding(null));
+    }
+
+    @Test
+    void encode_ShouldFailFastWhenQueueIsFull() throws Exception {
+        encoder = new BoundedPasswordEncoder(12, 1, 1, Duration.ofSeconds(30));
+        ExecutorService callers = Executors.newFixedThreadPool(4);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            results.add(callers.submit(() -> {
+                start.await();
+                return encoder.encode("secret");
+            }));
+        }
+        start.countDown();
+
+        int rejected = 0;
+        for (Future<String> result : results) {
+            try {
+                result.get();
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause() instanceof PasswordHashingUnavailableException);
+                rejected++;
+            }
+        }
+        callers.shutdown();
+
+        assertEquals(2, rejected);
+        assertEquals(2L, encoder.rejectedCount());
+    }
+
+    @Test
+    void encode_ShouldGiveUpWhenResultIsNotReadyInTime() {
+        encoder = new BoundedPasswordEncoder(14, 1, 10, Duration.ofMillis(10));
+
+        assertThrows(PasswordHashingUnavailableException.class, () -> encoder.encode("secret"));
+        assertEquals(1L, encoder.rejectedCount());
+    }
+}
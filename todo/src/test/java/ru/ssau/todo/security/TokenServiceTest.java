@@ -0,0 +1,49 @@
+package ru.ssau.todo.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import ru.ssau.todo.exception.TokenValidationException;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenServiceTest {
+
+    private final TokenService tokenService = new TokenService("test-secret");
+
+    @Test
+    void parseAndValidate_ShouldReturnClaimsOfAccessToken() throws TokenValidationException {
+        CustomUserDetails user = new CustomUserDetails(7L, "alice", "", List.of(new SimpleGrantedAuthority("ROLE_USER")));
+
+        TokenClaims claims = tokenService.parseAndValidate(tokenService.generateToken(user));
+
+        assertEquals(7L, claims.userId());
+        assertEquals("alice", claims.username());
+        assertEquals(List.of("USER"), claims.roles());
+    }
+
+    @Test
+    void parseAndValidate_ShouldRejectForeignSignature() {
+        String foreign = new TokenService("other-secret").generateToken(Map.of("userId", 1, "exp", Long.MAX_VALUE / 2));
+
+        assertThrows(TokenValidationException.class, () -> tokenService.parseAndValidate(foreign));
+    }
+
+    @Test
+    void parseAndValidate_ShouldRejectMalformedTokens() {
+        String token = tokenService.generateToken(Map.of("userId", 1, "exp", Long.MAX_VALUE / 2));
+
+        assertThrows(TokenValidationException.class, () -> tokenService.parseAndValidate(token + ".x"));
+        assertThrows(TokenValidationException.class, () -> tokenService.parseAndValidate(token + "A"));
+        assertThrows(TokenValidationException.class, () -> tokenService.parseAndValidate("no-dot"));
+    }
+
+    @Test
+    void parseAndValidate_ShouldRejectExpiredToken() {
+        String expired = tokenService.generateToken(Map.of("userId", 1, "exp", 1L));
+
+        assertThrows(TokenValidationException.class, () -> tokenService.parseAndValidate(expired));
+    }
+}